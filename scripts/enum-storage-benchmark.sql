@@ -0,0 +1,88 @@
+-- Compares the notification table layout with VARCHAR enum names (V1-V8) against SMALLINT codes
+-- (V11): bulk insert time, heap size and index size for the same rows. Works on scratch tables,
+-- so it can run against any database, before or after the migration.
+--
+--   psql -h localhost -U user -d notification -f scripts/enum-storage-benchmark.sql
+
+DROP TABLE IF EXISTS enum_bench_varchar, enum_bench_smallint;
+
+CREATE TABLE enum_bench_varchar (
+    id SERIAL PRIMARY KEY,
+    category VARCHAR NOT NULL CHECK (category IN ('SPORTS', 'FINANCIAL', 'MOVIES')),
+    type VARCHAR NOT NULL CHECK (type IN ('EMAIL', 'SMS', 'PUSH')),
+    content TEXT NOT NULL,
+    status VARCHAR NOT NULL CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    user_id INTEGER,
+    dispatch_id INTEGER,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE (dispatch_id, user_id, type)
+);
+
+CREATE TABLE enum_bench_smallint (
+    id SERIAL PRIMARY KEY,
+    category SMALLINT NOT NULL CHECK (category BETWEEN 1 AND 3),
+    type SMALLINT NOT NULL CHECK (type BETWEEN 1 AND 3),
+    content TEXT NOT NULL,
+    status SMALLINT NOT NULL CHECK (status BETWEEN 1 AND 3),
+    user_id INTEGER,
+    dispatch_id INTEGER,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE (dispatch_id, user_id, type)
+);
+
+CREATE INDEX ON enum_bench_varchar(user_id);
+CREATE INDEX ON enum_bench_varchar(created_at DESC);
+CREATE INDEX ON enum_bench_varchar(category);
+CREATE INDEX ON enum_bench_varchar(user_id, created_at DESC);
+CREATE INDEX ON enum_bench_smallint(user_id);
+CREATE INDEX ON enum_bench_smallint(created_at DESC);
+CREATE INDEX ON enum_bench_smallint(category);
+CREATE INDEX ON enum_bench_smallint(user_id, created_at DESC);
+
+CREATE TEMP TABLE enum_bench_result (layout TEXT, rows BIGINT, insert_ms NUMERIC);
+
+DO $$
+DECLARE
+    row_count CONSTANT INTEGER := 1000000;
+    started TIMESTAMPTZ;
+BEGIN
+    started := clock_timestamp();
+    INSERT INTO enum_bench_varchar (category, type, content, status, user_id, dispatch_id, created_at, updated_at)
+    SELECT (ARRAY['SPORTS', 'FINANCIAL', 'MOVIES'])[1 + i % 3],
+           (ARRAY['EMAIL', 'SMS', 'PUSH'])[1 + i / 3 % 3],
+           'Big game tonight!',
+           (ARRAY['PENDING', 'SENT', 'FAILED'])[1 + i % 5 % 3],
+           i % 100000, i / 9, now(), now()
+    FROM generate_series(1, row_count) AS i;
+    INSERT INTO enum_bench_result VALUES ('varchar', row_count, EXTRACT(EPOCH FROM clock_timestamp() - started) * 1000);
+
+    started := clock_timestamp();
+    INSERT INTO enum_bench_smallint (category, type, content, status, user_id, dispatch_id, created_at, updated_at)
+    SELECT 1 + i % 3, 1 + i / 3 % 3, 'Big game tonight!', 1 + i % 5 % 3, i % 100000, i / 9, now(), now()
+    FROM generate_series(1, row_count) AS i;
+    INSERT INTO enum_bench_result VALUES ('smallint', row_count, EXTRACT(EPOCH FROM clock_timestamp() - started) * 1000);
+END
+$$;
+
+VACUUM ANALYZE enum_bench_varchar;
+VACUUM ANALYZE enum_bench_smallint;
+
+SELECT r.layout,
+       r.rows,
+       round(r.insert_ms) AS insert_ms,
+       round(r.rows / (r.insert_ms / 1000)) AS rows_per_second,
+       pg_size_pretty(pg_table_size(t.relid)) AS heap,
+       pg_size_pretty(pg_indexes_size(t.relid)) AS indexes,
+       pg_size_pretty(pg_relation_size(t.unique_index)) AS dispatch_user_type_index,
+       pg_size_pretty(pg_relation_size(t.category_index)) AS category_index
+FROM enum_bench_result r
+JOIN (VALUES
+    ('varchar', 'enum_bench_varchar'::regclass, 'enum_bench_varchar_dispatch_id_user_id_type_key'::regclass,
+        'enum_bench_varchar_category_idx'::regclass),
+    ('smallint', 'enum_bench_smallint'::regclass, 'enum_bench_smallint_dispatch_id_user_id_type_key'::regclass,
+        'enum_bench_smallint_category_idx'::regclass)
+) AS t(layout, relid, unique_index, category_index) ON t.layout = r.layout;
+
+DROP TABLE enum_bench_varchar, enum_bench_smallint;
@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+#
+# Time-to-first-request: starts the application RUNS times and measures the time from launching
+# the process until URL first answers 2xx. Needs a reachable database, as in normal operation.
+#
+#   scripts/startup-benchmark.sh [-n RUNS] [-u URL] -- <command that starts the app>
+#
+# Examples:
+#   scripts/startup-benchmark.sh -- java -jar target/notification-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh -- java -XX:SharedArchiveFile=application.jsa -jar notification-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh -- target/notification
+set -euo pipefail
+
+runs=5
+url="http://localhost:8080/actuator/health"
+timeout_seconds=120
+
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        -n) runs="$2"; shift 2 ;;
+        -u) url="$2"; shift 2 ;;
+        --) shift; break ;;
+        *) echo "Unknown option $1" >&2; exit 2 ;;
+    esac
+done
+
+if [[ $# -eq 0 ]]; then
+    echo "Usage: $0 [-n RUNS] [-u URL] -- <command>" >&2
+    exit 2
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+results=()
+for ((run = 1; run <= runs; run++)); do
+    log=$(mktemp)
+    start=$(now_ms)
+    "$@" > "$log" 2>&1 &
+    pid=$!
+
+    elapsed=""
+    while kill -0 "$pid" 2> /dev/null; do
+        if curl -fs -o /dev/null "$url"; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        if (( $(now_ms) - start > timeout_seconds * 1000 )); then
+            break
+        fi
+        sleep 0.01
+    done
+
+    kill "$pid" 2> /dev/null || true
+    wait "$pid" 2> /dev/null || true
+
+    if [[ -z "$elapsed" ]]; then
+        echo "run $run: no successful response from $url, last log lines:" >&2
+        tail -n 20 "$log" >&2
+        rm -f "$log"
+        exit 1
+    fi
+
+    started=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$log" | grep -o '[0-9.]* seconds' || true)
+    echo "run $run: first request after ${elapsed} ms${started:+ (context started in $started)}"
+    results+=("$elapsed")
+    rm -f "$log"
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "time-to-first-request over $runs runs: min ${sorted[0]} ms, median ${sorted[$(( runs / 2 ))]} ms, max ${sorted[$(( runs - 1 ))]} ms"
@@ -0,0 +1,114 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsRecorder;
+import me.ghisiluizgustavo.notification.feature.deliverystats.StatsProperties;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryProperties;
+import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryCache;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitAlgorithm;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationBatchWriter;
+import me.ghisiluizgustavo.user.domain.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * One fan-out batch of 500 users with two channels each, with no-op providers and persistence,
+ * so the numbers reflect the delivery loop alone. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliveryHotPathBenchmark {
+
+    private NotificationFanOut fanOut;
+    private DispatchSummary summary;
+    private List<User> users;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        users = IntStream.rangeClosed(1, 500)
+            .mapToObj(id -> new User(
+                id,
+                "User " + id,
+                "user" + id + "@example.com",
+                "+1-555-0100",
+                List.of(NotificationCategory.SPORTS),
+                List.of(NotificationType.EMAIL, NotificationType.PUSH),
+                LocalDateTime.now(),
+                LocalDateTime.now()
+            ))
+            .toList();
+
+        final NotificationStrategy email = new NoOpStrategy(NotificationType.EMAIL, blackhole);
+        final NotificationStrategy push = new NoOpStrategy(NotificationType.PUSH, blackhole);
+        final var writer = new NotificationBatchWriter(null) {
+            @Override
+            public void insert(Notification[] notifications, int count) {
+                blackhole.consume(notifications[count - 1]);
+            }
+        };
+        final var stats = new DeliveryStatsRecorder(null, new StatsProperties(Duration.ofDays(1)));
+
+        fanOut = new NotificationFanOut(
+            null,
+            writer,
+            new AudienceIndex(users),
+            List.of(email, push),
+            (category, task) -> task.run(),
+            new DispatchProperties(1, 500, Duration.ofSeconds(5), 10_000, 16, Map.of(), Map.of()),
+            new QuietHoursIndex(List.of()),
+            null,
+            new TemplateRenderer(new TemplateProperties(160, Map.of())),
+            stats,
+            new DeliveryLogSampler(new DeliveryLoggingProperties(0)),
+            new ChannelLimiters(
+                new ChannelLimitProperties(true, false, Duration.ofSeconds(30),
+                    new LimitSettings(LimitAlgorithm.Kind.VEGAS, 20, 2, 500, Duration.ofMillis(500), 2.0), Map.of()),
+                new SimpleMeterRegistry()
+            ),
+            new NotificationHistoryCache(null, new HistoryProperties(100, 1000, Duration.ofSeconds(1), Duration.ofSeconds(2)))
+        );
+        // Never completes, so the per-dispatch summary line stays out of the measurement.
+        summary = new DispatchSummary(
+            new DispatchMessage(1, NotificationCategory.SPORTS, "Big game tonight at 8 PM!"),
+            users.size(),
+            Integer.MAX_VALUE
+        );
+    }
+
+    @Benchmark
+    public void deliverBatch() {
+        fanOut.deliverBatch(summary, users);
+    }
+
+    private record NoOpStrategy(NotificationType type, Blackhole blackhole) implements NotificationStrategy {
+        @Override
+        public void send(User user, Notification notification) {
+            blackhole.consume(notification);
+        }
+
+        @Override
+        public boolean supports(NotificationType type) {
+            return this.type == type;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package me.ghisiluizgustavo.notification.infrastructure.archive;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.ArchiveProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.ArchivedRange;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationArchiveRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Pages of 100 from an archive file of 100,000 fan-out deliveries: 20 dispatches to about 5,000
+ * of 50,000 users each, over three channels, with jittered send times and the odd failure.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationArchiveBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private Path directory;
+    private NotificationArchiveRepository ranges;
+    private NotificationArchive archive;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-bench");
+        ranges = new RecordedRanges();
+        archive = open();
+        final Random random = new Random(42);
+        final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+        final int[] user = new int[1];
+        final List<NotificationRow> rows = IntStream.rangeClosed(1, ROWS)
+            .mapToObj(id -> {
+                final int dispatch = (id - 1) / 5_000 + 1;
+                user[0] = id % 5_000 == 1 ? random.nextInt(10) + 1 : user[0] + random.nextInt(19) + 1;
+                final LocalDateTime at = start.plusHours(dispatch).plusNanos((id % 5_000) * 180_000L
+                    + random.nextInt(1_000_000) * 1_000L);
+                return new NotificationRow(id, NotificationCategory.values()[dispatch % 3],
+                    NotificationType.values()[random.nextInt(3)],
+                    random.nextInt(50) == 0 ? NotificationStatus.FAILED : NotificationStatus.SENT,
+                    "Dispatch " + dispatch + ": kick-off moved to 21:00, tap for the new line-ups.",
+                    user[0], dispatch, at, at.plusNanos(random.nextInt(5_000_000) * 1_000L));
+            })
+            .toList();
+        archive.append(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        archive.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<NotificationRow> readPage() {
+        return archive.read(ROWS / 2, 100);
+    }
+
+    /**
+     * A page with nothing cached: opening the file, verifying its checksum and inflating the one
+     * block the page covers.
+     */
+    @Benchmark
+    public int readUncachedPage() {
+        archive.close();
+        archive = open();
+        return archive.read(ROWS / 2, 100).size();
+    }
+
+    private NotificationArchive open() {
+        return new NotificationArchive(new ArchiveProperties(true, directory, Duration.ofDays(90), ROWS, 1,
+            Duration.ofHours(1), Duration.ofHours(1), 4096, 32, Duration.ofMinutes(5)), ranges);
+    }
+
+    /**
+     * The {@code archived_range} table in memory, so the benchmark measures the files alone.
+     */
+    private static final class RecordedRanges extends NotificationArchiveRepository {
+
+        private final List<ArchivedRange> recorded = new ArrayList<>();
+
+        RecordedRanges() {
+            super(null);
+        }
+
+        @Override
+        public List<ArchivedRange> findRanges() {
+            return List.copyOf(recorded);
+        }
+
+        @Override
+        public boolean recordRange(ArchivedRange range) {
+            return recorded.add(range);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.ProviderProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100 concurrent provider calls against a {@link StubProviderServer} with 2ms of latency, once
+ * through the shared pooled client and once through a fresh client per call, which pays a new
+ * connection every time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderHttpClientBenchmark {
+
+    private static final int CALLS = 100;
+
+    private final Map<String, String> payload = Map.of("to", "user@example.com", "text", "Kick-off");
+
+    private StubProviderServer server;
+    private ProviderProperties properties;
+    private ProviderHttpClient pooled;
+
+    @Setup
+    public void setUp() {
+        server = StubProviderServer.start().latency(Duration.ofMillis(2)).discardBodies();
+        properties = new ProviderProperties(
+            HttpClient.Version.HTTP_1_1,
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(10),
+            DataSize.ofKilobytes(8),
+            Map.of(NotificationType.SMS, new ProviderProperties.Endpoint(server.uri("/sms"), "secret"))
+        );
+        pooled = new ProviderHttpClient(properties, JsonMapper.builder().build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public int pooledClient() {
+        final CompletableFuture<?>[] calls = new CompletableFuture<?>[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            calls[i] = pooled.sendAsync(NotificationType.SMS, payload);
+        }
+        CompletableFuture.allOf(calls).join();
+        return calls.length;
+    }
+
+    @Benchmark
+    public int clientPerCall() {
+        final ProviderHttpClient[] clients = new ProviderHttpClient[CALLS];
+        final CompletableFuture<?>[] calls = new CompletableFuture<?>[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            clients[i] = new ProviderHttpClient(properties, JsonMapper.builder().build());
+            calls[i] = clients[i].sendAsync(NotificationType.SMS, payload);
+        }
+        CompletableFuture.allOf(calls).join();
+        for (ProviderHttpClient client : clients) {
+            client.shutdown();
+        }
+        return calls.length;
+    }
+}
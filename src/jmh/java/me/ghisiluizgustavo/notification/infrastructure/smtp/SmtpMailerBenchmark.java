@@ -0,0 +1,71 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+import me.ghisiluizgustavo.notification.infrastructure.config.SmtpProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 100 emails with the same content to a {@link StubSmtpServer} that adds 1ms to every round
+ * trip: a new connection per message, one pooled connection per message, and the pooled,
+ * pipelined, multi-recipient path the email channel takes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmtpMailerBenchmark {
+
+    private StubSmtpServer relay;
+    private SmtpProperties properties;
+    private SmtpMailer pooled;
+    private List<MailMessage> messages;
+
+    @Setup
+    public void setUp() {
+        relay = StubSmtpServer.start().latency(Duration.ofMillis(1)).discardMessages();
+        properties = new SmtpProperties("localhost", relay.port(), SmtpProperties.Security.NONE, null, null,
+            "notifications@example.com", "bench", 4, 50,
+            Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(60));
+        pooled = new SmtpMailer(properties);
+        messages = IntStream.range(0, 100)
+            .mapToObj(i -> new MailMessage("user" + i + "@example.com", "User " + i, "SPORTS", "<p>Kick-off</p>"))
+            .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.shutdown();
+        relay.close();
+    }
+
+    @Benchmark
+    public int connectionPerMessage() {
+        for (MailMessage message : messages) {
+            final var mailer = new SmtpMailer(properties);
+            mailer.send(message);
+            mailer.shutdown();
+        }
+        return messages.size();
+    }
+
+    @Benchmark
+    public int pooledPerMessage() {
+        for (MailMessage message : messages) {
+            pooled.send(message);
+        }
+        return messages.size();
+    }
+
+    @Benchmark
+    public int pooledSharedTransactions() {
+        final int[] failed = new int[1];
+        pooled.sendAll(messages, (e, index) -> failed[0]++);
+        return messages.size() - failed[0];
+    }
+}
@@ -12,13 +12,45 @@ public class Notification {
     private String content;
     private NotificationStatus status;
     private Integer userId;
+    private Integer dispatchId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
     private Notification(
+        NotificationCategory category,
+        NotificationType type,
+        String content,
+        LocalDateTime now
+    ) {
+        reset(category, type, content, now);
+    }
+    
+    public static Notification create(
         NotificationCategory category,
         NotificationType type,
         String content
+    ) {
+        return new Notification(category, type, content, LocalDateTime.now());
+    }
+
+    public static Notification create(
+        NotificationCategory category,
+        NotificationType type,
+        String content,
+        LocalDateTime now
+    ) {
+        return new Notification(category, type, content, now);
+    }
+
+    /**
+     * Reinitializes this instance as a new pending notification so delivery loops can reuse it
+     * instead of allocating one per recipient.
+     */
+    public void reset(
+        NotificationCategory category,
+        NotificationType type,
+        String content,
+        LocalDateTime now
     ) {
         if (category == null) {
             throw new IllegalArgumentException("Category cannot be null");
@@ -29,25 +61,24 @@ public class Notification {
         if (content == null) {
             throw new IllegalArgumentException("Content cannot be null");
         }
+        this.id = null;
         this.category = category;
         this.type = type;
         this.content = content;
         this.status = NotificationStatus.PENDING;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public static Notification create(
-        NotificationCategory category,
-        NotificationType type,
-        String content
-    ) {
-        return new Notification(category, type, content);
+        this.userId = null;
+        this.dispatchId = null;
+        this.createdAt = now;
+        this.updatedAt = now;
     }
     
     public void updateStatus(NotificationStatus status) {
+        updateStatus(status, LocalDateTime.now());
+    }
+
+    public void updateStatus(NotificationStatus status, LocalDateTime now) {
         this.status = status;
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = now;
     }
 
     public void setUserId(Integer id) {
@@ -56,4 +87,11 @@ public class Notification {
         }
         this.userId = id;
     }
+
+    public void setDispatchId(Integer id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Dispatch id cannot be null and different of zero");
+        }
+        this.dispatchId = id;
+    }
 }
@@ -1,7 +1,29 @@
 package me.ghisiluizgustavo.notification.domain;
 
 public enum NotificationCategory {
-    SPORTS,
-    FINANCIAL,
-    MOVIES
+    SPORTS(1),
+    FINANCIAL(2),
+    MOVIES(3);
+
+    private final short code;
+
+    NotificationCategory(int code) {
+        this.code = (short) code;
+    }
+
+    /**
+     * Stable code stored in place of the name. Rows keep it, so codes are never renumbered or reused.
+     */
+    public short code() {
+        return code;
+    }
+
+    public static NotificationCategory fromCode(short code) {
+        return switch (code) {
+            case 1 -> SPORTS;
+            case 2 -> FINANCIAL;
+            case 3 -> MOVIES;
+            default -> throw new IllegalArgumentException("Unknown category code " + code);
+        };
+    }
 }
@@ -1,7 +1,26 @@
 package me.ghisiluizgustavo.notification.domain;
 
 public enum NotificationStatus {
-    PENDING,
-    SENT,
-    FAILED
+    PENDING(1),
+    SENT(2),
+    FAILED(3);
+
+    private final short code;
+
+    NotificationStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static NotificationStatus fromCode(short code) {
+        return switch (code) {
+            case 1 -> PENDING;
+            case 2 -> SENT;
+            case 3 -> FAILED;
+            default -> throw new IllegalArgumentException("Unknown status code " + code);
+        };
+    }
 }
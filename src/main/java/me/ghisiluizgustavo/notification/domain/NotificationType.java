@@ -1,7 +1,26 @@
 package me.ghisiluizgustavo.notification.domain;
 
 public enum NotificationType {
-    EMAIL,
-    SMS,
-    PUSH
+    EMAIL(1),
+    SMS(2),
+    PUSH(3);
+
+    private final short code;
+
+    NotificationType(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static NotificationType fromCode(short code) {
+        return switch (code) {
+            case 1 -> EMAIL;
+            case 2 -> SMS;
+            case 3 -> PUSH;
+            default -> throw new IllegalArgumentException("Unknown type code " + code);
+        };
+    }
 }
@@ -0,0 +1,152 @@
+package me.ghisiluizgustavo.notification.feature.deliverystats;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeliveryStatsBucket;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeliveryStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts delivery outcomes in memory and periodically adds them to the per-minute rollup.
+ * Each minute gets its own window of {@link LongAdder}s indexed by (category, type, status), so
+ * recording is a clock read and an uncontended increment. A window that has been replaced stays
+ * around for one more flush to pick up increments that raced with the swap. Counts are taken off
+ * the windows only once the rollup has stored them, so a failed flush is retried by the next one.
+ */
+@Slf4j
+@Component
+public class DeliveryStatsRecorder {
+
+    private static final NotificationCategory[] CATEGORIES = NotificationCategory.values();
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final NotificationStatus[] STATUSES = NotificationStatus.values();
+    private static final int SLOTS = CATEGORIES.length * TYPES.length * STATUSES.length;
+
+    private final DeliveryStatsRepository repository;
+    private final Clock clock;
+    private final ConcurrentLinkedQueue<Window> retired = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-stats-flusher").daemon().factory()
+    );
+    private volatile Window current;
+
+    @Autowired
+    public DeliveryStatsRecorder(DeliveryStatsRepository repository, StatsProperties properties) {
+        this(repository, Clock.systemDefaultZone());
+        final long intervalMillis = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    DeliveryStatsRecorder(DeliveryStatsRepository repository, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+        this.current = new Window(minuteOf(clock.millis()));
+    }
+
+    public void record(NotificationCategory category, NotificationType type, NotificationStatus status) {
+        window(clock.millis()).counters[slot(category, type, status)].increment();
+    }
+
+    synchronized void flush() {
+        window(clock.millis());
+        final List<Drained> drained = new ArrayList<>();
+        for (Window window : retired) {
+            drain(window, drained);
+        }
+        drain(current, drained);
+
+        if (!drained.isEmpty()) {
+            repository.add(drained.stream().map(Drained::increment).toList());
+            for (Drained taken : drained) {
+                taken.window().counters[taken.slot()].add(-taken.increment().count());
+            }
+            log.debug("Flushed {} delivery stats buckets", drained.size());
+        }
+        retired.removeIf(window -> ++window.flushesSinceRetired > 1);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush delivery stats", e);
+        }
+    }
+
+    private Window window(long nowMillis) {
+        final long minute = minuteOf(nowMillis);
+        Window window = current;
+        if (window.minute >= minute) {
+            return window;
+        }
+        synchronized (retired) {
+            window = current;
+            if (window.minute < minute) {
+                retired.add(window);
+                window = new Window(minute);
+                current = window;
+            }
+            return window;
+        }
+    }
+
+    private void drain(Window window, List<Drained> drained) {
+        final LocalDateTime bucket = LocalDateTime.ofInstant(Instant.ofEpochSecond(window.minute * 60), clock.getZone());
+        for (int slot = 0; slot < SLOTS; slot++) {
+            final long count = window.counters[slot].sum();
+            if (count == 0) {
+                continue;
+            }
+            final int status = slot % STATUSES.length;
+            final int type = (slot / STATUSES.length) % TYPES.length;
+            final int category = slot / (STATUSES.length * TYPES.length);
+            drained.add(new Drained(window, slot, new DeliveryStatsBucket(
+                bucket, CATEGORIES[category], TYPES[type], STATUSES[status], count
+            )));
+        }
+    }
+
+    private static int slot(NotificationCategory category, NotificationType type, NotificationStatus status) {
+        return (category.ordinal() * TYPES.length + type.ordinal()) * STATUSES.length + status.ordinal();
+    }
+
+    private static long minuteOf(long epochMillis) {
+        return epochMillis / 60_000;
+    }
+
+    private record Drained(Window window, int slot, DeliveryStatsBucket increment) { }
+
+    private static final class Window {
+        private final long minute;
+        private final LongAdder[] counters = new LongAdder[SLOTS];
+        private int flushesSinceRetired;
+
+        private Window(long minute) {
+            this.minute = minute;
+            for (int i = 0; i < SLOTS; i++) {
+                counters[i] = new LongAdder();
+            }
+        }
+    }
+}
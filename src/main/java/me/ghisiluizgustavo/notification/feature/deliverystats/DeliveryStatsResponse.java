@@ -0,0 +1,27 @@
+package me.ghisiluizgustavo.notification.feature.deliverystats;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Delivery count for one period and (category, type, status)")
+public record DeliveryStatsResponse(
+    @Schema(description = "Start of the period", example = "2026-01-06T00:00:00")
+    LocalDateTime period,
+
+    @Schema(description = "Notification category", example = "FINANCIAL")
+    NotificationCategory category,
+
+    @Schema(description = "Notification type/channel", example = "SMS")
+    NotificationType type,
+
+    @Schema(description = "Delivery outcome", example = "FAILED")
+    NotificationStatus status,
+
+    @Schema(description = "Number of deliveries", example = "12")
+    long count
+) {
+}
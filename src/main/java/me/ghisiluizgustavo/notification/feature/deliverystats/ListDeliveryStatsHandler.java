@@ -0,0 +1,51 @@
+package me.ghisiluizgustavo.notification.feature.deliverystats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeliveryStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListDeliveryStatsHandler {
+
+    private final DeliveryStatsRepository deliveryStatsRepository;
+
+    @Transactional(readOnly = true)
+    public List<DeliveryStatsResponse> handle(
+        LocalDateTime from,
+        LocalDateTime to,
+        NotificationCategory category,
+        NotificationType type,
+        NotificationStatus status,
+        StatsGranularity granularity
+    ) {
+        final LocalDateTime start = from != null ? from : LocalDate.now().atStartOfDay();
+        final LocalDateTime end = to != null ? to : LocalDateTime.now().plusMinutes(1);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        final StatsGranularity unit = granularity != null ? granularity : StatsGranularity.DAY;
+
+        log.info("Fetching delivery stats from {} to {} by {}", start, end, unit);
+
+        return deliveryStatsRepository.find(unit.unit(), start, end, category, type, status).stream()
+            .map(bucket -> new DeliveryStatsResponse(
+                bucket.bucket(),
+                bucket.category(),
+                bucket.type(),
+                bucket.status(),
+                bucket.count()
+            ))
+            .toList();
+    }
+}
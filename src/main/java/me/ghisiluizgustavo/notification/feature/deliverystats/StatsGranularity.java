@@ -0,0 +1,11 @@
+package me.ghisiluizgustavo.notification.feature.deliverystats;
+
+public enum StatsGranularity {
+    MINUTE,
+    HOUR,
+    DAY;
+
+    String unit() {
+        return name().toLowerCase();
+    }
+}
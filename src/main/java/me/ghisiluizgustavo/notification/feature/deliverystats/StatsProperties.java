@@ -0,0 +1,17 @@
+package me.ghisiluizgustavo.notification.feature.deliverystats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "notification.stats")
+public record StatsProperties(
+    @DefaultValue("10s") Duration flushInterval
+) {
+    public StatsProperties {
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Stats flush interval must be positive");
+        }
+    }
+}
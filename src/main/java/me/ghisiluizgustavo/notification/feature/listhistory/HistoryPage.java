@@ -0,0 +1,9 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import java.util.List;
+
+/**
+ * @param nextBefore the cursor of the following page, or {@code null} on the last one
+ */
+public record HistoryPage(List<NotificationHistoryResponse> items, int limit, Integer nextBefore) {
+}
@@ -0,0 +1,33 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param versionTtl how long the history high-water mark is reused before it is read again;
+ *                   writes on this instance drop it at once, writes elsewhere show within this
+ * @param settleTime how long a high-water mark must stand before it validates a response:
+ *                   rows of transactions that commit out of id order can appear under an
+ *                   unchanged mark until then
+ */
+@ConfigurationProperties(prefix = "notification.history")
+public record HistoryProperties(
+    @DefaultValue("100") int pageSize,
+    @DefaultValue("1000") int maxPageSize,
+    @DefaultValue("1s") Duration versionTtl,
+    @DefaultValue("2s") Duration settleTime
+) {
+    public HistoryProperties {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("History page size must be between 1 and the max page size");
+        }
+        if (versionTtl.isNegative()) {
+            throw new IllegalArgumentException("History version TTL must not be negative");
+        }
+        if (settleTime.isNegative()) {
+            throw new IllegalArgumentException("History settle time must not be negative");
+        }
+    }
+}
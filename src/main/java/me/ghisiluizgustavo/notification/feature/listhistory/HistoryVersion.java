@@ -0,0 +1,32 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationHighWaterMark;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * The notification history as of a high-water mark. Only a settled version may validate a
+ * response; an unsettled one could still gain rows without changing.
+ */
+public record HistoryVersion(NotificationHighWaterMark mark, boolean settled) {
+
+    /**
+     * Weak, as compressed and identity responses share it.
+     */
+    public String etag() {
+        final Integer maxId = mark.maxId();
+        return "W/\"" + (maxId == null ? 0 : maxId) + "-" + lastModifiedMillis() + "\"";
+    }
+
+    /**
+     * @return {@code -1} while there is no notification
+     */
+    public long lastModifiedMillis() {
+        return mark.maxUpdatedAt() == null ? -1 : lastModified().toEpochMilli();
+    }
+
+    public Instant lastModified() {
+        return mark.maxUpdatedAt() == null ? null : mark.maxUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -2,30 +2,116 @@ package me.ghisiluizgustavo.notification.feature.listhistory;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.archive.NotificationArchive;
 import me.ghisiluizgustavo.notification.infrastructure.database.NotificationEntityJpa;
 import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Lists the history newest first, whole or a page at a time. Pages are keyed on the notification
+ * id: the next page starts below the last id of the previous one, so reading deep into the
+ * history costs no more than reading its start. Ids the {@link NotificationArchive} holds are
+ * read from it, so a listing reaching past the table continues into the archive.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ListNotificationHistoryHandler {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationHistoryCache historyCache;
+    private final HistoryProperties properties;
+    private final NotificationArchive archive;
 
+    /**
+     * The version to answer a conditional request with; responses with rows carry the version
+     * read alongside them instead.
+     */
+    public HistoryVersion version() {
+        return historyCache.version();
+    }
+
+    /**
+     * Every notification, newest first.
+     */
+    @Transactional(readOnly = true)
     public List<NotificationHistoryResponse> handle() {
-        log.info("Fetching notification history");
-        
-        List<NotificationEntityJpa> notifications = notificationRepository
-            .findAllByOrderByCreatedAtDesc();
-        
-        log.info("Found {} notifications in history", notifications.size());
-        
-        return notifications.stream()
-            .map(this::toResponse)
-            .toList();
+        return load(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Every notification with the version to validate them by. The version is read first, in the
+     * same transaction, so the rows are never older than the validators sent with them, even when
+     * they come from a lagging replica.
+     */
+    @Transactional(readOnly = true)
+    public VersionedHistory handleVersioned() {
+        final HistoryVersion version = historyCache.read();
+        final List<NotificationHistoryResponse> items = load(null, Integer.MAX_VALUE);
+        return new VersionedHistory(version, new HistoryPage(items, Integer.MAX_VALUE, null));
+    }
+
+    /**
+     * One page, with its version read as for {@link #handleVersioned()}.
+     *
+     * @param before only notifications with a lower id, or {@code null} for the newest page
+     * @param limit  page size, or {@code null} for the configured default
+     */
+    @Transactional(readOnly = true)
+    public VersionedHistory handleVersioned(Integer before, Integer limit) {
+        final int size = limit != null ? limit : properties.pageSize();
+        if (size < 1 || size > properties.maxPageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + properties.maxPageSize());
+        }
+
+        final HistoryVersion version = historyCache.read();
+        final List<NotificationHistoryResponse> items = before == null
+            ? historyCache.newestPage(version, size, () -> load(null, size))
+            : load(before, size);
+        final Integer nextBefore = items.size() == size ? items.getLast().id() : null;
+        return new VersionedHistory(version, new HistoryPage(items, size, nextBefore));
+    }
+
+    private List<NotificationHistoryResponse> load(Integer before, int size) {
+        log.debug("Fetching notification history before {} (limit {})", before, size);
+
+        final int archived = archive.archivedThrough();
+        final List<NotificationHistoryResponse> items = new ArrayList<>(Math.min(size, properties.maxPageSize()));
+        if (before == null || before > archived + 1) {
+            for (NotificationEntityJpa notification : loadHot(before, archived, size)) {
+                items.add(toResponse(notification));
+            }
+        }
+        if (items.size() < size && archived > 0) {
+            final int below = before == null ? archived + 1 : Math.min(before, archived + 1);
+            for (NotificationRow row : archive.read(below, size - items.size())) {
+                items.add(toResponse(row));
+            }
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Table rows above the archived ids; rows still awaiting deletion after being archived are
+     * left out.
+     */
+    private List<NotificationEntityJpa> loadHot(Integer before, int archived, int size) {
+        final Limit limit = size == Integer.MAX_VALUE ? Limit.unlimited() : Limit.of(size);
+        if (archived == 0) {
+            return before == null
+                ? notificationRepository.findAllByOrderByIdDesc(limit)
+                : notificationRepository.findByIdLessThanOrderByIdDesc(before, limit);
+        }
+        return before == null
+            ? notificationRepository.findByIdGreaterThanOrderByIdDesc(archived, limit)
+            : notificationRepository.findByIdGreaterThanAndIdLessThanOrderByIdDesc(archived, before, limit);
     }
 
     private NotificationHistoryResponse toResponse(NotificationEntityJpa entity) {
@@ -40,4 +126,17 @@ public class ListNotificationHistoryHandler {
             entity.getUpdatedAt()
         );
     }
+
+    private NotificationHistoryResponse toResponse(NotificationRow row) {
+        return new NotificationHistoryResponse(
+            row.id(),
+            row.category(),
+            row.type(),
+            row.content(),
+            row.status(),
+            row.userId(),
+            row.createdAt(),
+            row.updatedAt()
+        );
+    }
 }
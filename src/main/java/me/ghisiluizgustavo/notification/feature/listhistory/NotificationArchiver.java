@@ -0,0 +1,136 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.archive.NotificationArchive;
+import me.ghisiluizgustavo.notification.infrastructure.config.ArchiveProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.ArchivedRange;
+import me.ghisiluizgustavo.notification.infrastructure.database.InstanceLeaseRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationArchiveRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves old notifications from the table into the {@link NotificationArchive}. Each run first
+ * deletes the rows of ranges recorded at least two refresh intervals ago, by then known to every
+ * instance, then archives the oldest rows a full file at a time. Only rows below the first one
+ * created within {@code older-than} are taken, so the archive stays a contiguous id range under
+ * the hot table. One instance runs at a time: the one holding the {@value #ROLE} role in
+ * {@code instance_role}, renewed before every file it writes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.archive", name = "enabled", havingValue = "true")
+public class NotificationArchiver {
+
+    static final String ROLE = "notification-archiver";
+
+    private final NotificationArchiveRepository archiveRepository;
+    private final InstanceLeaseRepository leaseRepository;
+    private final NotificationArchive archive;
+    private final ArchiveProperties properties;
+    private final Clock clock;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-archiver").daemon().factory()
+    );
+
+    @Autowired
+    public NotificationArchiver(
+        NotificationArchiveRepository archiveRepository,
+        InstanceLeaseRepository leaseRepository,
+        NotificationArchive archive,
+        ArchiveProperties properties
+    ) {
+        this(archiveRepository, leaseRepository, archive, properties, Clock.systemDefaultZone());
+    }
+
+    NotificationArchiver(
+        NotificationArchiveRepository archiveRepository,
+        InstanceLeaseRepository leaseRepository,
+        NotificationArchive archive,
+        ArchiveProperties properties,
+        Clock clock
+    ) {
+        this.archiveRepository = archiveRepository;
+        this.leaseRepository = leaseRepository;
+        this.archive = archive;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        final long intervalMillis = properties.interval().toMillis();
+        executor.scheduleWithFixedDelay(this::runQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void run() {
+        if (!holdRole()) {
+            log.debug("Notification archive is being written by another instance");
+            return;
+        }
+        try {
+            purge();
+            archiveOldest();
+        } finally {
+            leaseRepository.letGo(ROLE, instanceId);
+        }
+    }
+
+    private void purge() {
+        for (ArchivedRange range : archiveRepository.findPurgeable(properties.refreshInterval().multipliedBy(2))) {
+            final int deleted = archiveRepository.delete(archive.ids(range));
+            archiveRepository.markPurged(range);
+            log.info("Deleted {} archived notifications, ids {} to {}", deleted, range.minId(), range.maxId());
+        }
+    }
+
+    private void archiveOldest() {
+        final LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.olderThan());
+        final Integer firstRecent = archiveRepository.firstIdCreatedSince(cutoff);
+        for (int segment = 0; segment < properties.maxSegmentsPerRun(); segment++) {
+            final List<NotificationRow> rows = archiveRepository.findAfter(
+                archive.archivedThrough(), firstRecent, properties.segmentRows());
+            if (rows.size() < properties.segmentRows()) {
+                return;
+            }
+            if (!holdRole()) {
+                log.warn("Lost the notification archive writer role; stopping before ids {} to {}",
+                    rows.getFirst().id(), rows.getLast().id());
+                return;
+            }
+            archive.append(rows);
+        }
+    }
+
+    private boolean holdRole() {
+        return leaseRepository.hold(ROLE, instanceId, properties.leaseTtl());
+    }
+
+    private void runQuietly() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Notification archiving failed", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationHighWaterMark;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The history's current {@link HistoryVersion} and its newest page. {@link #version()} reads the
+ * high-water mark at most once per {@code version-ttl}, and the newest page is served from memory
+ * for as long as the mark it was loaded under stands. Notification writes on this instance call
+ * {@link #invalidate()}, so their rows show on the next read.
+ */
+@Component
+public class NotificationHistoryCache {
+
+    private final NotificationRepository notificationRepository;
+    private final long ttlNanos;
+    private final long settleNanos;
+    private volatile Observed observed;
+    private volatile NewestPage newest;
+
+    public NotificationHistoryCache(NotificationRepository notificationRepository, HistoryProperties properties) {
+        this.notificationRepository = notificationRepository;
+        this.ttlNanos = properties.versionTtl().toNanos();
+        this.settleNanos = properties.settleTime().toNanos();
+    }
+
+    /**
+     * The version as last read, possibly from another database than the caller's next read. Fit
+     * to answer a conditional request, whose validator came with rows at least that new, but not
+     * to go out with rows read afterwards.
+     */
+    public HistoryVersion version() {
+        final long now = System.nanoTime();
+        final Observed current = observed;
+        if (current == null || now - current.readAt() >= ttlNanos) {
+            return read();
+        }
+        return new HistoryVersion(current.mark(), now - current.since() >= settleNanos);
+    }
+
+    /**
+     * The version read now, on the caller's transaction, so rows the caller reads afterwards are
+     * at least as new.
+     */
+    public HistoryVersion read() {
+        final long now = System.nanoTime();
+        final Observed current = observed;
+        final NotificationHighWaterMark mark = notificationRepository.findHighWaterMark();
+        final long since = current != null && current.mark().equals(mark) ? current.since() : now;
+        observed = new Observed(mark, since, now);
+        return new HistoryVersion(mark, now - since >= settleNanos);
+    }
+
+    /**
+     * @param version the version the page is read under
+     * @param loader  reads the page from the database; its result is kept only under a settled mark
+     */
+    List<NotificationHistoryResponse> newestPage(
+        HistoryVersion version,
+        int limit,
+        Supplier<List<NotificationHistoryResponse>> loader
+    ) {
+        final NewestPage cached = newest;
+        if (cached != null && cached.limit() == limit && cached.mark().equals(version.mark())) {
+            return cached.page();
+        }
+        final List<NotificationHistoryResponse> page = loader.get();
+        if (version.settled()) {
+            newest = new NewestPage(version.mark(), limit, page);
+        }
+        return page;
+    }
+
+    public void invalidate() {
+        observed = null;
+        newest = null;
+    }
+
+    private record Observed(NotificationHighWaterMark mark, long since, long readAt) {
+    }
+
+    private record NewestPage(NotificationHighWaterMark mark, int limit, List<NotificationHistoryResponse> page) {
+    }
+}
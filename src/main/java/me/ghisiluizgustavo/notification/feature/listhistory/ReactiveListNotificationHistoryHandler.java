@@ -0,0 +1,36 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReactiveNotificationRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveListNotificationHistoryHandler {
+
+    private final ReactiveNotificationRepository notificationRepository;
+
+    public Flux<NotificationHistoryResponse> handle() {
+        log.info("Streaming notification history");
+
+        return notificationRepository.findAllByOrderByCreatedAtDesc()
+            .map(this::toResponse);
+    }
+
+    private NotificationHistoryResponse toResponse(NotificationRow row) {
+        return new NotificationHistoryResponse(
+            row.id(),
+            row.category(),
+            row.type(),
+            row.content(),
+            row.status(),
+            row.userId(),
+            row.createdAt(),
+            row.updatedAt()
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.archive.NotificationArchive;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationSearchRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Finds notifications whose content matches a search, newest first and paged on the id like
+ * {@link ListNotificationHistoryHandler}. Only the table is searched: rows moved to the
+ * {@link NotificationArchive} are not indexed, so a time range lying wholly before the newest
+ * archived row is refused instead of answered with an empty page.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchNotificationHistoryHandler {
+
+    static final int MAX_QUERY_LENGTH = 256;
+
+    private final NotificationSearchRepository searchRepository;
+    private final HistoryProperties properties;
+    private final NotificationArchive archive;
+
+    /**
+     * @param query  words to match, with optional quoted phrases, {@code or} and {@code -word}
+     * @param from   inclusive lower bound on the creation time, or {@code null}
+     * @param to     exclusive upper bound on the creation time, or {@code null}
+     * @param before only notifications with a lower id, or {@code null} for the newest page
+     * @param limit  page size, or {@code null} for the configured default
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage handle(
+        String query,
+        NotificationCategory category,
+        NotificationType type,
+        NotificationStatus status,
+        LocalDateTime from,
+        LocalDateTime to,
+        Integer before,
+        Integer limit
+    ) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query cannot be longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        final int size = limit != null ? limit : properties.pageSize();
+        if (size < 1 || size > properties.maxPageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + properties.maxPageSize());
+        }
+        if (to != null) {
+            final LocalDateTime archivedUntil = archive.archivedUntil();
+            if (archivedUntil != null && !to.isAfter(archivedUntil)) {
+                throw new IllegalArgumentException(
+                    "Notifications created up to " + archivedUntil + " are archived and cannot be searched");
+            }
+        }
+
+        log.debug("Searching notification history for '{}' before {} (limit {})", query, before, size);
+
+        final List<NotificationHistoryResponse> items = searchRepository
+            .search(query.strip(), category, type, status, from, to, before, size).stream()
+            .map(this::toResponse)
+            .toList();
+        final Integer nextBefore = items.size() == size ? items.getLast().id() : null;
+        return new HistoryPage(items, size, nextBefore);
+    }
+
+    private NotificationHistoryResponse toResponse(NotificationRow row) {
+        return new NotificationHistoryResponse(
+            row.id(),
+            row.category(),
+            row.type(),
+            row.content(),
+            row.status(),
+            row.userId(),
+            row.createdAt(),
+            row.updatedAt()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+/**
+ * A history page and the version read just before it, from the same database.
+ */
+public record VersionedHistory(HistoryVersion version, HistoryPage page) {
+}
@@ -0,0 +1,165 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.AdaptiveLimiter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides whether intake takes on another submission. A submission is shed when the oldest
+ * dispatch or fan-out batch still waiting is older than {@code max-backlog-age}, when
+ * {@code max-queued-batches} batches are waiting for a worker, when the adaptive concurrency limit
+ * is reached, or when its category already holds its quota, a share of the current limit. The
+ * limit follows how long fan-out batches take from submission to completion, so it shrinks as
+ * delivery falls behind; a submission that fails on overload counts as a drop. Limit, in-flight
+ * count and rejections are exported as {@code notification.admission.*} meters.
+ */
+@Slf4j
+@Component
+public class AdmissionController {
+
+    private final AdmissionProperties properties;
+    private final DispatchIntake dispatchIntake;
+    private final DispatchScheduler dispatchScheduler;
+    private final AdaptiveLimiter limiter;
+    private final Map<NotificationCategory, AtomicInteger> inFlightByCategory = new EnumMap<>(NotificationCategory.class);
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionController(
+        AdmissionProperties properties,
+        DispatchIntake dispatchIntake,
+        DispatchScheduler dispatchScheduler,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.dispatchIntake = dispatchIntake;
+        this.dispatchScheduler = dispatchScheduler;
+        this.limiter = new AdaptiveLimiter(properties.limit().create());
+        this.meterRegistry = meterRegistry;
+        for (NotificationCategory category : NotificationCategory.values()) {
+            inFlightByCategory.put(category, new AtomicInteger());
+        }
+
+        Gauge.builder("notification.admission.limit", limiter, AdaptiveLimiter::limit)
+            .description("Submissions intake currently admits concurrently")
+            .register(meterRegistry);
+        Gauge.builder("notification.admission.in-flight", limiter, AdaptiveLimiter::inFlight)
+            .register(meterRegistry);
+        if (properties.enabled()) {
+            dispatchScheduler.addCompletionListener(limiter::sample);
+        }
+    }
+
+    public Ticket admit(NotificationCategory category) {
+        return admit(EnumSet.of(category));
+    }
+
+    /**
+     * Admits one submission covering the given categories, e.g. a chunk of a batch.
+     *
+     * @throws AdmissionRejectedException when intake is over capacity for it
+     */
+    public Ticket admit(Set<NotificationCategory> categories) {
+        if (!properties.enabled()) {
+            return new Ticket(null, List.of());
+        }
+
+        final Duration intakeAge = dispatchIntake.backlogAge();
+        final Duration batchAge = dispatchScheduler.oldestWait();
+        final Duration backlogAge = intakeAge.compareTo(batchAge) >= 0 ? intakeAge : batchAge;
+        if (backlogAge.compareTo(properties.maxBacklogAge()) > 0) {
+            throw reject("backlog", categories, "Dispatch backlog is " + backlogAge.toSeconds() + "s behind");
+        }
+        final int queuedBatches = dispatchScheduler.queued();
+        if (queuedBatches >= properties.maxQueuedBatches()) {
+            throw reject("backlog", categories, "Dispatch backlog holds " + queuedBatches + " batches");
+        }
+
+        final AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            throw reject("limit", categories, "Too many notifications in progress");
+        }
+
+        final int limit = limiter.limit();
+        final List<AtomicInteger> held = new ArrayList<>(categories.size());
+        for (NotificationCategory category : categories) {
+            final AtomicInteger inFlight = inFlightByCategory.get(category);
+            final int quota = (int) Math.ceil(limit * properties.quotaOf(category));
+            if (inFlight.incrementAndGet() > quota) {
+                inFlight.decrementAndGet();
+                held.forEach(AtomicInteger::decrementAndGet);
+                permit.close();
+                throw reject("quota", EnumSet.of(category), "Too many " + category + " notifications in progress");
+            }
+            held.add(inFlight);
+        }
+        return new Ticket(permit, held);
+    }
+
+    private AdmissionRejectedException reject(String reason, Set<NotificationCategory> categories, String message) {
+        Counter.builder("notification.admission.rejected")
+            .tag("reason", reason)
+            .tag("category", categories.size() == 1 ? categories.iterator().next().name() : "MIXED")
+            .register(meterRegistry)
+            .increment();
+        log.debug("Shedding submission for {}: {}", categories, message);
+        return new AdmissionRejectedException(message + "; retry later", properties.retryAfter());
+    }
+
+    /**
+     * An admitted submission. Report how it went with {@link #succeeded()} or {@link #dropped()},
+     * and always {@link #close()} it; closing alone releases the slot without affecting the limit.
+     */
+    public static final class Ticket implements AutoCloseable {
+
+        private final AdaptiveLimiter.Permit permit;
+        private final List<AtomicInteger> held;
+        private boolean closed;
+
+        private Ticket(AdaptiveLimiter.Permit permit, List<AtomicInteger> held) {
+            this.permit = permit;
+            this.held = held;
+        }
+
+        /**
+         * The submission went through. Its latency is not sampled: the limit follows the fan-out
+         * batches it leads to.
+         */
+        public void succeeded() {
+            close();
+        }
+
+        /**
+         * The submission failed in a way that suggests overload, such as a database timeout.
+         */
+        public void dropped() {
+            if (permit != null) {
+                permit.dropped();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            held.forEach(AtomicInteger::decrementAndGet);
+            if (permit != null) {
+                permit.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification.admission")
+public record AdmissionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue LimitSettings limit,
+    @DefaultValue("30s") Duration maxBacklogAge,
+    @DefaultValue("10000") int maxQueuedBatches,
+    @DefaultValue("1s") Duration retryAfter,
+    Map<NotificationCategory, Double> quotas
+) {
+    public AdmissionProperties {
+        if (maxBacklogAge == null || maxBacklogAge.isNegative() || maxBacklogAge.isZero()) {
+            throw new IllegalArgumentException("Admission max backlog age must be positive");
+        }
+        if (maxQueuedBatches < 1) {
+            throw new IllegalArgumentException("Admission max queued batches must be at least 1");
+        }
+        if (retryAfter == null || retryAfter.isNegative() || retryAfter.isZero()) {
+            throw new IllegalArgumentException("Admission retry-after must be positive");
+        }
+        quotas = quotas == null ? Map.of() : Map.copyOf(quotas);
+        quotas.values().forEach(quota -> {
+            if (quota == null || quota <= 0 || quota > 1) {
+                throw new IllegalArgumentException("Admission quotas must be shares of the limit in (0, 1]");
+            }
+        });
+    }
+
+    public double quotaOf(NotificationCategory category) {
+        return quotas.getOrDefault(category, 1.0);
+    }
+}
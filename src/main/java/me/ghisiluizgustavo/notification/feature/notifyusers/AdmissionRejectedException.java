@@ -0,0 +1,19 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when intake is over capacity and a submission is shed instead of queued.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
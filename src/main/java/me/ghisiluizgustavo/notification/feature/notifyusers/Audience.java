@@ -0,0 +1,207 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Targeting expression such as {@code SPORTS AND NOT MOVIES} or
+ * {@code (FINANCIAL OR SPORTS) WITH CHANNEL SMS}. Category subscriptions combine with
+ * {@code AND}, {@code OR}, {@code NOT} and parentheses; the optional {@code WITH CHANNEL}
+ * clause limits delivery to the listed channels. Keywords and names are case-insensitive.
+ */
+public record Audience(String expression, Term term, Set<NotificationType> channels) {
+
+    private static final int MAX_EXPRESSION_LENGTH = 500;
+
+    public static Audience of(NotificationCategory category) {
+        return new Audience(category.name(), new Subscribed(category), EnumSet.allOf(NotificationType.class));
+    }
+
+    public static Audience parse(String expression) {
+        if (expression == null || expression.isBlank() || expression.length() > MAX_EXPRESSION_LENGTH) {
+            throw new IllegalArgumentException(
+                "Audience expression must be between 1 and " + MAX_EXPRESSION_LENGTH + " characters"
+            );
+        }
+        return new Parser(expression).parse();
+    }
+
+    public boolean restrictsChannels() {
+        return channels.size() < NotificationType.values().length;
+    }
+
+    /**
+     * A node of the expression. Evaluation works on whole subscriber sets, one bit per user
+     * position in the {@link AudienceIndex}, and always returns a set the caller may modify.
+     */
+    public sealed interface Term permits Subscribed, And, Or, Not {
+        BitSet evaluate(AudienceIndex.Bitsets bitsets);
+    }
+
+    public record Subscribed(NotificationCategory category) implements Term {
+        @Override
+        public BitSet evaluate(AudienceIndex.Bitsets bitsets) {
+            return (BitSet) bitsets.category(category).clone();
+        }
+    }
+
+    public record And(Term left, Term right) implements Term {
+        @Override
+        public BitSet evaluate(AudienceIndex.Bitsets bitsets) {
+            final BitSet result = left.evaluate(bitsets);
+            if (right instanceof Not(Term negated)) {
+                result.andNot(negated.evaluate(bitsets));
+            } else {
+                result.and(right.evaluate(bitsets));
+            }
+            return result;
+        }
+    }
+
+    public record Or(Term left, Term right) implements Term {
+        @Override
+        public BitSet evaluate(AudienceIndex.Bitsets bitsets) {
+            final BitSet result = left.evaluate(bitsets);
+            result.or(right.evaluate(bitsets));
+            return result;
+        }
+    }
+
+    public record Not(Term term) implements Term {
+        @Override
+        public BitSet evaluate(AudienceIndex.Bitsets bitsets) {
+            final BitSet result = (BitSet) bitsets.all().clone();
+            result.andNot(term.evaluate(bitsets));
+            return result;
+        }
+    }
+
+    private static final class Parser {
+
+        private final String expression;
+        private final List<String> tokens;
+        private int position;
+
+        private Parser(String expression) {
+            this.expression = expression;
+            this.tokens = tokenize(expression);
+        }
+
+        private Audience parse() {
+            final Term term = or();
+            Set<NotificationType> channels = EnumSet.allOf(NotificationType.class);
+            if (accept("WITH")) {
+                if (!accept("CHANNEL") && !accept("CHANNELS")) {
+                    throw error("expected CHANNEL after WITH");
+                }
+                channels = EnumSet.noneOf(NotificationType.class);
+                do {
+                    channels.add(channel(next("a channel")));
+                } while (accept(","));
+            }
+            if (position < tokens.size()) {
+                throw error("unexpected '" + tokens.get(position) + "'");
+            }
+            return new Audience(expression.strip(), term, channels);
+        }
+
+        private Term or() {
+            Term term = and();
+            while (accept("OR")) {
+                term = new Or(term, and());
+            }
+            return term;
+        }
+
+        private Term and() {
+            Term term = not();
+            while (accept("AND")) {
+                term = new And(term, not());
+            }
+            return term;
+        }
+
+        private Term not() {
+            if (accept("NOT")) {
+                return new Not(not());
+            }
+            if (accept("(")) {
+                final Term term = or();
+                if (!accept(")")) {
+                    throw error("missing ')'");
+                }
+                return term;
+            }
+            return new Subscribed(category(next("a category")));
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private String next(String expected) {
+            if (position >= tokens.size()) {
+                throw error("expected " + expected);
+            }
+            return tokens.get(position++);
+        }
+
+        private NotificationCategory category(String token) {
+            try {
+                return NotificationCategory.valueOf(token);
+            } catch (IllegalArgumentException e) {
+                throw error("unknown category '" + token + "'");
+            }
+        }
+
+        private NotificationType channel(String token) {
+            try {
+                return NotificationType.valueOf(token);
+            } catch (IllegalArgumentException e) {
+                throw error("unknown channel '" + token + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String reason) {
+            return new IllegalArgumentException("Invalid audience expression '" + expression + "': " + reason);
+        }
+
+        private static List<String> tokenize(String expression) {
+            final List<String> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < expression.length()) {
+                final char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')' || c == ',') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else {
+                    final int start = i;
+                    while (i < expression.length() && Character.isLetterOrDigit(expression.charAt(i))
+                        || i < expression.length() && expression.charAt(i) == '_') {
+                        i++;
+                    }
+                    if (start == i) {
+                        throw new IllegalArgumentException(
+                            "Invalid audience expression '" + expression + "': unexpected '" + c + "'"
+                        );
+                    }
+                    tokens.add(expression.substring(start, i).toUpperCase(Locale.ROOT));
+                }
+            }
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.User;
+import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Subscriber sets per category and per channel, one bit per user position. An {@link Audience}
+ * resolves by combining whole sets word by word instead of testing every user, so the cost
+ * depends on the number of users divided by 64 and the size of the expression.
+ */
+@Component
+public class AudienceIndex {
+
+    private static final NotificationCategory[] CATEGORIES = NotificationCategory.values();
+    private static final NotificationType[] CHANNELS = NotificationType.values();
+
+    private volatile Bitsets bitsets;
+
+    @Autowired
+    public AudienceIndex(UserRepository userRepository) {
+        this(userRepository.findAll());
+    }
+
+    AudienceIndex(List<User> users) {
+        rebuild(users);
+    }
+
+    public void rebuild(List<User> users) {
+        final User[] positions = users.toArray(User[]::new);
+        final BitSet all = new BitSet(positions.length);
+        final BitSet[] byCategory = new BitSet[CATEGORIES.length];
+        final BitSet[] byChannel = new BitSet[CHANNELS.length];
+        for (int i = 0; i < byCategory.length; i++) {
+            byCategory[i] = new BitSet(positions.length);
+        }
+        for (int i = 0; i < byChannel.length; i++) {
+            byChannel[i] = new BitSet(positions.length);
+        }
+
+        for (int position = 0; position < positions.length; position++) {
+            final User user = positions[position];
+            all.set(position);
+            for (NotificationCategory category : user.subscribedCategories()) {
+                byCategory[category.ordinal()].set(position);
+            }
+            for (NotificationType channel : user.channels()) {
+                byChannel[channel.ordinal()].set(position);
+            }
+        }
+        bitsets = new Bitsets(positions, all, byCategory, byChannel);
+    }
+
+    public List<User> resolve(Audience audience) {
+        final Bitsets current = bitsets;
+        final BitSet matched = audience.term().evaluate(current);
+
+        if (audience.restrictsChannels()) {
+            final BitSet reachable = new BitSet(current.users().length);
+            for (NotificationType channel : audience.channels()) {
+                reachable.or(current.byChannel()[channel.ordinal()]);
+            }
+            matched.and(reachable);
+        }
+
+        final List<User> users = new ArrayList<>(matched.cardinality());
+        for (int position = matched.nextSetBit(0); position >= 0; position = matched.nextSetBit(position + 1)) {
+            users.add(current.users()[position]);
+        }
+        return users;
+    }
+
+    public record Bitsets(User[] users, BitSet all, BitSet[] byCategory, BitSet[] byChannel) {
+        public BitSet category(NotificationCategory category) {
+            return byCategory[category.ordinal()];
+        }
+    }
+}
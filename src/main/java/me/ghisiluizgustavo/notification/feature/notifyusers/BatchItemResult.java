@@ -0,0 +1,37 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one item of a batch submission")
+public record BatchItemResult(
+    @Schema(description = "Zero-based position of the item in the submitted batch", example = "3")
+    int index,
+
+    @Schema(description = "ACCEPTED, REPLAYED from an earlier submission, REJECTED as invalid, or FAILED and safe to retry",
+        example = "ACCEPTED")
+    BatchItemStatus status,
+
+    @Schema(description = "Dispatch created for the item, when accepted or replayed", example = "42")
+    Integer dispatchId,
+
+    @Schema(description = "Why the item was rejected or failed", example = "Content is required and cannot be blank")
+    String error
+) {
+    static BatchItemResult accepted(int index, Integer dispatchId) {
+        return new BatchItemResult(index, BatchItemStatus.ACCEPTED, dispatchId, null);
+    }
+
+    static BatchItemResult replayed(int index, Integer dispatchId) {
+        return new BatchItemResult(index, BatchItemStatus.REPLAYED, dispatchId, null);
+    }
+
+    static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, BatchItemStatus.REJECTED, null, error);
+    }
+
+    static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, BatchItemStatus.FAILED, null, error);
+    }
+}
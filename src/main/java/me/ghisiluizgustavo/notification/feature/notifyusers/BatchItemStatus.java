@@ -0,0 +1,8 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+public enum BatchItemStatus {
+    ACCEPTED,
+    REPLAYED,
+    REJECTED,
+    FAILED
+}
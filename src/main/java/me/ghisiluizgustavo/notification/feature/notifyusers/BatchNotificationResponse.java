@@ -0,0 +1,36 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Per-item results of a batch submission, in submission order")
+public record BatchNotificationResponse(
+    @Schema(description = "Items that created a dispatch", example = "998")
+    int accepted,
+
+    @Schema(description = "Items answered from an earlier submission with the same Idempotency-Key", example = "0")
+    int replayed,
+
+    @Schema(description = "Invalid items", example = "2")
+    int rejected,
+
+    @Schema(description = "Items that could not be stored and may be retried", example = "0")
+    int failed,
+
+    List<BatchItemResult> items
+) {
+    static BatchNotificationResponse of(List<BatchItemResult> items) {
+        final int[] counts = new int[BatchItemStatus.values().length];
+        for (BatchItemResult item : items) {
+            counts[item.status().ordinal()]++;
+        }
+        return new BatchNotificationResponse(
+            counts[BatchItemStatus.ACCEPTED.ordinal()],
+            counts[BatchItemStatus.REPLAYED.ordinal()],
+            counts[BatchItemStatus.REJECTED.ordinal()],
+            counts[BatchItemStatus.FAILED.ordinal()],
+            items
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "notification.batch")
+public record BatchProperties(
+    @DefaultValue("10000") int maxItems,
+    @DefaultValue("500") int chunkSize
+) {
+    public BatchProperties {
+        if (maxItems < 1) {
+            throw new IllegalArgumentException("Batch max items must be at least 1");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Batch chunk size must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One batch submission, fed item by item while the request body is still being parsed. Valid
+ * items are stored and handed to the fan-out a chunk at a time, so a large batch is never held
+ * in memory as a whole and every chunk costs one transaction and one intake hand-off.
+ * Results are kept in submission order: an item's index is its position in the list. A chunk
+ * shed by admission control fails as a whole, and {@link #retryAfter()} tells when to resend it.
+ */
+public class BatchSubmission {
+
+    private final NotifyUsersBatchHandler handler;
+    private final String idempotencyKey;
+    private final int maxItems;
+    private final int chunkSize;
+    private final List<BatchItemResult> results = new ArrayList<>();
+    private final List<NotifyUsersBatchHandler.PendingItem> pending = new ArrayList<>();
+    private Duration retryAfter;
+
+    BatchSubmission(NotifyUsersBatchHandler handler, String idempotencyKey, BatchProperties properties) {
+        this.handler = handler;
+        this.idempotencyKey = idempotencyKey;
+        this.maxItems = properties.maxItems();
+        this.chunkSize = properties.chunkSize();
+    }
+
+    public boolean isFull() {
+        return results.size() >= maxItems;
+    }
+
+    public int maxItems() {
+        return maxItems;
+    }
+
+    /**
+     * @return how long to wait before resending failed items, or {@code null} when no chunk was shed.
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    public void add(NotificationRequest request) {
+        final int index = results.size();
+        final NotifyUsersBatchHandler.PendingItem item;
+        try {
+            item = handler.prepare(index, request, idempotencyKey == null ? null : idempotencyKey + ":" + index);
+        } catch (IllegalArgumentException e) {
+            results.add(BatchItemResult.rejected(index, e.getMessage()));
+            return;
+        }
+        results.add(null);
+        pending.add(item);
+        if (pending.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Records the next item as unreadable, e.g. a value of the wrong type.
+     */
+    public void reject(String error) {
+        results.add(BatchItemResult.rejected(results.size(), error));
+    }
+
+    public BatchNotificationResponse finish() {
+        flush();
+        return BatchNotificationResponse.of(results);
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            for (BatchItemResult result : handler.store(pending)) {
+                results.set(result.index(), result);
+            }
+        } catch (AdmissionRejectedException e) {
+            retryAfter = e.getRetryAfter();
+            for (NotifyUsersBatchHandler.PendingItem item : pending) {
+                results.set(item.index(), BatchItemResult.failed(item.index(), e.getMessage()));
+            }
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,29 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification.channel-limits")
+public record ChannelLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("false") boolean blocking,
+    @DefaultValue("30s") Duration queueTimeout,
+    @DefaultValue LimitSettings defaults,
+    Map<NotificationType, LimitSettings> channels
+) {
+    public ChannelLimitProperties {
+        if (queueTimeout == null || queueTimeout.isNegative() || queueTimeout.isZero()) {
+            throw new IllegalArgumentException("Channel limit queue timeout must be positive");
+        }
+        channels = channels == null ? Map.of() : Map.copyOf(channels);
+    }
+
+    public LimitSettings settingsOf(NotificationType channel) {
+        return channels.getOrDefault(channel, defaults);
+    }
+}
@@ -0,0 +1,215 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.AdaptiveLimiter;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderException;
+import me.ghisiluizgustavo.user.domain.User;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * One adaptive concurrency limit per channel around the provider calls, so a slow or failing
+ * provider is sent less at once while a healthy one may take more. Each limit follows the
+ * round-trip latency and errors of its own channel's sends; sends over the limit queue for up
+ * to {@code queue-timeout} and then fail. Limit, in-flight sends, queue length and queue wait
+ * are exported per channel as {@code notification.channel.*} meters.
+ * <p>
+ * Only timeouts, I/O failures and provider 5xx answers count as drops; any other failure releases
+ * its slot without a sample. The blocking fan-out is only limited with {@code blocking: true}:
+ * its worker pool already bounds the sends in flight, and a worker queued on one channel holds
+ * up the deliveries of every other.
+ */
+@Component
+public class ChannelLimiters {
+
+    private final ChannelLimitProperties properties;
+    private final boolean limitsBlocking;
+    private final Map<NotificationType, AdaptiveLimiter> limiters = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationType, Timer> queueWaits = new EnumMap<>(NotificationType.class);
+
+    public ChannelLimiters(ChannelLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limitsBlocking = properties.enabled() && properties.blocking();
+        for (NotificationType channel : NotificationType.values()) {
+            final var limiter = new AdaptiveLimiter(properties.settingsOf(channel).create());
+            final String tag = channel.name();
+            limiters.put(channel, limiter);
+            queueWaits.put(channel, Timer.builder("notification.channel.queue-wait")
+                .description("Time a send spent queued for its channel's concurrency limit")
+                .tag("channel", tag)
+                .register(meterRegistry));
+            Gauge.builder("notification.channel.limit", limiter, AdaptiveLimiter::limit)
+                .description("Sends the channel currently allows in flight")
+                .tag("channel", tag)
+                .register(meterRegistry);
+            Gauge.builder("notification.channel.in-flight", limiter, AdaptiveLimiter::inFlight)
+                .tag("channel", tag)
+                .register(meterRegistry);
+            Gauge.builder("notification.channel.queued", limiter, AdaptiveLimiter::queued)
+                .description("Sends waiting for the channel's concurrency limit")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Sends one notification within the channel's limit, waiting for a slot if needed.
+     * Exceptions from the strategy are rethrown.
+     *
+     * @throws IllegalStateException when no slot frees up within the queue timeout
+     */
+    public void send(NotificationType channel, NotificationStrategy strategy, User user, Notification notification) {
+        if (!limitsBlocking) {
+            strategy.send(user, notification);
+            return;
+        }
+        try (AdaptiveLimiter.Permit permit = await(channel)) {
+            try {
+                strategy.send(user, notification);
+                permit.succeeded();
+            } catch (RuntimeException e) {
+                release(permit, e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Hands the strategy a batch of sends under a single slot of the channel's limit, which
+     * counts as dropped when any of them failed from overload.
+     *
+     * @throws IllegalStateException when no slot frees up within the queue timeout
+     */
+    public void sendAll(NotificationType channel, NotificationStrategy strategy, List<User> users,
+                        List<Notification> notifications, ObjIntConsumer<Exception> failed) {
+        if (!limitsBlocking) {
+            strategy.sendAll(users, notifications, failed);
+            return;
+        }
+        try (AdaptiveLimiter.Permit permit = await(channel)) {
+            final var overloaded = new boolean[1];
+            try {
+                strategy.sendAll(users, notifications, (e, index) -> {
+                    overloaded[0] |= overloaded(e);
+                    failed.accept(e, index);
+                });
+            } catch (RuntimeException e) {
+                release(permit, e);
+                throw e;
+            }
+            if (overloaded[0]) {
+                permit.dropped();
+            } else {
+                permit.succeeded();
+            }
+        }
+    }
+
+    /**
+     * Reactive counterpart of {@link #send(NotificationType, NotificationStrategy, User, Notification)},
+     * limited whenever limits are enabled: the send is subscribed once a slot is granted, and
+     * cancelling gives the slot or the place in the queue back.
+     */
+    public Mono<Void> sendReactive(NotificationType channel, Supplier<Mono<Void>> send) {
+        if (!properties.enabled()) {
+            return Mono.defer(send);
+        }
+        return Mono.usingWhen(
+            acquire(channel),
+            permit -> send.get()
+                .doOnSuccess(done -> permit.succeeded())
+                .doOnError(e -> release(permit, e)),
+            permit -> Mono.fromRunnable(permit::close)
+        );
+    }
+
+    /**
+     * Whether the failure says the provider is overloaded: a timeout, an I/O failure or a 5xx
+     * answer anywhere in its cause chain.
+     */
+    static boolean overloaded(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof IOException
+                || cause instanceof ProviderException provider && provider.getStatus() >= 500) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void release(AdaptiveLimiter.Permit permit, Throwable failure) {
+        if (overloaded(failure)) {
+            permit.dropped();
+        } else {
+            permit.close();
+        }
+    }
+
+    AdaptiveLimiter limiter(NotificationType channel) {
+        return limiters.get(channel);
+    }
+
+    private AdaptiveLimiter.Permit await(NotificationType channel) {
+        final AdaptiveLimiter limiter = limiters.get(channel);
+        final AdaptiveLimiter.Permit free = limiter.tryAcquire();
+        if (free != null) {
+            return free;
+        }
+        final long start = System.nanoTime();
+        final CompletableFuture<AdaptiveLimiter.Permit> slot = limiter.acquire();
+        try {
+            return slot.get(properties.queueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return claimOrFail(slot, "No " + channel + " send slot within " + properties.queueTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return claimOrFail(slot, "Interrupted waiting for a " + channel + " send slot");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            queueWaits.get(channel).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Gives up the place in the queue, unless the slot was granted in the meantime.
+     */
+    private static AdaptiveLimiter.Permit claimOrFail(CompletableFuture<AdaptiveLimiter.Permit> slot, String message) {
+        if (slot.cancel(false)) {
+            throw new IllegalStateException(message);
+        }
+        return slot.join();
+    }
+
+    private Mono<AdaptiveLimiter.Permit> acquire(NotificationType channel) {
+        return Mono.defer(() -> {
+            final AdaptiveLimiter limiter = limiters.get(channel);
+            final AdaptiveLimiter.Permit free = limiter.tryAcquire();
+            if (free != null) {
+                return Mono.just(free);
+            }
+            final long start = System.nanoTime();
+            return Mono.fromFuture(limiter.acquire(), false)
+                .timeout(properties.queueTimeout())
+                .onErrorMap(TimeoutException.class, e ->
+                    new IllegalStateException("No " + channel + " send slot within " + properties.queueTimeout()))
+                .doOnDiscard(AdaptiveLimiter.Permit.class, AdaptiveLimiter.Permit::close)
+                .doFinally(signal -> queueWaits.get(channel).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
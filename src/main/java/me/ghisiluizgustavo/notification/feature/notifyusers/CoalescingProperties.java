@@ -0,0 +1,31 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification.coalescing")
+public record CoalescingProperties(
+    Map<NotificationCategory, Window> categories
+) {
+    public CoalescingProperties {
+        categories = categories == null ? Map.of() : Map.copyOf(categories);
+    }
+
+    public record Window(
+        @DefaultValue("30s") Duration window,
+        @DefaultValue("20") int maxDigestSize
+    ) {
+        public Window {
+            if (window == null || window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("Coalescing window must be positive");
+            }
+            if (maxDigestSize < 1) {
+                throw new IllegalArgumentException("Coalescing max digest size must be at least 1");
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.user.domain.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal and placeholder segments, so rendering is a
+ * straight walk over two arrays appending into a caller-supplied buffer.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+    private final TemplateVariable[] variables;
+    private final boolean escapeHtml;
+    private final int maxLength;
+
+    private CompiledTemplate(String[] literals, TemplateVariable[] variables, boolean escapeHtml, int maxLength) {
+        this.literals = literals;
+        this.variables = variables;
+        this.escapeHtml = escapeHtml;
+        this.maxLength = maxLength;
+    }
+
+    public static CompiledTemplate compile(String source, boolean escapeHtml, int maxLength) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Template cannot be blank");
+        }
+        final List<String> literals = new ArrayList<>();
+        final List<TemplateVariable> variables = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            final int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template: " + source);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(TemplateVariable.fromPlaceholder(source.substring(open + OPEN.length(), close).trim()));
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(
+            literals.toArray(String[]::new),
+            variables.toArray(TemplateVariable[]::new),
+            escapeHtml,
+            maxLength
+        );
+    }
+
+    public void renderTo(StringBuilder buffer, User user, NotificationCategory category, String content) {
+        buffer.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            final String value = variables[i].resolve(user, category, content);
+            if (escapeHtml) {
+                appendEscaped(buffer, value);
+            } else {
+                buffer.append(value);
+            }
+            buffer.append(literals[i + 1]);
+        }
+        if (buffer.length() > maxLength) {
+            buffer.setLength(maxLength);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '<' -> buffer.append("&lt;");
+                case '>' -> buffer.append("&gt;");
+                case '&' -> buffer.append("&amp;");
+                case '"' -> buffer.append("&quot;");
+                case '\'' -> buffer.append("&#39;");
+                default -> buffer.append(c);
+            }
+        }
+    }
+}
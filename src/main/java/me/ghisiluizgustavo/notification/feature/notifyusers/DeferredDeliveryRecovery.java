@@ -0,0 +1,113 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDelivery;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Puts deliveries deferred by quiet hours back into the {@link DelayedDeliveryQueue}, which only
+ * lives in memory. At startup every stored deferral is reloaded; after that, every
+ * {@code recovery-interval}, deferrals overdue by more than an interval are picked up, as left
+ * behind by an instance that stopped before releasing them. A deferral is claimed when it is
+ * released, so one still held by another instance goes out once.
+ */
+@Slf4j
+@Component
+public class DeferredDeliveryRecovery {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final DeferredDeliveryRepository repository;
+    private final UserRepository userRepository;
+    private final NotificationFanOut fanOut;
+    private final SchedulingProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-deferred-recovery").daemon().factory()
+    );
+
+    public DeferredDeliveryRecovery(
+        DeferredDeliveryRepository repository,
+        UserRepository userRepository,
+        NotificationFanOut fanOut,
+        SchedulingProperties properties
+    ) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.fanOut = fanOut;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        final long intervalMillis = properties.recoveryInterval().toMillis();
+        executor.execute(() -> recoverQuietly(null));
+        executor.scheduleWithFixedDelay(
+            () -> recoverQuietly(Instant.now().minus(properties.recoveryInterval())),
+            intervalMillis, intervalMillis, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Re-queues stored deferrals, only those due by {@code dueBy} when it is given.
+     *
+     * @return how many were re-queued
+     */
+    int recover(Instant dueBy) {
+        final Map<Integer, User> users = userRepository.findAll().stream()
+            .collect(Collectors.toMap(User::id, Function.identity()));
+        int resumed = 0;
+        int after = 0;
+        while (true) {
+            final List<DeferredDelivery> page = repository.find(after, dueBy, PAGE_SIZE);
+            for (DeferredDelivery deferred : page) {
+                final User user = users.get(deferred.userId());
+                if (user != null) {
+                    fanOut.resume(deferred, user);
+                    resumed++;
+                } else if (repository.claim(deferred.notificationId())) {
+                    log.warn("User {} no longer exists; dropping deferred notification {}",
+                        deferred.userId(), deferred.notificationId());
+                    repository.complete(deferred.notificationId(), NotificationStatus.FAILED, LocalDateTime.now());
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                return resumed;
+            }
+            after = page.getLast().notificationId();
+        }
+    }
+
+    private void recoverQuietly(Instant dueBy) {
+        try {
+            final int resumed = recover(dueBy);
+            if (resumed > 0) {
+                log.info("Re-queued {} deliveries deferred by quiet hours", resumed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to recover deferred deliveries", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.scheduling.HierarchicalTimingWheel;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class DelayedDeliveryQueue {
+
+    private final HierarchicalTimingWheel<Runnable> wheel;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-delayed-delivery").daemon().factory()
+    );
+
+    public DelayedDeliveryQueue(SchedulingProperties properties) {
+        final long tickMillis = properties.tick().toMillis();
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, properties.wheelSize(), System.currentTimeMillis());
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void defer(Runnable delivery, Instant until) {
+        final boolean deferred;
+        synchronized (this) {
+            deferred = wheel.schedule(delivery, until.toEpochMilli());
+        }
+        if (!deferred) {
+            run(delivery);
+        }
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        if (pending() > 0) {
+            log.warn("Stopping with {} deferred deliveries left as PENDING", pending());
+        }
+    }
+
+    private void tick() {
+        final List<Runnable> due;
+        synchronized (this) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        due.forEach(this::run);
+    }
+
+    private void run(Runnable delivery) {
+        try {
+            delivery.run();
+        } catch (Exception e) {
+            log.error("Deferred delivery failed", e);
+        }
+    }
+}
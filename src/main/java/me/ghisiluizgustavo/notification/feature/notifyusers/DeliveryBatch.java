@@ -0,0 +1,53 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Notifications of one fan-out batch, kept per worker thread and reused from batch to batch.
+ * After the first few batches the slots are large enough and delivering allocates no
+ * notification objects. Everything in a batch shares the single clock read taken in
+ * {@link #begin}.
+ */
+final class DeliveryBatch {
+
+    private Notification[] slots = new Notification[64];
+    private int size;
+    private LocalDateTime now;
+
+    void begin(LocalDateTime now) {
+        this.now = now;
+        this.size = 0;
+    }
+
+    Notification next(NotificationCategory category, NotificationType type, String content) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        Notification notification = slots[size];
+        if (notification == null) {
+            notification = Notification.create(category, type, content, now);
+            slots[size] = notification;
+        } else {
+            notification.reset(category, type, content, now);
+        }
+        size++;
+        return notification;
+    }
+
+    LocalDateTime now() {
+        return now;
+    }
+
+    Notification[] notifications() {
+        return slots;
+    }
+
+    int size() {
+        return size;
+    }
+}
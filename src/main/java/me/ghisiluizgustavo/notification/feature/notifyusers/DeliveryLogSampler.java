@@ -0,0 +1,26 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a single delivery is logged. Callers check {@link #sample()} before building
+ * any log arguments, so unsampled deliveries cost one random draw and nothing else.
+ */
+@Component
+public class DeliveryLogSampler {
+
+    private final double rate;
+
+    public DeliveryLogSampler(DeliveryLoggingProperties properties) {
+        this.rate = properties.deliverySampleRate();
+    }
+
+    public boolean sample() {
+        if (rate <= 0) {
+            return false;
+        }
+        return rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
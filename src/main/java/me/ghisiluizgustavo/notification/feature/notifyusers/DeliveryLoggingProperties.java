@@ -0,0 +1,19 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param deliverySampleRate fraction of individual deliveries, successful or failed, that get a
+ *                           log line of their own; every dispatch still logs one summary
+ */
+@ConfigurationProperties(prefix = "notification.logging")
+public record DeliveryLoggingProperties(
+    @DefaultValue("0.01") double deliverySampleRate
+) {
+    public DeliveryLoggingProperties {
+        if (deliverySampleRate < 0 || deliverySampleRate > 1) {
+            throw new IllegalArgumentException("Delivery log sample rate must be between 0 and 1");
+        }
+    }
+}
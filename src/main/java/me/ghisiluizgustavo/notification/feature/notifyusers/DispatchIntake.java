@@ -0,0 +1,24 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface DispatchIntake {
+    void publish(DispatchMessage message);
+
+    /**
+     * Hands over dispatches accepted together. Intakes that can fan them out through shared
+     * batches override this; the others take them one at a time.
+     */
+    default void publishAll(List<DispatchMessage> messages) {
+        messages.forEach(this::publish);
+    }
+
+    /**
+     * Age of the oldest dispatch handed over but not yet picked up for fan-out, for intakes
+     * that can tell.
+     */
+    default Duration backlogAge() {
+        return Duration.ZERO;
+    }
+}
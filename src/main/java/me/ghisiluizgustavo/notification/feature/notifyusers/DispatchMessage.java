@@ -0,0 +1,29 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+
+public record DispatchMessage(
+    Integer dispatchId,
+    NotificationCategory category,
+    String content,
+    String template,
+    Audience audience
+) {
+    public DispatchMessage {
+        if (audience == null) {
+            audience = Audience.of(category);
+        }
+    }
+
+    public DispatchMessage(Integer dispatchId, NotificationCategory category, String content) {
+        this(dispatchId, category, content, null);
+    }
+
+    public DispatchMessage(Integer dispatchId, NotificationCategory category, String content, String template) {
+        this(dispatchId, category, content, template, null);
+    }
+
+    public DispatchMessage withContent(String content) {
+        return new DispatchMessage(dispatchId, category, content, template, audience);
+    }
+}
@@ -0,0 +1,65 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Binary form of a {@link DispatchMessage} in the ingest log. The audience is stored as its
+ * expression and parsed again on read; the leading version byte leaves room for format changes.
+ */
+final class DispatchMessageCodec {
+
+    private static final byte VERSION = 1;
+
+    private DispatchMessageCodec() {
+    }
+
+    static byte[] encode(DispatchMessage message) {
+        final var bytes = new ByteArrayOutputStream(64 + message.content().length() * 2);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(message.dispatchId());
+            out.writeUTF(message.category().name());
+            out.writeUTF(message.content());
+            writeNullable(out, message.template());
+            out.writeUTF(message.audience().expression());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static DispatchMessage decode(byte[] payload) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            final byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported dispatch message version " + version);
+            }
+            final int dispatchId = in.readInt();
+            final var category = NotificationCategory.valueOf(in.readUTF());
+            final String content = in.readUTF();
+            final String template = readNullable(in);
+            final var audience = Audience.parse(in.readUTF());
+            return new DispatchMessage(dispatchId, category, content, template, audience);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed dispatch message", e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,14 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+public record DispatchOutcome(
+    Integer dispatchId,
+    boolean replayed
+) {
+    public static DispatchOutcome accepted(Integer dispatchId) {
+        return new DispatchOutcome(dispatchId, false);
+    }
+
+    public static DispatchOutcome replayed(Integer dispatchId) {
+        return new DispatchOutcome(dispatchId, true);
+    }
+}
@@ -0,0 +1,17 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+public enum DispatchPriority {
+    HIGH(8),
+    NORMAL(4),
+    LOW(1);
+
+    private final int defaultWeight;
+
+    DispatchPriority(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+}
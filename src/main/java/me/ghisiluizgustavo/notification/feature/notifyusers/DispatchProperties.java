@@ -0,0 +1,52 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification.dispatch")
+public record DispatchProperties(
+    @DefaultValue("4") int workers,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("5s") Duration maxWait,
+    @DefaultValue("10000") int queueCapacity,
+    @DefaultValue("256") int concurrency,
+    Map<NotificationCategory, DispatchPriority> priorities,
+    Map<DispatchPriority, Integer> weights
+) {
+    public DispatchProperties {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Dispatch workers must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Dispatch batch size must be at least 1");
+        }
+        if (maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("Dispatch max wait must be positive");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Dispatch queue capacity must be at least 1");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Dispatch concurrency must be at least 1");
+        }
+        priorities = priorities == null ? Map.of() : Map.copyOf(priorities);
+        weights = weights == null ? Map.of() : Map.copyOf(weights);
+        weights.values().forEach(weight -> {
+            if (weight == null || weight < 1) {
+                throw new IllegalArgumentException("Dispatch priority weights must be at least 1");
+            }
+        });
+    }
+
+    public DispatchPriority priorityOf(NotificationCategory category) {
+        return priorities.getOrDefault(category, DispatchPriority.NORMAL);
+    }
+
+    public int weightOf(DispatchPriority priority) {
+        return weights.getOrDefault(priority, priority.defaultWeight());
+    }
+}
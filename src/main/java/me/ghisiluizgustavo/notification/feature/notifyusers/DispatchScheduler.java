@@ -0,0 +1,37 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+
+import java.time.Duration;
+
+public interface DispatchScheduler {
+    void submit(NotificationCategory category, Runnable task);
+
+    /**
+     * How long the oldest batch still waiting for a worker has waited, for schedulers that queue.
+     */
+    default Duration oldestWait() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Batches waiting for a worker, for schedulers that queue.
+     */
+    default int queued() {
+        return 0;
+    }
+
+    /**
+     * Has {@code listener} told about every batch that finishes, for schedulers that queue.
+     */
+    default void addCompletionListener(CompletionListener listener) {
+    }
+
+    interface CompletionListener {
+        /**
+         * @param latencyNanos time from the batch's submission to the end of its run
+         * @param failed       whether the batch threw
+         */
+        void completed(long latencyNanos, boolean failed);
+    }
+}
@@ -0,0 +1,72 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters for one dispatch, shared by all of its fan-out batches. The batch that
+ * finishes last writes the single summary line, with the counts as structured key-values.
+ */
+@Slf4j
+final class DispatchSummary {
+
+    private final DispatchMessage message;
+    private final int users;
+    private final long startedNanos = System.nanoTime();
+    private final AtomicInteger pendingBatches;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final Runnable onComplete;
+
+    DispatchSummary(DispatchMessage message, int users, int batches) {
+        this(message, users, batches, null);
+    }
+
+    DispatchSummary(DispatchMessage message, int users, int batches, Runnable onComplete) {
+        this.message = message;
+        this.users = users;
+        this.pendingBatches = new AtomicInteger(batches);
+        this.onComplete = onComplete;
+    }
+
+    DispatchMessage message() {
+        return message;
+    }
+
+    void batchCompleted(int batchSent, int batchFailed, int batchDeferred) {
+        sent.add(batchSent);
+        failed.add(batchFailed);
+        deferred.add(batchDeferred);
+        if (pendingBatches.decrementAndGet() == 0) {
+            log();
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        }
+    }
+
+    private void log() {
+        final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        log.atInfo()
+            .addKeyValue("dispatchId", message.dispatchId())
+            .addKeyValue("category", message.category())
+            .addKeyValue("audience", message.audience().expression())
+            .addKeyValue("users", users)
+            .addKeyValue("sent", sent.sum())
+            .addKeyValue("failed", failed.sum())
+            .addKeyValue("deferred", deferred.sum())
+            .addKeyValue("durationMs", durationMillis)
+            .log("Dispatch {} delivered to {} users: {} sent, {} failed, {} deferred in {} ms",
+                message.dispatchId(),
+                users,
+                sent.sum(),
+                failed.sum(),
+                deferred.sum(),
+                durationMillis
+            );
+    }
+}
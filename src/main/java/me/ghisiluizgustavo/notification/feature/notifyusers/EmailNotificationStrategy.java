@@ -3,25 +3,95 @@ package me.ghisiluizgustavo.notification.feature.notifyusers;
 import lombok.extern.slf4j.Slf4j;
 import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderHttpClient;
+import me.ghisiluizgustavo.notification.infrastructure.smtp.MailMessage;
+import me.ghisiluizgustavo.notification.infrastructure.smtp.SmtpMailer;
 import me.ghisiluizgustavo.user.domain.User;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Sends through the SMTP relay when one is configured, taking a fan-out batch at a time so
+ * recipients of the same content share transactions; otherwise through the HTTP provider.
+ */
 @Slf4j
 @Component
-public class EmailNotificationStrategy implements NotificationStrategy {
+public class EmailNotificationStrategy extends ProviderNotificationStrategy {
+
+    private final SmtpMailer smtpMailer;
+
+    public EmailNotificationStrategy(ProviderHttpClient providerClient, SmtpMailer smtpMailer) {
+        super(providerClient, NotificationType.EMAIL);
+        this.smtpMailer = smtpMailer;
+    }
 
     @Override
     public void send(User user, Notification notification) {
-        log.info("Sending EMAIL notification to: {} ({})", user.name(), user.email());
-        log.info("   Category: {} | Type: {} | Content: {}", 
-            notification.getCategory(),
-            notification.getType(),
-            notification.getContent()
-        );
+        if (!smtpMailer.isConfigured()) {
+            super.send(user, notification);
+            return;
+        }
+        smtpMailer.send(mail(user, notification));
+    }
+
+    @Override
+    public Mono<Void> sendReactive(User user, Notification notification) {
+        if (!smtpMailer.isConfigured()) {
+            return super.sendReactive(user, notification);
+        }
+        return Mono.<Void>fromRunnable(() -> smtpMailer.send(mail(user, notification)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public boolean batchesRecipients() {
+        return smtpMailer.isConfigured();
     }
 
     @Override
-    public boolean supports(NotificationType type) {
-        return NotificationType.EMAIL == type;
+    public int maxBatchSize() {
+        return smtpMailer.maxRecipients();
+    }
+
+    @Override
+    public void sendAll(List<User> users, List<Notification> notifications, ObjIntConsumer<Exception> failed) {
+        if (!smtpMailer.isConfigured()) {
+            super.sendAll(users, notifications, failed);
+            return;
+        }
+        final List<MailMessage> mails = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            mails.add(mail(users.get(i), notifications.get(i)));
+        }
+        smtpMailer.sendAll(mails, failed::accept);
+    }
+
+    @Override
+    Object payload(User user, Notification notification) {
+        return new EmailMessage(user.email(), user.name(), notification.getCategory().name(), notification.getContent());
+    }
+
+    @Override
+    void logUnsent(User user, Notification notification) {
+        if (log.isDebugEnabled()) {
+            log.debug("Sending EMAIL notification to: {} ({}) | Category: {} | Content: {}",
+                user.name(),
+                user.email(),
+                notification.getCategory(),
+                notification.getContent()
+            );
+        }
+    }
+
+    private static MailMessage mail(User user, Notification notification) {
+        return new MailMessage(user.email(), user.name(), notification.getCategory().name(), notification.getContent());
+    }
+
+    record EmailMessage(String to, String name, String subject, String html) {
     }
 }
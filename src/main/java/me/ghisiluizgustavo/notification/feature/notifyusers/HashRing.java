@@ -0,0 +1,77 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consistent-hash ring of instances with {@value #VIRTUAL_NODES} points each. A shard belongs to
+ * the first point clockwise from its hash, so when an instance joins or leaves only the shards
+ * next to its points move.
+ */
+final class HashRing {
+
+    static final int VIRTUAL_NODES = 128;
+
+    private final List<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    HashRing(Collection<String> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Hash ring needs at least one member");
+        }
+        this.members = List.copyOf(members);
+        final int size = this.members.size() * VIRTUAL_NODES;
+        final long[][] entries = new long[size][];
+        int i = 0;
+        for (int m = 0; m < this.members.size(); m++) {
+            final long memberHash = mix(this.members.get(m).hashCode());
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                entries[i++] = new long[]{mix(memberHash + v), m};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int p = 0; p < size; p++) {
+            points[p] = entries[p][0];
+            owners[p] = this.members.get((int) entries[p][1]);
+        }
+    }
+
+    List<String> members() {
+        return members;
+    }
+
+    String ownerOf(int shard) {
+        final int found = Arrays.binarySearch(points, mix(shard));
+        final int index = found >= 0 ? found : -found - 1;
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Owner of every shard in {@code [0, shards)}, indexed by shard.
+     */
+    String[] assign(int shards) {
+        final String[] assignment = new String[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            assignment[shard] = ownerOf(shard);
+        }
+        return assignment;
+    }
+
+    static int shardOf(int userId, int shards) {
+        return (int) Long.remainderUnsigned(mix(userId), shards);
+    }
+
+    /**
+     * SplitMix64 finalizer: consecutive ids and small hash codes spread over the whole ring.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,105 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory view of recently accepted idempotency keys, checked before the database.
+ * Entries share a single TTL, so insertion order is also expiry order and eviction only
+ * ever looks at the head of the map.
+ * <p>
+ * Each key keeps the {@link NotificationRequest#fingerprint() fingerprint} of the request that
+ * stored it, so a key reused for a different request is refused instead of replayed.
+ */
+@Component
+public class IdempotencyCache {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotencyCache(IdempotencyProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    IdempotencyCache(IdempotencyProperties properties, Clock clock) {
+        if (properties.maxEntries() <= 0) {
+            throw new IllegalArgumentException("Idempotency cache max entries must be positive");
+        }
+        this.ttlMillis = properties.ttl().toMillis();
+        this.maxEntries = properties.maxEntries();
+        this.clock = clock;
+    }
+
+    public static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters"
+            );
+        }
+    }
+
+    public synchronized Optional<Stored> get(String key) {
+        final long now = clock.millis();
+        evictExpired(now);
+        final Entry entry = entries.get(key);
+        return entry == null ? Optional.empty() : Optional.of(entry.stored());
+    }
+
+    public synchronized void put(String key, Integer dispatchId, String requestHash) {
+        final long now = clock.millis();
+        evictExpired(now);
+        entries.remove(key);
+        entries.put(key, new Entry(new Stored(dispatchId, requestHash), now + ttlMillis));
+        while (entries.size() > maxEntries) {
+            final Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() <= now) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The dispatch stored under a key and the fingerprint of its request; dispatches stored
+     * before fingerprints were recorded have none.
+     */
+    public record Stored(Integer dispatchId, String requestHash) {
+
+        /**
+         * @return the dispatch to replay for a retry of the request with {@code requestHash}
+         * @throws IdempotencyKeyReusedException when the key was stored for a different request
+         */
+        public Integer replay(String key, String requestHash) {
+            if (!matches(requestHash)) {
+                throw new IdempotencyKeyReusedException(key, dispatchId);
+            }
+            return dispatchId;
+        }
+
+        public boolean matches(String requestHash) {
+            return this.requestHash == null || this.requestHash.equals(requestHash);
+        }
+    }
+
+    private record Entry(Stored stored, long expiresAt) { }
+}
@@ -0,0 +1,12 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+/**
+ * Thrown when an Idempotency-Key already stored for one request arrives with a different one.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey, Integer dispatchId) {
+        super("Idempotency-Key '" + idempotencyKey + "' was already used for a different request (dispatch "
+            + dispatchId + ")");
+    }
+}
@@ -0,0 +1,162 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.config.IngestProperties;
+import me.ghisiluizgustavo.notification.infrastructure.ingest.IngestLog;
+import me.ghisiluizgustavo.notification.infrastructure.ingest.IngestRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends accepted dispatches to the {@link IngestLog} and feeds the fan-out from it. The
+ * committed offset only moves past a dispatch once every one of its batches has finished and
+ * every earlier dispatch has too, so a restart resumes with whatever was accepted but not fully
+ * delivered. Delivery is at-least-once: a dispatch interrupted mid-way is fanned out again.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${notification.ingest.enabled:false} and !${notification.sharding.enabled:false}")
+public class IngestLogDispatchIntake implements DispatchIntake {
+
+    private static final int READ_BATCH = 256;
+
+    private final IngestLog ingestLog;
+    private final NotificationFanOut fanOut;
+    private final IngestProperties properties;
+    // Offset -> next offset of every dispatch handed to the fan-out and not yet completed.
+    private final TreeMap<Long, Long> inFlight = new TreeMap<>();
+    // Offset -> System.nanoTime() at append of every record the consumer has not read yet.
+    private final ConcurrentSkipListMap<Long, Long> appendedAt = new ConcurrentSkipListMap<>();
+    private final long resumedEndOffset;
+    private final long resumedAt = System.nanoTime();
+    private volatile long readOffset;
+    private Thread consumer;
+    private volatile boolean running = true;
+
+    public IngestLogDispatchIntake(IngestLog ingestLog, NotificationFanOut fanOut, IngestProperties properties) {
+        this.ingestLog = ingestLog;
+        this.fanOut = fanOut;
+        this.properties = properties;
+        this.readOffset = ingestLog.committed(properties.consumerGroup());
+        this.resumedEndOffset = ingestLog.endOffset();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        final long backlog = ingestLog.endOffset() - readOffset;
+        if (backlog > 0) {
+            log.info("Resuming ingest log from offset {} with {} bytes not yet delivered", readOffset, backlog);
+        }
+        consumer = Thread.ofPlatform()
+            .name("notification-ingest")
+            .daemon()
+            .start(this::consume);
+    }
+
+    @Override
+    public void publish(DispatchMessage message) {
+        if (!running) {
+            throw new IllegalStateException("Dispatch intake is shut down");
+        }
+        final long offset = ingestLog.append(DispatchMessageCodec.encode(message));
+        appendedAt.put(offset, System.nanoTime());
+        final Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Time since the oldest record the consumer has not read yet was appended. Records left from
+     * before a restart count from the restart.
+     */
+    @Override
+    public Duration backlogAge() {
+        final long consumed = readOffset;
+        if (consumed < resumedEndOffset) {
+            return Duration.ofNanos(System.nanoTime() - resumedAt);
+        }
+        final Map.Entry<Long, Long> oldest = appendedAt.ceilingEntry(consumed);
+        return oldest == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - oldest.getValue());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        final Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    void consume() {
+        final long pollNanos = properties.pollInterval().toNanos();
+        while (running) {
+            if (inFlightCount() >= properties.maxInFlight()) {
+                LockSupport.parkNanos(pollNanos);
+                continue;
+            }
+            final List<IngestRecord> records = ingestLog.read(
+                readOffset,
+                Math.min(READ_BATCH, properties.maxInFlight() - inFlightCount())
+            );
+            if (records.isEmpty()) {
+                LockSupport.parkNanos(pollNanos);
+                continue;
+            }
+            for (IngestRecord record : records) {
+                dispatch(record);
+            }
+            appendedAt.headMap(readOffset).clear();
+        }
+    }
+
+    private void dispatch(IngestRecord record) {
+        synchronized (inFlight) {
+            inFlight.put(record.offset(), record.nextOffset());
+            readOffset = record.nextOffset();
+        }
+        final DispatchMessage message;
+        try {
+            message = DispatchMessageCodec.decode(record.payload());
+        } catch (RuntimeException e) {
+            log.error("Skipping unreadable ingest record at offset {}", record.offset(), e);
+            complete(record.offset());
+            return;
+        }
+        try {
+            fanOut.deliver(message, () -> complete(record.offset()));
+        } catch (RuntimeException e) {
+            log.error("Fan-out failed for dispatch {}", message.dispatchId(), e);
+            complete(record.offset());
+        }
+    }
+
+    private void complete(long offset) {
+        synchronized (inFlight) {
+            final boolean oldest = inFlight.firstKey() == offset;
+            inFlight.remove(offset);
+            if (oldest) {
+                ingestLog.commit(properties.consumerGroup(), inFlight.isEmpty() ? readOffset : inFlight.firstKey());
+            }
+        }
+    }
+
+    private int inFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.WaitStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "notification.intake")
+public record IntakeProperties(
+    @DefaultValue("65536") int bufferSize,
+    @DefaultValue("2") int consumers,
+    @DefaultValue("BLOCKING") WaitStrategy.Kind waitStrategy
+) {
+    public IntakeProperties {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Intake buffer size must be a power of two");
+        }
+        if (consumers < 1) {
+            throw new IllegalArgumentException("Intake consumers must be at least 1");
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Intake wait strategy is required");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holds non-urgent dispatches of a category for its window and publishes them to the
+ * {@link DispatchIntake} as one digest. A dispatch held for the intake is turned back into a
+ * pending one in the database, due two windows later, and only marked dispatched once its digest
+ * is in the intake; if the instance stops before that, the scheduler fires it on its own.
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    private static final String DIGEST_SEPARATOR = "\n";
+
+    private final DispatchIntake dispatchIntake;
+    private final DispatchRepository dispatchRepository;
+    private final Map<NotificationCategory, CoalescingProperties.Window> windows;
+    private final ScheduledExecutorService timer;
+    private final Map<DigestKey, PendingDigest> pending = new HashMap<>();
+
+    @Autowired
+    public NotificationCoalescer(
+        DispatchIntake dispatchIntake,
+        DispatchRepository dispatchRepository,
+        CoalescingProperties properties
+    ) {
+        this(dispatchIntake, dispatchRepository, properties, Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notification-coalescer").daemon().factory()
+        ));
+    }
+
+    NotificationCoalescer(
+        DispatchIntake dispatchIntake,
+        DispatchRepository dispatchRepository,
+        CoalescingProperties properties,
+        ScheduledExecutorService timer
+    ) {
+        this.dispatchIntake = dispatchIntake;
+        this.dispatchRepository = dispatchRepository;
+        this.windows = properties.categories();
+        this.timer = timer;
+    }
+
+    /**
+     * @return {@code false} when the dispatch should be published on its own, including when it
+     * could not be held in the database
+     */
+    public boolean offer(DispatchMessage message, boolean urgent) {
+        return offer(message, urgent, dispatchIntake::publish, true);
+    }
+
+    /**
+     * Same as {@link #offer(DispatchMessage, boolean)}, with the digest handed to
+     * {@code delivery} instead of the intake and nothing held in the database. The first message
+     * of a digest decides where the digest goes.
+     */
+    public boolean offer(DispatchMessage message, boolean urgent, Consumer<DispatchMessage> delivery) {
+        return offer(message, urgent, delivery, false);
+    }
+
+    private boolean offer(DispatchMessage message, boolean urgent, Consumer<DispatchMessage> delivery, boolean held) {
+        final NotificationCategory category = message.category();
+        final CoalescingProperties.Window window = windows.get(category);
+        if (window == null || urgent) {
+            return false;
+        }
+        if (held && !hold(message, window)) {
+            return false;
+        }
+
+        final DigestKey key = new DigestKey(category, message.template(), message.audience().expression(), held);
+        PendingDigest ready = null;
+        synchronized (pending) {
+            PendingDigest digest = pending.get(key);
+            if (digest == null) {
+                digest = new PendingDigest(message, delivery, held);
+                final PendingDigest scheduled = digest;
+                digest.timeout = timer.schedule(
+                    () -> flush(key, scheduled),
+                    window.window().toMillis(),
+                    TimeUnit.MILLISECONDS
+                );
+                pending.put(key, digest);
+            }
+            digest.contents.add(message.content());
+            digest.dispatchIds.add(message.dispatchId());
+
+            if (digest.contents.size() >= window.maxDigestSize()) {
+                pending.remove(key);
+                digest.timeout.cancel(false);
+                ready = digest;
+            }
+        }
+
+        log.info("Coalescing {} notification into dispatch {}", category, message.dispatchId());
+        if (ready != null) {
+            deliver(ready);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        final List<PendingDigest> drained;
+        synchronized (pending) {
+            drained = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        drained.forEach(digest -> {
+            digest.timeout.cancel(false);
+            deliver(digest);
+        });
+        timer.shutdown();
+    }
+
+    private void flush(DigestKey key, PendingDigest digest) {
+        synchronized (pending) {
+            if (pending.get(key) != digest) {
+                return;
+            }
+            pending.remove(key);
+        }
+        deliver(digest);
+    }
+
+    private void deliver(PendingDigest digest) {
+        final DispatchMessage head = digest.head;
+        log.info("Delivering {} digest of {} notifications under dispatch {}",
+            head.category(),
+            digest.contents.size(),
+            head.dispatchId()
+        );
+        try {
+            digest.delivery.accept(head.withContent(String.join(DIGEST_SEPARATOR, digest.contents)));
+        } catch (Exception e) {
+            log.error("Failed to deliver {} digest for dispatch {}", head.category(), head.dispatchId(), e);
+            return;
+        }
+        if (digest.held) {
+            try {
+                dispatchRepository.markAllDispatched(digest.dispatchIds, LocalDateTime.now());
+            } catch (Exception e) {
+                log.warn("Could not mark the {} dispatches of digest {} as dispatched; they may be sent again",
+                    digest.dispatchIds.size(), head.dispatchId(), e);
+            }
+        }
+    }
+
+    private boolean hold(DispatchMessage message, CoalescingProperties.Window window) {
+        try {
+            dispatchRepository.holdUntil(message.dispatchId(), LocalDateTime.now().plus(window.window().multipliedBy(2)));
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not hold dispatch {} for a digest; publishing it on its own", message.dispatchId(), e);
+            return false;
+        }
+    }
+
+    private record DigestKey(NotificationCategory category, String template, String audience, boolean held) { }
+
+    private static final class PendingDigest {
+        private final DispatchMessage head;
+        private final Consumer<DispatchMessage> delivery;
+        private final boolean held;
+        private final List<String> contents = new ArrayList<>();
+        private final List<Integer> dispatchIds = new ArrayList<>();
+        private ScheduledFuture<?> timeout;
+
+        private PendingDigest(DispatchMessage head, Consumer<DispatchMessage> delivery, boolean held) {
+            this.head = head;
+            this.delivery = delivery;
+            this.held = held;
+        }
+    }
+}
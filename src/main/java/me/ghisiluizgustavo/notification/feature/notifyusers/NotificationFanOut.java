@@ -0,0 +1,445 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsRecorder;
+import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryCache;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDelivery;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationBatchWriter;
+import me.ghisiluizgustavo.user.domain.User;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class NotificationFanOut {
+
+    private static final int PERSIST_ATTEMPTS = 3;
+    private static final Duration PERSIST_BACKOFF = Duration.ofMillis(100);
+
+    private final DeferredDeliveryRepository deferredDeliveries;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final AudienceIndex audienceIndex;
+    private final NotificationStrategy[][] strategiesByChannel;
+    private final DispatchScheduler dispatchScheduler;
+    private final DispatchProperties dispatchProperties;
+    private final QuietHoursIndex quietHoursIndex;
+    private final DelayedDeliveryQueue delayedDeliveryQueue;
+    private final TemplateRenderer templateRenderer;
+    private final DeliveryStatsRecorder deliveryStatsRecorder;
+    private final DeliveryLogSampler logSampler;
+    private final ChannelLimiters channelLimiters;
+    private final NotificationHistoryCache historyCache;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ThreadLocal<DeliveryBatch> batches = ThreadLocal.withInitial(DeliveryBatch::new);
+
+    public NotificationFanOut(
+        DeferredDeliveryRepository deferredDeliveries,
+        NotificationBatchWriter notificationBatchWriter,
+        AudienceIndex audienceIndex,
+        List<NotificationStrategy> strategies,
+        DispatchScheduler dispatchScheduler,
+        DispatchProperties dispatchProperties,
+        QuietHoursIndex quietHoursIndex,
+        DelayedDeliveryQueue delayedDeliveryQueue,
+        TemplateRenderer templateRenderer,
+        DeliveryStatsRecorder deliveryStatsRecorder,
+        DeliveryLogSampler logSampler,
+        ChannelLimiters channelLimiters,
+        NotificationHistoryCache historyCache
+    ) {
+        this.deferredDeliveries = deferredDeliveries;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.audienceIndex = audienceIndex;
+        this.dispatchScheduler = dispatchScheduler;
+        this.dispatchProperties = dispatchProperties;
+        this.quietHoursIndex = quietHoursIndex;
+        this.delayedDeliveryQueue = delayedDeliveryQueue;
+        this.templateRenderer = templateRenderer;
+        this.deliveryStatsRecorder = deliveryStatsRecorder;
+        this.logSampler = logSampler;
+        this.channelLimiters = channelLimiters;
+        this.historyCache = historyCache;
+
+        final NotificationType[] channels = NotificationType.values();
+        this.strategiesByChannel = new NotificationStrategy[channels.length][];
+        for (NotificationType channel : channels) {
+            strategiesByChannel[channel.ordinal()] = strategies.stream()
+                .filter(strategy -> strategy.supports(channel))
+                .toArray(NotificationStrategy[]::new);
+        }
+    }
+
+    public int deliver(DispatchMessage message) {
+        return deliver(message, null);
+    }
+
+    /**
+     * @param onComplete run once every batch of the dispatch has finished, successfully or not
+     */
+    public int deliver(DispatchMessage message, Runnable onComplete) {
+        final List<User> audience = resolve(message.audience());
+        if (audience.isEmpty()) {
+            log.warn("No users subscribed to audience '{}' for dispatch {}",
+                message.audience().expression(),
+                message.dispatchId()
+            );
+        }
+        return deliver(message, audience, onComplete);
+    }
+
+    public List<User> resolve(Audience audience) {
+        return audienceIndex.resolve(audience);
+    }
+
+    /**
+     * Delivers to {@code subscribedUsers}, already {@linkplain #resolve resolved} from the
+     * dispatch audience, such as the part of it a shard is responsible for.
+     */
+    public int deliver(DispatchMessage message, List<User> subscribedUsers, Runnable onComplete) {
+        final NotificationCategory category = message.category();
+        if (subscribedUsers.isEmpty()) {
+            if (onComplete != null) {
+                onComplete.run();
+            }
+            return 0;
+        }
+
+        final int batchSize = dispatchProperties.batchSize();
+        final int batches = (subscribedUsers.size() + batchSize - 1) / batchSize;
+        final var summary = new DispatchSummary(message, subscribedUsers.size(), batches, onComplete);
+        for (int from = 0; from < subscribedUsers.size(); from += batchSize) {
+            final var batch = subscribedUsers.subList(from, Math.min(from + batchSize, subscribedUsers.size()));
+            dispatchScheduler.submit(category, () -> deliverBatch(summary, batch));
+        }
+
+        log.debug("Dispatch {} scheduled in {} batches for {} users", message.dispatchId(), batches, subscribedUsers.size());
+        return subscribedUsers.size();
+    }
+
+    /**
+     * Fans out several dispatches at once, packing the recipients of dispatches in the same
+     * category into shared batches of up to {@code batch-size} users. Each shared batch is one
+     * scheduler task and one JDBC insert however many dispatches it covers, so a burst of small
+     * dispatches does not cost a partly filled batch each.
+     */
+    public void deliverAll(List<DispatchMessage> messages) {
+        final int batchSize = dispatchProperties.batchSize();
+        final List<List<User>> audiences = new ArrayList<>(messages.size());
+        final int[] segmentCounts = new int[messages.size()];
+        final Map<NotificationCategory, List<int[]>> open = new EnumMap<>(NotificationCategory.class);
+        final Map<NotificationCategory, Integer> openUsers = new EnumMap<>(NotificationCategory.class);
+        final List<List<int[]>> packed = new ArrayList<>();
+
+        for (int m = 0; m < messages.size(); m++) {
+            final DispatchMessage message = messages.get(m);
+            final List<User> users = audienceIndex.resolve(message.audience());
+            audiences.add(users);
+            if (users.isEmpty()) {
+                log.warn("No users subscribed to audience '{}' for dispatch {}",
+                    message.audience().expression(),
+                    message.dispatchId()
+                );
+                continue;
+            }
+            final NotificationCategory category = message.category();
+            for (int from = 0; from < users.size(); ) {
+                final List<int[]> shared = open.computeIfAbsent(category, c -> new ArrayList<>());
+                final int filled = openUsers.getOrDefault(category, 0);
+                final int to = Math.min(users.size(), from + batchSize - filled);
+                shared.add(new int[]{m, from, to});
+                segmentCounts[m]++;
+                if (filled + to - from == batchSize) {
+                    packed.add(open.remove(category));
+                    openUsers.remove(category);
+                } else {
+                    openUsers.put(category, filled + to - from);
+                }
+                from = to;
+            }
+        }
+        packed.addAll(open.values());
+
+        final DispatchSummary[] summaries = new DispatchSummary[messages.size()];
+        for (int m = 0; m < messages.size(); m++) {
+            if (segmentCounts[m] > 0) {
+                summaries[m] = new DispatchSummary(messages.get(m), audiences.get(m).size(), segmentCounts[m]);
+            }
+        }
+        for (List<int[]> shared : packed) {
+            final List<Segment> segments = new ArrayList<>(shared.size());
+            for (int[] range : shared) {
+                segments.add(new Segment(summaries[range[0]], audiences.get(range[0]).subList(range[1], range[2])));
+            }
+            dispatchScheduler.submit(segments.getFirst().summary().message().category(), () -> deliverShared(segments));
+        }
+
+        log.debug("{} dispatches scheduled in {} shared batches", messages.size(), packed.size());
+    }
+
+    void deliverBatch(DispatchSummary summary, List<User> users) {
+        deliverShared(List.of(new Segment(summary, users)));
+    }
+
+    /**
+     * Delivers one batch with a single clock read. Notifications come from the worker's reusable
+     * {@link DeliveryBatch} and are written in one JDBC batch at the end; only deliveries
+     * deferred by quiet hours get their own objects, since they outlive the batch. Deliveries
+     * for a strategy that {@linkplain NotificationStrategy#batchesRecipients batches recipients}
+     * are held and handed over together once the batch is walked. Outcomes are
+     * only counted here; each dispatch's {@link DispatchSummary} logs them once all its batches
+     * are in.
+     */
+    private void deliverShared(List<Segment> segments) {
+        final Instant instant = Instant.now();
+        final var quietHours = quietHoursIndex.snapshot(instant);
+        final DeliveryBatch batch = batches.get();
+        batch.begin(LocalDateTime.ofInstant(instant, zone));
+        final int[] outcomes = new int[segments.size() * 3];
+        List<HeldDelivery> held = null;
+
+        try {
+            for (int s = 0; s < segments.size(); s++) {
+                final DispatchMessage message = segments.get(s).summary().message();
+                final List<User> users = segments.get(s).users();
+                final NotificationCategory category = message.category();
+                final Integer dispatchId = message.dispatchId();
+                final Set<NotificationType> audienceChannels = message.audience().channels();
+
+                for (int u = 0; u < users.size(); u++) {
+                    final User user = users.get(u);
+                    final List<NotificationType> channels = user.channels();
+                    for (int c = 0; c < channels.size(); c++) {
+                        final NotificationType channel = channels.get(c);
+                        if (!audienceChannels.contains(channel)) {
+                            continue;
+                        }
+                        for (NotificationStrategy strategy : strategiesByChannel[channel.ordinal()]) {
+                            final String content = templateRenderer.render(message, channel, user);
+                            final long quietUntil = quietHours.quietUntil(user.id(), channel);
+                            if (quietUntil > 0) {
+                                final var pending = Notification.create(category, channel, content, batch.now());
+                                pending.setUserId(user.id());
+                                pending.setDispatchId(dispatchId);
+                                defer(user, strategy, pending, Instant.ofEpochSecond(quietUntil));
+                                outcomes[s * 3 + 2]++;
+                                continue;
+                            }
+
+                            final Notification notification = batch.next(category, channel, content);
+                            notification.setUserId(user.id());
+                            notification.setDispatchId(dispatchId);
+                            if (strategy.batchesRecipients()) {
+                                if (held == null) {
+                                    held = new ArrayList<>();
+                                }
+                                held.add(new HeldDelivery(s, strategy, user, notification));
+                                continue;
+                            }
+                            if (send(user, strategy, notification, batch.now())) {
+                                outcomes[s * 3]++;
+                            } else {
+                                outcomes[s * 3 + 1]++;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (held != null) {
+                sendHeld(held, outcomes, batch.now());
+            }
+        } catch (RuntimeException e) {
+            for (Segment segment : segments) {
+                log.error("Batch of {} users failed for dispatch {}",
+                    segment.users().size(),
+                    segment.summary().message().dispatchId(),
+                    e
+                );
+                segment.summary().batchCompleted(0, segment.users().size(), 0);
+            }
+            return;
+        }
+
+        if (batch.size() > 0) {
+            persist(segments, batch);
+        }
+        for (int s = 0; s < segments.size(); s++) {
+            segments.get(s).summary().batchCompleted(outcomes[s * 3], outcomes[s * 3 + 1], outcomes[s * 3 + 2]);
+        }
+    }
+
+    /**
+     * Writes the batch's notifications, trying again on failure; the write skips rows already
+     * stored, so a repeat is harmless. The deliveries went out whatever happens here, so a write
+     * that keeps failing loses only their rows, never their outcomes.
+     */
+    private void persist(List<Segment> segments, DeliveryBatch batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                notificationBatchWriter.insert(batch.notifications(), batch.size());
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == PERSIST_ATTEMPTS || !backOff(attempt)) {
+                    log.error("Could not record {} delivered notifications for dispatches {}",
+                        batch.size(), segments.stream().map(segment -> segment.summary().message().dispatchId()).toList(), e);
+                    return;
+                }
+                log.warn("Recording {} delivered notifications failed; retrying: {}", batch.size(), e.toString());
+            }
+        }
+        historyCache.invalidate();
+    }
+
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(PERSIST_BACKOFF.multipliedBy(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Puts a deferral read back from the database into the {@link DelayedDeliveryQueue}, after a
+     * restart or when the instance that deferred it stopped. It goes out through the first
+     * strategy of its channel.
+     */
+    public void resume(DeferredDelivery deferred, User user) {
+        final Notification notification = Notification.create(
+            deferred.category(), deferred.type(), deferred.content(), deferred.createdAt());
+        notification.setUserId(user.id());
+        if (deferred.dispatchId() != null) {
+            notification.setDispatchId(deferred.dispatchId());
+        }
+        final NotificationStrategy[] strategies = strategiesByChannel[deferred.type().ordinal()];
+        if (strategies.length == 0) {
+            log.warn("No strategy for {}; dropping deferred notification {}", deferred.type(), deferred.notificationId());
+            if (deferredDeliveries.claim(deferred.notificationId())) {
+                deferredDeliveries.complete(deferred.notificationId(), NotificationStatus.FAILED, LocalDateTime.now());
+            }
+            return;
+        }
+        release(deferred.notificationId(), user, strategies[0], notification, deferred.deliverAfter());
+    }
+
+    private void defer(User user, NotificationStrategy strategy, Notification notification, Instant until) {
+        final Integer notificationId = deferredDeliveries.insert(notification, until);
+        if (notificationId == null) {
+            return;
+        }
+        historyCache.invalidate();
+        if (logSampler.sample()) {
+            log.info("Deferring {} to user {} until {} (quiet hours)", notification.getType(), user.id(), until);
+        }
+        release(notificationId, user, strategy, notification, until);
+    }
+
+    private void release(int notificationId, User user, NotificationStrategy strategy, Notification notification,
+                         Instant until) {
+        delayedDeliveryQueue.defer(() -> dispatchScheduler.submit(notification.getCategory(), () -> {
+            if (!deferredDeliveries.claim(notificationId)) {
+                return;
+            }
+            final LocalDateTime now = LocalDateTime.now();
+            send(user, strategy, notification, now);
+            deferredDeliveries.complete(notificationId, notification.getStatus(), now);
+            historyCache.invalidate();
+        }), until);
+    }
+
+    private boolean send(User user, NotificationStrategy strategy, Notification notification, LocalDateTime now) {
+        Exception failure = null;
+        try {
+            channelLimiters.send(notification.getType(), strategy, user, notification);
+        } catch (Exception e) {
+            failure = e;
+        }
+        return record(user, notification, failure, now);
+    }
+
+    /**
+     * Hands each strategy its held deliveries in calls of at most {@link NotificationStrategy#maxBatchSize},
+     * each taking one channel permit.
+     */
+    private void sendHeld(List<HeldDelivery> held, int[] outcomes, LocalDateTime now) {
+        final Map<HeldGroup, List<HeldDelivery>> groups = new LinkedHashMap<>();
+        for (HeldDelivery delivery : held) {
+            groups.computeIfAbsent(new HeldGroup(delivery.strategy(), delivery.notification().getType()),
+                group -> new ArrayList<>()).add(delivery);
+        }
+
+        groups.forEach((group, deliveries) -> {
+            final int maxBatchSize = group.strategy().maxBatchSize();
+            for (int from = 0; from < deliveries.size(); from += maxBatchSize) {
+                sendHeld(group, deliveries.subList(from, Math.min(from + maxBatchSize, deliveries.size())), outcomes, now);
+            }
+        });
+    }
+
+    private void sendHeld(HeldGroup group, List<HeldDelivery> deliveries, int[] outcomes, LocalDateTime now) {
+        final List<User> users = new ArrayList<>(deliveries.size());
+        final List<Notification> notifications = new ArrayList<>(deliveries.size());
+        for (HeldDelivery delivery : deliveries) {
+            users.add(delivery.user());
+            notifications.add(delivery.notification());
+        }
+        final Exception[] failures = new Exception[deliveries.size()];
+        try {
+            channelLimiters.sendAll(group.channel(), group.strategy(), users, notifications,
+                (e, index) -> failures[index] = e);
+        } catch (Exception e) {
+            for (int i = 0; i < failures.length; i++) {
+                if (failures[i] == null) {
+                    failures[i] = e;
+                }
+            }
+        }
+        for (int i = 0; i < deliveries.size(); i++) {
+            final boolean sent = record(users.get(i), notifications.get(i), failures[i], now);
+            outcomes[deliveries.get(i).segment() * 3 + (sent ? 0 : 1)]++;
+        }
+    }
+
+    private boolean record(User user, Notification notification, Exception failure, LocalDateTime now) {
+        if (failure == null) {
+            notification.updateStatus(NotificationStatus.SENT, now);
+            if (logSampler.sample()) {
+                log.info("Sent {} to user {} for dispatch {}", notification.getType(), user.id(), notification.getDispatchId());
+            }
+        } else {
+            notification.updateStatus(NotificationStatus.FAILED, now);
+            if (logSampler.sample()) {
+                log.warn("Failed to send {} to user {} for dispatch {}",
+                    notification.getType(),
+                    user.id(),
+                    notification.getDispatchId(),
+                    failure
+                );
+            }
+        }
+        deliveryStatsRecorder.record(notification.getCategory(), notification.getType(), notification.getStatus());
+        return failure == null;
+    }
+
+    private record Segment(DispatchSummary summary, List<User> users) { }
+
+    private record HeldDelivery(int segment, NotificationStrategy strategy, User user, Notification notification) { }
+
+    private record HeldGroup(NotificationStrategy strategy, NotificationType channel) { }
+}
@@ -6,6 +6,13 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import me.ghisiluizgustavo.notification.domain.NotificationCategory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
 @Schema(description = "Request to send a notification to subscribed users")
 public record NotificationRequest(
         @Schema(description = "Notification category", example = "SPORTS")
@@ -15,5 +22,72 @@ public record NotificationRequest(
         @Schema(description = "Notification content/message", example = "Big game tonight at 8 PM!")
         @NotBlank(message = "Content is required and cannot be blank")
         @Size(min = 1, max = 1000, message = "Content must be between 1 and 1000 characters")
-        String content
-) { }
\ No newline at end of file
+        String content,
+
+        @Schema(description = "Send immediately, bypassing the category coalescing window", example = "false")
+        Boolean urgent,
+
+        @Schema(description = "Deliver at this time instead of immediately", example = "2026-01-06T20:00:00")
+        LocalDateTime sendAt,
+
+        @Schema(description = "Name of a configured template to render per channel and recipient", example = "game-alert")
+        @Size(max = 100, message = "Template name must be at most 100 characters")
+        String template,
+
+        @Schema(
+            description = "Targeting expression over category subscriptions, optionally limited to channels. "
+                + "Replaces the category subscribers as recipients when present.",
+            example = "SPORTS AND NOT MOVIES WITH CHANNEL SMS, PUSH"
+        )
+        @Size(max = 500, message = "Audience must be at most 500 characters")
+        String audience
+) {
+    public NotificationRequest(NotificationCategory category, String content) {
+        this(category, content, false, null, null, null);
+    }
+
+    public NotificationRequest(
+        NotificationCategory category,
+        String content,
+        Boolean urgent,
+        LocalDateTime sendAt,
+        String template
+    ) {
+        this(category, content, urgent, sendAt, template, null);
+    }
+
+    public boolean isUrgent() {
+        return Boolean.TRUE.equals(urgent);
+    }
+
+    /**
+     * SHA-256 of every field, hex encoded. Stored with the dispatch so that a retry under the same
+     * Idempotency-Key can be told apart from a different request reusing the key.
+     */
+    public String fingerprint() {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, category);
+        update(digest, content);
+        update(digest, isUrgent());
+        update(digest, sendAt);
+        update(digest, template);
+        update(digest, audience);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Object field) {
+        if (field == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        final byte[] bytes = field.toString().getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
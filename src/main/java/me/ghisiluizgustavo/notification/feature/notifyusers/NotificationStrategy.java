@@ -3,9 +3,53 @@ package me.ghisiluizgustavo.notification.feature.notifyusers;
 import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
 import me.ghisiluizgustavo.user.domain.User;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.ObjIntConsumer;
 
 public interface NotificationStrategy {
     void send(User user, Notification notification);
 
     boolean supports(NotificationType type);
+
+    /**
+     * Used by the reactive fan-out. Strategies backed by a non-blocking client override this;
+     * the default runs {@link #send} on the bounded elastic scheduler.
+     */
+    default Mono<Void> sendReactive(User user, Notification notification) {
+        return Mono.<Void>fromRunnable(() -> send(user, notification))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Whether the fan-out should hand this strategy a whole batch's deliveries at once through
+     * {@link #sendAll} instead of calling {@link #send} for each.
+     */
+    default boolean batchesRecipients() {
+        return false;
+    }
+
+    /**
+     * The most deliveries the fan-out hands {@link #sendAll} in one call; larger groups are split.
+     */
+    default int maxBatchSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sends {@code notifications.get(i)} to {@code users.get(i)} for every index.
+     *
+     * @param failed called with the cause and index of each delivery that failed
+     */
+    default void sendAll(List<User> users, List<Notification> notifications, ObjIntConsumer<Exception> failed) {
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                send(users.get(i), notifications.get(i));
+            } catch (Exception e) {
+                failed.accept(e, i);
+            }
+        }
+    }
 }
@@ -0,0 +1,205 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchBatchWriter;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts many notifications in one request. Items are validated one by one and stored a chunk
+ * at a time: one idempotency lookup, one JDBC batch insert and one hand-off to the
+ * {@link DispatchIntake} per chunk instead of per notification. With an Idempotency-Key, item
+ * {@code i} is keyed {@code <key>:<i>}, so retrying the same batch replays what was stored; an
+ * item whose key was stored for a different request is rejected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotifyUsersBatchHandler {
+
+    private final Validator validator;
+    private final DispatchRepository dispatchRepository;
+    private final DispatchBatchWriter dispatchBatchWriter;
+    private final IdempotencyCache idempotencyCache;
+    private final NotificationCoalescer coalescer;
+    private final DispatchIntake dispatchIntake;
+    private final ScheduledDispatchService scheduledDispatchService;
+    private final TemplateRenderer templateRenderer;
+    private final NotifyUsersHandler notifyUsersHandler;
+    private final BatchProperties properties;
+    private final AdmissionController admissionController;
+
+    public BatchSubmission begin(String idempotencyKey) {
+        if (idempotencyKey != null) {
+            IdempotencyCache.validateKey(idempotencyKey + ":" + properties.maxItems());
+        }
+        return new BatchSubmission(this, idempotencyKey, properties);
+    }
+
+    PendingItem prepare(int index, NotificationRequest request, String idempotencyKey) {
+        final var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+        final String template = request.template();
+        if (template != null && !templateRenderer.exists(template)) {
+            throw new IllegalArgumentException("Unknown template '" + template + "'");
+        }
+        final Audience audience = request.audience() != null ? Audience.parse(request.audience()) : null;
+        final LocalDateTime sendAt = request.sendAt();
+        final boolean scheduled = sendAt != null && sendAt.isAfter(LocalDateTime.now());
+        final String requestHash = idempotencyKey != null ? request.fingerprint() : null;
+        return new PendingItem(index, request, audience, idempotencyKey, requestHash, scheduled);
+    }
+
+    /**
+     * Stores a chunk under one admission ticket. The chunk counts against the concurrency limit and
+     * the quotas of its categories, but its latency is not sampled: a chunk takes far longer than
+     * a single notification and would read as overload.
+     *
+     * @throws AdmissionRejectedException when intake is over capacity
+     */
+    List<BatchItemResult> store(List<PendingItem> items) {
+        final Set<NotificationCategory> categories = EnumSet.noneOf(NotificationCategory.class);
+        items.forEach(item -> categories.add(item.request().category()));
+        try (AdmissionController.Ticket ticket = admissionController.admit(categories)) {
+            try {
+                return storeAdmitted(items);
+            } catch (DataAccessException e) {
+                ticket.dropped();
+                throw e;
+            }
+        }
+    }
+
+    private List<BatchItemResult> storeAdmitted(List<PendingItem> items) {
+        final List<BatchItemResult> results = new ArrayList<>(items.size());
+        final Map<String, IdempotencyCache.Stored> existing = findDispatches(items);
+        final List<PendingItem> fresh = new ArrayList<>(items.size());
+        for (PendingItem item : items) {
+            final IdempotencyCache.Stored stored = item.idempotencyKey() == null ? null : existing.get(item.idempotencyKey());
+            if (stored == null) {
+                fresh.add(item);
+            } else if (stored.matches(item.requestHash())) {
+                results.add(BatchItemResult.replayed(item.index(), stored.dispatchId()));
+            } else {
+                results.add(BatchItemResult.rejected(item.index(),
+                    new IdempotencyKeyReusedException(item.idempotencyKey(), stored.dispatchId()).getMessage()));
+            }
+        }
+        if (fresh.isEmpty()) {
+            return results;
+        }
+
+        final List<DispatchEntityJpa> dispatches = fresh.stream().map(PendingItem::toEntity).toList();
+        try {
+            dispatchBatchWriter.insert(dispatches);
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} dispatches failed, storing them one by one: {}", fresh.size(), e.getMessage());
+            fresh.forEach(item -> results.add(storeOne(item)));
+            return results;
+        }
+
+        final List<DispatchMessage> immediate = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            final PendingItem item = fresh.get(i);
+            final Integer dispatchId = dispatches.get(i).getId();
+            if (item.idempotencyKey() != null) {
+                idempotencyCache.put(item.idempotencyKey(), dispatchId, item.requestHash());
+            }
+            if (item.scheduled()) {
+                scheduledDispatchService.schedule(dispatchId, item.request().sendAt());
+            } else {
+                final NotificationRequest request = item.request();
+                final var message = new DispatchMessage(
+                    dispatchId,
+                    request.category(),
+                    request.content(),
+                    request.template(),
+                    item.audience()
+                );
+                if (!coalescer.offer(message, request.isUrgent())) {
+                    immediate.add(message);
+                }
+            }
+            results.add(BatchItemResult.accepted(item.index(), dispatchId));
+        }
+        if (!immediate.isEmpty()) {
+            dispatchIntake.publishAll(immediate);
+        }
+        return results;
+    }
+
+    /**
+     * Fallback when the chunk insert fails, typically because a concurrent retry of the same
+     * batch stored some of its keys first; the single-item path resolves those as replays.
+     */
+    private BatchItemResult storeOne(PendingItem item) {
+        try {
+            final DispatchOutcome outcome = notifyUsersHandler.dispatch(item.request(), item.idempotencyKey());
+            return outcome.replayed()
+                ? BatchItemResult.replayed(item.index(), outcome.dispatchId())
+                : BatchItemResult.accepted(item.index(), outcome.dispatchId());
+        } catch (IllegalArgumentException | IdempotencyKeyReusedException e) {
+            return BatchItemResult.rejected(item.index(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to store batch item {}", item.index(), e);
+            return BatchItemResult.failed(item.index(), "Could not store the notification; it may be retried");
+        }
+    }
+
+    private Map<String, IdempotencyCache.Stored> findDispatches(List<PendingItem> items) {
+        final Map<String, IdempotencyCache.Stored> found = new HashMap<>();
+        final List<String> uncached = new ArrayList<>();
+        for (PendingItem item : items) {
+            final String key = item.idempotencyKey();
+            if (key != null) {
+                idempotencyCache.get(key).ifPresentOrElse(id -> found.put(key, id), () -> uncached.add(key));
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (DispatchEntityJpa dispatch : dispatchRepository.findAllByIdempotencyKeyIn(uncached)) {
+                found.put(dispatch.getIdempotencyKey(),
+                    new IdempotencyCache.Stored(dispatch.getId(), dispatch.getRequestHash()));
+                idempotencyCache.put(dispatch.getIdempotencyKey(), dispatch.getId(), dispatch.getRequestHash());
+            }
+        }
+        return found;
+    }
+
+    record PendingItem(
+        int index,
+        NotificationRequest request,
+        Audience audience,
+        String idempotencyKey,
+        String requestHash,
+        boolean scheduled
+    ) {
+        DispatchEntityJpa toEntity() {
+            final String audienceExpression = audience != null ? audience.expression() : null;
+            return scheduled
+                ? DispatchEntityJpa.scheduled(idempotencyKey, requestHash, request.category(), request.content(),
+                    request.template(), audienceExpression, request.sendAt())
+                : DispatchEntityJpa.of(idempotencyKey, requestHash, request.category(), request.content(),
+                    request.template(), audienceExpression);
+        }
+    }
+}
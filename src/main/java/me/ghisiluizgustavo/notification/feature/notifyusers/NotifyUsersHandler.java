@@ -2,68 +2,124 @@ package me.ghisiluizgustavo.notification.feature.notifyusers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationCategory;
-import me.ghisiluizgustavo.notification.domain.NotificationStatus;
-import me.ghisiluizgustavo.notification.infrastructure.database.NotificationEntityJpa;
-import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRepository;
-import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotifyUsersHandler {
 
-    private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
-    private final List<NotificationStrategy> strategies;
+    private final DispatchRepository dispatchRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final NotificationCoalescer coalescer;
+    private final DispatchIntake dispatchIntake;
+    private final ScheduledDispatchService scheduledDispatchService;
+    private final TemplateRenderer templateRenderer;
+    private final AdmissionController admissionController;
 
-    public void handle(NotificationRequest request) {
+    public DispatchOutcome handle(NotificationRequest request) {
+        return handle(request, null);
+    }
+
+    /**
+     * @throws AdmissionRejectedException when intake is over capacity
+     */
+    public DispatchOutcome handle(NotificationRequest request, String idempotencyKey) {
+        try (AdmissionController.Ticket ticket = admissionController.admit(request.category())) {
+            try {
+                final DispatchOutcome outcome = dispatch(request, idempotencyKey);
+                ticket.succeeded();
+                return outcome;
+            } catch (DataAccessException e) {
+                ticket.dropped();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stores and starts the dispatch without admission control, for callers that were already
+     * admitted.
+     *
+     * @throws IdempotencyKeyReusedException when the key was already used for a different request
+     */
+    DispatchOutcome dispatch(NotificationRequest request, String idempotencyKey) {
         final NotificationCategory category = request.category();
         final String content = request.content();
+        final LocalDateTime sendAt = request.sendAt();
+        final String template = request.template();
+        final Audience audience = request.audience() != null ? Audience.parse(request.audience()) : null;
+        final String audienceExpression = audience != null ? audience.expression() : null;
+        final boolean scheduled = sendAt != null && sendAt.isAfter(LocalDateTime.now());
+        final String requestHash = idempotencyKey != null ? request.fingerprint() : null;
 
-        log.info("Starting notification process for category: {}", category);
+        if (template != null && !templateRenderer.exists(template)) {
+            throw new IllegalArgumentException("Unknown template '" + template + "'");
+        }
 
-        final var subscribedUsers = userRepository.findAll()
-            .stream()
-            .filter(user -> user.subscribedCategories().contains(category))
-            .toList();
+        if (idempotencyKey != null) {
+            IdempotencyCache.validateKey(idempotencyKey);
 
-        log.info("Found {} subscribed users for category: {}",
-            subscribedUsers.size(),
-            category
-        );
+            final Optional<IdempotencyCache.Stored> existingDispatch = findDispatch(idempotencyKey);
+            if (existingDispatch.isPresent()) {
+                final Integer dispatchId = existingDispatch.get().replay(idempotencyKey, requestHash);
+                log.info("Replaying dispatch {} for idempotency key {}", dispatchId, idempotencyKey);
+                return DispatchOutcome.replayed(dispatchId);
+            }
+        }
 
-        if (subscribedUsers.isEmpty()) {
-            log.warn("No users subscribed to category: {}", category);
-            return;
+        final DispatchEntityJpa dispatch;
+        try {
+            dispatch = dispatchRepository.save(scheduled
+                ? DispatchEntityJpa.scheduled(idempotencyKey, requestHash, category, content, template,
+                    audienceExpression, sendAt)
+                : DispatchEntityJpa.of(idempotencyKey, requestHash, category, content, template, audienceExpression));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            final Integer concurrentDispatch = findDispatch(idempotencyKey)
+                .orElseThrow(() -> e)
+                .replay(idempotencyKey, requestHash);
+            log.info("Concurrent submission for idempotency key {} resolved to dispatch {}",
+                idempotencyKey,
+                concurrentDispatch
+            );
+            return DispatchOutcome.replayed(concurrentDispatch);
         }
 
-        subscribedUsers.forEach(user -> {
-            log.info("Processing user: {}", user.name());
-
-            user.channels().forEach(channel -> strategies.stream()
-                .filter(strategy -> strategy.supports(channel))
-                .forEach(strategy -> {
-                    final var notification = Notification.create(category, channel, content);
-                    notification.setUserId(user.id());
-
-                    try {
-                        strategy.send(user, notification);
-                        log.info("Sent via {} to {}", channel, user.name());
-                        notification.updateStatus(NotificationStatus.SENT);
-                    } catch (Exception e) {
-                        log.error("Failed to send notification to {} via {}", user.name(), channel, e);
-                        notification.updateStatus(NotificationStatus.FAILED);
-                    }
-
-                    notificationRepository.save(NotificationEntityJpa.fromDomain(notification));
-                }));
-        });
+        if (idempotencyKey != null) {
+            idempotencyCache.put(idempotencyKey, dispatch.getId(), requestHash);
+        }
+
+        if (scheduled) {
+            scheduledDispatchService.schedule(dispatch.getId(), sendAt);
+            return DispatchOutcome.accepted(dispatch.getId());
+        }
+
+        final var message = new DispatchMessage(dispatch.getId(), category, content, template, audience);
+        if (coalescer.offer(message, request.isUrgent())) {
+            return DispatchOutcome.accepted(dispatch.getId());
+        }
+
+        dispatchIntake.publish(message);
+        return DispatchOutcome.accepted(dispatch.getId());
+    }
 
-        log.info("Notification process completed! Sent to {} users", subscribedUsers.size());
+    private Optional<IdempotencyCache.Stored> findDispatch(String idempotencyKey) {
+        return idempotencyCache.get(idempotencyKey)
+            .or(() -> dispatchRepository.findByIdempotencyKey(idempotencyKey)
+                .map(dispatch -> {
+                    idempotencyCache.put(idempotencyKey, dispatch.getId(), dispatch.getRequestHash());
+                    return new IdempotencyCache.Stored(dispatch.getId(), dispatch.getRequestHash());
+                }));
     }
 }
@@ -0,0 +1,51 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderHttpClient;
+import me.ghisiluizgustavo.user.domain.User;
+import reactor.core.publisher.Mono;
+
+/**
+ * A channel delivered by an HTTP provider through the shared {@link ProviderHttpClient}. While no
+ * endpoint is configured for the channel, sends are only logged.
+ */
+abstract class ProviderNotificationStrategy implements NotificationStrategy {
+
+    private final ProviderHttpClient providerClient;
+    private final NotificationType channel;
+
+    ProviderNotificationStrategy(ProviderHttpClient providerClient, NotificationType channel) {
+        this.providerClient = providerClient;
+        this.channel = channel;
+    }
+
+    /**
+     * The JSON body posted to the provider.
+     */
+    abstract Object payload(User user, Notification notification);
+
+    abstract void logUnsent(User user, Notification notification);
+
+    @Override
+    public void send(User user, Notification notification) {
+        if (!providerClient.isConfigured(channel)) {
+            logUnsent(user, notification);
+            return;
+        }
+        providerClient.send(channel, payload(user, notification));
+    }
+
+    @Override
+    public Mono<Void> sendReactive(User user, Notification notification) {
+        if (!providerClient.isConfigured(channel)) {
+            return Mono.fromRunnable(() -> logUnsent(user, notification));
+        }
+        return Mono.fromFuture(() -> providerClient.sendAsync(channel, payload(user, notification))).then();
+    }
+
+    @Override
+    public boolean supports(NotificationType type) {
+        return channel == type;
+    }
+}
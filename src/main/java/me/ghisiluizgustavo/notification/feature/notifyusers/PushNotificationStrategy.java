@@ -3,25 +3,35 @@ package me.ghisiluizgustavo.notification.feature.notifyusers;
 import lombok.extern.slf4j.Slf4j;
 import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderHttpClient;
 import me.ghisiluizgustavo.user.domain.User;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-public class PushNotificationStrategy implements NotificationStrategy {
+public class PushNotificationStrategy extends ProviderNotificationStrategy {
+
+    public PushNotificationStrategy(ProviderHttpClient providerClient) {
+        super(providerClient, NotificationType.PUSH);
+    }
 
     @Override
-    public void send(User user, Notification notification) {
-        log.info("Sending PUSH notification to: {} (ID: {})", user.name(), user.id());
-        log.info("   Category: {} | Type: {} | Content: {}", 
-            notification.getCategory(),
-            notification.getType(),
-            notification.getContent()
-        );
+    Object payload(User user, Notification notification) {
+        return new PushMessage(user.id(), notification.getCategory().name(), notification.getContent());
     }
 
     @Override
-    public boolean supports(NotificationType type) {
-        return NotificationType.PUSH == type;
+    void logUnsent(User user, Notification notification) {
+        if (log.isDebugEnabled()) {
+            log.debug("Sending PUSH notification to: {} (ID: {}) | Category: {} | Content: {}",
+                user.name(),
+                user.id(),
+                notification.getCategory(),
+                notification.getContent()
+            );
+        }
+    }
+
+    record PushMessage(Integer userId, String title, String body) {
     }
 }
@@ -0,0 +1,150 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.QuietHours;
+import me.ghisiluizgustavo.user.domain.User;
+import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quiet-hour preferences folded into a handful of buckets, one per distinct (time zone, window,
+ * channels) combination, plus a user id to bucket table. A {@link Snapshot} resolves every bucket
+ * once for a given instant, after which each per-delivery check is two array reads.
+ */
+@Component
+public class QuietHoursIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int NO_BUCKET = -1;
+
+    private volatile Index index;
+
+    @Autowired
+    public QuietHoursIndex(UserRepository userRepository) {
+        this(userRepository.findAll());
+    }
+
+    QuietHoursIndex(List<User> users) {
+        rebuild(users);
+    }
+
+    public void rebuild(List<User> users) {
+        final Map<Bucket, Integer> bucketIds = new HashMap<>();
+        final List<Bucket> buckets = new ArrayList<>();
+        final int maxUserId = users.stream().mapToInt(User::id).max().orElse(0);
+        final int[] bucketByUser = new int[maxUserId + 1];
+        Arrays.fill(bucketByUser, NO_BUCKET);
+
+        for (User user : users) {
+            final QuietHours quietHours = user.quietHours();
+            if (quietHours == null) {
+                continue;
+            }
+            final Bucket bucket = new Bucket(
+                user.timeZone().normalized(),
+                quietHours.start().toSecondOfDay() / 60,
+                quietHours.end().toSecondOfDay() / 60,
+                channelMask(quietHours)
+            );
+            bucketByUser[user.id()] = bucketIds.computeIfAbsent(bucket, b -> {
+                buckets.add(b);
+                return buckets.size() - 1;
+            });
+        }
+        index = new Index(bucketByUser, buckets.toArray(Bucket[]::new));
+    }
+
+    public int bucketCount() {
+        return index.buckets().length;
+    }
+
+    public Snapshot snapshot(Instant now) {
+        final Index current = index;
+        final Bucket[] buckets = current.buckets();
+        final long[] quietUntil = new long[buckets.length];
+        final long nowSeconds = now.getEpochSecond();
+
+        for (int i = 0; i < buckets.length; i++) {
+            final Bucket bucket = buckets[i];
+            final ZoneOffset offset = bucket.zone().getRules().getOffset(now);
+            final int localMinute = (int) Math.floorMod(Math.floorDiv(nowSeconds + offset.getTotalSeconds(), 60), MINUTES_PER_DAY);
+            if (bucket.contains(localMinute)) {
+                quietUntil[i] = endOfWindow(bucket, nowSeconds, offset, localMinute);
+            }
+        }
+        return new Snapshot(current.bucketByUser(), buckets, quietUntil);
+    }
+
+    /**
+     * The window ends at its end time on the local calendar, so a DST change inside the window
+     * moves the instant rather than the wall-clock time; an end time skipped by the change ends
+     * the window when the clocks resume.
+     */
+    private static long endOfWindow(Bucket bucket, long nowSeconds, ZoneOffset offset, int localMinute) {
+        final LocalDate today = LocalDateTime.ofEpochSecond(nowSeconds, 0, offset).toLocalDate();
+        final LocalDate endDate = bucket.endMinute() > localMinute ? today : today.plusDays(1);
+        final LocalDateTime end = LocalDateTime.of(endDate, LocalTime.ofSecondOfDay(bucket.endMinute() * 60L));
+        return ZonedDateTime.ofLocal(end, bucket.zone(), offset).toEpochSecond();
+    }
+
+    private static int channelMask(QuietHours quietHours) {
+        int mask = 0;
+        for (NotificationType type : NotificationType.values()) {
+            if (quietHours.appliesTo(type)) {
+                mask |= 1 << type.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    public static final class Snapshot {
+        private final int[] bucketByUser;
+        private final Bucket[] buckets;
+        private final long[] quietUntil;
+
+        private Snapshot(int[] bucketByUser, Bucket[] buckets, long[] quietUntil) {
+            this.bucketByUser = bucketByUser;
+            this.buckets = buckets;
+            this.quietUntil = quietUntil;
+        }
+
+        /**
+         * @return epoch second at which the user's quiet hours end for this channel, or 0 when
+         * the delivery may go out now.
+         */
+        public long quietUntil(int userId, NotificationType channel) {
+            if (userId >= bucketByUser.length) {
+                return 0;
+            }
+            final int bucket = bucketByUser[userId];
+            if (bucket == NO_BUCKET || (buckets[bucket].channelMask() & (1 << channel.ordinal())) == 0) {
+                return 0;
+            }
+            return quietUntil[bucket];
+        }
+    }
+
+    private record Index(int[] bucketByUser, Bucket[] buckets) { }
+
+    private record Bucket(ZoneId zone, int startMinute, int endMinute, int channelMask) {
+        boolean contains(int minute) {
+            return startMinute < endMinute
+                ? minute >= startMinute && minute < endMinute
+                : minute >= startMinute || minute < endMinute;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsRecorder;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReactiveNotificationRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link NotificationFanOut}. Deliveries run with bounded
+ * {@code flatMap} concurrency and are written in batches through R2DBC, so the pace of the
+ * whole pipeline follows the slowest of the providers and the database.
+ */
+@Slf4j
+@Component
+public class ReactiveNotificationFanOut {
+
+    private final ReactiveNotificationRepository notificationRepository;
+    private final DeferredDeliveryRepository deferredDeliveries;
+    private final AudienceIndex audienceIndex;
+    private final DispatchProperties dispatchProperties;
+    private final QuietHoursIndex quietHoursIndex;
+    private final DelayedDeliveryQueue delayedDeliveryQueue;
+    private final TemplateRenderer templateRenderer;
+    private final DeliveryStatsRecorder deliveryStatsRecorder;
+    private final DeliveryLogSampler logSampler;
+    private final ChannelLimiters channelLimiters;
+    private final Map<NotificationType, List<ReactiveNotificationStrategy>> strategies = new EnumMap<>(NotificationType.class);
+
+    public ReactiveNotificationFanOut(
+        ReactiveNotificationRepository notificationRepository,
+        DeferredDeliveryRepository deferredDeliveries,
+        AudienceIndex audienceIndex,
+        List<NotificationStrategy> blockingStrategies,
+        ObjectProvider<ReactiveNotificationStrategy> reactiveStrategies,
+        DispatchProperties dispatchProperties,
+        QuietHoursIndex quietHoursIndex,
+        DelayedDeliveryQueue delayedDeliveryQueue,
+        TemplateRenderer templateRenderer,
+        DeliveryStatsRecorder deliveryStatsRecorder,
+        DeliveryLogSampler logSampler,
+        ChannelLimiters channelLimiters
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.deferredDeliveries = deferredDeliveries;
+        this.audienceIndex = audienceIndex;
+        this.dispatchProperties = dispatchProperties;
+        this.quietHoursIndex = quietHoursIndex;
+        this.delayedDeliveryQueue = delayedDeliveryQueue;
+        this.templateRenderer = templateRenderer;
+        this.deliveryStatsRecorder = deliveryStatsRecorder;
+        this.logSampler = logSampler;
+        this.channelLimiters = channelLimiters;
+
+        final List<ReactiveNotificationStrategy> natives = reactiveStrategies.orderedStream().toList();
+        for (NotificationType type : NotificationType.values()) {
+            final List<ReactiveNotificationStrategy> supporting = natives.stream()
+                .filter(strategy -> strategy.supports(type))
+                .toList();
+            strategies.put(type, !supporting.isEmpty() ? supporting : blockingStrategies.stream()
+                .filter(strategy -> strategy.supports(type))
+                .map(ReactiveNotificationStrategy::adapt)
+                .toList());
+        }
+    }
+
+    public Mono<Long> deliver(DispatchMessage message) {
+        final var quietHours = quietHoursIndex.snapshot(Instant.now());
+
+        return Flux.fromIterable(audienceIndex.resolve(message.audience()))
+            .flatMap(user -> Flux.fromIterable(user.channels())
+                .filter(message.audience().channels()::contains)
+                .flatMap(channel -> Flux.fromIterable(strategies.get(channel))
+                    .flatMap(strategy -> deliverOne(message, user, channel, strategy, quietHours))),
+                dispatchProperties.concurrency()
+            )
+            .buffer(dispatchProperties.batchSize())
+            .concatMap(rows -> notificationRepository.saveAll(rows).count())
+            .reduce(0L, Long::sum)
+            .doOnNext(count -> log.info("Reactive notification process completed for dispatch {}: {} deliveries",
+                message.dispatchId(),
+                count
+            ));
+    }
+
+    private Mono<NotificationRow> deliverOne(
+        DispatchMessage message,
+        User user,
+        NotificationType channel,
+        ReactiveNotificationStrategy strategy,
+        QuietHoursIndex.Snapshot quietHours
+    ) {
+        final var notification = Notification.create(
+            message.category(),
+            channel,
+            templateRenderer.render(message, channel, user)
+        );
+        notification.setUserId(user.id());
+        notification.setDispatchId(message.dispatchId());
+
+        final long quietUntil = quietHours.quietUntil(user.id(), channel);
+        if (quietUntil > 0) {
+            return defer(user, strategy, notification, Instant.ofEpochSecond(quietUntil));
+        }
+        return send(user, strategy, notification)
+            .then(Mono.fromCallable(() -> NotificationRow.fromDomain(notification)));
+    }
+
+    private Mono<NotificationRow> defer(
+        User user,
+        ReactiveNotificationStrategy strategy,
+        Notification notification,
+        Instant until
+    ) {
+        return Mono.fromCallable(() -> deferredDeliveries.insert(notification, until))
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnNext(notificationId -> delayedDeliveryQueue.defer(() -> release(notificationId, user, strategy, notification)
+                .subscribe(null, e -> log.error("Failed to release deferred notification {}", notificationId, e)), until))
+            .then(Mono.empty());
+    }
+
+    private Mono<Void> release(int notificationId, User user, ReactiveNotificationStrategy strategy, Notification notification) {
+        return Mono.fromCallable(() -> deferredDeliveries.claim(notificationId))
+            .subscribeOn(Schedulers.boundedElastic())
+            .filter(Boolean::booleanValue)
+            .flatMap(claimed -> send(user, strategy, notification)
+                .then(Mono.fromRunnable(() -> deferredDeliveries.complete(
+                    notificationId, notification.getStatus(), LocalDateTime.now()
+                )).subscribeOn(Schedulers.boundedElastic())))
+            .then();
+    }
+
+    private Mono<Void> send(User user, ReactiveNotificationStrategy strategy, Notification notification) {
+        return channelLimiters.sendReactive(notification.getType(), () -> strategy.send(user, notification))
+            .then(Mono.fromRunnable(() -> notification.updateStatus(NotificationStatus.SENT)))
+            .onErrorResume(e -> {
+                if (logSampler.sample()) {
+                    log.warn("Failed to send {} to user {} for dispatch {}",
+                        notification.getType(),
+                        user.id(),
+                        notification.getDispatchId(),
+                        e
+                    );
+                }
+                notification.updateStatus(NotificationStatus.FAILED);
+                return Mono.empty();
+            })
+            .then(Mono.fromRunnable(() -> deliveryStatsRecorder.record(
+                notification.getCategory(),
+                notification.getType(),
+                notification.getStatus()
+            )));
+    }
+}
@@ -0,0 +1,26 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.User;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveNotificationStrategy {
+    Mono<Void> send(User user, Notification notification);
+
+    boolean supports(NotificationType type);
+
+    static ReactiveNotificationStrategy adapt(NotificationStrategy strategy) {
+        return new ReactiveNotificationStrategy() {
+            @Override
+            public Mono<Void> send(User user, Notification notification) {
+                return strategy.sendReactive(user, notification);
+            }
+
+            @Override
+            public boolean supports(NotificationType type) {
+                return strategy.supports(type);
+            }
+        };
+    }
+}
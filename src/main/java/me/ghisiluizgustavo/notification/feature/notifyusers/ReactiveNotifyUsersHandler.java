@@ -0,0 +1,141 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReactiveDispatchRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of {@link NotifyUsersHandler}, used by the {@code reactive} profile.
+ * The returned {@link Mono} completes once the dispatch is persisted; delivery continues in
+ * the background so the request thread is never held by the providers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveNotifyUsersHandler {
+
+    private final ReactiveDispatchRepository dispatchRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final NotificationCoalescer coalescer;
+    private final ReactiveNotificationFanOut fanOut;
+    private final ScheduledDispatchService scheduledDispatchService;
+    private final TemplateRenderer templateRenderer;
+    private final AdmissionController admissionController;
+
+    /**
+     * Fails with {@link AdmissionRejectedException} when intake is over capacity, and with
+     * {@link IdempotencyKeyReusedException} when the key was already used for a different request.
+     */
+    public Mono<DispatchOutcome> handle(NotificationRequest request, String idempotencyKey) {
+        return Mono.using(
+            () -> admissionController.admit(request.category()),
+            ticket -> admitted(request, idempotencyKey)
+                .doOnSuccess(outcome -> ticket.succeeded())
+                .doOnError(DataAccessException.class, e -> ticket.dropped()),
+            AdmissionController.Ticket::close
+        );
+    }
+
+    private Mono<DispatchOutcome> admitted(NotificationRequest request, String idempotencyKey) {
+        return Mono.defer(() -> {
+            final String template = request.template();
+            if (template != null && !templateRenderer.exists(template)) {
+                return Mono.error(new IllegalArgumentException("Unknown template '" + template + "'"));
+            }
+            final Audience audience = request.audience() != null ? Audience.parse(request.audience()) : null;
+            if (idempotencyKey == null) {
+                return dispatch(request, audience, null, null);
+            }
+
+            IdempotencyCache.validateKey(idempotencyKey);
+            final String requestHash = request.fingerprint();
+            return findDispatch(idempotencyKey)
+                .map(existing -> {
+                    final Integer dispatchId = existing.replay(idempotencyKey, requestHash);
+                    log.info("Replaying dispatch {} for idempotency key {}", dispatchId, idempotencyKey);
+                    return DispatchOutcome.replayed(dispatchId);
+                })
+                .switchIfEmpty(Mono.defer(() -> dispatch(request, audience, idempotencyKey, requestHash)));
+        });
+    }
+
+    private Mono<DispatchOutcome> dispatch(
+        NotificationRequest request,
+        Audience audience,
+        String idempotencyKey,
+        String requestHash
+    ) {
+        final LocalDateTime sendAt = request.sendAt();
+        final boolean scheduled = sendAt != null && sendAt.isAfter(LocalDateTime.now());
+
+        return dispatchRepository.save(DispatchRow.of(
+                idempotencyKey,
+                requestHash,
+                request.category(),
+                request.content(),
+                request.template(),
+                audience != null ? audience.expression() : null,
+                scheduled ? sendAt : null
+            ))
+            .flatMap(dispatch -> {
+                if (idempotencyKey != null) {
+                    idempotencyCache.put(idempotencyKey, dispatch.id(), requestHash);
+                }
+                return start(dispatch, audience, request.isUrgent()).thenReturn(DispatchOutcome.accepted(dispatch.id()));
+            })
+            .onErrorResume(DataIntegrityViolationException.class, e -> idempotencyKey == null
+                ? Mono.error(e)
+                : findDispatch(idempotencyKey)
+                    .switchIfEmpty(Mono.error(e))
+                    .map(stored -> stored.replay(idempotencyKey, requestHash))
+                    .map(concurrentDispatch -> {
+                        log.info("Concurrent submission for idempotency key {} resolved to dispatch {}",
+                            idempotencyKey,
+                            concurrentDispatch
+                        );
+                        return DispatchOutcome.replayed(concurrentDispatch);
+                    }));
+    }
+
+    private Mono<Void> start(DispatchRow dispatch, Audience audience, boolean urgent) {
+        if (dispatch.scheduledAt() != null) {
+            return Mono.<Void>fromRunnable(() -> scheduledDispatchService.schedule(dispatch.id(), dispatch.scheduledAt()))
+                .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        final var message = new DispatchMessage(
+            dispatch.id(),
+            dispatch.category(),
+            dispatch.content(),
+            dispatch.template(),
+            audience
+        );
+        return Mono.fromRunnable(() -> {
+            if (!coalescer.offer(message, urgent, this::deliver)) {
+                deliver(message);
+            }
+        });
+    }
+
+    private void deliver(DispatchMessage message) {
+        fanOut.deliver(message).subscribe(
+            count -> { },
+            e -> log.error("Reactive delivery failed for dispatch {}", message.dispatchId(), e)
+        );
+    }
+
+    private Mono<IdempotencyCache.Stored> findDispatch(String idempotencyKey) {
+        return Mono.justOrEmpty(idempotencyCache.get(idempotencyKey))
+            .switchIfEmpty(Mono.defer(() -> dispatchRepository.findByIdempotencyKey(idempotencyKey)
+                .map(dispatch -> new IdempotencyCache.Stored(dispatch.id(), dispatch.requestHash()))
+                .doOnNext(stored -> idempotencyCache.put(idempotencyKey, stored.dispatchId(), stored.requestHash()))));
+    }
+}
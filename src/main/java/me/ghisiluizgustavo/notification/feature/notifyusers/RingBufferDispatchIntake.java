@@ -0,0 +1,148 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.RingBuffer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands accepted dispatches from the request threads to the fan-out through a pre-allocated
+ * {@link RingBuffer}, so intake never resolves audiences itself and a burst costs no queue nodes.
+ * Publishing blocks only when the ring is full. Depth, oldest pending age and hand-off lag are
+ * exported as {@code notification.intake.*} meters.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("!${notification.ingest.enabled:false} and !${notification.sharding.enabled:false}")
+public class RingBufferDispatchIntake implements DispatchIntake {
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final NotificationFanOut fanOut;
+    private final RingBuffer<Slot> ring;
+    private final Timer lag;
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public RingBufferDispatchIntake(NotificationFanOut fanOut, IntakeProperties properties, MeterRegistry meterRegistry) {
+        this.fanOut = fanOut;
+        this.ring = new RingBuffer<>(properties.bufferSize(), Slot::new, properties.waitStrategy().create());
+        this.lag = Timer.builder("notification.intake.lag")
+            .description("Time a dispatch spent in the intake ring before a consumer took it")
+            .register(meterRegistry);
+        Gauge.builder("notification.intake.depth", ring, RingBuffer::depth)
+            .description("Dispatches waiting in the intake ring")
+            .register(meterRegistry);
+        Gauge.builder("notification.intake.capacity", ring, RingBuffer::capacity)
+            .register(meterRegistry);
+        Gauge.builder("notification.intake.oldest", ring, r -> r.oldestPendingNanos(System.nanoTime()) / 1e6)
+            .description("Age in milliseconds of the oldest dispatch not yet taken by a consumer")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+
+        for (int i = 0; i < properties.consumers(); i++) {
+            final RingBuffer<Slot>.Consumer consumer = ring.newConsumer();
+            consumers.add(Thread.ofPlatform()
+                .name("notification-intake-" + i)
+                .daemon()
+                .start(() -> runConsumer(consumer)));
+        }
+    }
+
+    @Override
+    public void publish(DispatchMessage message) {
+        if (!running) {
+            throw new IllegalStateException("Dispatch intake is shut down");
+        }
+        final long sequence = ring.next();
+        ring.get(sequence).message = message;
+        ring.publish(sequence);
+    }
+
+    /**
+     * Publishes the dispatches as one slot, so a single consumer fans them out through
+     * {@link NotificationFanOut#deliverAll} with shared batches.
+     */
+    @Override
+    public void publishAll(List<DispatchMessage> messages) {
+        if (messages.size() == 1) {
+            publish(messages.getFirst());
+            return;
+        }
+        if (!running) {
+            throw new IllegalStateException("Dispatch intake is shut down");
+        }
+        final long sequence = ring.next();
+        ring.get(sequence).group = List.copyOf(messages);
+        ring.publish(sequence);
+    }
+
+    public long depth() {
+        return ring.depth();
+    }
+
+    @Override
+    public Duration backlogAge() {
+        return Duration.ofNanos(ring.oldestPendingNanos(System.nanoTime()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        final long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (!ring.isDrained() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (!ring.isDrained()) {
+            log.warn("Dispatch intake stopped with {} dispatches still queued", ring.depth());
+        }
+        ring.halt();
+        for (Thread consumer : consumers) {
+            consumer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void runConsumer(RingBuffer<Slot>.Consumer consumer) {
+        while (true) {
+            final long sequence = consumer.claim();
+            if (!consumer.await(sequence)) {
+                return;
+            }
+            final Slot slot = ring.get(sequence);
+            final DispatchMessage message = slot.message;
+            final List<DispatchMessage> group = slot.group;
+            slot.message = null;
+            slot.group = null;
+            lag.record(System.nanoTime() - ring.publishedAt(sequence), TimeUnit.NANOSECONDS);
+            consumer.release(sequence);
+            try {
+                if (group != null) {
+                    fanOut.deliverAll(group);
+                } else {
+                    fanOut.deliver(message);
+                }
+            } catch (RuntimeException e) {
+                if (group != null) {
+                    log.error("Fan-out failed for {} dispatches starting at {}", group.size(), group.getFirst().dispatchId(), e);
+                } else {
+                    log.error("Fan-out failed for dispatch {}", message.dispatchId(), e);
+                }
+            }
+        }
+    }
+
+    private static final class Slot {
+        private DispatchMessage message;
+        private List<DispatchMessage> group;
+    }
+}
@@ -0,0 +1,164 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.PendingDispatch;
+import me.ghisiluizgustavo.notification.infrastructure.scheduling.HierarchicalTimingWheel;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires scheduled dispatches from an in-process timing wheel that only holds the ids due within
+ * the configured horizon. Dispatches further out stay in the database and are pulled in by a
+ * periodic range query on the partial {@code scheduled_at} index, which also restores the wheel
+ * after a restart.
+ * <p>
+ * A due dispatch is claimed by moving it a minute ahead, published to the {@link DispatchIntake}
+ * and only then marked dispatched, so one that never reached the intake is fired again. Firing
+ * runs on its own thread, so a slow database or a full intake never holds up the wheel.
+ */
+@Slf4j
+@Service
+public class ScheduledDispatchService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(1);
+
+    private final DispatchRepository dispatchRepository;
+    private final DispatchIntake dispatchIntake;
+    private final SchedulingProperties properties;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final HierarchicalTimingWheel<Integer> wheel;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-scheduler").daemon().factory()
+    );
+    private final ExecutorService firing = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("notification-scheduler-fire").daemon().factory()
+    );
+    private volatile LocalDateTime loadedUntil = EPOCH;
+
+    public ScheduledDispatchService(
+        DispatchRepository dispatchRepository,
+        DispatchIntake dispatchIntake,
+        SchedulingProperties properties
+    ) {
+        this.dispatchRepository = dispatchRepository;
+        this.dispatchIntake = dispatchIntake;
+        this.properties = properties;
+        this.wheel = new HierarchicalTimingWheel<>(
+            properties.tick().toMillis(),
+            properties.wheelSize(),
+            System.currentTimeMillis()
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        final long tickMillis = properties.tick().toMillis();
+        final long reloadMillis = properties.horizon().toMillis() / 2;
+        ticker.scheduleAtFixedRate(this::loadHorizon, 0, reloadMillis, TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void schedule(Integer dispatchId, LocalDateTime sendAt) {
+        if (!sendAt.isBefore(loadedUntil)) {
+            log.info("Dispatch {} scheduled for {} beyond the loaded horizon", dispatchId, sendAt);
+            return;
+        }
+        add(dispatchId, sendAt);
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        firing.shutdownNow();
+    }
+
+    /**
+     * Pulls in the dispatches due before the new horizon. The horizon moves first, so a dispatch
+     * scheduled while the query runs is added by {@link #schedule} rather than missed, and moves
+     * back if the load fails, so the next load covers the same window again. A dispatch added
+     * twice is fired once, as only one claim on it succeeds.
+     */
+    void loadHorizon() {
+        final LocalDateTime from = loadedUntil;
+        final LocalDateTime until = LocalDateTime.now().plus(properties.horizon());
+        loadedUntil = until;
+        try {
+            final List<PendingDispatch> pending = dispatchRepository.findPendingScheduledBetween(from, until);
+            pending.forEach(dispatch -> add(dispatch.id(), dispatch.scheduledAt()));
+            log.info("Loaded {} scheduled dispatches due before {}", pending.size(), until);
+        } catch (Exception e) {
+            loadedUntil = from;
+            log.error("Failed to load scheduled dispatches due before {}", until, e);
+        }
+    }
+
+    void tick() {
+        final List<Integer> due;
+        synchronized (this) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        due.forEach(this::fireLater);
+    }
+
+    private void add(Integer dispatchId, LocalDateTime sendAt) {
+        final boolean scheduled;
+        synchronized (this) {
+            scheduled = wheel.schedule(dispatchId, sendAt.atZone(zone).toInstant().toEpochMilli());
+        }
+        if (!scheduled) {
+            fireLater(dispatchId);
+        }
+    }
+
+    private void fireLater(Integer dispatchId) {
+        firing.execute(() -> fire(dispatchId));
+    }
+
+    private void fire(Integer dispatchId) {
+        try {
+            final DispatchEntityJpa dispatch = dispatchRepository.findById(dispatchId).orElse(null);
+            if (dispatch == null || dispatch.getDispatchedAt() != null) {
+                return;
+            }
+            final LocalDateTime retryAt = LocalDateTime.now().plus(CLAIM_TIMEOUT);
+            if (dispatchRepository.claim(dispatchId, dispatch.getScheduledAt(), retryAt) == 0) {
+                return;
+            }
+            log.info("Firing scheduled dispatch {} for {}", dispatchId, dispatch.getScheduledAt());
+            try {
+                dispatchIntake.publish(new DispatchMessage(
+                    dispatchId,
+                    dispatch.getCategory(),
+                    dispatch.getContent(),
+                    dispatch.getTemplate(),
+                    dispatch.getAudience() != null ? Audience.parse(dispatch.getAudience()) : null
+                ));
+            } catch (RuntimeException e) {
+                log.error("Could not publish scheduled dispatch {}; retrying at {}", dispatchId, retryAt, e);
+                add(dispatchId, retryAt);
+                return;
+            }
+            dispatchRepository.markDispatched(dispatchId, dispatch.getScheduledAt(), LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Failed to fire scheduled dispatch {}", dispatchId, e);
+        }
+    }
+}
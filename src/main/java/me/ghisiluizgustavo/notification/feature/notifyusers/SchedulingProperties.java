@@ -0,0 +1,30 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "notification.scheduling")
+public record SchedulingProperties(
+    @DefaultValue("100ms") Duration tick,
+    @DefaultValue("512") int wheelSize,
+    @DefaultValue("1h") Duration horizon,
+    @DefaultValue("1m") Duration recoveryInterval,
+    @DefaultValue("5m") Duration userRefreshInterval
+) {
+    public SchedulingProperties {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Scheduling tick must be positive");
+        }
+        if (horizon.compareTo(tick) <= 0) {
+            throw new IllegalArgumentException("Scheduling horizon must be longer than the tick");
+        }
+        if (recoveryInterval.isNegative() || recoveryInterval.isZero()) {
+            throw new IllegalArgumentException("Deferred delivery recovery interval must be positive");
+        }
+        if (userRefreshInterval.isNegative() || userRefreshInterval.isZero()) {
+            throw new IllegalArgumentException("User refresh interval must be positive");
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.config.IngestProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchShard;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchShardRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.InstanceLeaseRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits every dispatch across the live instances. Each instance holds a lease in
+ * {@code instance_lease} that it renews on every heartbeat; the live leases form a
+ * {@link HashRing} over a fixed number of user-id shards. Publishing a dispatch writes one
+ * {@code dispatch_shard} row per shard, owned by that shard's instance on the ring, and every
+ * instance polls for and delivers the rows it owns.
+ * <p>
+ * On each heartbeat an instance moves shards whose owner's lease has lapsed to their new ring
+ * owner, including ones that were mid-delivery, and hands over its own pending shards that the
+ * ring now places elsewhere. Delivery is at-least-once per shard; recorded notifications are not
+ * duplicated. Heartbeats run on their own thread, so a slow delivery cannot hold up lease renewal.
+ * The audience of a dispatch is resolved once per poll and split among the claimed shards, and a
+ * shard whose delivery fails to start goes back to {@code PENDING}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.sharding", name = "enabled", havingValue = "true")
+public class ShardedDispatchCoordinator implements DispatchIntake {
+
+    private static final Duration LEASE_RETENTION = Duration.ofHours(1);
+
+    private final InstanceLeaseRepository leaseRepository;
+    private final DispatchShardRepository shardRepository;
+    private final DispatchRepository dispatchRepository;
+    private final NotificationFanOut fanOut;
+    private final ShardingProperties properties;
+    private final String instanceId;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-sharding").daemon().factory()
+    );
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-sharding-heartbeat").daemon().factory()
+    );
+    private volatile HashRing ring;
+
+    @Autowired
+    public ShardedDispatchCoordinator(
+        InstanceLeaseRepository leaseRepository,
+        DispatchShardRepository shardRepository,
+        DispatchRepository dispatchRepository,
+        NotificationFanOut fanOut,
+        ShardingProperties properties,
+        IngestProperties ingestProperties
+    ) {
+        this(leaseRepository, shardRepository, dispatchRepository, fanOut, properties);
+        if (ingestProperties.enabled()) {
+            throw new IllegalStateException("notification.sharding and notification.ingest cannot both be enabled");
+        }
+    }
+
+    ShardedDispatchCoordinator(
+        InstanceLeaseRepository leaseRepository,
+        DispatchShardRepository shardRepository,
+        DispatchRepository dispatchRepository,
+        NotificationFanOut fanOut,
+        ShardingProperties properties
+    ) {
+        this.leaseRepository = leaseRepository;
+        this.shardRepository = shardRepository;
+        this.dispatchRepository = dispatchRepository;
+        this.fanOut = fanOut;
+        this.properties = properties;
+        this.instanceId = properties.instanceId() != null ? properties.instanceId() : UUID.randomUUID().toString();
+        this.ring = new HashRing(List.of(instanceId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Joining fan-out shard ring as {}", instanceId);
+        final long heartbeatMillis = properties.heartbeatInterval().toMillis();
+        final long pollMillis = properties.pollInterval().toMillis();
+        heartbeatExecutor.scheduleAtFixedRate(this::heartbeat, 0, heartbeatMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(DispatchMessage message) {
+        shardRepository.create(message.dispatchId(), ring.assign(properties.shards()));
+        executor.execute(this::poll);
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public List<String> members() {
+        return ring.members();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        heartbeatExecutor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        heartbeatExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        try {
+            leaseRepository.release(instanceId);
+            log.info("Left fan-out shard ring as {}", instanceId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release lease of {}; it will expire on its own", instanceId, e);
+        }
+    }
+
+    void heartbeat() {
+        try {
+            leaseRepository.renew(instanceId, properties.leaseTtl());
+            final List<String> live = leaseRepository.live();
+            if (!live.equals(ring.members()) && !live.isEmpty()) {
+                ring = new HashRing(live);
+                log.info("Fan-out shard ring now has {} instances: {}", live.size(), live);
+            }
+            rebalance();
+            leaseRepository.purge(LEASE_RETENTION);
+        } catch (RuntimeException e) {
+            log.warn("Shard heartbeat of {} failed", instanceId, e);
+        }
+    }
+
+    void poll() {
+        final List<DispatchShard> claimed;
+        try {
+            claimed = shardRepository.claim(instanceId, properties.shards());
+        } catch (RuntimeException e) {
+            log.warn("Polling shards for {} failed", instanceId, e);
+            return;
+        }
+        final Map<Integer, List<DispatchShard>> byDispatch = new LinkedHashMap<>();
+        for (DispatchShard shard : claimed) {
+            byDispatch.computeIfAbsent(shard.dispatchId(), id -> new ArrayList<>()).add(shard);
+        }
+        byDispatch.forEach(this::deliver);
+    }
+
+    private void rebalance() {
+        final HashRing current = ring;
+        int moved = 0;
+        for (DispatchShard shard : shardRepository.orphaned()) {
+            if (shardRepository.reassign(shard, current.ownerOf(shard.shard()))) {
+                moved++;
+            }
+        }
+        for (DispatchShard shard : shardRepository.pendingOwnedBy(instanceId)) {
+            final String owner = current.ownerOf(shard.shard());
+            if (!owner.equals(instanceId) && shardRepository.reassign(shard, owner)) {
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            log.info("Rebalanced {} dispatch shards", moved);
+        }
+    }
+
+    private void deliver(int dispatchId, List<DispatchShard> shards) {
+        final DispatchMessage message;
+        final List<List<User>> usersByShard;
+        try {
+            final DispatchEntityJpa dispatch = dispatchRepository.findById(dispatchId).orElse(null);
+            if (dispatch == null) {
+                shards.forEach(shardRepository::complete);
+                return;
+            }
+            message = new DispatchMessage(
+                dispatch.getId(),
+                dispatch.getCategory(),
+                dispatch.getContent(),
+                dispatch.getTemplate(),
+                dispatch.getAudience() != null ? Audience.parse(dispatch.getAudience()) : null
+            );
+            usersByShard = partition(fanOut.resolve(message.audience()));
+        } catch (RuntimeException e) {
+            log.warn("Could not start dispatch {} on {}", dispatchId, instanceId, e);
+            shards.forEach(this::releaseQuietly);
+            return;
+        }
+        for (DispatchShard shard : shards) {
+            try {
+                fanOut.deliver(message, usersByShard.get(shard.shard()), () -> completeQuietly(shard));
+            } catch (RuntimeException e) {
+                log.warn("Could not deliver shard {} of dispatch {}", shard.shard(), dispatchId, e);
+                releaseQuietly(shard);
+            }
+        }
+    }
+
+    private List<List<User>> partition(List<User> audience) {
+        final int shards = properties.shards();
+        final List<List<User>> usersByShard = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            usersByShard.add(new ArrayList<>());
+        }
+        for (User user : audience) {
+            usersByShard.get(HashRing.shardOf(user.id(), shards)).add(user);
+        }
+        return usersByShard;
+    }
+
+    /**
+     * Runs on the fan-out worker that finished the shard's last batch. A failure there would leave
+     * the shard {@code RUNNING} under a live lease, where neither {@link #poll()} nor a rebalance
+     * picks it up again, so failed deletes are retried every poll interval instead.
+     */
+    private void completeQuietly(DispatchShard shard) {
+        try {
+            shardRepository.complete(shard);
+        } catch (RuntimeException e) {
+            log.warn("Could not complete shard {} of dispatch {}; retrying", shard.shard(), shard.dispatchId(), e);
+            try {
+                executor.schedule(() -> completeQuietly(shard), properties.pollInterval().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                log.warn("Shard {} of dispatch {} stays running until {} leaves the ring",
+                    shard.shard(), shard.dispatchId(), instanceId);
+            }
+        }
+    }
+
+    private void releaseQuietly(DispatchShard shard) {
+        try {
+            shardRepository.release(shard);
+        } catch (RuntimeException e) {
+            log.warn("Could not release shard {} of dispatch {}; it stays claimed until {} leaves the ring",
+                shard.shard(), shard.dispatchId(), instanceId, e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param instanceId stable name of this instance in the lease table; a random one is used when
+ *                   unset, in which case a restart shows up as one instance leaving and another
+ *                   joining
+ * @param shards     number of slices of the user-id space; each dispatch is split into this many
+ *                   units of work
+ */
+@ConfigurationProperties(prefix = "notification.sharding")
+public record ShardingProperties(
+    @DefaultValue("false") boolean enabled,
+    String instanceId,
+    @DefaultValue("64") int shards,
+    @DefaultValue("15s") Duration leaseTtl,
+    @DefaultValue("5s") Duration heartbeatInterval,
+    @DefaultValue("500ms") Duration pollInterval
+) {
+    public ShardingProperties {
+        if (shards < 1 || shards > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + Short.MAX_VALUE);
+        }
+        if (heartbeatInterval.isZero() || heartbeatInterval.isNegative()) {
+            throw new IllegalArgumentException("Sharding heartbeat interval must be positive");
+        }
+        if (leaseTtl.compareTo(heartbeatInterval.multipliedBy(2)) < 0) {
+            throw new IllegalArgumentException("Sharding lease TTL must be at least twice the heartbeat interval");
+        }
+        if (pollInterval.isZero() || pollInterval.isNegative()) {
+            throw new IllegalArgumentException("Sharding poll interval must be positive");
+        }
+        if (instanceId != null && (instanceId.isBlank() || instanceId.length() > 64)) {
+            throw new IllegalArgumentException("Sharding instance id must be between 1 and 64 characters");
+        }
+    }
+}
@@ -3,26 +3,35 @@ package me.ghisiluizgustavo.notification.feature.notifyusers;
 import lombok.extern.slf4j.Slf4j;
 import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderHttpClient;
 import me.ghisiluizgustavo.user.domain.User;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-public class SmsNotificationStrategy implements NotificationStrategy {
+public class SmsNotificationStrategy extends ProviderNotificationStrategy {
+
+    public SmsNotificationStrategy(ProviderHttpClient providerClient) {
+        super(providerClient, NotificationType.SMS);
+    }
 
     @Override
-    public void send(User user, Notification notification) {
-        log.info("Sending SMS notification to: {} ({})", user.name(), user.phoneNumber());
-        log.info("   Category: {} | Type: {} | Content: {}", 
-            notification.getCategory(),
-            notification.getType(),
-            notification.getContent()
-        );
+    Object payload(User user, Notification notification) {
+        return new SmsMessage(user.phoneNumber(), notification.getContent());
     }
 
     @Override
-    public boolean supports(NotificationType type) {
-        return NotificationType.SMS == type;
+    void logUnsent(User user, Notification notification) {
+        if (log.isDebugEnabled()) {
+            log.debug("Sending SMS notification to: {} ({}) | Category: {} | Content: {}",
+                user.name(),
+                user.phoneNumber(),
+                notification.getCategory(),
+                notification.getContent()
+            );
+        }
     }
 
+    record SmsMessage(String to, String text) {
+    }
 }
@@ -0,0 +1,20 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification.templating")
+public record TemplateProperties(
+    @DefaultValue("160") int smsMaxLength,
+    Map<String, Map<NotificationType, String>> templates
+) {
+    public TemplateProperties {
+        if (smsMaxLength < 1) {
+            throw new IllegalArgumentException("SMS max length must be at least 1");
+        }
+        templates = templates == null ? Map.of() : Map.copyOf(templates);
+    }
+}
@@ -0,0 +1,65 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.User;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class TemplateRenderer {
+
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+
+    private final int smsMaxLength;
+    private final Map<String, Map<NotificationType, CompiledTemplate>> templates = new HashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(
+        () -> new StringBuilder(INITIAL_BUFFER_CAPACITY)
+    );
+
+    public TemplateRenderer(TemplateProperties properties) {
+        this.smsMaxLength = properties.smsMaxLength();
+        properties.templates().forEach((name, variants) -> {
+            final Map<NotificationType, CompiledTemplate> compiled = new EnumMap<>(NotificationType.class);
+            variants.forEach((channel, source) -> compiled.put(channel, CompiledTemplate.compile(
+                source,
+                channel == NotificationType.EMAIL,
+                channel == NotificationType.SMS ? properties.smsMaxLength() : Integer.MAX_VALUE
+            )));
+            templates.put(name, compiled);
+        });
+    }
+
+    public boolean exists(String name) {
+        return templates.containsKey(name);
+    }
+
+    public String render(DispatchMessage message, NotificationType channel, User user) {
+        if (message.template() == null) {
+            return raw(message, channel);
+        }
+        final Map<NotificationType, CompiledTemplate> variants = templates.get(message.template());
+        if (variants == null) {
+            throw new IllegalArgumentException("Unknown template '" + message.template() + "'");
+        }
+        final CompiledTemplate template = variants.get(channel);
+        if (template == null) {
+            return raw(message, channel);
+        }
+
+        final StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, user, message.category(), message.content());
+        return buffer.toString();
+    }
+
+    private String raw(DispatchMessage message, NotificationType channel) {
+        final String content = message.content();
+        return channel == NotificationType.SMS && content.length() > smsMaxLength
+            ? content.substring(0, smsMaxLength)
+            : content;
+    }
+}
@@ -0,0 +1,42 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.user.domain.User;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public enum TemplateVariable {
+    NAME("name"),
+    EMAIL("email"),
+    CATEGORY("category"),
+    CONTENT("content");
+
+    private final String placeholder;
+
+    TemplateVariable(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    public static TemplateVariable fromPlaceholder(String placeholder) {
+        for (TemplateVariable variable : values()) {
+            if (variable.placeholder.equals(placeholder)) {
+                return variable;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+            "Unknown template placeholder '{{%s}}'. Accepted placeholders are: %s",
+            placeholder,
+            Arrays.stream(values()).map(v -> v.placeholder).collect(Collectors.joining(", "))
+        ));
+    }
+
+    String resolve(User user, NotificationCategory category, String content) {
+        return switch (this) {
+            case NAME -> user.name();
+            case EMAIL -> user.email();
+            case CATEGORY -> category.name();
+            case CONTENT -> content;
+        };
+    }
+}
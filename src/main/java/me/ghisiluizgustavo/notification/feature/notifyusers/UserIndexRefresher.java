@@ -0,0 +1,66 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.user.domain.User;
+import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the {@link AudienceIndex} and {@link QuietHoursIndex} from the users every
+ * {@code user-refresh-interval}, so subscription and quiet-hour changes reach deliveries
+ * without a restart.
+ */
+@Slf4j
+@Component
+public class UserIndexRefresher {
+
+    private final UserRepository userRepository;
+    private final AudienceIndex audienceIndex;
+    private final QuietHoursIndex quietHoursIndex;
+    private final SchedulingProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-user-refresh").daemon().factory()
+    );
+
+    public UserIndexRefresher(
+        UserRepository userRepository,
+        AudienceIndex audienceIndex,
+        QuietHoursIndex quietHoursIndex,
+        SchedulingProperties properties
+    ) {
+        this.userRepository = userRepository;
+        this.audienceIndex = audienceIndex;
+        this.quietHoursIndex = quietHoursIndex;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        final long intervalMillis = properties.userRefreshInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void refresh() {
+        try {
+            final List<User> users = userRepository.findAll();
+            audienceIndex.rebuild(users);
+            quietHoursIndex.rebuild(users);
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh user indexes", e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs fan-out batches from one queue per {@link DispatchPriority}, picking the next queue with
+ * smooth weighted round-robin so a large low-priority campaign only receives its weighted share
+ * of the workers. A class whose head batch is waiting earns aging credit on top of its weight,
+ * growing with the wait up to a second weight's worth at {@code maxWait}: a class left behind by
+ * fresher work gets up to twice its share, while classes that are all backlogged keep the
+ * configured ratio.
+ * <p>
+ * Each queue holds at most {@code queueCapacity} batches; {@link #submit} waits for room, so a
+ * backlog pushes back on intake instead of growing without bound. {@link #oldestWait()},
+ * {@link #queued()} and the completion listeners let admission control see that backlog.
+ */
+@Slf4j
+@Component
+public class WeightedFairDispatchScheduler implements DispatchScheduler {
+
+    private static final DispatchPriority[] CLASSES = DispatchPriority.values();
+    private static final long WEIGHT_SCALE = 1024;
+
+    private final DispatchProperties properties;
+    private final LongSupplier nanoClock;
+    private final long maxWaitNanos;
+    private final int capacity;
+    private final long[] weights = new long[CLASSES.length];
+    private final long[] credits = new long[CLASSES.length];
+    private final List<ArrayDeque<QueuedTask>> queues = new ArrayList<>(CLASSES.length);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final List<Thread> workers = new ArrayList<>();
+    private final List<CompletionListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile int queued;
+    private boolean running = true;
+
+    @Autowired
+    public WeightedFairDispatchScheduler(DispatchProperties properties) {
+        this(properties, System::nanoTime);
+        for (int i = 0; i < properties.workers(); i++) {
+            workers.add(Thread.ofPlatform()
+                .name("notification-dispatch-" + i)
+                .daemon()
+                .start(this::runWorker));
+        }
+    }
+
+    WeightedFairDispatchScheduler(DispatchProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.maxWaitNanos = Math.max(1, properties.maxWait().toNanos());
+        this.capacity = properties.queueCapacity();
+        for (DispatchPriority priority : CLASSES) {
+            weights[priority.ordinal()] = (long) properties.weightOf(priority) * WEIGHT_SCALE;
+            queues.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queues the batch, waiting while its class already holds {@code queueCapacity} batches.
+     */
+    @Override
+    public void submit(NotificationCategory category, Runnable task) {
+        final ArrayDeque<QueuedTask> queue = queues.get(properties.priorityOf(category).ordinal());
+        lock.lock();
+        try {
+            while (running && queue.size() >= capacity) {
+                notFull.awaitUninterruptibly();
+            }
+            if (!running) {
+                throw new IllegalStateException("Dispatch scheduler is shut down");
+            }
+            queue.addLast(new QueuedTask(task, nanoClock.getAsLong()));
+            queued++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int depth(DispatchPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Duration oldestWait() {
+        if (queued == 0) {
+            return Duration.ZERO;
+        }
+        lock.lock();
+        try {
+            final long now = nanoClock.getAsLong();
+            long oldest = 0;
+            for (ArrayDeque<QueuedTask> queue : queues) {
+                final QueuedTask head = queue.peekFirst();
+                if (head != null) {
+                    oldest = Math.max(oldest, now - head.enqueuedAt());
+                }
+            }
+            return Duration.ofNanos(oldest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int queued() {
+        return queued;
+    }
+
+    @Override
+    public void addCompletionListener(CompletionListener listener) {
+        listeners.add(listener);
+    }
+
+    Runnable poll() {
+        lock.lock();
+        try {
+            return queued == 0 ? null : select().task();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            final QueuedTask task;
+            lock.lock();
+            try {
+                while (queued == 0 && running) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (queued == 0) {
+                    return;
+                }
+                task = select();
+            } finally {
+                lock.unlock();
+            }
+
+            boolean failed = false;
+            try {
+                task.task().run();
+            } catch (Exception e) {
+                failed = true;
+                log.error("Dispatch batch failed", e);
+            }
+            final long latency = nanoClock.getAsLong() - task.enqueuedAt();
+            for (CompletionListener listener : listeners) {
+                listener.completed(latency, failed);
+            }
+        }
+    }
+
+    private QueuedTask select() {
+        final long now = nanoClock.getAsLong();
+        long totalWeight = 0;
+        int selected = -1;
+        for (int i = 0; i < CLASSES.length; i++) {
+            final QueuedTask head = queues.get(i).peekFirst();
+            if (head == null) {
+                continue;
+            }
+            final long wait = Math.min(now - head.enqueuedAt(), maxWaitNanos);
+            final long weight = weights[i] + (long) ((double) weights[i] * wait / maxWaitNanos);
+            credits[i] += weight;
+            totalWeight += weight;
+            if (selected < 0 || credits[i] > credits[selected]) {
+                selected = i;
+            }
+        }
+        credits[selected] -= totalWeight;
+        return take(selected);
+    }
+
+    private QueuedTask take(int index) {
+        queued--;
+        final ArrayDeque<QueuedTask> queue = queues.get(index);
+        final QueuedTask task = queue.pollFirst();
+        if (queue.isEmpty()) {
+            credits[index] = 0;
+        }
+        notFull.signalAll();
+        return task;
+    }
+
+    private record QueuedTask(Runnable task, long enqueuedAt) { }
+}
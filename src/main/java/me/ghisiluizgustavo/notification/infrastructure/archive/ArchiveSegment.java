@@ -0,0 +1,580 @@
+package me.ghisiluizgustavo.notification.infrastructure.archive;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One archive file: the notifications of an id range, cut into blocks of {@code block-rows} rows
+ * that are each stored column by column with every column deflated on its own. Ids and
+ * timestamps are delta-encoded varints, user and dispatch ids zigzag deltas from the previous
+ * row, and category, type, status and content are indexes into a per-block dictionary; a
+ * fan-out writes the same content for thousands of users in a row, so all of these compress to
+ * little more than their dictionaries.
+ * <p>
+ * A block index after the header holds the first id and position of every block, so a read
+ * inflates only the blocks it needs, straight from the read-only memory mapping. Files are
+ * written to a temporary name and moved into place, so a file under its final name is always
+ * complete; its checksum is verified when it is opened.
+ */
+final class ArchiveSegment {
+
+    static final String SUFFIX = ".nca";
+
+    private static final int MAGIC = 0x4E544441;
+    private static final short VERSION = 2;
+    private static final int COLUMNS = 9;
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 4 + 4 + 4 + 4;
+    private static final int INDEX_ENTRY_BYTES = 4 + 4 + 4;
+    private static final int BLOCK_HEADER_BYTES = 8 + COLUMNS * 8;
+
+    private static final int ID = 0;
+    private static final int CATEGORY = 1;
+    private static final int TYPE = 2;
+    private static final int STATUS = 3;
+    private static final int CONTENT = 4;
+    private static final int USER = 5;
+    private static final int DISPATCH = 6;
+    private static final int CREATED = 7;
+    private static final int UPDATED = 8;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final int minId;
+    private final int maxId;
+    private final int[] blockFirstIds;
+    private final int[] blockRows;
+    private final int[] blockOffsets;
+
+    private ArchiveSegment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a notification archive file");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException(file + " has unsupported archive version " + buffer.getShort(4));
+        }
+        this.rows = buffer.getInt(6);
+        this.minId = buffer.getInt(10);
+        this.maxId = buffer.getInt(14);
+        final int blocks = buffer.getInt(18);
+        final int bodyStart = HEADER_BYTES + blocks * INDEX_ENTRY_BYTES;
+        if (blocks < 1 || bodyStart > buffer.capacity()) {
+            throw new IOException(file + " is truncated");
+        }
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        if ((int) crc.getValue() != buffer.getInt(22)) {
+            throw new IOException(file + " fails its checksum");
+        }
+        this.blockFirstIds = new int[blocks];
+        this.blockRows = new int[blocks];
+        this.blockOffsets = new int[blocks];
+        for (int block = 0; block < blocks; block++) {
+            final int entry = HEADER_BYTES + block * INDEX_ENTRY_BYTES;
+            blockFirstIds[block] = buffer.getInt(entry);
+            blockRows[block] = buffer.getInt(entry + 4);
+            blockOffsets[block] = buffer.getInt(entry + 8);
+        }
+    }
+
+    static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ArchiveSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes {@code rows}, in ascending id order, to a new file in {@code directory}, in blocks of
+     * up to {@code rowsPerBlock} rows.
+     */
+    static ArchiveSegment write(Path directory, List<NotificationRow> rows, int rowsPerBlock) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Cannot archive an empty batch");
+        }
+        final int blocks = (rows.size() + rowsPerBlock - 1) / rowsPerBlock;
+        final ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_ENTRY_BYTES);
+        final List<ByteBuffer> bodies = new ArrayList<>(blocks);
+        final CRC32C crc = new CRC32C();
+        int offset = HEADER_BYTES + blocks * INDEX_ENTRY_BYTES;
+        int previousId = Integer.MIN_VALUE;
+        for (int from = 0; from < rows.size(); from += rowsPerBlock) {
+            final List<NotificationRow> block = rows.subList(from, Math.min(from + rowsPerBlock, rows.size()));
+            if (block.getFirst().id() <= previousId) {
+                throw new IllegalArgumentException("Archived rows must be in ascending id order");
+            }
+            previousId = block.getLast().id();
+            final ByteBuffer body = block(block);
+            index.putInt(block.getFirst().id()).putInt(block.size()).putInt(offset);
+            offset += body.remaining();
+            bodies.add(body);
+        }
+        index.flip();
+        crc.update(index.duplicate());
+        for (ByteBuffer body : bodies) {
+            crc.update(body.duplicate());
+        }
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+            .putInt(MAGIC)
+            .putShort(VERSION)
+            .putInt(rows.size())
+            .putInt(rows.getFirst().id())
+            .putInt(rows.getLast().id())
+            .putInt(blocks)
+            .putInt((int) crc.getValue())
+            .flip();
+
+        final Path target = directory.resolve(name(rows.getFirst().id(), rows.getLast().id()));
+        final Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(header);
+            channel.write(index);
+            for (ByteBuffer body : bodies) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        return open(target);
+    }
+
+    /**
+     * A block's first-row timestamp and column lengths, followed by its deflated columns.
+     */
+    private static ByteBuffer block(List<NotificationRow> rows) {
+        final byte[][] columns = encode(rows);
+        final byte[][] packed = new byte[COLUMNS][];
+        int bytes = BLOCK_HEADER_BYTES;
+        for (int column = 0; column < COLUMNS; column++) {
+            packed[column] = deflate(columns[column]);
+            bytes += packed[column].length;
+        }
+        final ByteBuffer block = ByteBuffer.allocate(bytes).putLong(micros(rows.getFirst().createdAt()));
+        for (int column = 0; column < COLUMNS; column++) {
+            block.putInt(columns[column].length).putInt(packed[column].length);
+        }
+        for (byte[] column : packed) {
+            block.put(column);
+        }
+        return block.flip();
+    }
+
+    static String name(int minId, int maxId) {
+        return "%010d-%010d%s".formatted(minId, maxId, SUFFIX);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int minId() {
+        return minId;
+    }
+
+    int maxId() {
+        return maxId;
+    }
+
+    long bytes() {
+        return buffer.capacity();
+    }
+
+    int blocks() {
+        return blockFirstIds.length;
+    }
+
+    /**
+     * Index of the last block holding an id below {@code before}, or -1 when there is none.
+     */
+    int lastBlockBelow(int before) {
+        int low = 0;
+        int high = blockFirstIds.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (blockFirstIds[middle] < before) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Inflates every column of one block.
+     */
+    Rows decode(int block) {
+        final int rows = blockRows[block];
+        final Rows decoded = new Rows(rows);
+        final Block columns = new Block(blockOffsets[block]);
+
+        final Reader ids = columns.reader(ID);
+        int id = blockFirstIds[block];
+        for (int i = 0; i < rows; i++) {
+            id += (int) ids.varint();
+            decoded.ids[i] = id;
+        }
+
+        decoded.categories = enums(columns.reader(CATEGORY), rows, decoded.categoryCodes);
+        decoded.types = enums(columns.reader(TYPE), rows, decoded.typeCodes);
+        decoded.statuses = enums(columns.reader(STATUS), rows, decoded.statusCodes);
+
+        final Reader contents = columns.reader(CONTENT);
+        final String[] dictionary = new String[(int) contents.varint()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = contents.string((int) contents.varint());
+        }
+        decoded.contentDictionary = dictionary;
+        for (int i = 0; i < rows; i++) {
+            decoded.contents[i] = (int) contents.varint();
+        }
+
+        final Reader users = columns.reader(USER);
+        final Reader dispatches = columns.reader(DISPATCH);
+        final Reader created = columns.reader(CREATED);
+        final Reader updated = columns.reader(UPDATED);
+        int user = 0;
+        int dispatch = 0;
+        long micros = columns.baseMicros;
+        for (int i = 0; i < rows; i++) {
+            user += (int) users.zigzag();
+            decoded.users[i] = user;
+            dispatch += (int) dispatches.zigzag();
+            decoded.dispatches[i] = dispatch;
+            micros += created.zigzag();
+            decoded.created[i] = micros;
+            decoded.updated[i] = micros + updated.zigzag();
+        }
+        return decoded;
+    }
+
+    private static short[] enums(Reader reader, int rows, byte[] indexes) {
+        final short[] dictionary = new short[reader.next()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = (short) reader.varint();
+        }
+        for (int i = 0; i < rows; i++) {
+            indexes[i] = (byte) reader.next();
+        }
+        return dictionary;
+    }
+
+    private static byte[][] encode(List<NotificationRow> rows) {
+        final Writer ids = new Writer();
+        final Writer categories = new Writer();
+        final Writer types = new Writer();
+        final Writer statuses = new Writer();
+        final Writer contents = new Writer();
+        final Writer users = new Writer();
+        final Writer dispatches = new Writer();
+        final Writer created = new Writer();
+        final Writer updated = new Writer();
+        final Dictionary<Short> categoryCodes = new Dictionary<>();
+        final Dictionary<Short> typeCodes = new Dictionary<>();
+        final Dictionary<Short> statusCodes = new Dictionary<>();
+        final Dictionary<String> contentValues = new Dictionary<>();
+        final Writer contentIndexes = new Writer();
+
+        int previousId = rows.getFirst().id();
+        int previousUser = 0;
+        int previousDispatch = 0;
+        long previousMicros = micros(rows.getFirst().createdAt());
+        for (NotificationRow row : rows) {
+            if (row.id() < previousId || (row.id() == previousId && row != rows.getFirst())) {
+                throw new IllegalArgumentException("Archived rows must be in ascending id order");
+            }
+            ids.varint(row.id() - previousId);
+            previousId = row.id();
+
+            categories.raw(categoryCodes.index(row.category().code()));
+            types.raw(typeCodes.index(row.type().code()));
+            statuses.raw(statusCodes.index(row.status().code()));
+            contentIndexes.varint(contentValues.index(row.content()));
+
+            final int user = row.userId() != null ? row.userId() : 0;
+            users.zigzag(user - previousUser);
+            previousUser = user;
+            final int dispatch = row.dispatchId() != null ? row.dispatchId() : 0;
+            dispatches.zigzag(dispatch - previousDispatch);
+            previousDispatch = dispatch;
+
+            final long createdMicros = micros(row.createdAt());
+            created.zigzag(createdMicros - previousMicros);
+            previousMicros = createdMicros;
+            updated.zigzag(micros(row.updatedAt()) - createdMicros);
+        }
+
+        contents.varint(contentValues.values.size());
+        for (String value : contentValues.values) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            contents.varint(bytes.length);
+            contents.writeBytes(bytes);
+        }
+        contents.writeBytes(contentIndexes.toByteArray());
+
+        return new byte[][]{
+            ids.toByteArray(),
+            withDictionary(categoryCodes, categories),
+            withDictionary(typeCodes, types),
+            withDictionary(statusCodes, statuses),
+            contents.toByteArray(),
+            users.toByteArray(),
+            dispatches.toByteArray(),
+            created.toByteArray(),
+            updated.toByteArray()
+        };
+    }
+
+    private static byte[] withDictionary(Dictionary<Short> dictionary, Writer indexes) {
+        final Writer column = new Writer();
+        column.raw(dictionary.values.size());
+        for (short code : dictionary.values) {
+            column.varint(code);
+        }
+        column.writeBytes(indexes.toByteArray());
+        return column.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            final var packed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            final byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                packed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return packed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Where the deflated columns of one block sit in the mapping.
+     */
+    private final class Block {
+
+        private final long baseMicros;
+        private final int[] rawLengths = new int[COLUMNS];
+        private final int[] offsets = new int[COLUMNS];
+        private final int[] packedLengths = new int[COLUMNS];
+
+        private Block(int offset) {
+            baseMicros = buffer.getLong(offset);
+            int column = offset + BLOCK_HEADER_BYTES;
+            for (int i = 0; i < COLUMNS; i++) {
+                rawLengths[i] = buffer.getInt(offset + 8 + i * 8);
+                packedLengths[i] = buffer.getInt(offset + 12 + i * 8);
+                offsets[i] = column;
+                column += packedLengths[i];
+            }
+            if (column > buffer.capacity()) {
+                throw new IllegalStateException(file + " block at " + offset + " runs past the end of the file");
+            }
+        }
+
+        private Reader reader(int column) {
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(buffer.slice(offsets[column], packedLengths[column]));
+                final byte[] raw = new byte[rawLengths[column]];
+                int length = 0;
+                while (length < raw.length && !inflater.finished()) {
+                    length += inflater.inflate(raw, length, raw.length - length);
+                }
+                if (length != raw.length) {
+                    throw new IllegalStateException(file + " column " + column + " is shorter than recorded");
+                }
+                return new Reader(raw);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException(file + " column " + column + " cannot be inflated", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * The decoded columns of a block.
+     */
+    static final class Rows {
+
+        private final int[] ids;
+        private final byte[] categoryCodes;
+        private final byte[] typeCodes;
+        private final byte[] statusCodes;
+        private final int[] contents;
+        private final int[] users;
+        private final int[] dispatches;
+        private final long[] created;
+        private final long[] updated;
+        private short[] categories;
+        private short[] types;
+        private short[] statuses;
+        private String[] contentDictionary;
+
+        private Rows(int rows) {
+            ids = new int[rows];
+            categoryCodes = new byte[rows];
+            typeCodes = new byte[rows];
+            statusCodes = new byte[rows];
+            contents = new int[rows];
+            users = new int[rows];
+            dispatches = new int[rows];
+            created = new long[rows];
+            updated = new long[rows];
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int id(int index) {
+            return ids[index];
+        }
+
+        /**
+         * Index of the last row with an id below {@code before}, or -1 when there is none.
+         */
+        int lastBelow(int before) {
+            int low = 0;
+            int high = ids.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                if (ids[middle] < before) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return high;
+        }
+
+        NotificationRow row(int index) {
+            return new NotificationRow(
+                ids[index],
+                NotificationCategory.fromCode(categories[categoryCodes[index]]),
+                NotificationType.fromCode(types[typeCodes[index]]),
+                NotificationStatus.fromCode(statuses[statusCodes[index]]),
+                contentDictionary[contents[index]],
+                users[index] != 0 ? users[index] : null,
+                dispatches[index] != 0 ? dispatches[index] : null,
+                time(created[index]),
+                time(updated[index])
+            );
+        }
+    }
+
+    private static final class Dictionary<T> {
+
+        private final Map<T, Integer> indexes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int index(T value) {
+            return indexes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        void raw(int value) {
+            if (value > 0xff) {
+                throw new IllegalStateException("Dictionary of more than 256 values");
+            }
+            write(value);
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int next() {
+            return bytes[position++] & 0xff;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = next();
+                value |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        long zigzag() {
+            final long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String string(int length) {
+            final String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
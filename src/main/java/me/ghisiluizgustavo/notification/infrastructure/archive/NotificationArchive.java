@@ -0,0 +1,243 @@
+package me.ghisiluizgustavo.notification.infrastructure.archive;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.config.ArchiveProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.ArchivedRange;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationArchiveRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cold notification history in {@link ArchiveSegment} files, one per contiguous id range below
+ * the hot table. Every id up to {@link #archivedThrough()} is served from here, and rows the
+ * database still holds in that range are ignored, so the rows of a new file read the same
+ * before and after they are deleted from the table.
+ * <p>
+ * Which ranges are archived is recorded in the database, so instances sharing the history agree
+ * on it; each re-reads the ranges at most every {@code refresh-interval}, which is why the
+ * archiver waits twice that long after recording a range before deleting its rows. Every
+ * instance needs the files of the recorded ranges in its directory, usually a shared volume: a
+ * read that needs a missing file fails rather than return a page with rows left out.
+ * When the archive is disabled it is empty and touches neither the disk nor the database.
+ */
+@Slf4j
+@Component
+public class NotificationArchive {
+
+    private final ArchiveProperties properties;
+    private final NotificationArchiveRepository archiveRepository;
+    private final Map<Integer, ArchiveSegment> segments = new ConcurrentHashMap<>();
+    private final Map<BlockKey, ArchiveSegment.Rows> decoded;
+    private volatile NavigableMap<Integer, ArchivedRange> ranges = new TreeMap<>();
+    private volatile long refreshedAtNanos;
+    private volatile boolean refreshed;
+
+    public NotificationArchive(ArchiveProperties properties, NotificationArchiveRepository archiveRepository) {
+        this.properties = properties;
+        this.archiveRepository = archiveRepository;
+        this.decoded = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BlockKey, ArchiveSegment.Rows> eldest) {
+                return size() > properties.cachedBlocks();
+            }
+        };
+        if (properties.enabled()) {
+            try {
+                Files.createDirectories(properties.directory());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open notification archive in " + properties.directory(), e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Highest archived id, or 0 when nothing is archived.
+     */
+    public int archivedThrough() {
+        if (!properties.enabled()) {
+            return 0;
+        }
+        refreshIfStale();
+        final Map.Entry<Integer, ArchivedRange> last = ranges.lastEntry();
+        return last == null ? 0 : last.getValue().maxId();
+    }
+
+    /**
+     * Creation time of the newest archived row, or {@code null} when nothing is archived.
+     */
+    public LocalDateTime archivedUntil() {
+        final int through = archivedThrough();
+        if (through == 0) {
+            return null;
+        }
+        final List<NotificationRow> newest = read(through + 1, 1);
+        return newest.isEmpty() ? null : newest.getFirst().createdAt();
+    }
+
+    /**
+     * Up to {@code limit} archived rows with an id below {@code before}, newest first.
+     *
+     * @throws IllegalStateException when the file of a range the rows fall in is missing
+     */
+    public List<NotificationRow> read(int before, int limit) {
+        if (!properties.enabled() || limit < 1) {
+            return List.of();
+        }
+        refreshIfStale();
+        final List<NotificationRow> rows = new ArrayList<>(Math.min(limit, 1024));
+        for (ArchivedRange range : ranges.headMap(before, false).descendingMap().values()) {
+            final ArchiveSegment segment = segment(range);
+            for (int block = segment.lastBlockBelow(before); block >= 0 && rows.size() < limit; block--) {
+                final ArchiveSegment.Rows decoded = decode(segment, block);
+                for (int i = decoded.lastBelow(before); i >= 0 && rows.size() < limit; i--) {
+                    rows.add(decoded.row(i));
+                }
+            }
+            if (rows.size() == limit) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes {@code rows}, in ascending id order and all above {@link #archivedThrough()}, as a
+     * new file and records its range. Only call while holding the archive writer role.
+     *
+     * @throws IllegalStateException when another writer recorded some of these ids meanwhile
+     */
+    public void append(List<NotificationRow> rows) {
+        refresh();
+        final int through = archivedThrough();
+        if (rows.getFirst().id() <= through) {
+            throw new IllegalArgumentException("Rows up to id " + through + " are already archived");
+        }
+        final ArchiveSegment segment;
+        try {
+            segment = ArchiveSegment.write(properties.directory(), rows, properties.blockRows());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write notification archive file", e);
+        }
+        final var range = new ArchivedRange(segment.minId(), segment.maxId(), segment.rows());
+        if (!archiveRepository.recordRange(range)) {
+            deleteQuietly(segment.file());
+            throw new IllegalStateException("Ids " + range.minId() + " to " + range.maxId()
+                + " overlap a range another writer archived");
+        }
+        segments.put(range.minId(), segment);
+        refresh();
+        log.info("Archived {} notifications, ids {} to {}, in {} bytes",
+            segment.rows(), segment.minId(), segment.maxId(), segment.bytes());
+    }
+
+    /**
+     * Every id in an archived range, ascending.
+     */
+    public int[] ids(ArchivedRange range) {
+        final ArchiveSegment segment = segment(range);
+        final int[] ids = new int[segment.rows()];
+        int next = 0;
+        for (int block = 0; block < segment.blocks(); block++) {
+            final ArchiveSegment.Rows decoded = segment.decode(block);
+            for (int i = 0; i < decoded.size(); i++) {
+                ids[next++] = decoded.id(i);
+            }
+        }
+        return ids;
+    }
+
+    @PreDestroy
+    public void close() {
+        segments.clear();
+        synchronized (decoded) {
+            decoded.clear();
+        }
+    }
+
+    private ArchiveSegment segment(ArchivedRange range) {
+        return segments.computeIfAbsent(range.minId(), minId -> open(range));
+    }
+
+    private ArchiveSegment open(ArchivedRange range) {
+        final Path file = properties.directory().resolve(ArchiveSegment.name(range.minId(), range.maxId()));
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Archive file " + file + " for notification ids " + range.minId()
+                + " to " + range.maxId() + " is missing; every instance needs the files of the recorded ranges");
+        }
+        try {
+            final ArchiveSegment segment = ArchiveSegment.open(file);
+            if (segment.rows() != range.rows()) {
+                throw new IllegalStateException("Archive file " + file + " holds " + segment.rows()
+                    + " notifications where " + range.rows() + " were recorded");
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open notification archive file " + file, e);
+        }
+    }
+
+    /**
+     * Keeps the {@code cached-blocks} blocks read most recently: paging through archived history
+     * reads the same block for many pages in a row, and the newest pages of the archive are read
+     * the most.
+     */
+    private ArchiveSegment.Rows decode(ArchiveSegment segment, int block) {
+        final BlockKey key = new BlockKey(segment, block);
+        synchronized (decoded) {
+            final ArchiveSegment.Rows cached = decoded.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final ArchiveSegment.Rows rows = segment.decode(block);
+        synchronized (decoded) {
+            decoded.put(key, rows);
+        }
+        return rows;
+    }
+
+    private void refreshIfStale() {
+        if (!refreshed || System.nanoTime() - refreshedAtNanos >= properties.refreshInterval().toNanos()) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        final NavigableMap<Integer, ArchivedRange> current = new TreeMap<>();
+        for (ArchivedRange range : archiveRepository.findRanges()) {
+            current.put(range.minId(), range);
+        }
+        ranges = current;
+        refreshedAtNanos = System.nanoTime();
+        refreshed = true;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete unrecorded archive file {}", file, e);
+        }
+    }
+
+    private record BlockKey(ArchiveSegment segment, int block) {
+    }
+}
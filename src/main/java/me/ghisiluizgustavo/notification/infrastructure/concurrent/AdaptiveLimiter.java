@@ -0,0 +1,182 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of requests in flight at a limit that a {@link LimitAlgorithm} adjusts from
+ * their latency. {@link #tryAcquire()} never waits, for callers that shed work over the limit or
+ * try before queueing; {@link #acquire()} queues the caller until a permit frees up or the limit
+ * grows. Every permit must be released once, as a success, a drop, or ignored when the request
+ * failed for reasons that say nothing about load. Latency is measured from when the permit is
+ * granted, so time spent queued does not count. Callers whose permits cover only the start of the
+ * work can instead {@link #sample} the latency of the work itself.
+ */
+public final class AdaptiveLimiter {
+
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private volatile int limit;
+
+    public AdaptiveLimiter(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.limit = algorithm.limit();
+    }
+
+    /**
+     * @return a permit, or {@code null} when the limit is reached or others are queued for one.
+     */
+    public Permit tryAcquire() {
+        return queued.get() == 0 && reserve() ? new Permit(this) : null;
+    }
+
+    /**
+     * @return a permit, completed now or as soon as one is available in arrival order. Cancelling
+     * the future gives up the place in the queue.
+     */
+    public CompletableFuture<Permit> acquire() {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && reserve()) {
+                return CompletableFuture.completedFuture(new Permit(this));
+            }
+            final var waiter = new CompletableFuture<Permit>();
+            waiters.add(waiter);
+            queued.incrementAndGet();
+            waiter.whenComplete((permit, error) -> {
+                if (waiter.isCancelled()) {
+                    leaveQueue(waiter);
+                }
+            });
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds the algorithm a latency measured outside the permits.
+     */
+    public void sample(long rttNanos, boolean dropped) {
+        sample(rttNanos, inFlight.get(), dropped);
+        if (queued.get() > 0) {
+            wakeWaiters();
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    private void leaveQueue(CompletableFuture<Permit> waiter) {
+        lock.lock();
+        try {
+            if (waiters.remove(waiter)) {
+                queued.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void onRelease(Permit permit, boolean sampled, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (sampled) {
+            sample(System.nanoTime() - permit.startNanos, permit.inFlight, dropped);
+        }
+        if (queued.get() > 0) {
+            wakeWaiters();
+        }
+    }
+
+    private void sample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        synchronized (algorithm) {
+            algorithm.onSample(rttNanos, inFlightAtStart, dropped);
+            limit = algorithm.limit();
+        }
+    }
+
+    private void wakeWaiters() {
+        final List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!waiters.isEmpty() && reserve()) {
+                granted.add(waiters.poll());
+                queued.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (CompletableFuture<Permit> waiter : granted) {
+            final Permit permit = new Permit(this);
+            if (!waiter.complete(permit)) {
+                permit.close();
+            }
+        }
+    }
+
+    public static final class Permit implements AutoCloseable {
+
+        private static final AtomicIntegerFieldUpdater<Permit> RELEASED =
+            AtomicIntegerFieldUpdater.newUpdater(Permit.class, "released");
+
+        private final AdaptiveLimiter limiter;
+        private final long startNanos = System.nanoTime();
+        private final int inFlight;
+        private volatile int released;
+
+        private Permit(AdaptiveLimiter limiter) {
+            this.limiter = limiter;
+            this.inFlight = limiter.inFlight.get();
+        }
+
+        public void succeeded() {
+            release(true, false);
+        }
+
+        public void dropped() {
+            release(true, true);
+        }
+
+        /**
+         * Releases the permit without a sample, unless it was already released.
+         */
+        @Override
+        public void close() {
+            release(false, false);
+        }
+
+        private void release(boolean sampled, boolean dropped) {
+            if (RELEASED.compareAndSet(this, 0, 1)) {
+                limiter.onRelease(this, sampled, dropped);
+            }
+        }
+    }
+}
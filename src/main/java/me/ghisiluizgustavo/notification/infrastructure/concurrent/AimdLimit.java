@@ -0,0 +1,37 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+/**
+ * Additive increase, multiplicative decrease: the limit grows by one for each sample that finished
+ * within the latency threshold while the limit was actually in use, and shrinks by the backoff
+ * ratio on a slow or dropped sample.
+ */
+public final class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+    private int limit;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long thresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = thresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > thresholdNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+/**
+ * Follows the ratio between a long-term latency average and the latest sample. While latency
+ * stays within {@code tolerance} times the long-term average the limit grows by a queue
+ * allowance of about {@code sqrt(limit)}; as latency climbs above it the limit shrinks in
+ * proportion, by at most half per sample. Changes are smoothed so one outlier does not swing
+ * the limit, and the limit does not grow while less than half of it is in use.
+ */
+public final class GradientLimit implements LimitAlgorithm {
+
+    private static final int WARMUP_SAMPLES = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private double limit;
+    private double longRtt;
+    private int samples;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int limit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        final double shortRtt = Math.max(1, rttNanos);
+        if (samples < WARMUP_SAMPLES) {
+            samples++;
+            longRtt += (shortRtt - longRtt) / samples;
+        } else {
+            longRtt += (shortRtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        // After a sustained drop in latency, let the long-term average catch up faster.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        final double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        if (inFlight < limit / 2) {
+            target = Math.min(target, limit);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
@@ -0,0 +1,23 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+/**
+ * Derives a concurrency limit from completed requests. Implementations are not thread-safe;
+ * {@link AdaptiveLimiter} feeds them one sample at a time.
+ */
+public interface LimitAlgorithm {
+
+    int limit();
+
+    /**
+     * @param rttNanos how long the request took
+     * @param inFlight requests in flight, this one included, when it started
+     * @param dropped  whether the request timed out or failed under load
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+
+    enum Kind {
+        AIMD,
+        GRADIENT,
+        VEGAS
+    }
+}
@@ -0,0 +1,45 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of an {@link AdaptiveLimiter}, nested in the properties of whatever it guards.
+ * {@code latencyThreshold} applies to {@link LimitAlgorithm.Kind#AIMD}, {@code tolerance} to
+ * {@link LimitAlgorithm.Kind#GRADIENT}; {@link LimitAlgorithm.Kind#VEGAS} needs neither.
+ */
+public record LimitSettings(
+    @DefaultValue("AIMD") LimitAlgorithm.Kind algorithm,
+    @DefaultValue("20") int initialLimit,
+    @DefaultValue("4") int minLimit,
+    @DefaultValue("200") int maxLimit,
+    @DefaultValue("500ms") Duration latencyThreshold,
+    @DefaultValue("2.0") double tolerance
+) {
+    public LimitSettings {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Limit algorithm is required");
+        }
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Initial limit must be between min-limit and max-limit");
+        }
+        if (latencyThreshold == null || latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+            throw new IllegalArgumentException("Limit latency threshold must be positive");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Limit tolerance must be at least 1");
+        }
+    }
+
+    public LimitAlgorithm create() {
+        return switch (algorithm) {
+            case AIMD -> new AimdLimit(initialLimit, minLimit, maxLimit, latencyThreshold.toNanos(), 0.9);
+            case GRADIENT -> new GradientLimit(initialLimit, minLimit, maxLimit, tolerance);
+            case VEGAS -> new VegasLimit(initialLimit, minLimit, maxLimit);
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated ring of reusable entries in the style of the LMAX Disruptor. Producers claim a
+ * sequence, fill the entry at that slot in place and publish it; consumers share a work cursor so
+ * every published sequence is handled by exactly one of them. A producer never laps the slowest
+ * consumer: when the ring is full {@link #next()} spins until a slot frees up, which is the
+ * back-pressure signal to the caller.
+ * <p>
+ * Claims go through a CAS on the producer cursor, so publishing from several threads is safe; with
+ * a single publishing thread the CAS never contends. Consumers must be registered before the
+ * first publish.
+ */
+public final class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final long[] publishedAt;
+    private final AtomicLongArray available;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong workCursor = new AtomicLong(-1);
+    private volatile AtomicLong[] consumers = new AtomicLong[0];
+    private volatile boolean halted;
+
+    public RingBuffer(int size, Supplier<E> factory, WaitStrategy waitStrategy) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of two");
+        }
+        this.entries = new Object[size];
+        this.publishedAt = new long[size];
+        this.available = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.get();
+            available.set(i, -1);
+        }
+    }
+
+    public synchronized Consumer newConsumer() {
+        final Consumer consumer = new Consumer(workCursor.get());
+        final AtomicLong[] grown = Arrays.copyOf(consumers, consumers.length + 1);
+        grown[grown.length - 1] = consumer.sequence;
+        consumers = grown;
+        return consumer;
+    }
+
+    /**
+     * Claims the next sequence, waiting for the slowest consumer when the ring is full.
+     */
+    public long next() {
+        if (consumers.length == 0) {
+            throw new IllegalStateException("Ring buffer has no consumers");
+        }
+        final long sequence = claimed.incrementAndGet();
+        final long wrapPoint = sequence - entries.length;
+        while (wrapPoint > minimumConsumerSequence()) {
+            if (halted) {
+                throw new IllegalStateException("Ring buffer is halted");
+            }
+            LockSupport.parkNanos(1);
+        }
+        return sequence;
+    }
+
+    /**
+     * @return the claimed sequence, or {@code -1} when the ring is full.
+     */
+    public long tryNext() {
+        if (consumers.length == 0) {
+            throw new IllegalStateException("Ring buffer has no consumers");
+        }
+        long current;
+        do {
+            current = claimed.get();
+            if (current + 1 - entries.length > minimumConsumerSequence()) {
+                return -1;
+            }
+        } while (!claimed.compareAndSet(current, current + 1));
+        return current + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[index(sequence)];
+    }
+
+    public void publish(long sequence) {
+        final int index = index(sequence);
+        publishedAt[index] = System.nanoTime();
+        available.set(index, sequence);
+        waitStrategy.signalAll();
+    }
+
+    public boolean isAvailable(long sequence) {
+        return available.get(index(sequence)) == sequence;
+    }
+
+    /**
+     * {@link System#nanoTime()} at which the sequence was published; only meaningful while the
+     * sequence is still held by its consumer.
+     */
+    public long publishedAt(long sequence) {
+        return publishedAt[index(sequence)];
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Entries claimed by producers and not yet released by a consumer.
+     */
+    public long depth() {
+        return Math.max(0, claimed.get() - minimumConsumerSequence());
+    }
+
+    /**
+     * Age of the oldest entry that has not been released yet, or zero when the ring is empty.
+     */
+    public long oldestPendingNanos(long nowNanos) {
+        final long oldest = minimumConsumerSequence() + 1;
+        if (oldest > claimed.get() || !isAvailable(oldest)) {
+            return 0;
+        }
+        return Math.max(0, nowNanos - publishedAt(oldest));
+    }
+
+    public boolean isDrained() {
+        return minimumConsumerSequence() >= claimed.get();
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * Wakes every waiting consumer and makes their pending {@link Consumer#await} return
+     * {@code false}. Entries published after the halt are never handed out.
+     */
+    public void halt() {
+        halted = true;
+        waitStrategy.signalAll();
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (AtomicLong consumer : consumers) {
+            minimum = Math.min(minimum, consumer.get());
+        }
+        return minimum;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    /**
+     * One consuming thread's view of the ring. Not thread-safe: each consumer thread owns one.
+     */
+    public final class Consumer {
+
+        private final AtomicLong sequence;
+
+        private Consumer(long initial) {
+            this.sequence = new AtomicLong(initial);
+        }
+
+        /**
+         * Takes the next sequence off the shared work cursor. Until it is released, the slot cannot
+         * be reused by a producer.
+         */
+        public long claim() {
+            final long next = workCursor.incrementAndGet();
+            sequence.lazySet(next - 1);
+            return next;
+        }
+
+        /**
+         * @return {@code false} when the ring was halted before the sequence was published.
+         */
+        public boolean await(long claimedSequence) {
+            return !halted && waitStrategy.waitFor(claimedSequence, RingBuffer.this);
+        }
+
+        public void release(long claimedSequence) {
+            sequence.set(claimedSequence);
+        }
+    }
+}
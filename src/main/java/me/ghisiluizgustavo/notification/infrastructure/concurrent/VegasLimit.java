@@ -0,0 +1,61 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+/**
+ * TCP Vegas applied to requests: the shortest latency seen stands for the unloaded round trip,
+ * and {@code limit * (1 - minRtt / rtt)} estimates how many requests are queued at the provider.
+ * A short queue grows the limit, a long one shrinks it, with steps of {@code log10(limit)}. The
+ * minimum is forgotten every {@value #PROBE_INTERVAL} samples, so a provider that became slower
+ * for good sets a new baseline instead of being throttled forever.
+ */
+public final class VegasLimit implements LimitAlgorithm {
+
+    private static final int PROBE_INTERVAL = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private long minRtt = Long.MAX_VALUE;
+    private int samples;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int limit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        final long rtt = Math.max(1, rttNanos);
+        if (++samples % PROBE_INTERVAL == 0) {
+            minRtt = rtt;
+        }
+        if (dropped) {
+            limit = Math.max(minLimit, limit - step());
+            return;
+        }
+        minRtt = Math.min(minRtt, rtt);
+        if (inFlight * 2 < limit) {
+            return;
+        }
+
+        final double step = step();
+        final double queue = Math.ceil(limit * (1 - (double) minRtt / rtt));
+        if (queue <= step) {
+            limit += 3 * step;
+        } else if (queue < 3 * step) {
+            limit += step;
+        } else if (queue > 6 * step) {
+            limit -= step;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    private double step() {
+        return Math.max(1, Math.log10(limit));
+    }
+}
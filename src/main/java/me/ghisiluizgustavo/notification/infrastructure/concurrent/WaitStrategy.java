@@ -0,0 +1,148 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * How a {@link RingBuffer} consumer waits for the next sequence to be published. The strategies
+ * trade CPU for wake-up latency: {@link Kind#BLOCKING} parks on a condition and costs nothing
+ * while idle, {@link Kind#BUSY_SPIN} burns a core but reacts within nanoseconds.
+ */
+public interface WaitStrategy {
+
+    /**
+     * @return {@code false} when the ring was halted before the sequence became available.
+     */
+    boolean waitFor(long sequence, RingBuffer<?> ring);
+
+    void signalAll();
+
+    enum Kind {
+        BLOCKING,
+        SLEEPING,
+        YIELDING,
+        BUSY_SPIN;
+
+        public WaitStrategy create() {
+            return switch (this) {
+                case BLOCKING -> new Blocking();
+                case SLEEPING -> new Sleeping();
+                case YIELDING -> new Yielding();
+                case BUSY_SPIN -> new BusySpin();
+            };
+        }
+    }
+
+    final class Blocking implements WaitStrategy {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+
+        @Override
+        public boolean waitFor(long sequence, RingBuffer<?> ring) {
+            if (ring.isAvailable(sequence)) {
+                return true;
+            }
+            lock.lock();
+            try {
+                while (!ring.isAvailable(sequence)) {
+                    if (ring.isHalted()) {
+                        return false;
+                    }
+                    // Timed only so that halt() is noticed; publishes signal under the lock.
+                    published.await(1, TimeUnit.MILLISECONDS);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    final class Sleeping implements WaitStrategy {
+
+        private static final int SPINS = 100;
+
+        @Override
+        public boolean waitFor(long sequence, RingBuffer<?> ring) {
+            int counter = SPINS * 2;
+            while (!ring.isAvailable(sequence)) {
+                if (ring.isHalted()) {
+                    return false;
+                }
+                if (counter > SPINS) {
+                    counter--;
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+
+        private static final int SPINS = 100;
+
+        @Override
+        public boolean waitFor(long sequence, RingBuffer<?> ring) {
+            int counter = SPINS;
+            while (!ring.isAvailable(sequence)) {
+                if (ring.isHalted()) {
+                    return false;
+                }
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    final class BusySpin implements WaitStrategy {
+
+        @Override
+        public boolean waitFor(long sequence, RingBuffer<?> ring) {
+            while (!ring.isAvailable(sequence)) {
+                if (ring.isHalted()) {
+                    return false;
+                }
+                Thread.onSpinWait();
+            }
+            return true;
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Moves old notifications out of the database into compressed columnar files.
+ *
+ * @param olderThan       notifications created longer ago than this are archived
+ * @param segmentRows     notifications per archive file; a file is only written once this many
+ *                        are old enough
+ * @param refreshInterval how often an instance re-reads the archived ranges recorded by the
+ *                        writer
+ * @param blockRows       notifications per independently compressed block of a file; a page
+ *                        read inflates only the blocks it covers
+ * @param cachedBlocks    decoded blocks kept in memory, most recently read first
+ * @param leaseTtl        how long the writer role outlives an instance that stopped renewing it;
+ *                        must exceed the time taken to write one file
+ */
+@ConfigurationProperties(prefix = "notification.archive")
+public record ArchiveProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/archive") Path directory,
+    @DefaultValue("90d") Duration olderThan,
+    @DefaultValue("100000") int segmentRows,
+    @DefaultValue("10") int maxSegmentsPerRun,
+    @DefaultValue("1h") Duration interval,
+    @DefaultValue("30s") Duration refreshInterval,
+    @DefaultValue("4096") int blockRows,
+    @DefaultValue("32") int cachedBlocks,
+    @DefaultValue("5m") Duration leaseTtl
+) {
+    public ArchiveProperties {
+        if (olderThan.isZero() || olderThan.isNegative()) {
+            throw new IllegalArgumentException("Archive age must be positive");
+        }
+        if (segmentRows < 1) {
+            throw new IllegalArgumentException("Archive segment rows must be at least 1");
+        }
+        if (maxSegmentsPerRun < 1) {
+            throw new IllegalArgumentException("Archive max segments per run must be at least 1");
+        }
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Archive interval must be positive");
+        }
+        if (refreshInterval.isNegative()) {
+            throw new IllegalArgumentException("Archive refresh interval must not be negative");
+        }
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("Archive block rows must be at least 1");
+        }
+        if (cachedBlocks < 1) {
+            throw new IllegalArgumentException("Archive cached blocks must be at least 1");
+        }
+        if (leaseTtl.isZero() || leaseTtl.isNegative()) {
+            throw new IllegalArgumentException("Archive lease TTL must be positive");
+        }
+    }
+}
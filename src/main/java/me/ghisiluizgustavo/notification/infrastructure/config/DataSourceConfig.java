@@ -0,0 +1,88 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReplicaLagMonitor;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Boot's JDBC auto-configuration backs off as soon as an R2DBC {@code ConnectionFactory} exists,
+ * so the JDBC pool used by JPA and Flyway is declared explicitly.
+ * <p>
+ * When {@code notification.replica.url} is set, the exposed {@link DataSource} defers picking a
+ * physical connection until the first statement, by which point a {@code readOnly} transaction
+ * has marked it read-only and it is served by {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "notification.replica", name = "url")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaProperties properties) {
+        final var replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(properties.url());
+        replica.setUsername(properties.username());
+        replica.setPassword(properties.password());
+        replica.setMaximumPoolSize(properties.maximumPoolSize());
+        replica.setReadOnly(true);
+        replica.setInitializationFailTimeout(-1);
+
+        final var monitor = new ReplicaLagMonitor(replica, properties.maxLag());
+        monitor.start(properties.checkInterval());
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        ObjectProvider<ReplicaLagMonitor> replicaLagMonitor
+    ) {
+        final ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (monitor == null) {
+            return primaryDataSource;
+        }
+
+        final var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, monitor));
+        return dataSource;
+    }
+
+    /**
+     * The R2DBC starter contributes a second transaction manager; {@code @Transactional} without a
+     * qualifier means the JPA one.
+     */
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,21 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import me.ghisiluizgustavo.notification.infrastructure.ingest.IngestLog;
+import me.ghisiluizgustavo.notification.infrastructure.ingest.MappedSegmentIngestLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "notification.ingest", name = "enabled", havingValue = "true")
+public class IngestLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public IngestLog ingestLog(IngestProperties properties) {
+        return new MappedSegmentIngestLog(
+            properties.directory(),
+            (int) properties.segmentSize().toBytes(),
+            properties.syncOnAppend()
+        );
+    }
+}
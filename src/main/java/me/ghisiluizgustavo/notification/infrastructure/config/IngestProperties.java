@@ -0,0 +1,35 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Durable ingest log between request intake and fan-out. When disabled, accepted dispatches go
+ * through the in-memory intake ring instead.
+ */
+@ConfigurationProperties(prefix = "notification.ingest")
+public record IngestProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/ingest") Path directory,
+    @DefaultValue("64MB") DataSize segmentSize,
+    @DefaultValue("false") boolean syncOnAppend,
+    @DefaultValue("fan-out") String consumerGroup,
+    @DefaultValue("50ms") Duration pollInterval,
+    @DefaultValue("1024") int maxInFlight
+) {
+    public IngestProperties {
+        if (segmentSize.toBytes() < DataSize.ofKilobytes(1).toBytes() || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ingest segment size must be between 1KB and 2GB");
+        }
+        if (pollInterval.isZero() || pollInterval.isNegative()) {
+            throw new IllegalArgumentException("Ingest poll interval must be positive");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Ingest max in-flight must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP providers behind the notification channels. A channel without an endpoint only logs
+ * what it would have sent.
+ */
+@ConfigurationProperties(prefix = "notification.providers")
+public record ProviderProperties(
+    @DefaultValue("HTTP_2") HttpClient.Version version,
+    @DefaultValue("2s") Duration connectTimeout,
+    @DefaultValue("10s") Duration requestTimeout,
+    @DefaultValue("8KB") DataSize maxResponseSize,
+    Map<NotificationType, Endpoint> endpoints
+) {
+    public ProviderProperties {
+        if (version == null) {
+            throw new IllegalArgumentException("Provider HTTP version is required");
+        }
+        if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+            throw new IllegalArgumentException("Provider connect timeout must be positive");
+        }
+        if (requestTimeout == null || requestTimeout.isNegative() || requestTimeout.isZero()) {
+            throw new IllegalArgumentException("Provider request timeout must be positive");
+        }
+        if (maxResponseSize.toBytes() < 0 || maxResponseSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Provider max response size must be between 0 and 2GB");
+        }
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+        endpoints.forEach((channel, endpoint) -> {
+            if (endpoint.url() == null || endpoint.url().getScheme() == null) {
+                throw new IllegalArgumentException("Provider endpoint for " + channel + " needs an absolute URL");
+            }
+        });
+    }
+
+    /**
+     * @param token sent as a bearer token when set
+     */
+    public record Endpoint(URI url, String token) {
+    }
+}
@@ -0,0 +1,17 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import me.ghisiluizgustavo.notification.infrastructure.database.EnumCodeConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+
+@Configuration
+public class R2dbcConfig {
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory), EnumCodeConverters.r2dbc());
+    }
+}
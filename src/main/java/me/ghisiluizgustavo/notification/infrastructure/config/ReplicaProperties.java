@@ -0,0 +1,29 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Optional read replica. Read-only transactions are routed to it while its replay lag stays
+ * within {@code maxLag}; otherwise they fall back to the primary.
+ */
+@ConfigurationProperties(prefix = "notification.replica")
+public record ReplicaProperties(
+    String url,
+    String username,
+    String password,
+    @DefaultValue("5s") Duration maxLag,
+    @DefaultValue("2s") Duration checkInterval,
+    @DefaultValue("10") int maximumPoolSize
+) {
+    public ReplicaProperties {
+        if (maxLag.isNegative()) {
+            throw new IllegalArgumentException("Replica max lag cannot be negative");
+        }
+        if (checkInterval.isZero() || checkInterval.isNegative()) {
+            throw new IllegalArgumentException("Replica check interval must be positive");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package me.ghisiluizgustavo.notification.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * SMTP relay for the email channel. Without a host, email goes to the HTTP provider instead, if
+ * one is configured.
+ *
+ * @param poolSize      connections kept open to the relay; also the most transactions in flight
+ * @param maxRecipients recipients of one transaction sharing identical content; RFC 5321 has
+ *                      relays accept at least 100
+ * @param idleTimeout   a pooled connection idle for longer is closed rather than reused, before
+ *                      the relay times it out itself
+ */
+@ConfigurationProperties(prefix = "notification.smtp")
+public record SmtpProperties(
+    String host,
+    @DefaultValue("587") int port,
+    @DefaultValue("STARTTLS") Security security,
+    String username,
+    String password,
+    @DefaultValue("notifications@localhost") String from,
+    @DefaultValue("localhost") String heloName,
+    @DefaultValue("4") int poolSize,
+    @DefaultValue("50") int maxRecipients,
+    @DefaultValue("5s") Duration connectTimeout,
+    @DefaultValue("30s") Duration readTimeout,
+    @DefaultValue("60s") Duration idleTimeout
+) {
+    public SmtpProperties {
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("SMTP port must be between 1 and 65535");
+        }
+        if (security == null) {
+            throw new IllegalArgumentException("SMTP security is required");
+        }
+        if (from == null || from.isBlank() || !from.contains("@")) {
+            throw new IllegalArgumentException("SMTP from must be an email address");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("SMTP pool size must be at least 1");
+        }
+        if (maxRecipients < 1) {
+            throw new IllegalArgumentException("SMTP max recipients must be at least 1");
+        }
+        if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+            throw new IllegalArgumentException("SMTP connect timeout must be positive");
+        }
+        if (readTimeout == null || readTimeout.isNegative() || readTimeout.isZero()) {
+            throw new IllegalArgumentException("SMTP read timeout must be positive");
+        }
+        if (idleTimeout == null || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("SMTP idle timeout must not be negative");
+        }
+        if ((username == null) != (password == null)) {
+            throw new IllegalArgumentException("SMTP username and password must be set together");
+        }
+    }
+
+    public boolean isConfigured() {
+        return host != null && !host.isBlank();
+    }
+
+    public enum Security {
+        /** Plain text, for a relay on the local network or in tests. */
+        NONE,
+        /** Plain connection upgraded with STARTTLS; fails if the relay does not offer it. */
+        STARTTLS,
+        /** TLS from the first byte, usually port 465. */
+        TLS
+    }
+}
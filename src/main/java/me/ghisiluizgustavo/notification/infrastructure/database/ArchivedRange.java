@@ -0,0 +1,11 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+/**
+ * The ids of one archive file, from {@code min_id} to {@code max_id} inclusive.
+ */
+public record ArchivedRange(
+    int minId,
+    int maxId,
+    int rows
+) {
+}
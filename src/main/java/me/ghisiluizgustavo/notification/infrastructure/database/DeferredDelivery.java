@@ -0,0 +1,22 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * A PENDING notification held back by quiet hours, with the instant it may go out.
+ */
+public record DeferredDelivery(
+    int notificationId,
+    NotificationCategory category,
+    NotificationType type,
+    String content,
+    int userId,
+    Integer dispatchId,
+    LocalDateTime createdAt,
+    Instant deliverAfter
+) {
+}
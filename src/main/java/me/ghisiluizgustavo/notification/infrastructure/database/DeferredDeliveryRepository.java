@@ -0,0 +1,104 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Deliveries deferred by quiet hours. The PENDING notification and its release time are written
+ * in one statement, so a deferral survives a restart; whoever releases it first
+ * {@linkplain #claim claims} it, so an instance that reloads deferrals another instance still
+ * holds in memory cannot send them twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeferredDeliveryRepository {
+
+    private static final String INSERT = """
+        WITH pending AS (
+            INSERT INTO notification (category, type, status, content, user_id, dispatch_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (dispatch_id, user_id, type) DO NOTHING
+            RETURNING id
+        )
+        INSERT INTO deferred_delivery (notification_id, deliver_after)
+        SELECT id, ? FROM pending
+        RETURNING notification_id""";
+
+    private static final String FIND = """
+        SELECT n.id, n.category, n.type, n.content, n.user_id, n.dispatch_id, n.created_at, d.deliver_after
+        FROM deferred_delivery d
+        JOIN notification n ON n.id = d.notification_id
+        WHERE d.notification_id > ?""";
+
+    private static final RowMapper<DeferredDelivery> MAPPER = (rs, rowNum) -> new DeferredDelivery(
+        rs.getInt(1),
+        NotificationCategory.fromCode(rs.getShort(2)),
+        NotificationType.fromCode(rs.getShort(3)),
+        rs.getString(4),
+        rs.getInt(5),
+        rs.getObject(6, Integer.class),
+        rs.getObject(7, LocalDateTime.class),
+        rs.getObject(8, OffsetDateTime.class).toInstant()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores {@code notification} as PENDING until {@code deliverAfter}.
+     *
+     * @return the notification id, or {@code null} when this delivery is already recorded, as
+     * happens when fan-out work is redone; its earlier deferral stands
+     */
+    public Integer insert(Notification notification, Instant deliverAfter) {
+        final List<Integer> ids = jdbcTemplate.queryForList(INSERT, Integer.class,
+            notification.getCategory().code(),
+            notification.getType().code(),
+            notification.getStatus().code(),
+            notification.getContent(),
+            notification.getUserId(),
+            notification.getDispatchId(),
+            notification.getCreatedAt(),
+            notification.getUpdatedAt(),
+            deliverAfter.atOffset(ZoneOffset.UTC)
+        );
+        return ids.isEmpty() ? null : ids.getFirst();
+    }
+
+    /**
+     * Takes the deferral for sending.
+     *
+     * @return {@code false} when it was already taken, here or by another instance
+     */
+    public boolean claim(int notificationId) {
+        return jdbcTemplate.update("DELETE FROM deferred_delivery WHERE notification_id = ?", notificationId) == 1;
+    }
+
+    public void complete(int notificationId, NotificationStatus status, LocalDateTime updatedAt) {
+        jdbcTemplate.update("UPDATE notification SET status = ?, updated_at = ? WHERE id = ?",
+            status.code(), updatedAt, notificationId);
+    }
+
+    /**
+     * Up to {@code limit} deferrals with a notification id above {@code after}, in id order; only
+     * those due by {@code dueBy} when it is given.
+     */
+    public List<DeferredDelivery> find(int after, Instant dueBy, int limit) {
+        if (dueBy == null) {
+            return jdbcTemplate.query(FIND + " ORDER BY d.notification_id LIMIT ?", MAPPER, after, limit);
+        }
+        return jdbcTemplate.query(FIND + " AND d.deliver_after <= ? ORDER BY d.notification_id LIMIT ?", MAPPER,
+            after, dueBy.atOffset(ZoneOffset.UTC), limit);
+    }
+}
@@ -0,0 +1,16 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+import java.time.LocalDateTime;
+
+public record DeliveryStatsBucket(
+    LocalDateTime bucket,
+    NotificationCategory category,
+    NotificationType type,
+    NotificationStatus status,
+    long count
+) {
+}
@@ -0,0 +1,77 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-minute delivery counts keyed by (category, type, status). Counts only ever grow, so
+ * flushes are additive upserts and reads aggregate buckets instead of raw notifications.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeliveryStatsRepository {
+
+    private static final String UPSERT = """
+        INSERT INTO delivery_stats_minute (bucket, category, type, status, count)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (bucket, category, type, status)
+        DO UPDATE SET count = delivery_stats_minute.count + EXCLUDED.count""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void add(List<DeliveryStatsBucket> increments) {
+        jdbcTemplate.batchUpdate(UPSERT, increments, increments.size(), (statement, increment) -> {
+            statement.setTimestamp(1, Timestamp.valueOf(increment.bucket()));
+            statement.setString(2, increment.category().name());
+            statement.setString(3, increment.type().name());
+            statement.setString(4, increment.status().name());
+            statement.setLong(5, increment.count());
+        });
+    }
+
+    /**
+     * @param unit a {@code date_trunc} field such as {@code minute}, {@code hour} or {@code day}
+     */
+    public List<DeliveryStatsBucket> find(
+        String unit,
+        LocalDateTime from,
+        LocalDateTime to,
+        NotificationCategory category,
+        NotificationType type,
+        NotificationStatus status
+    ) {
+        final var sql = new StringBuilder("SELECT date_trunc(?, bucket) AS period, category, type, status, SUM(count) AS total")
+            .append(" FROM delivery_stats_minute WHERE bucket >= ? AND bucket < ?");
+        final List<Object> args = new ArrayList<>(List.of(unit, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (category != null) {
+            sql.append(" AND category = ?");
+            args.add(category.name());
+        }
+        if (type != null) {
+            sql.append(" AND type = ?");
+            args.add(type.name());
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        sql.append(" GROUP BY period, category, type, status ORDER BY period, category, type, status");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new DeliveryStatsBucket(
+            rs.getTimestamp("period").toLocalDateTime(),
+            NotificationCategory.valueOf(rs.getString("category")),
+            NotificationType.valueOf(rs.getString("type")),
+            NotificationStatus.valueOf(rs.getString("status")),
+            rs.getLong("total")
+        ), args.toArray());
+    }
+}
@@ -0,0 +1,70 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts many dispatches in one transaction and one JDBC batch, then sets the generated ids on
+ * the given entities in order. A duplicate idempotency key fails the whole batch, as
+ * {@link DispatchRepository#save} would fail for the single dispatch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DispatchBatchWriter {
+
+    private static final String INSERT = """
+        INSERT INTO dispatch (idempotency_key, request_hash, category, content, template, audience, created_at,
+            scheduled_at, dispatched_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insert(List<DispatchEntityJpa> dispatches) {
+        final LocalDateTime now = LocalDateTime.now();
+        final var keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    final DispatchEntityJpa dispatch = dispatches.get(i);
+                    statement.setString(1, dispatch.getIdempotencyKey());
+                    statement.setString(2, dispatch.getRequestHash());
+                    statement.setShort(3, dispatch.getCategory().code());
+                    statement.setString(4, dispatch.getContent());
+                    statement.setString(5, dispatch.getTemplate());
+                    statement.setString(6, dispatch.getAudience());
+                    statement.setObject(7, dispatch.getCreatedAt() != null ? dispatch.getCreatedAt() : now);
+                    statement.setObject(8, dispatch.getScheduledAt());
+                    statement.setObject(9, dispatch.getDispatchedAt());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return dispatches.size();
+                }
+            },
+            keys
+        );
+
+        final List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < dispatches.size(); i++) {
+            final DispatchEntityJpa dispatch = dispatches.get(i);
+            dispatch.setId(((Number) generated.get(i).get("id")).intValue());
+            if (dispatch.getCreatedAt() == null) {
+                dispatch.setCreatedAt(now);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "dispatch")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class DispatchEntityJpa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    private String idempotencyKey;
+    private String requestHash;
+    @Convert(converter = EnumCodeConverters.CategoryConverter.class)
+    private NotificationCategory category;
+    private String content;
+    private String template;
+    private String audience;
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+    private LocalDateTime scheduledAt;
+    private LocalDateTime dispatchedAt;
+
+    public static DispatchEntityJpa of(String idempotencyKey, NotificationCategory category, String content) {
+        return of(idempotencyKey, null, category, content, null, null);
+    }
+
+    public static DispatchEntityJpa of(
+        String idempotencyKey,
+        String requestHash,
+        NotificationCategory category,
+        String content,
+        String template,
+        String audience
+    ) {
+        return new DispatchEntityJpa(null, idempotencyKey, requestHash, category, content, template, audience, null, null,
+            LocalDateTime.now());
+    }
+
+    public static DispatchEntityJpa scheduled(
+        String idempotencyKey,
+        String requestHash,
+        NotificationCategory category,
+        String content,
+        String template,
+        String audience,
+        LocalDateTime scheduledAt
+    ) {
+        return new DispatchEntityJpa(null, idempotencyKey, requestHash, category, content, template, audience, null,
+            scheduledAt, null);
+    }
+
+}
@@ -0,0 +1,82 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DispatchRepository extends JpaRepository<DispatchEntityJpa, Integer> {
+
+    Optional<DispatchEntityJpa> findByIdempotencyKey(String idempotencyKey);
+
+    List<DispatchEntityJpa> findAllByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    @Query("""
+        select new me.ghisiluizgustavo.notification.infrastructure.database.PendingDispatch(d.id, d.scheduledAt)
+        from dispatch d
+        where d.dispatchedAt is null and d.scheduledAt >= :from and d.scheduledAt < :until
+        order by d.scheduledAt
+        """)
+    List<PendingDispatch> findPendingScheduledBetween(
+        @Param("from") LocalDateTime from,
+        @Param("until") LocalDateTime until
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+        update dispatch d set d.dispatchedAt = :now, d.scheduledAt = :scheduledAt
+        where d.id = :id and d.dispatchedAt is null
+        """)
+    int markDispatched(
+        @Param("id") Integer id,
+        @Param("scheduledAt") LocalDateTime scheduledAt,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Marks dispatches held by {@link #holdUntil} as dispatched and clears their hold.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update dispatch d set d.dispatchedAt = :now, d.scheduledAt = null
+        where d.id in :ids and d.dispatchedAt is null
+        """)
+    int markAllDispatched(@Param("ids") Collection<Integer> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves a pending dispatch still due at {@code scheduledAt} to {@code retryAt}, so only one
+     * instance fires it and it is fired again if it never reaches the intake. Marking it
+     * dispatched puts back its {@code scheduledAt}.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update dispatch d set d.scheduledAt = :retryAt
+        where d.id = :id and d.dispatchedAt is null and d.scheduledAt = :scheduledAt
+        """)
+    int claim(
+        @Param("id") Integer id,
+        @Param("scheduledAt") LocalDateTime scheduledAt,
+        @Param("retryAt") LocalDateTime retryAt
+    );
+
+    /**
+     * Turns an accepted dispatch back into a pending one due at {@code until}, for dispatches held
+     * in memory that must be fired on their own if the instance holding them stops.
+     */
+    @Transactional
+    @Modifying
+    @Query("update dispatch d set d.dispatchedAt = null, d.scheduledAt = :until where d.id = :id")
+    int holdUntil(@Param("id") Integer id, @Param("until") LocalDateTime until);
+
+}
@@ -0,0 +1,45 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("dispatch")
+public record DispatchRow(
+    @Id Integer id,
+    String idempotencyKey,
+    String requestHash,
+    NotificationCategory category,
+    String content,
+    String template,
+    String audience,
+    LocalDateTime createdAt,
+    LocalDateTime scheduledAt,
+    LocalDateTime dispatchedAt
+) {
+    public static DispatchRow of(
+        String idempotencyKey,
+        String requestHash,
+        NotificationCategory category,
+        String content,
+        String template,
+        String audience,
+        LocalDateTime scheduledAt
+    ) {
+        final LocalDateTime now = LocalDateTime.now();
+        return new DispatchRow(
+            null,
+            idempotencyKey,
+            requestHash,
+            category,
+            content,
+            template,
+            audience,
+            now,
+            scheduledAt,
+            scheduledAt == null ? now : null
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+public record DispatchShard(
+    int dispatchId,
+    int shard,
+    String owner
+) {
+}
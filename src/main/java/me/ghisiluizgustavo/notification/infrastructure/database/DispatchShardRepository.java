@@ -0,0 +1,106 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Fan-out work split by shard. Rows are created {@code PENDING}, claimed as {@code RUNNING} by
+ * their owner with {@code SKIP LOCKED}, and deleted once delivered. Reassignments are guarded by
+ * the previous owner, so instances that rebalance concurrently cannot overwrite each other.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DispatchShardRepository {
+
+    private static final String INSERT = """
+        INSERT INTO dispatch_shard (dispatch_id, shard, owner, status)
+        VALUES (?, ?, ?, 'PENDING')
+        ON CONFLICT DO NOTHING""";
+
+    private static final String CLAIM = """
+        UPDATE dispatch_shard s SET status = 'RUNNING'
+        FROM (
+            SELECT dispatch_id, shard FROM dispatch_shard
+            WHERE owner = ? AND status = 'PENDING'
+            ORDER BY dispatch_id, shard
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        ) c
+        WHERE s.dispatch_id = c.dispatch_id AND s.shard = c.shard
+        RETURNING s.dispatch_id, s.shard, s.owner""";
+
+    private static final String ORPHANED = """
+        SELECT dispatch_id, shard, owner FROM dispatch_shard d
+        WHERE NOT EXISTS (
+            SELECT 1 FROM instance_lease l WHERE l.instance_id = d.owner AND l.expires_at > now()
+        )""";
+
+    private static final String PENDING_OWNED = """
+        SELECT dispatch_id, shard, owner FROM dispatch_shard WHERE owner = ? AND status = 'PENDING'""";
+
+    private static final String REASSIGN = """
+        UPDATE dispatch_shard SET owner = ?, status = 'PENDING'
+        WHERE dispatch_id = ? AND shard = ? AND owner = ?""";
+
+    private static final RowMapper<DispatchShard> MAPPER = (rs, rowNum) -> new DispatchShard(
+        rs.getInt("dispatch_id"),
+        rs.getInt("shard"),
+        rs.getString("owner")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void create(int dispatchId, String[] ownersByShard) {
+        jdbcTemplate.batchUpdate(INSERT, IntStream.range(0, ownersByShard.length)
+            .mapToObj(shard -> new Object[]{dispatchId, shard, ownersByShard[shard]})
+            .toList());
+    }
+
+    public List<DispatchShard> claim(String owner, int limit) {
+        return jdbcTemplate.query(CLAIM, MAPPER, owner, limit);
+    }
+
+    public void complete(DispatchShard shard) {
+        jdbcTemplate.update(
+            "DELETE FROM dispatch_shard WHERE dispatch_id = ? AND shard = ? AND owner = ?",
+            shard.dispatchId(),
+            shard.shard(),
+            shard.owner()
+        );
+    }
+
+    /**
+     * Puts a claimed shard back to {@code PENDING}, for its owner to claim again.
+     */
+    public void release(DispatchShard shard) {
+        jdbcTemplate.update(
+            "UPDATE dispatch_shard SET status = 'PENDING' WHERE dispatch_id = ? AND shard = ? AND owner = ?",
+            shard.dispatchId(),
+            shard.shard(),
+            shard.owner()
+        );
+    }
+
+    /**
+     * Shards whose owner no longer holds a live lease, whatever their status.
+     */
+    public List<DispatchShard> orphaned() {
+        return jdbcTemplate.query(ORPHANED, MAPPER);
+    }
+
+    public List<DispatchShard> pendingOwnedBy(String owner) {
+        return jdbcTemplate.query(PENDING_OWNED, MAPPER, owner);
+    }
+
+    /**
+     * @return {@code false} when another instance moved the shard first.
+     */
+    public boolean reassign(DispatchShard shard, String newOwner) {
+        return jdbcTemplate.update(REASSIGN, newOwner, shard.dispatchId(), shard.shard(), shard.owner()) == 1;
+    }
+}
@@ -0,0 +1,133 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.List;
+
+/**
+ * Maps category, type and status to the {@code smallint} codes the notification and dispatch
+ * tables store (V9 to V11) instead of their names. JPA converters are applied per attribute;
+ * R2DBC only supports converters per Java type, so {@link #r2dbc()} covers every property of
+ * these enums, which is why all tables holding them were migrated together.
+ */
+public final class EnumCodeConverters {
+
+    private EnumCodeConverters() {
+    }
+
+    public static List<Object> r2dbc() {
+        return List.of(
+            CategoryWriter.INSTANCE, CategoryReader.INSTANCE,
+            TypeWriter.INSTANCE, TypeReader.INSTANCE,
+            StatusWriter.INSTANCE, StatusReader.INSTANCE
+        );
+    }
+
+    @Converter
+    public static class CategoryConverter implements AttributeConverter<NotificationCategory, Short> {
+
+        @Override
+        public Short convertToDatabaseColumn(NotificationCategory category) {
+            return category == null ? null : category.code();
+        }
+
+        @Override
+        public NotificationCategory convertToEntityAttribute(Short code) {
+            return code == null ? null : NotificationCategory.fromCode(code);
+        }
+    }
+
+    @Converter
+    public static class TypeConverter implements AttributeConverter<NotificationType, Short> {
+
+        @Override
+        public Short convertToDatabaseColumn(NotificationType type) {
+            return type == null ? null : type.code();
+        }
+
+        @Override
+        public NotificationType convertToEntityAttribute(Short code) {
+            return code == null ? null : NotificationType.fromCode(code);
+        }
+    }
+
+    @Converter
+    public static class StatusConverter implements AttributeConverter<NotificationStatus, Short> {
+
+        @Override
+        public Short convertToDatabaseColumn(NotificationStatus status) {
+            return status == null ? null : status.code();
+        }
+
+        @Override
+        public NotificationStatus convertToEntityAttribute(Short code) {
+            return code == null ? null : NotificationStatus.fromCode(code);
+        }
+    }
+
+    @WritingConverter
+    enum CategoryWriter implements org.springframework.core.convert.converter.Converter<NotificationCategory, Short> {
+        INSTANCE;
+
+        @Override
+        public Short convert(NotificationCategory category) {
+            return category.code();
+        }
+    }
+
+    @ReadingConverter
+    enum CategoryReader implements org.springframework.core.convert.converter.Converter<Short, NotificationCategory> {
+        INSTANCE;
+
+        @Override
+        public NotificationCategory convert(Short code) {
+            return NotificationCategory.fromCode(code);
+        }
+    }
+
+    @WritingConverter
+    enum TypeWriter implements org.springframework.core.convert.converter.Converter<NotificationType, Short> {
+        INSTANCE;
+
+        @Override
+        public Short convert(NotificationType type) {
+            return type.code();
+        }
+    }
+
+    @ReadingConverter
+    enum TypeReader implements org.springframework.core.convert.converter.Converter<Short, NotificationType> {
+        INSTANCE;
+
+        @Override
+        public NotificationType convert(Short code) {
+            return NotificationType.fromCode(code);
+        }
+    }
+
+    @WritingConverter
+    enum StatusWriter implements org.springframework.core.convert.converter.Converter<NotificationStatus, Short> {
+        INSTANCE;
+
+        @Override
+        public Short convert(NotificationStatus status) {
+            return status.code();
+        }
+    }
+
+    @ReadingConverter
+    enum StatusReader implements org.springframework.core.convert.converter.Converter<Short, NotificationStatus> {
+        INSTANCE;
+
+        @Override
+        public NotificationStatus convert(Short code) {
+            return NotificationStatus.fromCode(code);
+        }
+    }
+}
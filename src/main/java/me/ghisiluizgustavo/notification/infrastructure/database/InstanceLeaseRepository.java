@@ -0,0 +1,69 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Membership of the instances sharing fan-out work. An instance is live while its lease has not
+ * expired; expiry is judged by the database clock so instance clock skew does not matter. Roles
+ * held by one instance at a time lapse the same way.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InstanceLeaseRepository {
+
+    private static final String RENEW = """
+        INSERT INTO instance_lease (instance_id, expires_at)
+        VALUES (?, now() + make_interval(secs => ?))
+        ON CONFLICT (instance_id) DO UPDATE SET expires_at = EXCLUDED.expires_at""";
+
+    private static final String LIVE = """
+        SELECT instance_id FROM instance_lease WHERE expires_at > now() ORDER BY instance_id""";
+
+    private static final String PURGE = """
+        DELETE FROM instance_lease WHERE expires_at < now() - make_interval(secs => ?)""";
+
+    private static final String HOLD = """
+        INSERT INTO instance_role (role, instance_id, expires_at)
+        VALUES (?, ?, now() + make_interval(secs => ?))
+        ON CONFLICT (role) DO UPDATE SET instance_id = EXCLUDED.instance_id, expires_at = EXCLUDED.expires_at
+        WHERE instance_role.instance_id = EXCLUDED.instance_id OR instance_role.expires_at <= now()""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void renew(String instanceId, Duration ttl) {
+        jdbcTemplate.update(RENEW, instanceId, ttl.toMillis() / 1000.0);
+    }
+
+    public List<String> live() {
+        return jdbcTemplate.queryForList(LIVE, String.class);
+    }
+
+    public void release(String instanceId) {
+        jdbcTemplate.update("DELETE FROM instance_lease WHERE instance_id = ?", instanceId);
+    }
+
+    /**
+     * Drops leases that expired more than {@code olderThan} ago.
+     */
+    public int purge(Duration olderThan) {
+        return jdbcTemplate.update(PURGE, olderThan.toMillis() / 1000.0);
+    }
+
+    /**
+     * Takes the role for {@code ttl}, or extends it when this instance already holds it.
+     *
+     * @return {@code false} when another instance holds the role and its hold has not expired
+     */
+    public boolean hold(String role, String instanceId, Duration ttl) {
+        return jdbcTemplate.update(HOLD, role, instanceId, ttl.toMillis() / 1000.0) == 1;
+    }
+
+    public void letGo(String role, String instanceId) {
+        jdbcTemplate.update("DELETE FROM instance_role WHERE role = ? AND instance_id = ?", role, instanceId);
+    }
+}
@@ -0,0 +1,103 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads notifications to archive in id order, records the ranges archived and deletes their
+ * notifications once every instance knows about them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationArchiveRepository {
+
+    private static final int DELETE_CHUNK = 10_000;
+
+    private static final String RECORD = """
+        INSERT INTO archived_range (min_id, max_id, row_count)
+        SELECT ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM archived_range WHERE max_id >= ?)""";
+
+    private static final String PURGEABLE = """
+        SELECT min_id, max_id, row_count FROM archived_range
+        WHERE NOT purged AND written_at <= now() - make_interval(secs => ?)
+        ORDER BY min_id""";
+
+    private static final RowMapper<ArchivedRange> RANGE_MAPPER = (rs, rowNum) ->
+        new ArchivedRange(rs.getInt(1), rs.getInt(2), rs.getInt(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Id of the first notification created at or after {@code cutoff}, from the created_at
+     * index; {@code null} when every notification is older.
+     */
+    public Integer firstIdCreatedSince(LocalDateTime cutoff) {
+        final List<Integer> ids = jdbcTemplate.queryForList(
+            "SELECT id FROM notification WHERE created_at >= ? ORDER BY created_at LIMIT 1", Integer.class, cutoff);
+        return ids.isEmpty() ? null : ids.getFirst();
+    }
+
+    /**
+     * Up to {@code limit} notifications with an id above {@code after} and, when given, below
+     * {@code before}, in ascending id order.
+     */
+    public List<NotificationRow> findAfter(int after, Integer before, int limit) {
+        final String sql = "SELECT " + NotificationRowMapper.COLUMNS + " FROM notification WHERE id > ?"
+            + (before != null ? " AND id < ?" : "") + " ORDER BY id LIMIT ?";
+        final Object[] args = before != null ? new Object[]{after, before, limit} : new Object[]{after, limit};
+        return jdbcTemplate.query(sql, NotificationRowMapper.INSTANCE, args);
+    }
+
+    /**
+     * Deletes exactly these notifications, a chunk per statement.
+     */
+    public int delete(int[] ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.length; from += DELETE_CHUNK) {
+            final Integer[] chunk = Arrays.stream(ids, from, Math.min(from + DELETE_CHUNK, ids.length))
+                .boxed()
+                .toArray(Integer[]::new);
+            deleted += jdbcTemplate.update("DELETE FROM notification WHERE id = ANY(?)", statement -> {
+                final Array array = statement.getConnection().createArrayOf("integer", chunk);
+                statement.setArray(1, array);
+            });
+        }
+        return deleted;
+    }
+
+    /**
+     * Every archived range, ascending.
+     */
+    public List<ArchivedRange> findRanges() {
+        return jdbcTemplate.query("SELECT min_id, max_id, row_count FROM archived_range ORDER BY min_id", RANGE_MAPPER);
+    }
+
+    /**
+     * Records a newly written archive file.
+     *
+     * @return {@code false} when ids in the range were already recorded as archived
+     */
+    public boolean recordRange(ArchivedRange range) {
+        return jdbcTemplate.update(RECORD, range.minId(), range.maxId(), range.rows(), range.minId()) == 1;
+    }
+
+    /**
+     * Ranges whose notifications are still in the table and that were recorded at least
+     * {@code age} ago by the database clock, ascending.
+     */
+    public List<ArchivedRange> findPurgeable(Duration age) {
+        return jdbcTemplate.query(PURGEABLE, RANGE_MAPPER, age.toMillis() / 1000.0);
+    }
+
+    public void markPurged(ArchivedRange range) {
+        jdbcTemplate.update("UPDATE archived_range SET purged = TRUE WHERE min_id = ?", range.minId());
+    }
+}
@@ -0,0 +1,51 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Inserts a batch of delivered notifications as one JDBC batch, binding straight from the domain
+ * objects. Unlike {@link NotificationRepository#save}, no entity copy is made and the generated
+ * ids are not read back, so the caller may reuse the notifications afterwards. A delivery that
+ * is already recorded for the same (dispatch, user, type), as happens when fan-out work is
+ * redone after a restart or a shard handover, is skipped rather than failing the batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchWriter {
+
+    private static final String INSERT = """
+        INSERT INTO notification (category, type, status, content, user_id, dispatch_id, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (dispatch_id, user_id, type) DO NOTHING""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Notification[] notifications, int count) {
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                final Notification notification = notifications[i];
+                statement.setShort(1, notification.getCategory().code());
+                statement.setShort(2, notification.getType().code());
+                statement.setShort(3, notification.getStatus().code());
+                statement.setString(4, notification.getContent());
+                statement.setObject(5, notification.getUserId());
+                statement.setObject(6, notification.getDispatchId());
+                statement.setObject(7, notification.getCreatedAt());
+                statement.setObject(8, notification.getUpdatedAt());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+}
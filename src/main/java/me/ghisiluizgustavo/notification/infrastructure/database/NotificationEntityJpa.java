@@ -22,14 +22,15 @@ public class NotificationEntityJpa {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = EnumCodeConverters.CategoryConverter.class)
     private NotificationCategory category;
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = EnumCodeConverters.TypeConverter.class)
     private NotificationType type;
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = EnumCodeConverters.StatusConverter.class)
     private NotificationStatus status;
     private String content;
     private Integer userId;
+    private Integer dispatchId;
     @CreationTimestamp
     private LocalDateTime createdAt;
     @UpdateTimestamp
@@ -43,6 +44,7 @@ public class NotificationEntityJpa {
             notification.getStatus(),
             notification.getContent(),
             notification.getUserId(),
+            notification.getDispatchId(),
             notification.getCreatedAt(),
             notification.getUpdatedAt()
         );
@@ -0,0 +1,10 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import java.time.LocalDateTime;
+
+/**
+ * The highest notification id and the latest update time, both {@code null} while the table is
+ * empty. Any insert or update moves at least one of them.
+ */
+public record NotificationHighWaterMark(Integer maxId, LocalDateTime maxUpdatedAt) {
+}
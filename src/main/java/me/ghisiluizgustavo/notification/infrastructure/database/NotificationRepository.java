@@ -1,13 +1,34 @@
 package me.ghisiluizgustavo.notification.infrastructure.database;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<NotificationEntityJpa, Integer> {
 
-    List<NotificationEntityJpa> findAllByOrderByCreatedAtDesc();
+    List<NotificationEntityJpa> findAllByOrderByIdDesc(Limit limit);
+
+    List<NotificationEntityJpa> findByIdLessThanOrderByIdDesc(Integer id, Limit limit);
+
+    List<NotificationEntityJpa> findByIdGreaterThanOrderByIdDesc(Integer id, Limit limit);
+
+    List<NotificationEntityJpa> findByIdGreaterThanAndIdLessThanOrderByIdDesc(Integer after, Integer before, Limit limit);
+
+    /**
+     * Read from the ends of the primary key and the updated_at index, without touching rows.
+     * Read-only like the history pages it validates, so both come from the same database when a
+     * replica is configured.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        select new me.ghisiluizgustavo.notification.infrastructure.database.NotificationHighWaterMark(max(n.id), max(n.updatedAt))
+        from notification n
+        """)
+    NotificationHighWaterMark findHighWaterMark();
 
 }
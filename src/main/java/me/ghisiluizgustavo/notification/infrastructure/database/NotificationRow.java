@@ -0,0 +1,37 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("notification")
+public record NotificationRow(
+    @Id Integer id,
+    NotificationCategory category,
+    NotificationType type,
+    NotificationStatus status,
+    String content,
+    Integer userId,
+    Integer dispatchId,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+    public static NotificationRow fromDomain(Notification notification) {
+        return new NotificationRow(
+            notification.getId(),
+            notification.getCategory(),
+            notification.getType(),
+            notification.getStatus(),
+            notification.getContent(),
+            notification.getUserId(),
+            notification.getDispatchId(),
+            notification.getCreatedAt(),
+            notification.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Maps every column of a {@code notification} row selected through {@code JdbcTemplate}.
+ */
+final class NotificationRowMapper implements RowMapper<NotificationRow> {
+
+    static final NotificationRowMapper INSTANCE = new NotificationRowMapper();
+
+    static final String COLUMNS = "id, category, type, status, content, user_id, dispatch_id, created_at, updated_at";
+
+    private NotificationRowMapper() {
+    }
+
+    @Override
+    public NotificationRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new NotificationRow(
+            rs.getInt("id"),
+            NotificationCategory.fromCode(rs.getShort("category")),
+            NotificationType.fromCode(rs.getShort("type")),
+            NotificationStatus.fromCode(rs.getShort("status")),
+            rs.getString("content"),
+            rs.getObject("user_id", Integer.class),
+            rs.getObject("dispatch_id", Integer.class),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class)
+        );
+    }
+}
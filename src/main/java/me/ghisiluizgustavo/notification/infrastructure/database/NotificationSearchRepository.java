@@ -0,0 +1,77 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.RequiredArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over notification content through the GIN expression index of V13, which is
+ * only used when the query repeats its expression verbatim. Search text is parsed with
+ * {@code websearch_to_tsquery}, so it accepts quoted phrases, {@code or} and {@code -word} and
+ * never fails on user input.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationSearchRepository {
+
+    private static final String DOCUMENT = "to_tsvector('english'::regconfig, content)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Matches newest first, keyed on the id like the history pages.
+     *
+     * @param from   inclusive lower bound on {@code created_at}, or {@code null}
+     * @param to     exclusive upper bound on {@code created_at}, or {@code null}
+     * @param before only notifications with a lower id, or {@code null}
+     */
+    public List<NotificationRow> search(
+        String text,
+        NotificationCategory category,
+        NotificationType type,
+        NotificationStatus status,
+        LocalDateTime from,
+        LocalDateTime to,
+        Integer before,
+        int limit
+    ) {
+        final var sql = new StringBuilder("SELECT ").append(NotificationRowMapper.COLUMNS).append(" FROM notification")
+            .append(" WHERE ").append(DOCUMENT).append(" @@ websearch_to_tsquery('english'::regconfig, ?)");
+        final List<Object> args = new ArrayList<>(List.of(text));
+        if (category != null) {
+            sql.append(" AND category = ?");
+            args.add(category.code());
+        }
+        if (type != null) {
+            sql.append(" AND type = ?");
+            args.add(type.code());
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.code());
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(to);
+        }
+        if (before != null) {
+            sql.append(" AND id < ?");
+            args.add(before);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), NotificationRowMapper.INSTANCE, args.toArray());
+    }
+}
@@ -0,0 +1,8 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import java.time.LocalDateTime;
+
+public record PendingDispatch(
+    Integer id,
+    LocalDateTime scheduledAt
+) { }
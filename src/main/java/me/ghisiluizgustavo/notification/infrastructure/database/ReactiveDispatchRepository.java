@@ -0,0 +1,12 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveDispatchRepository extends R2dbcRepository<DispatchRow, Integer> {
+
+    Mono<DispatchRow> findByIdempotencyKey(String idempotencyKey);
+
+}
@@ -0,0 +1,12 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveNotificationRepository extends R2dbcRepository<NotificationRow, Integer> {
+
+    Flux<NotificationRow> findAllByOrderByCreatedAtDesc();
+
+}
@@ -0,0 +1,87 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures how far the replica trails the primary and decides whether read-only
+ * work may use it. A replica that has replayed everything it received reports zero lag, so an
+ * idle primary does not make the replica look stale.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    static final String LAG_QUERY = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+        END""";
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-replica-monitor").daemon().factory()
+    );
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag) {
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    public void start(Duration checkInterval) {
+        checker.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource replica() {
+        return replica;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public void markUnavailable(SQLException cause) {
+        if (usable) {
+            log.warn("Replica unavailable, routing reads to primary: {}", cause.getMessage());
+        }
+        usable = false;
+    }
+
+    void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(LAG_QUERY)) {
+            result.next();
+            final long lagMillis = (long) (result.getDouble(1) * 1000);
+            final boolean withinTolerance = lagMillis <= maxLagMillis;
+            if (withinTolerance != usable) {
+                log.info("Replica lag {}ms, reads routed to {}", lagMillis, withinTolerance ? "replica" : "primary");
+            }
+            usable = withinTolerance;
+        } catch (SQLException e) {
+            markUnavailable(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        if (replica instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close replica pool", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connection source for read-only transactions: the replica while {@link ReplicaLagMonitor}
+ * considers it fresh enough, the primary otherwise or when the replica refuses a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor monitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor monitor) {
+        this.primary = primary;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (monitor.isUsable()) {
+            try {
+                return monitor.replica().getConnection();
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (monitor.isUsable()) {
+            try {
+                return monitor.replica().getConnection(username, password);
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+}
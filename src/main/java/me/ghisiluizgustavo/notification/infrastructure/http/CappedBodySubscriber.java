@@ -0,0 +1,58 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Streams a response body and keeps only its first {@code maxBytes}. The rest is read and
+ * dropped rather than cancelled, so the connection stays reusable.
+ */
+final class CappedBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final int maxBytes;
+    private final ByteArrayOutputStream kept;
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+
+    CappedBodySubscriber(int maxBytes) {
+        this.maxBytes = maxBytes;
+        this.kept = new ByteArrayOutputStream(Math.min(maxBytes, 512));
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        for (ByteBuffer buffer : buffers) {
+            final int take = Math.min(buffer.remaining(), maxBytes - kept.size());
+            if (take > 0) {
+                final byte[] bytes = new byte[take];
+                buffer.get(bytes);
+                kept.write(bytes, 0, take);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        body.complete(kept.toString(StandardCharsets.UTF_8));
+    }
+}
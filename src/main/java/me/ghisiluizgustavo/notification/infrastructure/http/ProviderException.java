@@ -0,0 +1,27 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+import lombok.Getter;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+/**
+ * A provider call that did not succeed: a non-2xx status, or a connection failure or timeout,
+ * in which case the status is {@code 0}.
+ */
+@Getter
+public class ProviderException extends RuntimeException {
+
+    private final NotificationType channel;
+    private final int status;
+
+    public ProviderException(NotificationType channel, int status, String message) {
+        super(message);
+        this.channel = channel;
+        this.status = status;
+    }
+
+    public ProviderException(NotificationType channel, String message, Throwable cause) {
+        super(message, cause);
+        this.channel = channel;
+        this.status = 0;
+    }
+}
@@ -0,0 +1,116 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.ProviderProperties;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The one HTTP client every provider call goes through. Sharing it shares its connection pool:
+ * HTTP/1.1 connections are kept alive and reused between calls, and with HTTP/2 all calls to a
+ * provider are multiplexed over one connection (negotiated by ALPN over TLS, or an h2c upgrade
+ * over plain HTTP, falling back to HTTP/1.1 when the provider declines). Calls never block a
+ * thread while in flight; response bodies are streamed and only their start is kept. The pool's
+ * size and keep-alive are the JDK's {@code jdk.httpclient.connectionPoolSize} and
+ * {@code jdk.httpclient.keepalive.timeout} system properties.
+ */
+@Slf4j
+@Component
+public class ProviderHttpClient {
+
+    private final ProviderProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final Duration callTimeout;
+
+    public ProviderHttpClient(ProviderProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.callTimeout = properties.connectTimeout().plus(properties.requestTimeout());
+        this.client = HttpClient.newBuilder()
+            .version(properties.version())
+            .connectTimeout(properties.connectTimeout())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(executor)
+            .build();
+    }
+
+    public boolean isConfigured(NotificationType channel) {
+        return properties.endpoints().containsKey(channel);
+    }
+
+    /**
+     * Posts the payload as JSON to the channel's provider. The future fails with a
+     * {@link ProviderException} on a non-2xx status, a connection failure or a timeout.
+     */
+    public CompletableFuture<ProviderResponse> sendAsync(NotificationType channel, Object payload) {
+        final ProviderProperties.Endpoint endpoint = properties.endpoints().get(channel);
+        if (endpoint == null) {
+            return CompletableFuture.failedFuture(
+                new IllegalStateException("No provider endpoint configured for " + channel));
+        }
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(endpoint.url())
+            .timeout(properties.requestTimeout())
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload)));
+        if (endpoint.token() != null) {
+            request.header("Authorization", "Bearer " + endpoint.token());
+        }
+
+        final int maxBytes = (int) properties.maxResponseSize().toBytes();
+        return client.sendAsync(request.build(), info -> new CappedBodySubscriber(maxBytes))
+            .handle((response, error) -> {
+                if (error != null) {
+                    final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    throw new ProviderException(channel, channel + " provider call failed: " + cause, cause);
+                }
+                if (response.statusCode() / 100 != 2) {
+                    throw new ProviderException(channel, response.statusCode(),
+                        channel + " provider answered " + response.statusCode() + ": " + response.body());
+                }
+                return new ProviderResponse(response.statusCode(), response.body());
+            });
+    }
+
+    /**
+     * Blocking form of {@link #sendAsync}, for the blocking strategies. The caller waits no longer
+     * than the connect and request timeouts together, even if the client's own timeouts miss.
+     */
+    public ProviderResponse send(NotificationType channel, Object payload) {
+        try {
+            return sendAsync(channel, payload).get(callTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ProviderException(channel, channel + " provider call timed out after " + callTimeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ProviderException(channel, channel + " provider call failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderException(channel, "Interrupted calling the " + channel + " provider", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.close();
+        executor.close();
+    }
+}
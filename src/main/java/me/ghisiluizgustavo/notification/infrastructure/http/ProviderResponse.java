@@ -0,0 +1,7 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+/**
+ * @param body the start of the response body, up to the configured maximum size
+ */
+public record ProviderResponse(int status, String body) {
+}
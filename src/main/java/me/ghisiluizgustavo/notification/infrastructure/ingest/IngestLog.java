@@ -0,0 +1,40 @@
+package me.ghisiluizgustavo.notification.infrastructure.ingest;
+
+import java.util.List;
+
+/**
+ * Append-only log of accepted requests, read by consumer groups that each track a committed
+ * offset. Offsets are opaque and increasing; a consumer resumes from {@link #committed} after a
+ * restart, so anything appended and not yet committed is handed out again (at-least-once).
+ * <p>
+ * {@link MappedSegmentIngestLog} keeps the log on local disk; a broker-backed implementation can
+ * replace it without touching the consumers.
+ */
+public interface IngestLog extends AutoCloseable {
+
+    /**
+     * @return the offset of the appended record.
+     */
+    long append(byte[] payload);
+
+    /**
+     * Up to {@code maxRecords} records starting at {@code fromOffset}, or an empty list when the
+     * consumer is caught up.
+     */
+    List<IngestRecord> read(long fromOffset, int maxRecords);
+
+    /**
+     * Offset the next append will get.
+     */
+    long endOffset();
+
+    /**
+     * Records that {@code group} has processed everything before {@code nextOffset}.
+     */
+    void commit(String group, long nextOffset);
+
+    long committed(String group);
+
+    @Override
+    void close();
+}
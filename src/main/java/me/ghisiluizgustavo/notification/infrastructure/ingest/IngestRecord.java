@@ -0,0 +1,8 @@
+package me.ghisiluizgustavo.notification.infrastructure.ingest;
+
+public record IngestRecord(
+    long offset,
+    long nextOffset,
+    byte[] payload
+) {
+}
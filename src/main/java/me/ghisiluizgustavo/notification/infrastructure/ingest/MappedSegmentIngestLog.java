@@ -0,0 +1,318 @@
+package me.ghisiluizgustavo.notification.infrastructure.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link IngestLog} on memory-mapped segment files of a fixed size. Each record is
+ * {@code [length][crc32c][payload]}, and its offset is its byte position in the log as a whole.
+ * A segment therefore starts at the offset where the previous one stopped, and a read at any
+ * offset is a floor lookup plus a subtraction. The length is written last. On open, the tail of
+ * the newest segment is scanned and cut at the first record that is missing or fails its
+ * checksum.
+ * <p>
+ * Appends land in the page cache and survive a process crash; {@code syncOnAppend} also forces
+ * every record to disk, at the cost of one {@code msync} per append. Committed offsets are kept
+ * per group in {@code <group>.offset}, and a segment is deleted once every group has committed
+ * past it. Deletion runs on a background thread, so a commit never waits on it and appends are
+ * held up only while consumed segments are taken out of the index.
+ */
+@Slf4j
+public class MappedSegmentIngestLog implements IngestLog {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_SUFFIX = ".offset";
+    private static final Pattern GROUP = Pattern.compile("[a-z0-9][a-z0-9-]{0,63}");
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean syncOnAppend;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, MappedByteBuffer> committedOffsets = new ConcurrentHashMap<>();
+    private final AtomicBoolean cleanupPending = new AtomicBoolean();
+    private final ExecutorService cleaner = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("notification-ingest-cleaner").daemon().factory()
+    );
+    private Segment active;
+    private volatile long endOffset;
+
+    public MappedSegmentIngestLog(Path directory, int segmentBytes, boolean syncOnAppend) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("Ingest segment size must be at least 1KB");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.syncOnAppend = syncOnAppend;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open ingest log in " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized long append(byte[] payload) {
+        final int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a segment");
+        }
+        if (active.limit + recordBytes > active.capacity()) {
+            roll();
+        }
+        final int position = active.limit;
+        final MappedByteBuffer buffer = active.buffer;
+        final CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position, payload.length);
+        if (syncOnAppend) {
+            buffer.force(position, recordBytes);
+        }
+        active.limit = position + recordBytes;
+        final long offset = active.baseOffset + position;
+        endOffset = offset + recordBytes;
+        return offset;
+    }
+
+    @Override
+    public List<IngestRecord> read(long fromOffset, int maxRecords) {
+        final long end = endOffset;
+        final List<IngestRecord> records = new ArrayList<>(Math.min(maxRecords, 64));
+        long offset = fromOffset;
+        while (records.size() < maxRecords && offset < end) {
+            final Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                throw new IllegalArgumentException("Offset " + offset + " is no longer retained");
+            }
+            final Segment segment = entry.getValue();
+            final int position = (int) (offset - segment.baseOffset);
+            if (position >= segment.limit) {
+                // Past a segment cut short on recovery: continue with the next one.
+                final Long next = segments.higherKey(segment.baseOffset);
+                if (next == null) {
+                    break;
+                }
+                offset = next;
+                continue;
+            }
+            final int length = segment.buffer.getInt(position);
+            final byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            final long next = offset + HEADER_BYTES + length;
+            records.add(new IngestRecord(offset, next, payload));
+            offset = next;
+        }
+        return records;
+    }
+
+    @Override
+    public long endOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public void commit(String group, long nextOffset) {
+        if (nextOffset > endOffset) {
+            throw new IllegalArgumentException("Cannot commit offset " + nextOffset + " beyond the end of the log");
+        }
+        final MappedByteBuffer buffer = offsetBuffer(group);
+        buffer.putLong(0, nextOffset);
+        if (syncOnAppend) {
+            buffer.force();
+        }
+        if (cleanupPending.compareAndSet(false, true)) {
+            cleaner.execute(() -> {
+                cleanupPending.set(false);
+                deleteConsumedSegments();
+            });
+        }
+    }
+
+    @Override
+    public long committed(String group) {
+        return Math.max(offsetBuffer(group).getLong(0), segments.firstKey());
+    }
+
+    @Override
+    public synchronized void close() {
+        cleaner.shutdownNow();
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        committedOffsets.values().forEach(MappedByteBuffer::force);
+    }
+
+    private void recover() throws IOException {
+        final List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        for (Path file : files) {
+            final String name = file.getFileName().toString();
+            if (name.endsWith(SEGMENT_SUFFIX)) {
+                final long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(baseOffset, Segment.open(file, baseOffset, segmentBytes));
+            } else if (name.endsWith(OFFSET_SUFFIX)) {
+                offsetBuffer(name.substring(0, name.length() - OFFSET_SUFFIX.length()));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, Segment.open(segmentPath(0), 0, segmentBytes));
+        }
+        for (Segment segment : segments.values()) {
+            segment.limit = scan(segment);
+        }
+        active = segments.lastEntry().getValue();
+        endOffset = active.baseOffset + active.limit;
+        log.info("Ingest log opened in {} with {} segments, end offset {}", directory, segments.size(), endOffset);
+    }
+
+    /**
+     * Length of the valid prefix of a segment. Anything after it is a torn or never-completed
+     * write; its length field is cleared so the next append starts cleanly.
+     */
+    private static int scan(Segment segment) {
+        final MappedByteBuffer buffer = segment.buffer;
+        final CRC32C crc = new CRC32C();
+        int position = 0;
+        while (position + HEADER_BYTES <= segment.capacity()) {
+            final int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segment.capacity()) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                log.warn("Truncating ingest segment {} at {}: checksum mismatch", segment.baseOffset, position);
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        if (position + 4 <= segment.capacity()) {
+            buffer.putInt(position, 0);
+        }
+        return position;
+    }
+
+    private void roll() {
+        final long baseOffset = active.baseOffset + active.limit;
+        try {
+            active.buffer.force();
+            active = Segment.open(segmentPath(baseOffset), baseOffset, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ingest segment " + baseOffset, e);
+        }
+        segments.put(baseOffset, active);
+    }
+
+    private void deleteConsumedSegments() {
+        for (Segment segment : takeConsumedSegments()) {
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segmentPath(segment.baseOffset));
+            } catch (IOException e) {
+                log.warn("Could not delete consumed ingest segment {}", segment.baseOffset, e);
+            }
+        }
+    }
+
+    private synchronized List<Segment> takeConsumedSegments() {
+        long minimum = Long.MAX_VALUE;
+        for (MappedByteBuffer buffer : committedOffsets.values()) {
+            minimum = Math.min(minimum, buffer.getLong(0));
+        }
+        final List<Segment> consumed = new ArrayList<>();
+        Map.Entry<Long, Segment> oldest = segments.firstEntry();
+        while (oldest.getValue() != active) {
+            final Segment segment = oldest.getValue();
+            if (segment.baseOffset + segment.limit > minimum) {
+                break;
+            }
+            segments.remove(segment.baseOffset);
+            consumed.add(segment);
+            oldest = segments.firstEntry();
+        }
+        return consumed;
+    }
+
+    private MappedByteBuffer offsetBuffer(String group) {
+        if (!GROUP.matcher(group).matches()) {
+            throw new IllegalArgumentException("Invalid consumer group '" + group + "'");
+        }
+        return committedOffsets.computeIfAbsent(group, name -> {
+            try (FileChannel channel = FileChannel.open(
+                directory.resolve(name + OFFSET_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+            )) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open committed offset of group " + name, e);
+            }
+        });
+    }
+
+    private Path segmentPath(long baseOffset) {
+        return directory.resolve("%020d%s".formatted(baseOffset, SEGMENT_SUFFIX));
+    }
+
+    private static final class Segment {
+
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int limit;
+
+        private Segment(long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, long baseOffset, int segmentBytes) throws IOException {
+            final FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+            // A segment written with a different configured size keeps its own size.
+            final long size = Math.max(channel.size(), segmentBytes);
+            return new Segment(baseOffset, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package me.ghisiluizgustavo.notification.infrastructure.rest;
+
+import me.ghisiluizgustavo.notification.feature.notifyusers.BatchSubmission;
+import me.ghisiluizgustavo.notification.feature.notifyusers.NotificationRequest;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.InputStream;
+
+/**
+ * Streams a batch body into a {@link BatchSubmission}, either as a JSON array of notification
+ * requests or as newline-delimited JSON with one request per line. Items are bound one at a
+ * time, so memory does not grow with the batch. An item whose fields cannot be bound is
+ * rejected on its own; malformed JSON ends the batch at that item.
+ */
+@Component
+public class NotificationBatchReader {
+
+    private final ObjectReader reader;
+
+    public NotificationBatchReader(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(NotificationRequest.class);
+    }
+
+    public void read(InputStream body, BatchSubmission submission) {
+        try (MappingIterator<NotificationRequest> items = reader.readValues(body)) {
+            while (items.hasNextValue()) {
+                if (submission.isFull()) {
+                    submission.reject("Batch is limited to " + submission.maxItems() + " items; the rest was not read");
+                    return;
+                }
+                try {
+                    submission.add(items.nextValue());
+                } catch (DatabindException e) {
+                    submission.reject(describe(e));
+                }
+            }
+        } catch (StreamReadException e) {
+            submission.reject("Malformed JSON, the rest was not read: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String describe(DatabindException e) {
+        final String message = e.getOriginalMessage();
+        if (message != null && message.contains("NotificationCategory")) {
+            return GlobalExceptionHandler.extractEnumErrorMessage(message);
+        }
+        return "Invalid notification: " + message;
+    }
+}
@@ -1,63 +1,289 @@
 package me.ghisiluizgustavo.notification.infrastructure.rest;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsResponse;
+import me.ghisiluizgustavo.notification.feature.deliverystats.ListDeliveryStatsHandler;
+import me.ghisiluizgustavo.notification.feature.deliverystats.StatsGranularity;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryPage;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryVersion;
 import me.ghisiluizgustavo.notification.feature.listhistory.ListNotificationHistoryHandler;
 import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryResponse;
+import me.ghisiluizgustavo.notification.feature.listhistory.SearchNotificationHistoryHandler;
+import me.ghisiluizgustavo.notification.feature.listhistory.VersionedHistory;
+import me.ghisiluizgustavo.notification.feature.notifyusers.BatchNotificationResponse;
+import me.ghisiluizgustavo.notification.feature.notifyusers.BatchSubmission;
+import me.ghisiluizgustavo.notification.feature.notifyusers.DispatchOutcome;
 import me.ghisiluizgustavo.notification.feature.notifyusers.NotificationRequest;
+import me.ghisiluizgustavo.notification.feature.notifyusers.NotifyUsersBatchHandler;
 import me.ghisiluizgustavo.notification.feature.notifyusers.NotifyUsersHandler;
+import me.ghisiluizgustavo.notification.infrastructure.config.IngestProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/notification")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Notifications", description = "API for sending and retrieving notifications")
 public class NotificationController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final NotifyUsersHandler notifyUsersHandler;
+    private final NotifyUsersBatchHandler notifyUsersBatchHandler;
+    private final NotificationBatchReader notificationBatchReader;
     private final ListNotificationHistoryHandler listNotificationHistoryHandler;
+    private final SearchNotificationHistoryHandler searchNotificationHistoryHandler;
+    private final ListDeliveryStatsHandler listDeliveryStatsHandler;
+    private final IngestProperties ingestProperties;
 
     @Operation(
         summary = "Send notification to subscribed users",
-        description = "Sends a notification to all users subscribed to the specified category through their registered channels (EMAIL, SMS, PUSH)"
+        description = "Sends a notification to all users subscribed to the specified category through their registered channels (EMAIL, SMS, PUSH). "
+            + "Requests retried with the same Idempotency-Key are answered from the original dispatch without sending again; "
+            + "reusing a key for a different request is refused."
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "Notification sent successfully"),
+        @ApiResponse(responseCode = "204", description = "Notification sent successfully, or replayed from a previous request with the same Idempotency-Key"),
+        @ApiResponse(responseCode = "202", description = "Notification accepted into the durable ingest log, when it is enabled"),
         @ApiResponse(
             responseCode = "400", 
             description = "Invalid request - validation error or invalid category",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "The Idempotency-Key was already used for a different request",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Intake is over capacity; retry after the number of seconds in Retry-After",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
     @PostMapping
-    @ResponseStatus(value = HttpStatus.NO_CONTENT)
-    public void notifyUsers(@Valid @RequestBody NotificationRequest notificationRequest) {
-        notifyUsersHandler.handle(notificationRequest);
+    public ResponseEntity<Void> notifyUsers(
+        @Valid @RequestBody NotificationRequest notificationRequest,
+        @Parameter(description = "Client-generated key that makes retries of the same request safe")
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        final DispatchOutcome outcome = notifyUsersHandler.handle(notificationRequest, idempotencyKey);
+
+        final var response = ingestProperties.enabled() ? ResponseEntity.accepted() : ResponseEntity.noContent();
+        if (outcome.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.build();
+    }
+
+    @Operation(
+        summary = "Send many notifications in one request",
+        description = "Accepts a JSON array of notification requests, or newline-delimited JSON with one request per line. "
+            + "Items are validated individually and the response reports each item's outcome in submission order. "
+            + "With an Idempotency-Key, retrying the same batch replays the items already stored."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch read; see the per-item results. Items shed by admission control are reported "
+                + "as failed and Retry-After is set",
+            content = @Content(schema = @Schema(implementation = BatchNotificationResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Intake is over capacity and no item was stored; retry after the number of seconds in Retry-After",
+            content = @Content(schema = @Schema(implementation = BatchNotificationResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid Idempotency-Key",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchNotificationResponse> notifyUsersBatch(
+        InputStream body,
+        @Parameter(description = "Client-generated key; item i of the batch is keyed <key>:<i>")
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        final BatchSubmission submission = notifyUsersBatchHandler.begin(idempotencyKey);
+        notificationBatchReader.read(body, submission);
+        final BatchNotificationResponse response = submission.finish();
+
+        if (submission.retryAfter() == null) {
+            return ResponseEntity.ok(response);
+        }
+        final HttpStatus status = response.accepted() + response.replayed() == 0
+            ? HttpStatus.TOO_MANY_REQUESTS
+            : HttpStatus.OK;
+        return ResponseEntity.status(status)
+            .header(HttpHeaders.RETRY_AFTER, GlobalExceptionHandler.retryAfterSeconds(submission.retryAfter()))
+            .body(response);
     }
 
     @Operation(
         summary = "Get notification logs",
-        description = "Retrieves all notification records sorted from newest to oldest"
+        description = "Retrieves all notification records from newest to oldest. With before or limit, returns one "
+            + "page instead, and when the page is full the Link header points to the next one. Responses carry an "
+            + "ETag and Last-Modified; send them back in If-None-Match or If-Modified-Since to get 304 while nothing "
+            + "has changed."
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200", 
             description = "Successfully retrieved notification logs",
             content = @Content(schema = @Schema(implementation = NotificationHistoryResponse.class))
+        ),
+        @ApiResponse(responseCode = "304", description = "No notification was added or updated since the given validator"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid page size",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
     @GetMapping("/logs")
-    public List<NotificationHistoryResponse> getHistory() {
-        return listNotificationHistoryHandler.handle();
+    public ResponseEntity<List<NotificationHistoryResponse>> getHistory(
+        @Parameter(description = "Only notifications with a lower id; the cursor from the Link header")
+        @RequestParam(required = false) Integer before,
+        @Parameter(description = "Page size, up to the configured maximum; the default size when only before is given")
+        @RequestParam(required = false) Integer limit,
+        HttpServletRequest request
+    ) {
+        // Checked without the response, which would otherwise keep these validators over the ones read with the rows
+        final HistoryVersion known = listNotificationHistoryHandler.version();
+        if (known.settled() && new ServletWebRequest(request).checkNotModified(known.etag(), known.lastModifiedMillis())) {
+            return validated(ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()), known)
+                .build();
+        }
+
+        final boolean whole = before == null && limit == null;
+        final VersionedHistory history = whole
+            ? listNotificationHistoryHandler.handleVersioned()
+            : listNotificationHistoryHandler.handleVersioned(before, limit);
+        final var response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (history.version().settled()) {
+            validated(response, history.version());
+        }
+        if (!whole) {
+            linkNextPage(response, history.page());
+        }
+        return response.body(history.page().items());
+    }
+
+    @Operation(
+        summary = "Search notification logs",
+        description = "Full-text search over notification content, newest first and a page at a time like the logs. "
+            + "Words are matched on their stems; quote phrases, use 'or' between alternatives and '-' to exclude a word. "
+            + "When the page is full, the Link header points to the next one. Only notifications still in the database "
+            + "are searched: archived ones are left out, and a time range ending before the newest archived "
+            + "notification is rejected."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully searched notification logs",
+            content = @Content(schema = @Schema(implementation = NotificationHistoryResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Blank or too long query, invalid or archived time range, or invalid page size",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<NotificationHistoryResponse>> search(
+        @Parameter(description = "Words to look for in the content", example = "\"big game\" -tickets")
+        @RequestParam(required = false) String q,
+        @RequestParam(required = false) NotificationCategory category,
+        @RequestParam(required = false) NotificationType type,
+        @RequestParam(required = false) NotificationStatus status,
+        @Parameter(description = "Created at or after")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @Parameter(description = "Created before")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @Parameter(description = "Only notifications with a lower id; the cursor from the Link header")
+        @RequestParam(required = false) Integer before,
+        @Parameter(description = "Page size, up to the configured maximum")
+        @RequestParam(required = false) Integer limit
+    ) {
+        final HistoryPage page = searchNotificationHistoryHandler.handle(q, category, type, status, from, to, before, limit);
+        final var response = ResponseEntity.ok();
+        linkNextPage(response, page);
+        return response.body(page.items());
+    }
+
+    @Operation(
+        summary = "Get delivery statistics",
+        description = "Delivery counts per period and (category, type, status), read from per-minute rollups. "
+            + "Defaults to today grouped by DAY; the most recent seconds may not be flushed yet."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved delivery statistics",
+            content = @Content(schema = @Schema(implementation = DeliveryStatsResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid time range",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/stats")
+    public List<DeliveryStatsResponse> getStats(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) NotificationCategory category,
+        @RequestParam(required = false) NotificationType type,
+        @RequestParam(required = false) NotificationStatus status,
+        @RequestParam(required = false) StatsGranularity granularity
+    ) {
+        return listDeliveryStatsHandler.handle(from, to, category, type, status, granularity);
+    }
+
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B validated(B response, HistoryVersion version) {
+        response.eTag(version.etag());
+        if (version.lastModified() != null) {
+            response.lastModified(version.lastModified());
+        }
+        return response;
+    }
+
+    private static void linkNextPage(ResponseEntity.BodyBuilder response, HistoryPage page) {
+        if (page.nextBefore() != null) {
+            final String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("before", page.nextBefore())
+                .replaceQueryParam("limit", page.limit())
+                .build(true)
+                .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
     }
 
 }
@@ -0,0 +1,133 @@
+package me.ghisiluizgustavo.notification.infrastructure.rest;
+
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.feature.notifyusers.AdmissionRejectedException;
+import me.ghisiluizgustavo.notification.feature.notifyusers.IdempotencyKeyReusedException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationErrors(
+        WebExchangeBindException ex,
+        ServerWebExchange exchange
+    ) {
+        String errorMessage = ex.getBindingResult()
+            .getFieldErrors()
+            .stream()
+            .map(FieldError::getDefaultMessage)
+            .collect(Collectors.joining("; "));
+
+        log.warn("Validation failed: {}", errorMessage);
+
+        return badRequest("Validation Error", errorMessage, exchange);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInput(
+        ServerWebInputException ex,
+        ServerWebExchange exchange
+    ) {
+        String message = ex.getMostSpecificCause().getMessage();
+
+        if (message != null && message.contains("NotificationCategory")) {
+            String detailedMessage = GlobalExceptionHandler.extractEnumErrorMessage(message);
+            log.warn("Invalid category provided: {}", detailedMessage);
+            return badRequest("Bad Request", detailedMessage, exchange);
+        }
+
+        log.error("Failed to read HTTP message: {}", ex.getMessage());
+
+        return badRequest(
+            "Bad Request",
+            "Invalid request body. Please check the JSON format and field values.",
+            exchange
+        );
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(
+        IllegalArgumentException ex,
+        ServerWebExchange exchange
+    ) {
+        log.warn("Invalid argument: {}", ex.getMessage());
+
+        return badRequest("Bad Request", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionRejected(
+        AdmissionRejectedException ex,
+        ServerWebExchange exchange
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too Many Requests",
+            ex.getMessage(),
+            exchange.getRequest().getPath().value()
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, GlobalExceptionHandler.retryAfterSeconds(ex.getRetryAfter()))
+            .body(errorResponse);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(
+        IdempotencyKeyReusedException ex,
+        ServerWebExchange exchange
+    ) {
+        log.warn("Idempotency key reused: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.of(
+            HttpStatus.UNPROCESSABLE_CONTENT.value(),
+            "Unprocessable Content",
+            ex.getMessage(),
+            exchange.getRequest().getPath().value()
+        );
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT).body(errorResponse);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(
+        Exception ex,
+        ServerWebExchange exchange
+    ) {
+        log.error("Unexpected error occurred", ex);
+
+        ErrorResponse errorResponse = ErrorResponse.of(
+            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            "Internal Server Error",
+            "An unexpected error occurred. Please try again later.",
+            exchange.getRequest().getPath().value()
+        );
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    private ResponseEntity<ErrorResponse> badRequest(String error, String message, ServerWebExchange exchange) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+            HttpStatus.BAD_REQUEST.value(),
+            error,
+            message,
+            exchange.getRequest().getPath().value()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+}
@@ -0,0 +1,84 @@
+package me.ghisiluizgustavo.notification.infrastructure.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsResponse;
+import me.ghisiluizgustavo.notification.feature.deliverystats.ListDeliveryStatsHandler;
+import me.ghisiluizgustavo.notification.feature.deliverystats.StatsGranularity;
+import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryResponse;
+import me.ghisiluizgustavo.notification.feature.listhistory.ReactiveListNotificationHistoryHandler;
+import me.ghisiluizgustavo.notification.feature.notifyusers.NotificationRequest;
+import me.ghisiluizgustavo.notification.feature.notifyusers.ReactiveNotifyUsersHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+import static me.ghisiluizgustavo.notification.infrastructure.rest.NotificationController.IDEMPOTENCY_KEY_HEADER;
+import static me.ghisiluizgustavo.notification.infrastructure.rest.NotificationController.IDEMPOTENT_REPLAYED_HEADER;
+
+/**
+ * WebFlux variant of {@link NotificationController}, active when the application runs as a
+ * reactive web application (the {@code reactive} profile). Same paths and contract.
+ */
+@RestController
+@RequestMapping("/api/v1/notification")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Notifications", description = "API for sending and retrieving notifications")
+public class ReactiveNotificationController {
+
+    private final ReactiveNotifyUsersHandler notifyUsersHandler;
+    private final ReactiveListNotificationHistoryHandler listNotificationHistoryHandler;
+    private final ListDeliveryStatsHandler listDeliveryStatsHandler;
+
+    @Operation(summary = "Send notification to subscribed users")
+    @PostMapping
+    public Mono<ResponseEntity<Void>> notifyUsers(
+        @Valid @RequestBody NotificationRequest notificationRequest,
+        @Parameter(description = "Client-generated key that makes retries of the same request safe")
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        return notifyUsersHandler.handle(notificationRequest, idempotencyKey)
+            .map(outcome -> {
+                final var response = ResponseEntity.noContent();
+                if (outcome.replayed()) {
+                    response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+                }
+                return response.build();
+            });
+    }
+
+    @Operation(summary = "Get notification logs")
+    @GetMapping("/logs")
+    public Flux<NotificationHistoryResponse> getHistory() {
+        return listNotificationHistoryHandler.handle();
+    }
+
+    @Operation(summary = "Get delivery statistics")
+    @GetMapping("/stats")
+    public Flux<DeliveryStatsResponse> getStats(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) NotificationCategory category,
+        @RequestParam(required = false) NotificationType type,
+        @RequestParam(required = false) NotificationStatus status,
+        @RequestParam(required = false) StatsGranularity granularity
+    ) {
+        return Mono.fromCallable(() -> listDeliveryStatsHandler.handle(from, to, category, type, status, granularity))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapMany(Flux::fromIterable);
+    }
+
+}
@@ -0,0 +1,122 @@
+package me.ghisiluizgustavo.notification.infrastructure.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck). Level {@code n} has {@code wheelSize} slots of
+ * {@code wheelSize^n} ticks each; items are placed on the lowest level that can hold their delay
+ * and cascade down as the wheel turns, so scheduling and expiry are O(1) per item regardless of
+ * how many are pending. Higher levels are created on demand.
+ * <p>
+ * Not thread-safe on its own: callers serialize access.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final long mask;
+    private final List<List<List<Entry<T>>>> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two greater than 1");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.currentTick = startMillis / tickMillis;
+        addLevel();
+    }
+
+    /**
+     * @return {@code false} when the deadline is already due, in which case the item is not kept.
+     */
+    public boolean schedule(T item, long deadlineMillis) {
+        final long deadlineTick = deadlineMillis / tickMillis;
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(item, deadlineTick));
+        size++;
+        return true;
+    }
+
+    public List<T> advance(long nowMillis) {
+        final long targetTick = nowMillis / tickMillis;
+        final List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(expired);
+            drain(levels.getFirst().get(slot(currentTick, 0)), expired);
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(List<T> expired) {
+        int level = 1;
+        while (level < levels.size() && (currentTick & ((1L << (bits * level)) - 1)) == 0) {
+            level++;
+        }
+        for (int l = level - 1; l >= 1; l--) {
+            final List<Entry<T>> bucket = levels.get(l).get(slot(currentTick, l));
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            final List<Entry<T>> moving = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : moving) {
+                if (entry.deadlineTick() <= currentTick) {
+                    expired.add(entry.item());
+                    size--;
+                } else {
+                    place(entry);
+                }
+            }
+        }
+    }
+
+    private void drain(List<Entry<T>> bucket, List<T> expired) {
+        for (Entry<T> entry : bucket) {
+            expired.add(entry.item());
+        }
+        size -= bucket.size();
+        bucket.clear();
+    }
+
+    private void place(Entry<T> entry) {
+        final long delta = entry.deadlineTick() - currentTick;
+        int level = 0;
+        while (level < 63 / bits && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        while (levels.size() <= level) {
+            addLevel();
+        }
+        levels.get(level).get(slot(entry.deadlineTick(), level)).add(entry);
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick >>> (bits * level)) & mask);
+    }
+
+    private void addLevel() {
+        final int slots = (int) mask + 1;
+        final List<List<Entry<T>>> wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        levels.add(wheel);
+    }
+
+    private record Entry<T>(T item, long deadlineTick) { }
+}
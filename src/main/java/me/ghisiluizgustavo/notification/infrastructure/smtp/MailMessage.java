@@ -0,0 +1,9 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+/**
+ * One HTML email to one recipient.
+ *
+ * @param name display name of the recipient, may be {@code null}
+ */
+public record MailMessage(String to, String name, String subject, String html) {
+}
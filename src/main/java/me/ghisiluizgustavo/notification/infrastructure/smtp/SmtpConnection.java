@@ -0,0 +1,350 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+import me.ghisiluizgustavo.notification.infrastructure.config.SmtpProperties;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * One open session with the relay, greeted, secured and authenticated, ready for mail
+ * transactions. When the relay advertises PIPELINING the envelope of a transaction (MAIL, every
+ * RCPT and DATA) goes out in one write and its replies are read back together, so a transaction
+ * costs two round trips whatever its number of recipients; otherwise each command waits for its
+ * reply. Not thread-safe: the pool hands a connection to one sender at a time.
+ */
+final class SmtpConnection implements AutoCloseable {
+
+    private static final int MAX_LINE = 4096;
+
+    private final Socket plainSocket;
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+    private Set<String> extensions = Set.of();
+    private int transactions;
+    private long idleSince = System.nanoTime();
+    private boolean deliveryUncertain;
+    private boolean broken;
+
+    private SmtpConnection(Socket socket) throws IOException {
+        this.plainSocket = socket;
+        attach(socket);
+    }
+
+    static SmtpConnection open(SmtpProperties properties) throws IOException {
+        final var socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(properties.host(), properties.port()),
+                (int) properties.connectTimeout().toMillis());
+            socket.setSoTimeout((int) properties.readTimeout().toMillis());
+            socket.setTcpNoDelay(true);
+            final SmtpConnection connection = new SmtpConnection(socket);
+            if (properties.security() == SmtpProperties.Security.TLS) {
+                connection.startTls(properties.host(), properties.port());
+            }
+            connection.handshake(properties);
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void handshake(SmtpProperties properties) throws IOException {
+        expect(readReply(), 220, "greeting");
+        ehlo(properties.heloName());
+        if (properties.security() == SmtpProperties.Security.STARTTLS) {
+            if (!extensions.contains("STARTTLS")) {
+                throw new SmtpException(0, "SMTP relay does not offer STARTTLS");
+            }
+            command("STARTTLS");
+            expect(readReply(), 220, "STARTTLS");
+            startTls(properties.host(), properties.port());
+            ehlo(properties.heloName());
+        }
+        if (properties.username() != null) {
+            final String credentials = "\0" + properties.username() + "\0" + properties.password();
+            command("AUTH PLAIN " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+            expect(readReply(), 235, "AUTH");
+        }
+    }
+
+    private void ehlo(String heloName) throws IOException {
+        command("EHLO " + heloName);
+        final Reply reply = readReply();
+        expect(reply, 250, "EHLO");
+        final Set<String> offered = new HashSet<>();
+        for (int i = 1; i < reply.lines().size(); i++) {
+            final String line = reply.lines().get(i).trim();
+            final int space = line.indexOf(' ');
+            offered.add((space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT));
+        }
+        extensions = offered;
+    }
+
+    private void startTls(String host, int port) throws IOException {
+        final var tls = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+            .createSocket(socket, host, port, true);
+        final SSLParameters parameters = tls.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        tls.setSSLParameters(parameters);
+        tls.startHandshake();
+        attach(tls);
+    }
+
+    private void attach(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+    }
+
+    boolean pipelining() {
+        return extensions.contains("PIPELINING");
+    }
+
+    /**
+     * Runs one mail transaction. Recipients the relay refuses are returned by index and the
+     * message is delivered to the others.
+     *
+     * @param message the message with CRLF line endings, headers included, no line starting
+     *                with a dot, ending in CRLF
+     * @throws SmtpException when the relay refuses the sender, every recipient or the message;
+     *                       the connection stays usable
+     * @throws IOException   when the connection fails; it is then broken
+     */
+    BitSet send(String from, List<String> recipients, byte[] message) throws IOException {
+        try {
+            final BitSet refused = pipelining()
+                ? sendPipelined(from, recipients, message)
+                : sendLockStep(from, recipients, message);
+            idleSince = System.nanoTime();
+            return refused;
+        } catch (IOException e) {
+            broken = true;
+            throw e;
+        } finally {
+            transactions++;
+        }
+    }
+
+    private BitSet sendPipelined(String from, List<String> recipients, byte[] message) throws IOException {
+        write("MAIL FROM:<" + from + ">");
+        for (String recipient : recipients) {
+            write("RCPT TO:<" + recipient + ">");
+        }
+        write("DATA");
+        out.flush();
+
+        final Reply mail = readReply();
+        final BitSet refused = new BitSet(recipients.size());
+        Reply lastRefusal = null;
+        for (int i = 0; i < recipients.size(); i++) {
+            final Reply rcpt = readReply();
+            if (!rcpt.positive()) {
+                refused.set(i);
+                lastRefusal = rcpt;
+            }
+        }
+        final Reply data = readReply();
+        final boolean accepted = mail.positive() && refused.cardinality() < recipients.size();
+
+        if (data.code() == 354 && !accepted) {
+            // a relay that should have refused DATA did not; send an empty message and reset
+            write(".");
+            out.flush();
+            readReply();
+        }
+        if (!mail.positive()) {
+            reset();
+            throw refusal(mail, "sender");
+        }
+        if (!accepted) {
+            reset();
+            throw refusal(lastRefusal, "every recipient");
+        }
+        if (data.code() != 354) {
+            reset();
+            throw refusal(data, "DATA");
+        }
+        sendMessage(message);
+        return refused;
+    }
+
+    private BitSet sendLockStep(String from, List<String> recipients, byte[] message) throws IOException {
+        command("MAIL FROM:<" + from + ">");
+        final Reply mail = readReply();
+        if (!mail.positive()) {
+            reset();
+            throw refusal(mail, "sender");
+        }
+        final BitSet refused = new BitSet(recipients.size());
+        Reply lastRefusal = null;
+        for (int i = 0; i < recipients.size(); i++) {
+            command("RCPT TO:<" + recipients.get(i) + ">");
+            final Reply rcpt = readReply();
+            if (!rcpt.positive()) {
+                refused.set(i);
+                lastRefusal = rcpt;
+            }
+        }
+        if (refused.cardinality() == recipients.size()) {
+            reset();
+            throw refusal(lastRefusal, "every recipient");
+        }
+        command("DATA");
+        final Reply data = readReply();
+        if (data.code() != 354) {
+            reset();
+            throw refusal(data, "DATA");
+        }
+        sendMessage(message);
+        return refused;
+    }
+
+    private void sendMessage(byte[] message) throws IOException {
+        deliveryUncertain = true;
+        out.write(message);
+        write(".");
+        out.flush();
+        final Reply reply = readReply();
+        deliveryUncertain = false;
+        if (!reply.positive()) {
+            throw refusal(reply, "message");
+        }
+    }
+
+    private void reset() throws IOException {
+        command("RSET");
+        readReply();
+    }
+
+    /**
+     * Whether the connection has already served a transaction. A failure on the first command of
+     * a reused connection usually means the relay dropped it while idle.
+     */
+    boolean reused() {
+        return transactions > 0;
+    }
+
+    /**
+     * Whether the connection failed after the end of a message was sent and before the relay
+     * answered: the message may or may not have been delivered, so it must not be resent.
+     */
+    boolean deliveryUncertain() {
+        return deliveryUncertain;
+    }
+
+    boolean broken() {
+        return broken;
+    }
+
+    boolean idleLongerThan(Duration timeout) {
+        return System.nanoTime() - idleSince > timeout.toNanos();
+    }
+
+    @Override
+    public void close() {
+        if (!broken) {
+            try {
+                command("QUIT");
+                readReply();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+        broken = true;
+        try {
+            socket.close();
+            plainSocket.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+    }
+
+    private void command(String line) throws IOException {
+        write(line);
+        out.flush();
+    }
+
+    private void write(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private Reply readReply() throws IOException {
+        final List<String> lines = new ArrayList<>(1);
+        while (true) {
+            final String line = readLine();
+            if (line.length() < 3 || (line.length() > 3 && line.charAt(3) != ' ' && line.charAt(3) != '-')) {
+                throw new IOException("Malformed SMTP reply: " + line);
+            }
+            final int code;
+            try {
+                code = Integer.parseInt(line, 0, 3, 10);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed SMTP reply: " + line, e);
+            }
+            lines.add(line.length() > 4 ? line.substring(4) : "");
+            if (line.length() == 3 || line.charAt(3) == ' ') {
+                return new Reply(code, lines);
+            }
+        }
+    }
+
+    private String readLine() throws IOException {
+        final var line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("SMTP relay closed the connection");
+            }
+            if (line.size() == MAX_LINE) {
+                throw new IOException("SMTP reply line longer than " + MAX_LINE + " bytes");
+            }
+            line.write(b);
+        }
+        final String text = line.toString(StandardCharsets.UTF_8);
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    private static void expect(Reply reply, int code, String step) {
+        if (reply.code() != code) {
+            throw refusal(reply, step);
+        }
+    }
+
+    private static SmtpException refusal(Reply reply, String what) {
+        return new SmtpException(reply.code(), "SMTP relay refused " + what + ": " + reply.code() + " " + reply.text());
+    }
+
+    private record Reply(int code, List<String> lines) {
+
+        boolean positive() {
+            return code / 100 == 2;
+        }
+
+        String text() {
+            return String.join(" ", lines);
+        }
+    }
+}
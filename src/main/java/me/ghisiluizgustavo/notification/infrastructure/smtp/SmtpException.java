@@ -0,0 +1,23 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+import lombok.Getter;
+
+/**
+ * A mail the relay did not accept: a rejecting reply, or a connection failure or timeout, in
+ * which case the reply code is {@code 0}.
+ */
+@Getter
+public class SmtpException extends RuntimeException {
+
+    private final int replyCode;
+
+    public SmtpException(int replyCode, String message) {
+        super(message);
+        this.replyCode = replyCode;
+    }
+
+    public SmtpException(String message, Throwable cause) {
+        super(message, cause);
+        this.replyCode = 0;
+    }
+}
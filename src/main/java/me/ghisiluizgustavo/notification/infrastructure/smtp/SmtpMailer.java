@@ -0,0 +1,266 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.ghisiluizgustavo.notification.infrastructure.config.SmtpProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Sends email through the relay over a pool of persistent connections, so the TCP and TLS
+ * handshakes, EHLO and AUTH are paid once per connection rather than once per message. Messages
+ * with identical subject and body are sent as one transaction with many recipients, and each
+ * transaction's envelope is pipelined when the relay allows it. A pooled connection the relay
+ * dropped while idle is replaced and the transaction retried once, unless the message may
+ * already have been delivered.
+ */
+@Slf4j
+@Component
+public class SmtpMailer {
+
+    private static final Base64.Encoder BODY_ENCODER = Base64.getMimeEncoder();
+
+    private final SmtpProperties properties;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<SmtpConnection> idle = new ConcurrentLinkedDeque<>();
+
+    public SmtpMailer(SmtpProperties properties) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.poolSize(), true);
+    }
+
+    public boolean isConfigured() {
+        return properties.isConfigured();
+    }
+
+    public int maxRecipients() {
+        return properties.maxRecipients();
+    }
+
+    /**
+     * @throws SmtpException when the message was not accepted
+     */
+    public void send(MailMessage message) {
+        final SmtpException[] failure = new SmtpException[1];
+        sendAll(List.of(message), (e, index) -> failure[0] = e);
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    /**
+     * Sends every message, grouping identical content into shared transactions of up to
+     * {@code max-recipients}. A message sent to several recipients carries an
+     * undisclosed-recipients header rather than each recipient's address.
+     *
+     * @param failed called with the reason and index of each message that was not accepted
+     */
+    public void sendAll(List<MailMessage> messages, ObjIntConsumer<SmtpException> failed) {
+        for (Transaction transaction : transactions(messages, failed)) {
+            try {
+                final BitSet refused = deliver(transaction);
+                for (int i = refused.nextSetBit(0); i >= 0; i = refused.nextSetBit(i + 1)) {
+                    failed.accept(new SmtpException(550, "SMTP relay refused recipient " + transaction.recipients().get(i)),
+                        transaction.indexes()[i]);
+                }
+            } catch (SmtpException e) {
+                for (int index : transaction.indexes()) {
+                    failed.accept(e, index);
+                }
+            }
+        }
+    }
+
+    private List<Transaction> transactions(List<MailMessage> messages, ObjIntConsumer<SmtpException> failed) {
+        final Map<Content, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            final MailMessage message = messages.get(i);
+            if (!isValidAddress(message.to())) {
+                failed.accept(new SmtpException(0, "Invalid email address: " + message.to()), i);
+                continue;
+            }
+            groups.computeIfAbsent(new Content(message.subject(), message.html()), c -> new ArrayList<>()).add(i);
+        }
+
+        final List<Transaction> transactions = new ArrayList<>();
+        final int maxRecipients = properties.maxRecipients();
+        groups.forEach((content, indexes) -> {
+            final byte[] body = encodeBody(content.html());
+            for (int from = 0; from < indexes.size(); from += maxRecipients) {
+                final List<Integer> chunk = indexes.subList(from, Math.min(from + maxRecipients, indexes.size()));
+                final List<String> recipients = new ArrayList<>(chunk.size());
+                chunk.forEach(index -> recipients.add(messages.get(index).to()));
+                final MailMessage only = chunk.size() == 1 ? messages.get(chunk.getFirst()) : null;
+                transactions.add(new Transaction(
+                    recipients,
+                    chunk.stream().mapToInt(Integer::intValue).toArray(),
+                    message(only, content.subject(), body)
+                ));
+            }
+        });
+        return transactions;
+    }
+
+    private BitSet deliver(Transaction transaction) {
+        SmtpConnection connection = borrow();
+        try {
+            try {
+                return connection.send(properties.from(), transaction.recipients(), transaction.message());
+            } catch (IOException e) {
+                if (!connection.reused() || connection.deliveryUncertain()) {
+                    throw e;
+                }
+                log.debug("Pooled SMTP connection failed, retrying on a new one: {}", e.toString());
+                connection.close();
+                connection = SmtpConnection.open(properties);
+                return connection.send(properties.from(), transaction.recipients(), transaction.message());
+            }
+        } catch (IOException e) {
+            throw new SmtpException("SMTP delivery failed: " + e, e);
+        } finally {
+            release(connection);
+        }
+    }
+
+    private SmtpConnection borrow() {
+        try {
+            if (!permits.tryAcquire(properties.readTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SmtpException(0, "No SMTP connection free within " + properties.readTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SmtpException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        SmtpConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (!connection.idleLongerThan(properties.idleTimeout())) {
+                return connection;
+            }
+            connection.close();
+        }
+        try {
+            return SmtpConnection.open(properties);
+        } catch (IOException e) {
+            permits.release();
+            throw new SmtpException("Could not connect to the SMTP relay: " + e, e);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(SmtpConnection connection) {
+        if (connection.broken()) {
+            connection.close();
+        } else {
+            idle.offerFirst(connection);
+        }
+        permits.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        SmtpConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Headers and body with CRLF line endings. The body is base64 and every header line starts
+     * with its name, so no line begins with a dot and nothing needs dot-stuffing.
+     */
+    private byte[] message(MailMessage only, String subject, byte[] body) {
+        final var message = new StringBuilder(256)
+            .append("From: <").append(properties.from()).append(">\r\n")
+            .append("To: ").append(only == null ? "undisclosed-recipients:;" : mailbox(only)).append("\r\n")
+            .append("Subject: ").append(encodeHeader(subject)).append("\r\n")
+            .append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append("\r\n")
+            .append("Message-ID: <").append(UUID.randomUUID()).append('@').append(properties.heloName()).append(">\r\n")
+            .append("MIME-Version: 1.0\r\n")
+            .append("Content-Type: text/html; charset=UTF-8\r\n")
+            .append("Content-Transfer-Encoding: base64\r\n")
+            .append("\r\n");
+        final var bytes = new ByteArrayOutputStream(message.length() + body.length);
+        bytes.writeBytes(message.toString().getBytes(StandardCharsets.US_ASCII));
+        bytes.writeBytes(body);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeBody(String html) {
+        final byte[] encoded = BODY_ENCODER.encode(html == null ? new byte[0] : html.getBytes(StandardCharsets.UTF_8));
+        final byte[] body = new byte[encoded.length + 2];
+        System.arraycopy(encoded, 0, body, 0, encoded.length);
+        body[encoded.length] = '\r';
+        body[encoded.length + 1] = '\n';
+        return body;
+    }
+
+    private static String mailbox(MailMessage message) {
+        final String name = message.name();
+        if (name == null || name.isBlank()) {
+            return "<" + message.to() + ">";
+        }
+        if (isPrintableAscii(name) && name.indexOf('"') < 0 && name.indexOf('\\') < 0) {
+            return "\"" + name + "\" <" + message.to() + ">";
+        }
+        return encodedWord(name) + " <" + message.to() + ">";
+    }
+
+    private static String encodeHeader(String value) {
+        if (value == null) {
+            return "";
+        }
+        return isPrintableAscii(value) ? value : encodedWord(value);
+    }
+
+    private static String encodedWord(String value) {
+        return "=?UTF-8?B?" + Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) + "?=";
+    }
+
+    private static boolean isPrintableAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidAddress(String address) {
+        if (address == null || address.indexOf('@') <= 0 || address.endsWith("@")) {
+            return false;
+        }
+        for (int i = 0; i < address.length(); i++) {
+            final char c = address.charAt(i);
+            if (c <= 0x20 || c > 0x7e || c == '<' || c == '>') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Content(String subject, String html) {
+    }
+
+    private record Transaction(List<String> recipients, int[] indexes, byte[] message) {
+    }
+}
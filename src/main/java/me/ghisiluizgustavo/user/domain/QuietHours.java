@@ -0,0 +1,26 @@
+package me.ghisiluizgustavo.user.domain;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+
+import java.time.LocalTime;
+import java.util.Set;
+
+public record QuietHours(
+    LocalTime start,
+    LocalTime end,
+    Set<NotificationType> channels
+) {
+    public QuietHours {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Quiet hours start and end cannot be null");
+        }
+        if (start.equals(end)) {
+            throw new IllegalArgumentException("Quiet hours start and end cannot be equal");
+        }
+        channels = channels == null ? Set.of() : Set.copyOf(channels);
+    }
+
+    public boolean appliesTo(NotificationType channel) {
+        return channels.isEmpty() || channels.contains(channel);
+    }
+}
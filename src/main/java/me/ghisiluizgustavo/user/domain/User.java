@@ -4,6 +4,8 @@ import me.ghisiluizgustavo.notification.domain.NotificationCategory;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 
 public record User(
@@ -14,6 +16,24 @@ public record User(
     List<NotificationCategory> subscribedCategories,
     List<NotificationType> channels,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    ZoneId timeZone,
+    QuietHours quietHours
 ) {
+    public User {
+        timeZone = timeZone == null ? ZoneOffset.UTC : timeZone;
+    }
+
+    public User(
+        Integer id,
+        String name,
+        String email,
+        String phoneNumber,
+        List<NotificationCategory> subscribedCategories,
+        List<NotificationType> channels,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+    ) {
+        this(id, name, email, phoneNumber, subscribedCategories, channels, createdAt, updatedAt, null, null);
+    }
 }
@@ -2,11 +2,15 @@ package me.ghisiluizgustavo.user.infrastructure.database;
 
 import me.ghisiluizgustavo.notification.domain.NotificationCategory;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.QuietHours;
 import me.ghisiluizgustavo.user.domain.User;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public class UserRepository {
@@ -30,7 +34,9 @@ public class UserRepository {
             List.of(NotificationCategory.FINANCIAL),
             List.of(NotificationType.EMAIL, NotificationType.SMS),
             LocalDateTime.now().minusDays(25),
-            LocalDateTime.now().minusDays(25)
+            LocalDateTime.now().minusDays(25),
+            ZoneId.of("America/New_York"),
+            new QuietHours(LocalTime.of(22, 0), LocalTime.of(7, 0), Set.of(NotificationType.SMS))
         ),
         new User(
             3,
@@ -40,7 +46,9 @@ public class UserRepository {
             List.of(NotificationCategory.SPORTS, NotificationCategory.FINANCIAL, NotificationCategory.MOVIES),
             List.of(NotificationType.EMAIL, NotificationType.SMS, NotificationType.PUSH),
             LocalDateTime.now().minusDays(20),
-            LocalDateTime.now().minusDays(20)
+            LocalDateTime.now().minusDays(20),
+            ZoneId.of("Europe/London"),
+            new QuietHours(LocalTime.of(23, 0), LocalTime.of(8, 0), Set.of(NotificationType.SMS, NotificationType.PUSH))
         ),
         new User(
             4,
@@ -0,0 +1,53 @@
+-- Online backfill, run outside a transaction (see the .conf file next to this script): rows are
+-- updated in id ranges committed one by one, indexes are built CONCURRENTLY and the constraints
+-- are added NOT VALID and validated afterwards, so writers are never blocked for long. On a large
+-- table this step can run ahead of the release with flyway -target=10. Every statement may be
+-- re-run after an interruption (flyway repair, then migrate again).
+CREATE OR REPLACE PROCEDURE backfill_notification_enum_codes(batch_size INTEGER)
+LANGUAGE plpgsql AS $$
+DECLARE
+    next_id INTEGER;
+    last_id INTEGER;
+BEGIN
+    SELECT COALESCE(MIN(id), 1), COALESCE(MAX(id), 0) INTO next_id, last_id FROM notification;
+    WHILE next_id <= last_id LOOP
+        UPDATE notification
+        SET category_code = notification_category_code(category),
+            type_code = notification_type_code(type),
+            status_code = notification_status_code(status)
+        WHERE id >= next_id AND id < next_id + batch_size AND category_code IS NULL;
+        COMMIT;
+        next_id := next_id + batch_size;
+    END LOOP;
+END
+$$;
+
+CALL backfill_notification_enum_codes(10000);
+
+DROP PROCEDURE backfill_notification_enum_codes(INTEGER);
+
+DROP INDEX CONCURRENTLY IF EXISTS uq_notification_dispatch_user_type_code;
+CREATE UNIQUE INDEX CONCURRENTLY uq_notification_dispatch_user_type_code
+ON notification(dispatch_id, user_id, type_code);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_notification_category_code;
+CREATE INDEX CONCURRENTLY idx_notification_category_code ON notification(category_code);
+
+ALTER TABLE notification DROP CONSTRAINT IF EXISTS chk_category_code;
+ALTER TABLE notification
+ADD CONSTRAINT chk_category_code
+CHECK (category_code IS NOT NULL AND category_code BETWEEN 1 AND 3) NOT VALID;
+
+ALTER TABLE notification DROP CONSTRAINT IF EXISTS chk_type_code;
+ALTER TABLE notification
+ADD CONSTRAINT chk_type_code
+CHECK (type_code IS NOT NULL AND type_code BETWEEN 1 AND 3) NOT VALID;
+
+ALTER TABLE notification DROP CONSTRAINT IF EXISTS chk_status_code;
+ALTER TABLE notification
+ADD CONSTRAINT chk_status_code
+CHECK (status_code IS NOT NULL AND status_code BETWEEN 1 AND 3) NOT VALID;
+
+ALTER TABLE notification VALIDATE CONSTRAINT chk_category_code;
+ALTER TABLE notification VALIDATE CONSTRAINT chk_type_code;
+ALTER TABLE notification VALIDATE CONSTRAINT chk_status_code;
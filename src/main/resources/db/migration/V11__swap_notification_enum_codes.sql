@@ -0,0 +1,43 @@
+-- Contract step: only catalog changes on notification. SET NOT NULL is proven by the validated
+-- checks from V10 instead of scanning the table, and dropped columns are not rewritten. Their
+-- space is reused by new rows; reclaiming it from old rows needs a rewrite (pg_repack online, or
+-- VACUUM FULL during a maintenance window).
+-- Instances of the previous release write names and must be stopped before this step.
+ALTER TABLE notification
+    ALTER COLUMN category_code SET NOT NULL,
+    ALTER COLUMN type_code SET NOT NULL,
+    ALTER COLUMN status_code SET NOT NULL;
+
+DROP TRIGGER notification_sync_enum_codes ON notification;
+DROP FUNCTION notification_sync_enum_codes();
+
+-- Also drops idx_notification_category, uq_notification_dispatch_user_type and the name checks
+ALTER TABLE notification
+    DROP COLUMN category,
+    DROP COLUMN type,
+    DROP COLUMN status;
+
+ALTER TABLE notification RENAME COLUMN category_code TO category;
+ALTER TABLE notification RENAME COLUMN type_code TO type;
+ALTER TABLE notification RENAME COLUMN status_code TO status;
+
+ALTER TABLE notification
+ADD CONSTRAINT uq_notification_dispatch_user_type
+UNIQUE USING INDEX uq_notification_dispatch_user_type_code;
+
+ALTER INDEX idx_notification_category_code RENAME TO idx_notification_category;
+ALTER TABLE notification RENAME CONSTRAINT chk_category_code TO chk_category;
+ALTER TABLE notification RENAME CONSTRAINT chk_type_code TO chk_type;
+ALTER TABLE notification RENAME CONSTRAINT chk_status_code TO chk_status;
+
+-- One row per request, small enough to rewrite in place
+ALTER TABLE dispatch
+ALTER COLUMN category TYPE SMALLINT USING notification_category_code(category);
+
+ALTER TABLE dispatch
+ADD CONSTRAINT chk_dispatch_category
+CHECK (category BETWEEN 1 AND 3);
+
+DROP FUNCTION notification_category_code(VARCHAR);
+DROP FUNCTION notification_type_code(VARCHAR);
+DROP FUNCTION notification_status_code(VARCHAR);
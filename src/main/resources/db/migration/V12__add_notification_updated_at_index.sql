@@ -0,0 +1,5 @@
+-- Serves max(updated_at), half of the history high-water mark behind the ETag and Last-Modified
+-- of GET /logs, from the end of an index instead of a table scan. Built CONCURRENTLY, outside a
+-- transaction (see the .conf file next to this script), so inserts are not blocked meanwhile.
+DROP INDEX CONCURRENTLY IF EXISTS idx_notification_updated_at;
+CREATE INDEX CONCURRENTLY idx_notification_updated_at ON notification(updated_at);
@@ -0,0 +1,13 @@
+-- Full-text index behind GET /search. An expression index rather than a stored tsvector column:
+-- adding a generated column rewrites the whole table under an exclusive lock, while this is
+-- built CONCURRENTLY, outside a transaction (see the .conf file next to this script).
+-- NotificationSearchRepository must query the exact same expression for it to be used.
+DROP INDEX CONCURRENTLY IF EXISTS idx_notification_content_search;
+CREATE INDEX CONCURRENTLY idx_notification_content_search
+    ON notification USING GIN (to_tsvector('english'::regconfig, content));
+
+-- Statistics on the indexed expression are only gathered by ANALYZE. Without them, or with a
+-- lexeme list too short to include rare words, the planner takes any search term for a common
+-- one and walks the primary key backwards filtering every row instead of using the index.
+ALTER INDEX idx_notification_content_search ALTER COLUMN 1 SET STATISTICS 1000;
+ANALYZE notification;
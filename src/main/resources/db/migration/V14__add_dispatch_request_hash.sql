@@ -0,0 +1 @@
+ALTER TABLE dispatch ADD COLUMN request_hash CHAR(64);
@@ -0,0 +1,6 @@
+CREATE TABLE deferred_delivery (
+    notification_id INTEGER NOT NULL PRIMARY KEY REFERENCES notification(id) ON DELETE CASCADE,
+    deliver_after TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_deferred_delivery_deliver_after ON deferred_delivery(deliver_after);
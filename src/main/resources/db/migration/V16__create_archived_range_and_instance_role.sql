@@ -0,0 +1,17 @@
+-- Id ranges moved into archive files, one row per file. Instances read the archived ids from
+-- here rather than from the directory listing, so they agree on them whatever their disk shows.
+CREATE TABLE archived_range (
+    min_id INTEGER NOT NULL PRIMARY KEY,
+    max_id INTEGER NOT NULL,
+    row_count INTEGER NOT NULL,
+    written_at TIMESTAMP NOT NULL DEFAULT now(),
+    purged BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT chk_archived_range_ids CHECK (min_id <= max_id)
+);
+
+-- Work only one instance may do at a time, such as writing the archive, held until expires_at.
+CREATE TABLE instance_role (
+    role VARCHAR(64) NOT NULL PRIMARY KEY,
+    instance_id VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,16 @@
+CREATE TABLE dispatch (
+    id SERIAL NOT NULL PRIMARY KEY,
+    idempotency_key VARCHAR(255),
+    category VARCHAR NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX uq_dispatch_idempotency_key ON dispatch(idempotency_key);
+
+ALTER TABLE notification
+ADD COLUMN dispatch_id INTEGER REFERENCES dispatch(id);
+
+ALTER TABLE notification
+ADD CONSTRAINT uq_notification_dispatch_user_type
+UNIQUE (dispatch_id, user_id, type);
@@ -0,0 +1,9 @@
+ALTER TABLE dispatch
+ADD COLUMN scheduled_at TIMESTAMP,
+ADD COLUMN dispatched_at TIMESTAMP;
+
+UPDATE dispatch SET dispatched_at = created_at;
+
+CREATE INDEX idx_dispatch_pending_scheduled_at
+ON dispatch(scheduled_at)
+WHERE dispatched_at IS NULL;
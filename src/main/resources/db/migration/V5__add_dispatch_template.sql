@@ -0,0 +1,2 @@
+ALTER TABLE dispatch
+ADD COLUMN template VARCHAR(100);
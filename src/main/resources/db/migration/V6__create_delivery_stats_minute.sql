@@ -0,0 +1,14 @@
+CREATE TABLE delivery_stats_minute (
+    bucket TIMESTAMP NOT NULL,
+    category VARCHAR NOT NULL,
+    type VARCHAR NOT NULL,
+    status VARCHAR NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (bucket, category, type, status)
+);
+
+INSERT INTO delivery_stats_minute (bucket, category, type, status, count)
+SELECT date_trunc('minute', updated_at), category, type, status, COUNT(*)
+FROM notification
+WHERE status <> 'PENDING'
+GROUP BY date_trunc('minute', updated_at), category, type, status;
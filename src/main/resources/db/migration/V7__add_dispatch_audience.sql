@@ -0,0 +1 @@
+ALTER TABLE dispatch ADD COLUMN audience VARCHAR(500);
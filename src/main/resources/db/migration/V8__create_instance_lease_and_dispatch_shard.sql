@@ -0,0 +1,17 @@
+CREATE TABLE instance_lease (
+    instance_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Outstanding fan-out work: one row per (dispatch, shard of the user-id space) until the owning
+-- instance has delivered it.
+CREATE TABLE dispatch_shard (
+    dispatch_id INTEGER NOT NULL REFERENCES dispatch(id),
+    shard SMALLINT NOT NULL,
+    owner VARCHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    PRIMARY KEY (dispatch_id, shard),
+    CONSTRAINT chk_dispatch_shard_status CHECK (status IN ('PENDING', 'RUNNING'))
+);
+
+CREATE INDEX idx_dispatch_shard_owner_status ON dispatch_shard(owner, status);
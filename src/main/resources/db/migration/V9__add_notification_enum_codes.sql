@@ -0,0 +1,38 @@
+-- Expand step of moving category/type/status from VARCHAR names to SMALLINT codes (see
+-- EnumCodeConverters; the CASE mappings below must match the enums' code()).
+-- Adding nullable columns without a default only touches the catalog. Until V11 swaps them in,
+-- a trigger derives the codes from the names, so instances still writing names keep working
+-- while V10 backfills existing rows.
+ALTER TABLE notification
+    ADD COLUMN category_code SMALLINT,
+    ADD COLUMN type_code SMALLINT,
+    ADD COLUMN status_code SMALLINT;
+
+CREATE FUNCTION notification_category_code(name VARCHAR) RETURNS SMALLINT
+LANGUAGE SQL IMMUTABLE AS $$
+    SELECT CASE name WHEN 'SPORTS' THEN 1 WHEN 'FINANCIAL' THEN 2 WHEN 'MOVIES' THEN 3 END::SMALLINT
+$$;
+
+CREATE FUNCTION notification_type_code(name VARCHAR) RETURNS SMALLINT
+LANGUAGE SQL IMMUTABLE AS $$
+    SELECT CASE name WHEN 'EMAIL' THEN 1 WHEN 'SMS' THEN 2 WHEN 'PUSH' THEN 3 END::SMALLINT
+$$;
+
+CREATE FUNCTION notification_status_code(name VARCHAR) RETURNS SMALLINT
+LANGUAGE SQL IMMUTABLE AS $$
+    SELECT CASE name WHEN 'PENDING' THEN 1 WHEN 'SENT' THEN 2 WHEN 'FAILED' THEN 3 END::SMALLINT
+$$;
+
+CREATE FUNCTION notification_sync_enum_codes() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.category_code := notification_category_code(NEW.category);
+    NEW.type_code := notification_type_code(NEW.type);
+    NEW.status_code := notification_status_code(NEW.status);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER notification_sync_enum_codes
+BEFORE INSERT OR UPDATE ON notification
+FOR EACH ROW EXECUTE FUNCTION notification_sync_enum_codes();
@@ -0,0 +1,156 @@
+package me.ghisiluizgustavo.notification.feature.deliverystats;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeliveryStatsBucket;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeliveryStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DeliveryStatsRecorderTest {
+
+    private static final Instant START = Instant.parse("2026-01-06T14:30:10Z");
+
+    private final List<DeliveryStatsBucket> flushed = new ArrayList<>();
+
+    private MutableClock clock;
+
+    private DeliveryStatsRepository repository;
+
+    private DeliveryStatsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        repository = mock(DeliveryStatsRepository.class);
+        doAnswer(invocation -> flushed.addAll(invocation.getArgument(0))).when(repository).add(anyList());
+        recorder = new DeliveryStatsRecorder(repository, clock);
+    }
+
+    @Test
+    void shouldAggregateOutcomesPerKey_whenFlushed() {
+        recorder.record(NotificationCategory.FINANCIAL, NotificationType.SMS, NotificationStatus.FAILED);
+        recorder.record(NotificationCategory.FINANCIAL, NotificationType.SMS, NotificationStatus.FAILED);
+        recorder.record(NotificationCategory.FINANCIAL, NotificationType.SMS, NotificationStatus.SENT);
+
+        recorder.flush();
+
+        final LocalDateTime minute = LocalDateTime.of(2026, 1, 6, 14, 30);
+        assertEquals(2, flushed.size());
+        assertTrue(flushed.contains(new DeliveryStatsBucket(
+            minute, NotificationCategory.FINANCIAL, NotificationType.SMS, NotificationStatus.FAILED, 2
+        )));
+        assertTrue(flushed.contains(new DeliveryStatsBucket(
+            minute, NotificationCategory.FINANCIAL, NotificationType.SMS, NotificationStatus.SENT, 1
+        )));
+    }
+
+    @Test
+    void shouldSeparateMinuteBuckets_whenMinuteRollsOver() {
+        recorder.record(NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT);
+        clock.advance(Duration.ofMinutes(1));
+        recorder.record(NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT);
+
+        recorder.flush();
+
+        assertEquals(List.of(
+            LocalDateTime.of(2026, 1, 6, 14, 30),
+            LocalDateTime.of(2026, 1, 6, 14, 31)
+        ), flushed.stream().map(DeliveryStatsBucket::bucket).toList());
+    }
+
+    @Test
+    void shouldOnlyWriteNewIncrements_onSubsequentFlushes() {
+        recorder.record(NotificationCategory.MOVIES, NotificationType.PUSH, NotificationStatus.SENT);
+        recorder.flush();
+        recorder.flush();
+
+        assertEquals(1, flushed.size());
+        verify(repository, times(1)).add(anyList());
+    }
+
+    @Test
+    void shouldKeepIncrements_whenRollupWriteFails() {
+        recorder.record(NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT);
+        clock.advance(Duration.ofMinutes(1));
+        recorder.record(NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT);
+        doThrow(new IllegalStateException("database down")).doAnswer(invocation -> flushed.addAll(invocation.getArgument(0)))
+            .when(repository).add(anyList());
+
+        assertThrows(IllegalStateException.class, recorder::flush);
+        recorder.flush();
+        recorder.flush();
+
+        assertEquals(2, flushed.stream().mapToLong(DeliveryStatsBucket::count).sum());
+        assertEquals(List.of(
+            LocalDateTime.of(2026, 1, 6, 14, 30),
+            LocalDateTime.of(2026, 1, 6, 14, 31)
+        ), flushed.stream().map(DeliveryStatsBucket::bucket).toList());
+    }
+
+    @Test
+    void shouldNotLoseIncrements_underConcurrentRecording() throws InterruptedException {
+        final int threads = 8;
+        final int perThread = 10_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    recorder.record(NotificationCategory.SPORTS, NotificationType.SMS, NotificationStatus.SENT);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        executor.shutdown();
+
+        recorder.flush();
+
+        assertEquals((long) threads * perThread, flushed.stream().mapToLong(DeliveryStatsBucket::count).sum());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.archive.NotificationArchive;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationHighWaterMark;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListNotificationHistoryHandlerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 6, 14, 30);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationArchive archive;
+
+    @Test
+    void shouldServeNewestPageFromMemory_whileHighWaterMarkStands() {
+        final var handler = handler(Duration.ZERO, Duration.ZERO);
+        when(notificationRepository.findHighWaterMark()).thenReturn(new NotificationHighWaterMark(3, NOW));
+        when(notificationRepository.findAllByOrderByIdDesc(Limit.of(10))).thenReturn(rows(3, 1));
+
+        final HistoryPage first = handler.handleVersioned(null, 10).page();
+        final HistoryPage second = handler.handleVersioned(null, 10).page();
+
+        assertEquals(List.of(3, 2, 1), second.items().stream().map(NotificationHistoryResponse::id).toList());
+        assertSame(first.items(), second.items());
+        assertNull(second.nextBefore());
+        verify(notificationRepository, times(1)).findAllByOrderByIdDesc(any());
+        verify(notificationRepository, times(2)).findHighWaterMark();
+    }
+
+    @Test
+    void shouldReadHighWaterMark_beforeTheRowsItValidates() {
+        final var handler = handler(Duration.ofHours(1), Duration.ZERO);
+        when(notificationRepository.findHighWaterMark())
+            .thenReturn(new NotificationHighWaterMark(3, NOW))
+            .thenReturn(new NotificationHighWaterMark(4, NOW.plusSeconds(1)));
+        when(notificationRepository.findAllByOrderByIdDesc(Limit.unlimited())).thenReturn(rows(4, 1));
+
+        final HistoryVersion known = handler.version();
+        final VersionedHistory history = handler.handleVersioned();
+
+        assertEquals(new NotificationHighWaterMark(4, NOW.plusSeconds(1)), history.version().mark());
+        assertNotEquals(known.etag(), history.version().etag());
+        assertEquals(history.version(), handler.version());
+        final InOrder inOrder = inOrder(notificationRepository);
+        inOrder.verify(notificationRepository, times(2)).findHighWaterMark();
+        inOrder.verify(notificationRepository).findAllByOrderByIdDesc(Limit.unlimited());
+    }
+
+    @Test
+    void shouldReloadNewestPage_whenHighWaterMarkMoves() {
+        final var handler = handler(Duration.ZERO, Duration.ZERO);
+        when(notificationRepository.findHighWaterMark())
+            .thenReturn(new NotificationHighWaterMark(3, NOW))
+            .thenReturn(new NotificationHighWaterMark(3, NOW.plusSeconds(1)));
+        when(notificationRepository.findAllByOrderByIdDesc(Limit.of(10))).thenReturn(rows(3, 1));
+
+        handler.handleVersioned(null, 10).page();
+        handler.handleVersioned(null, 10).page();
+
+        verify(notificationRepository, times(2)).findAllByOrderByIdDesc(any());
+    }
+
+    @Test
+    void shouldNotCacheOrValidate_untilHighWaterMarkSettles() {
+        final var handler = handler(Duration.ZERO, Duration.ofHours(1));
+        when(notificationRepository.findHighWaterMark()).thenReturn(new NotificationHighWaterMark(3, NOW));
+        when(notificationRepository.findAllByOrderByIdDesc(Limit.of(10))).thenReturn(rows(3, 1));
+
+        handler.handleVersioned(null, 10).page();
+        handler.handleVersioned(null, 10).page();
+
+        assertFalse(handler.version().settled());
+        verify(notificationRepository, times(2)).findAllByOrderByIdDesc(any());
+    }
+
+    @Test
+    void shouldReuseHighWaterMark_withinTtl_untilInvalidated() {
+        final var cache = new NotificationHistoryCache(notificationRepository, properties(Duration.ofHours(1), Duration.ZERO));
+        final var handler = new ListNotificationHistoryHandler(notificationRepository, cache, properties(Duration.ofHours(1), Duration.ZERO), archive);
+        when(notificationRepository.findHighWaterMark())
+            .thenReturn(new NotificationHighWaterMark(3, NOW))
+            .thenReturn(new NotificationHighWaterMark(4, NOW.plusSeconds(1)));
+
+        final HistoryVersion before = handler.version();
+        assertEquals(before, handler.version());
+        cache.invalidate();
+        final HistoryVersion after = handler.version();
+
+        assertEquals("W/\"3-" + before.lastModifiedMillis() + "\"", before.etag());
+        assertNotEquals(before.etag(), after.etag());
+        verify(notificationRepository, times(2)).findHighWaterMark();
+    }
+
+    @Test
+    void shouldPointToNextPage_whenPageIsFull() {
+        final var handler = handler(Duration.ZERO, Duration.ZERO);
+        when(notificationRepository.findHighWaterMark()).thenReturn(new NotificationHighWaterMark(9, NOW));
+        when(notificationRepository.findByIdLessThanOrderByIdDesc(8, Limit.of(3))).thenReturn(rows(7, 5));
+
+        final HistoryPage page = handler.handleVersioned(8, 3).page();
+
+        assertEquals(List.of(7, 6, 5), page.items().stream().map(NotificationHistoryResponse::id).toList());
+        assertEquals(5, page.nextBefore());
+    }
+
+    @Test
+    void shouldContinueIntoArchive_whenPageReachesArchivedIds() {
+        final var handler = handler(Duration.ZERO, Duration.ofHours(1));
+        when(notificationRepository.findHighWaterMark()).thenReturn(new NotificationHighWaterMark(6, NOW));
+        when(archive.archivedThrough()).thenReturn(4);
+        when(notificationRepository.findByIdGreaterThanOrderByIdDesc(4, Limit.of(5))).thenReturn(rows(6, 5));
+        when(archive.read(5, 3)).thenReturn(archived(4, 2));
+
+        final HistoryPage page = handler.handleVersioned(null, 5).page();
+
+        assertEquals(List.of(6, 5, 4, 3, 2), page.items().stream().map(NotificationHistoryResponse::id).toList());
+        assertEquals(2, page.nextBefore());
+    }
+
+    @Test
+    void shouldListWholeHistory_acrossTableAndArchive_whenUnpaged() {
+        final var handler = handler(Duration.ZERO, Duration.ZERO);
+        when(archive.archivedThrough()).thenReturn(2);
+        when(notificationRepository.findByIdGreaterThanOrderByIdDesc(2, Limit.unlimited())).thenReturn(rows(4, 3));
+        when(archive.read(3, Integer.MAX_VALUE - 2)).thenReturn(archived(2, 1));
+
+        final List<NotificationHistoryResponse> items = handler.handle();
+
+        assertEquals(List.of(4, 3, 2, 1), items.stream().map(NotificationHistoryResponse::id).toList());
+        verify(notificationRepository, never()).findHighWaterMark();
+    }
+
+    @Test
+    void shouldReadOnlyArchive_whenCursorIsBelowTable() {
+        final var handler = handler(Duration.ZERO, Duration.ZERO);
+        when(notificationRepository.findHighWaterMark()).thenReturn(new NotificationHighWaterMark(9, NOW));
+        when(archive.archivedThrough()).thenReturn(4);
+        when(archive.read(3, 3)).thenReturn(archived(2, 1));
+
+        final HistoryPage page = handler.handleVersioned(3, 3).page();
+
+        assertEquals(List.of(2, 1), page.items().stream().map(NotificationHistoryResponse::id).toList());
+        assertNull(page.nextBefore());
+        verify(notificationRepository).findHighWaterMark();
+        verifyNoMoreInteractions(notificationRepository);
+    }
+
+    @Test
+    void shouldReject_whenLimitIsAboveMaximum() {
+        final var handler = handler(Duration.ZERO, Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> handler.handleVersioned(null, 1001));
+        assertThrows(IllegalArgumentException.class, () -> handler.handleVersioned(null, 0));
+    }
+
+    private ListNotificationHistoryHandler handler(Duration versionTtl, Duration settleTime) {
+        final HistoryProperties properties = properties(versionTtl, settleTime);
+        return new ListNotificationHistoryHandler(
+            notificationRepository,
+            new NotificationHistoryCache(notificationRepository, properties),
+            properties,
+            archive
+        );
+    }
+
+    private static HistoryProperties properties(Duration versionTtl, Duration settleTime) {
+        return new HistoryProperties(100, 1000, versionTtl, settleTime);
+    }
+
+    private static List<NotificationRow> archived(int from, int to) {
+        return IntStream.iterate(from, id -> id >= to, id -> id - 1)
+            .mapToObj(id -> new NotificationRow(id, NotificationCategory.SPORTS, NotificationType.EMAIL,
+                NotificationStatus.SENT, "Update " + id, 1, 1, NOW, NOW))
+            .toList();
+    }
+
+    private static List<NotificationEntityJpa> rows(int from, int to) {
+        return IntStream.iterate(from, id -> id >= to, id -> id - 1)
+            .mapToObj(id -> new NotificationEntityJpa(id, NotificationCategory.SPORTS, NotificationType.EMAIL,
+                NotificationStatus.SENT, "Update " + id, 1, 1, NOW, NOW))
+            .toList();
+    }
+}
@@ -0,0 +1,132 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.archive.NotificationArchive;
+import me.ghisiluizgustavo.notification.infrastructure.config.ArchiveProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.ArchivedRange;
+import me.ghisiluizgustavo.notification.infrastructure.database.InstanceLeaseRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationArchiveRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationArchiverTest {
+
+    private static final Instant NOW = Instant.parse("2026-06-01T12:00:00Z");
+    private static final LocalDateTime OLD = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Mock
+    private NotificationArchiveRepository archiveRepository;
+
+    @Mock
+    private InstanceLeaseRepository leaseRepository;
+
+    @TempDir
+    private Path directory;
+
+    private final List<ArchivedRange> recorded = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(archiveRepository.findRanges()).thenAnswer(invocation -> List.copyOf(recorded));
+        lenient().when(archiveRepository.recordRange(any())).thenAnswer(invocation -> recorded.add(invocation.getArgument(0)));
+        lenient().when(leaseRepository.hold(eq(NotificationArchiver.ROLE), anyString(), any())).thenReturn(true);
+    }
+
+    @Test
+    void shouldArchiveFullFilesBelowFirstRecentRow_andKeepTheRemainder() {
+        final var archive = archive();
+        when(archiveRepository.firstIdCreatedSince(LocalDateTime.of(2026, 3, 3, 12, 0))).thenReturn(9);
+        when(archiveRepository.findAfter(0, 9, 3)).thenReturn(rows(1, 3));
+        when(archiveRepository.findAfter(3, 9, 3)).thenReturn(rows(4, 6));
+        when(archiveRepository.findAfter(6, 9, 3)).thenReturn(rows(7, 8));
+
+        archiver(archive).run();
+
+        assertEquals(6, archive.archivedThrough());
+        assertEquals(List.of(6, 5, 4, 3, 2, 1), archive.read(7, 10).stream().map(NotificationRow::id).toList());
+        verify(archiveRepository, never()).delete(any());
+        verify(leaseRepository).letGo(eq(NotificationArchiver.ROLE), anyString());
+    }
+
+    @Test
+    void shouldDeleteArchivedRows_ofRangesRecordedTwoRefreshIntervalsAgo() {
+        final var archive = archive();
+        archive.append(rows(1, 3));
+        final var range = recorded.getFirst();
+        when(archiveRepository.findPurgeable(Duration.ofMinutes(2))).thenReturn(List.of(range));
+        when(archiveRepository.delete(new int[]{1, 2, 3})).thenReturn(3);
+        when(archiveRepository.firstIdCreatedSince(any())).thenReturn(null);
+        when(archiveRepository.findAfter(eq(3), isNull(), eq(3))).thenReturn(List.of());
+
+        archiver(archive).run();
+
+        verify(archiveRepository).markPurged(range);
+    }
+
+    @Test
+    void shouldSkipRun_whileAnotherInstanceHoldsTheWriterRole() {
+        when(leaseRepository.hold(eq(NotificationArchiver.ROLE), anyString(), any())).thenReturn(false);
+
+        archiver(archive()).run();
+
+        verifyNoInteractions(archiveRepository);
+        verify(leaseRepository, never()).letGo(any(), any());
+    }
+
+    @Test
+    void shouldStopWritingFiles_whenTheWriterRoleIsLost() {
+        final var archive = archive();
+        when(leaseRepository.hold(eq(NotificationArchiver.ROLE), anyString(), any())).thenReturn(true, true, false);
+        when(archiveRepository.firstIdCreatedSince(any())).thenReturn(null);
+        when(archiveRepository.findAfter(0, null, 3)).thenReturn(rows(1, 3));
+        when(archiveRepository.findAfter(3, null, 3)).thenReturn(rows(4, 6));
+
+        archiver(archive).run();
+
+        assertEquals(3, archive.archivedThrough());
+        assertEquals(1, recorded.size());
+    }
+
+    private NotificationArchive archive() {
+        return new NotificationArchive(properties(), archiveRepository);
+    }
+
+    private NotificationArchiver archiver(NotificationArchive archive) {
+        return new NotificationArchiver(archiveRepository, leaseRepository, archive, properties(),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private ArchiveProperties properties() {
+        return new ArchiveProperties(true, directory, Duration.ofDays(90), 3, 10, Duration.ofHours(1),
+            Duration.ofMinutes(1), 2, 4, Duration.ofMinutes(5));
+    }
+
+    private static List<NotificationRow> rows(int from, int to) {
+        return IntStream.rangeClosed(from, to)
+            .mapToObj(id -> new NotificationRow(id, NotificationCategory.SPORTS, NotificationType.EMAIL,
+                NotificationStatus.SENT, "Update " + id, id, 1, OLD, OLD))
+            .toList();
+    }
+}
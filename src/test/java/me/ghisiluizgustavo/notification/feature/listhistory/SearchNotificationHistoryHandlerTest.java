@@ -0,0 +1,114 @@
+package me.ghisiluizgustavo.notification.feature.listhistory;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.archive.NotificationArchive;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationSearchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchNotificationHistoryHandlerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 6, 14, 30);
+
+    @Mock
+    private NotificationSearchRepository searchRepository;
+
+    @Mock
+    private NotificationArchive archive;
+
+    @Test
+    void shouldPassFiltersAndCursor_andPointToNextPage_whenPageIsFull() {
+        final var handler = handler();
+        when(searchRepository.search("big game", NotificationCategory.SPORTS, NotificationType.EMAIL,
+            NotificationStatus.SENT, NOW.minusDays(1), NOW, 50, 3)).thenReturn(rows(9, 7));
+
+        final HistoryPage page = handler.handle("  big game ", NotificationCategory.SPORTS, NotificationType.EMAIL,
+            NotificationStatus.SENT, NOW.minusDays(1), NOW, 50, 3);
+
+        assertEquals(List.of(9, 8, 7), page.items().stream().map(NotificationHistoryResponse::id).toList());
+        assertEquals(7, page.nextBefore());
+        assertEquals("Update 9", page.items().getFirst().content());
+    }
+
+    @Test
+    void shouldEndPaging_whenPageIsNotFull() {
+        final var handler = handler();
+        when(searchRepository.search(eq("kick-off"), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), eq(100)))
+            .thenReturn(rows(2, 1));
+
+        final HistoryPage page = handler.handle("kick-off", null, null, null, null, null, null, null);
+
+        assertEquals(2, page.items().size());
+        assertEquals(100, page.limit());
+        assertNull(page.nextBefore());
+    }
+
+    @Test
+    void shouldRejectInvalidSearch_withoutQuerying() {
+        final var handler = handler();
+        final String tooLong = "a".repeat(SearchNotificationHistoryHandler.MAX_QUERY_LENGTH + 1);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> handler.handle(null, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> handler.handle("  ", null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> handler.handle(tooLong, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> handler.handle("game", null, null, null, NOW, NOW, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> handler.handle("game", null, null, null, null, null, null, 1001));
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    void shouldRejectTimeRange_endingBeforeTheNewestArchivedRow() {
+        final var handler = handler();
+        when(archive.archivedUntil()).thenReturn(NOW.minusDays(90));
+
+        final var e = assertThrows(IllegalArgumentException.class,
+            () -> handler.handle("game", null, null, null, null, NOW.minusDays(90), null, null));
+
+        assertTrue(e.getMessage().contains("archived"));
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    void shouldSearchTable_whenTimeRangeEndsAfterTheArchive() {
+        final var handler = handler();
+        when(archive.archivedUntil()).thenReturn(NOW.minusDays(90));
+        when(searchRepository.search("game", null, null, null, NOW.minusDays(100), NOW.minusDays(80), null, 100))
+            .thenReturn(rows(2, 1));
+
+        final HistoryPage page = handler.handle("game", null, null, null, NOW.minusDays(100), NOW.minusDays(80), null, null);
+
+        assertEquals(2, page.items().size());
+    }
+
+    private SearchNotificationHistoryHandler handler() {
+        return new SearchNotificationHistoryHandler(searchRepository,
+            new HistoryProperties(100, 1000, Duration.ofSeconds(1), Duration.ofSeconds(2)), archive);
+    }
+
+    private static List<NotificationRow> rows(int newest, int oldest) {
+        return IntStream.iterate(newest, id -> id >= oldest, id -> id - 1)
+            .mapToObj(id -> new NotificationRow(id, NotificationCategory.SPORTS, NotificationType.EMAIL,
+                NotificationStatus.SENT, "Update " + id, id, 1, NOW, NOW))
+            .toList();
+    }
+}
@@ -0,0 +1,186 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitAlgorithm;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Duration backlogAge = Duration.ZERO;
+    private Duration oldestBatchWait = Duration.ZERO;
+    private int queuedBatches;
+    private final List<DispatchScheduler.CompletionListener> listeners = new ArrayList<>();
+    private final DispatchScheduler scheduler = new DispatchScheduler() {
+        @Override
+        public void submit(NotificationCategory category, Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public Duration oldestWait() {
+            return oldestBatchWait;
+        }
+
+        @Override
+        public int queued() {
+            return queuedBatches;
+        }
+
+        @Override
+        public void addCompletionListener(CompletionListener listener) {
+            listeners.add(listener);
+        }
+    };
+
+    @Test
+    void shouldShedSubmissions_overTheConcurrencyLimit() {
+        final AdmissionController admission = admission(2, Map.of());
+
+        admission.admit(NotificationCategory.SPORTS);
+        admission.admit(NotificationCategory.FINANCIAL);
+
+        final var rejected = assertThrows(AdmissionRejectedException.class,
+            () -> admission.admit(NotificationCategory.FINANCIAL));
+        assertEquals(Duration.ofSeconds(1), rejected.getRetryAfter());
+        assertEquals(1, rejectedCount("limit", "FINANCIAL"));
+    }
+
+    @Test
+    void shouldCapCategoryAtItsShareOfTheLimit() {
+        final AdmissionController admission = admission(10, Map.of(NotificationCategory.MOVIES, 0.2));
+
+        admission.admit(NotificationCategory.MOVIES);
+        admission.admit(NotificationCategory.MOVIES);
+
+        assertThrows(AdmissionRejectedException.class, () -> admission.admit(NotificationCategory.MOVIES));
+        assertDoesNotThrow(() -> admission.admit(NotificationCategory.SPORTS));
+        assertEquals(1, rejectedCount("quota", "MOVIES"));
+        assertEquals(3, gauge("notification.admission.in-flight"));
+    }
+
+    @Test
+    void shouldReleaseEverythingTaken_whenOneCategoryOfAChunkIsOverQuota() {
+        final AdmissionController admission = admission(10, Map.of(NotificationCategory.MOVIES, 0.1));
+        admission.admit(NotificationCategory.MOVIES);
+
+        assertThrows(AdmissionRejectedException.class,
+            () -> admission.admit(EnumSet.of(NotificationCategory.SPORTS, NotificationCategory.MOVIES)));
+
+        assertEquals(1, gauge("notification.admission.in-flight"));
+        for (int i = 0; i < 9; i++) {
+            admission.admit(NotificationCategory.SPORTS);
+        }
+    }
+
+    @Test
+    void shouldFreeTheSlot_whenTicketIsClosed() {
+        final AdmissionController admission = admission(1, Map.of());
+
+        try (AdmissionController.Ticket ticket = admission.admit(NotificationCategory.SPORTS)) {
+            ticket.succeeded();
+        }
+
+        assertDoesNotThrow(() -> admission.admit(NotificationCategory.SPORTS).close());
+    }
+
+    @Test
+    void shouldShedEverything_whenDispatchBacklogIsTooOld() {
+        final AdmissionController admission = admission(10, Map.of());
+        backlogAge = Duration.ofSeconds(31);
+
+        assertThrows(AdmissionRejectedException.class, () -> admission.admit(NotificationCategory.FINANCIAL));
+        assertEquals(1, rejectedCount("backlog", "FINANCIAL"));
+        assertEquals(0, gauge("notification.admission.in-flight"));
+    }
+
+    @Test
+    void shouldShedEverything_whenOldestQueuedBatchIsTooOld() {
+        final AdmissionController admission = admission(10, Map.of());
+        oldestBatchWait = Duration.ofSeconds(31);
+
+        assertThrows(AdmissionRejectedException.class, () -> admission.admit(NotificationCategory.SPORTS));
+        assertEquals(1, rejectedCount("backlog", "SPORTS"));
+    }
+
+    @Test
+    void shouldShedEverything_whenTooManyBatchesAreQueued() {
+        final AdmissionController admission = admission(10, Map.of());
+        queuedBatches = 100;
+
+        assertThrows(AdmissionRejectedException.class, () -> admission.admit(NotificationCategory.SPORTS));
+        queuedBatches = 99;
+        assertDoesNotThrow(() -> admission.admit(NotificationCategory.SPORTS));
+    }
+
+    @Test
+    void shouldLowerLimit_fromFanOutBatchLatency() {
+        final var properties = new AdmissionProperties(true,
+            new LimitSettings(LimitAlgorithm.Kind.AIMD, 10, 1, 10, Duration.ofSeconds(1), 2.0),
+            Duration.ofSeconds(30), 100, Duration.ofSeconds(1), Map.of());
+        new AdmissionController(properties, message -> { }, scheduler, meterRegistry);
+
+        listeners.forEach(listener -> listener.completed(Duration.ofSeconds(5).toNanos(), false));
+
+        assertTrue(gauge("notification.admission.limit") < 10);
+    }
+
+    @Test
+    void shouldAdmitEverything_whenDisabled() {
+        final var properties = new AdmissionProperties(false, settings(1), Duration.ofSeconds(30), 100,
+            Duration.ofSeconds(1), Map.of());
+        final var admission = new AdmissionController(properties, message -> { }, scheduler, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            admission.admit(NotificationCategory.SPORTS);
+        }
+    }
+
+    @Test
+    void shouldRejectQuota_outsideZeroToOne() {
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionProperties(true, settings(10),
+            Duration.ofSeconds(30), 100, Duration.ofSeconds(1), Map.of(NotificationCategory.MOVIES, 1.5)));
+    }
+
+    private AdmissionController admission(int limit, Map<NotificationCategory, Double> quotas) {
+        final var properties = new AdmissionProperties(true, settings(limit), Duration.ofSeconds(30), 100,
+            Duration.ofSeconds(1), quotas);
+        final DispatchIntake intake = new DispatchIntake() {
+            @Override
+            public void publish(DispatchMessage message) {
+            }
+
+            @Override
+            public Duration backlogAge() {
+                return backlogAge;
+            }
+        };
+        return new AdmissionController(properties, intake, scheduler, meterRegistry);
+    }
+
+    private static LimitSettings settings(int limit) {
+        return new LimitSettings(LimitAlgorithm.Kind.AIMD, limit, limit, limit, Duration.ofSeconds(1), 2.0);
+    }
+
+    private double rejectedCount(String reason, String category) {
+        return meterRegistry.get("notification.admission.rejected")
+            .tag("reason", reason)
+            .tag("category", category)
+            .counter()
+            .count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,88 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static me.ghisiluizgustavo.notification.domain.NotificationCategory.*;
+import static me.ghisiluizgustavo.notification.domain.NotificationType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudienceIndexTest {
+
+    private final AudienceIndex index = new AudienceIndex(List.of(
+        user(1, List.of(SPORTS), List.of(EMAIL)),
+        user(2, List.of(SPORTS, MOVIES), List.of(EMAIL, SMS)),
+        user(3, List.of(FINANCIAL), List.of(SMS)),
+        user(4, List.of(MOVIES), List.of(PUSH)),
+        user(5, List.of(), List.of(EMAIL))
+    ));
+
+    @Test
+    void shouldResolveSingleCategory() {
+        assertEquals(List.of(1, 2), ids(Audience.of(SPORTS)));
+    }
+
+    @Test
+    void shouldResolveAndNot() {
+        assertEquals(List.of(1), ids(Audience.parse("SPORTS AND NOT MOVIES")));
+    }
+
+    @Test
+    void shouldResolveOr_withChannelRestriction() {
+        final Audience audience = Audience.parse("FINANCIAL OR SPORTS WITH CHANNEL SMS");
+
+        assertEquals(EnumSet.of(SMS), audience.channels());
+        assertEquals(List.of(2, 3), ids(audience));
+    }
+
+    @Test
+    void shouldRespectPrecedenceAndParentheses() {
+        assertEquals(List.of(1, 2, 3), ids(Audience.parse("SPORTS OR FINANCIAL AND NOT MOVIES")));
+        assertEquals(List.of(1, 3), ids(Audience.parse("(SPORTS OR FINANCIAL) AND NOT MOVIES")));
+    }
+
+    @Test
+    void shouldComplementAgainstAllUsers() {
+        assertEquals(List.of(3, 4, 5), ids(Audience.parse("not sports")));
+    }
+
+    @Test
+    void shouldRejectMalformedExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse("SPORTS AND"));
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse("SPORTS OR GAMES"));
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse("(SPORTS OR MOVIES"));
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse("SPORTS WITH CHANNEL FAX"));
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse("SPORTS MOVIES"));
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse("SPORTS & MOVIES"));
+        assertThrows(IllegalArgumentException.class, () -> Audience.parse(" "));
+    }
+
+    @Test
+    void shouldResolveLargeAudiences() {
+        final List<User> users = IntStream.range(0, 100_000)
+            .mapToObj(i -> user(i, i % 2 == 0 ? List.of(SPORTS) : List.of(MOVIES), List.of(i % 3 == 0 ? SMS : EMAIL)))
+            .toList();
+        index.rebuild(users);
+
+        final List<User> resolved = index.resolve(Audience.parse("SPORTS AND NOT MOVIES WITH CHANNEL SMS"));
+
+        assertEquals(16_667, resolved.size());
+        assertTrue(resolved.stream().allMatch(user -> user.id() % 6 == 0));
+    }
+
+    private List<Integer> ids(Audience audience) {
+        return index.resolve(audience).stream().map(User::id).toList();
+    }
+
+    private static User user(int id, List<NotificationCategory> categories, List<NotificationType> channels) {
+        return new User(id, "User " + id, "user" + id + "@test.com", "+1-555-0100",
+            categories, channels, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,222 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.AdaptiveLimiter;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitAlgorithm;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderException;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelLimitersTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldKeepASeparateLimitPerChannel() {
+        final ChannelLimiters limiters = limiters(Map.of(NotificationType.SMS, settings(LimitAlgorithm.Kind.AIMD, 3)),
+            Duration.ofSeconds(1));
+
+        assertEquals(3, gauge("notification.channel.limit", NotificationType.SMS));
+        assertEquals(1, gauge("notification.channel.limit", NotificationType.EMAIL));
+    }
+
+    @Test
+    void shouldBackOffTheChannel_whenItsProviderIsOverloaded() {
+        final ChannelLimiters limiters = limiters(Map.of(NotificationType.SMS, settings(LimitAlgorithm.Kind.AIMD, 10)),
+            Duration.ofSeconds(1));
+
+        assertThrows(ProviderException.class, () -> send(limiters, NotificationType.SMS, () -> {
+            throw new ProviderException(NotificationType.SMS, 503, "unavailable");
+        }));
+        send(limiters, NotificationType.PUSH, () -> { });
+
+        assertEquals(9, gauge("notification.channel.limit", NotificationType.SMS));
+        assertEquals(0, gauge("notification.channel.in-flight", NotificationType.SMS));
+    }
+
+    @Test
+    void shouldKeepTheLimit_whenTheProviderRejectsTheRequest() {
+        final ChannelLimiters limiters = limiters(Map.of(NotificationType.SMS, settings(LimitAlgorithm.Kind.AIMD, 10)),
+            Duration.ofSeconds(1));
+
+        assertThrows(ProviderException.class, () -> send(limiters, NotificationType.SMS, () -> {
+            throw new ProviderException(NotificationType.SMS, 400, "bad number");
+        }));
+
+        assertEquals(10, gauge("notification.channel.limit", NotificationType.SMS));
+        assertEquals(0, gauge("notification.channel.in-flight", NotificationType.SMS));
+    }
+
+    @Test
+    void shouldCountOnlyTimeoutsIoAndServerErrors_asOverload() {
+        assertTrue(ChannelLimiters.overloaded(new ProviderException(NotificationType.EMAIL, 502, "bad gateway")));
+        assertTrue(ChannelLimiters.overloaded(new ProviderException(NotificationType.EMAIL, "call failed",
+            new HttpTimeoutException("request timed out"))));
+        assertFalse(ChannelLimiters.overloaded(new ProviderException(NotificationType.EMAIL, 422, "invalid")));
+        assertFalse(ChannelLimiters.overloaded(new IllegalArgumentException("bad payload")));
+    }
+
+    @Test
+    void shouldDropTheBatchSlot_whenAnySendInItTimedOut() {
+        final ChannelLimiters limiters = limiters(Map.of(NotificationType.EMAIL, settings(LimitAlgorithm.Kind.AIMD, 10)),
+            Duration.ofSeconds(1));
+        final var failures = new int[1];
+
+        limiters.sendAll(NotificationType.EMAIL, new RunningStrategy(() -> { }) {
+            @Override
+            public void sendAll(List<User> users, List<Notification> notifications,
+                                ObjIntConsumer<Exception> failed) {
+                failed.accept(new ProviderException(NotificationType.EMAIL, "call failed",
+                    new HttpTimeoutException("request timed out")), 1);
+            }
+        }, List.of(), List.of(), (e, index) -> failures[0]++);
+
+        assertEquals(1, failures[0]);
+        assertEquals(9, gauge("notification.channel.limit", NotificationType.EMAIL));
+        assertEquals(0, gauge("notification.channel.in-flight", NotificationType.EMAIL));
+    }
+
+    @Test
+    void shouldQueueSend_untilTheChannelHasRoom() throws Exception {
+        final ChannelLimiters limiters = limiters(Map.of(), Duration.ofSeconds(5));
+        final AdaptiveLimiter.Permit held = limiters.limiter(NotificationType.EMAIL).tryAcquire();
+        final var sent = new CountDownLatch(1);
+
+        Thread.ofVirtual().start(() -> send(limiters, NotificationType.EMAIL, sent::countDown));
+        while (gauge("notification.channel.queued", NotificationType.EMAIL) == 0) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, sent.getCount());
+
+        held.close();
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("notification.channel.queue-wait").tag("channel", "EMAIL").timer().count());
+    }
+
+    @Test
+    void shouldFailSend_whenNoSlotFreesUpInTime() {
+        final ChannelLimiters limiters = limiters(Map.of(), Duration.ofMillis(50));
+        limiters.limiter(NotificationType.EMAIL).tryAcquire();
+
+        final var e = assertThrows(IllegalStateException.class, () -> send(limiters, NotificationType.EMAIL, () -> fail()));
+
+        assertTrue(e.getMessage().startsWith("No EMAIL send slot"));
+        assertEquals(0, gauge("notification.channel.queued", NotificationType.EMAIL));
+    }
+
+    @Test
+    void shouldSubscribeReactiveSend_onlyOnceGrantedASlot() {
+        final ChannelLimiters limiters = limiters(Map.of(), Duration.ofSeconds(5));
+        final AdaptiveLimiter.Permit held = limiters.limiter(NotificationType.PUSH).tryAcquire();
+        final Sinks.Empty<Void> provider = Sinks.empty();
+        final var subscribed = new boolean[1];
+
+        StepVerifier.create(limiters.sendReactive(NotificationType.PUSH, () -> {
+                subscribed[0] = true;
+                return provider.asMono();
+            }))
+            .then(() -> assertFalse(subscribed[0]))
+            .then(held::close)
+            .then(() -> assertTrue(subscribed[0]))
+            .then(provider::tryEmitEmpty)
+            .verifyComplete();
+
+        assertEquals(0, gauge("notification.channel.in-flight", NotificationType.PUSH));
+    }
+
+    @Test
+    void shouldReleaseTheSlot_whenReactiveSendIsCancelled() {
+        final ChannelLimiters limiters = limiters(Map.of(), Duration.ofSeconds(5));
+
+        StepVerifier.create(limiters.sendReactive(NotificationType.PUSH, Mono::never))
+            .thenAwait(Duration.ofMillis(10))
+            .thenCancel()
+            .verify();
+
+        assertEquals(0, gauge("notification.channel.in-flight", NotificationType.PUSH));
+    }
+
+    @Test
+    void shouldBypassLimits_whenDisabled() {
+        final var properties = new ChannelLimitProperties(false, true, Duration.ofMillis(10),
+            settings(LimitAlgorithm.Kind.VEGAS, 1), Map.of());
+        final var limiters = new ChannelLimiters(properties, meterRegistry);
+        limiters.limiter(NotificationType.SMS).tryAcquire();
+        final var sent = new int[1];
+
+        send(limiters, NotificationType.SMS, () -> sent[0]++);
+
+        assertEquals(1, sent[0]);
+    }
+
+    @Test
+    void shouldLimitOnlyReactiveSends_unlessBlockingIsEnabled() {
+        final var properties = new ChannelLimitProperties(true, false, Duration.ofMillis(10),
+            settings(LimitAlgorithm.Kind.VEGAS, 1), Map.of());
+        final var limiters = new ChannelLimiters(properties, meterRegistry);
+        limiters.limiter(NotificationType.SMS).tryAcquire();
+        final var sent = new int[1];
+
+        send(limiters, NotificationType.SMS, () -> sent[0]++);
+
+        assertEquals(1, sent[0]);
+        StepVerifier.create(limiters.sendReactive(NotificationType.SMS, Mono::empty))
+            .verifyError(IllegalStateException.class);
+    }
+
+    private ChannelLimiters limiters(Map<NotificationType, LimitSettings> channels, Duration queueTimeout) {
+        final var properties = new ChannelLimitProperties(true, true, queueTimeout,
+            settings(LimitAlgorithm.Kind.VEGAS, 1), channels);
+        return new ChannelLimiters(properties, meterRegistry);
+    }
+
+    private static void send(ChannelLimiters limiters, NotificationType channel, Runnable send) {
+        limiters.send(channel, new RunningStrategy(send), null, null);
+    }
+
+    private static LimitSettings settings(LimitAlgorithm.Kind algorithm, int limit) {
+        return new LimitSettings(algorithm, limit, 1, limit, Duration.ofSeconds(1), 2.0);
+    }
+
+    private double gauge(String name, NotificationType channel) {
+        return meterRegistry.get(name).tag("channel", channel.name()).gauge().value();
+    }
+
+    /**
+     * A strategy whose every send runs the given action.
+     */
+    private static class RunningStrategy implements NotificationStrategy {
+
+        private final Runnable action;
+
+        RunningStrategy(Runnable action) {
+            this.action = action;
+        }
+
+        @Override
+        public void send(User user, Notification notification) {
+            action.run();
+        }
+
+        @Override
+        public boolean supports(NotificationType type) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDelivery;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeferredDeliveryRecoveryTest {
+
+    private static final Instant DUE = Instant.parse("2026-01-07T12:00:00Z");
+
+    @Mock
+    private DeferredDeliveryRepository repository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationFanOut fanOut;
+
+    private final User alice = new User(
+        1,
+        "Alice",
+        "alice@test.com",
+        "+1-555-0101",
+        List.of(NotificationCategory.SPORTS),
+        List.of(NotificationType.SMS),
+        LocalDateTime.now(),
+        LocalDateTime.now(),
+        ZoneOffset.UTC,
+        null
+    );
+
+    private DeferredDeliveryRecovery recovery;
+
+    @BeforeEach
+    void setUp() {
+        recovery = new DeferredDeliveryRecovery(repository, userRepository, fanOut,
+            new SchedulingProperties(Duration.ofMillis(100), 512, Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        when(userRepository.findAll()).thenReturn(List.of(alice));
+    }
+
+    @Test
+    void shouldResumeEveryStoredDeferral_whenPagingThroughThem() {
+        final List<DeferredDelivery> firstPage = IntStream.rangeClosed(1, 1000).mapToObj(id -> deferred(id, 1)).toList();
+        when(repository.find(0, null, 1000)).thenReturn(firstPage);
+        when(repository.find(1000, null, 1000)).thenReturn(List.of(deferred(1001, 1)));
+
+        final int resumed = recovery.recover(null);
+
+        assertEquals(1001, resumed);
+        verify(fanOut, times(1001)).resume(any(DeferredDelivery.class), eq(alice));
+    }
+
+    @Test
+    void shouldFailDeferral_whenItsUserNoLongerExists() {
+        when(repository.find(0, DUE, 1000)).thenReturn(List.of(deferred(7, 99)));
+        when(repository.claim(7)).thenReturn(true);
+
+        final int resumed = recovery.recover(DUE);
+
+        assertEquals(0, resumed);
+        verify(fanOut, never()).resume(any(), any());
+        verify(repository, times(1)).complete(eq(7), eq(NotificationStatus.FAILED), any(LocalDateTime.class));
+    }
+
+    private DeferredDelivery deferred(int notificationId, int userId) {
+        return new DeferredDelivery(notificationId, NotificationCategory.SPORTS, NotificationType.SMS, "Game tonight",
+            userId, 1, LocalDateTime.now(), DUE);
+    }
+}
@@ -0,0 +1,51 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryBatchTest {
+
+    private final DeliveryBatch batch = new DeliveryBatch();
+
+    @Test
+    void shouldReuseNotifications_acrossBatches() {
+        final LocalDateTime first = LocalDateTime.of(2026, 1, 6, 20, 0);
+        batch.begin(first);
+        final Notification reused = batch.next(NotificationCategory.SPORTS, NotificationType.EMAIL, "Kick-off");
+        reused.setUserId(1);
+        reused.setDispatchId(7);
+        reused.updateStatus(NotificationStatus.FAILED, first);
+
+        final LocalDateTime second = first.plusMinutes(5);
+        batch.begin(second);
+        final Notification next = batch.next(NotificationCategory.MOVIES, NotificationType.PUSH, "Premiere");
+
+        assertSame(reused, next);
+        assertEquals(1, batch.size());
+        assertEquals(NotificationCategory.MOVIES, next.getCategory());
+        assertEquals(NotificationType.PUSH, next.getType());
+        assertEquals(NotificationStatus.PENDING, next.getStatus());
+        assertNull(next.getUserId());
+        assertNull(next.getDispatchId());
+        assertEquals(second, next.getCreatedAt());
+        assertEquals(second, next.getUpdatedAt());
+    }
+
+    @Test
+    void shouldGrow_whenBatchExceedsCapacity() {
+        batch.begin(LocalDateTime.now());
+        for (int i = 0; i < 200; i++) {
+            batch.next(NotificationCategory.SPORTS, NotificationType.SMS, "Update " + i);
+        }
+
+        assertEquals(200, batch.size());
+        assertEquals("Update 199", batch.notifications()[199].getContent());
+    }
+}
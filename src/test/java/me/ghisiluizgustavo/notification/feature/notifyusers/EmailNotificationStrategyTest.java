@@ -3,12 +3,18 @@ package me.ghisiluizgustavo.notification.feature.notifyusers;
 import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationCategory;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.SmtpProperties;
+import me.ghisiluizgustavo.notification.infrastructure.smtp.SmtpMailer;
+import me.ghisiluizgustavo.notification.infrastructure.smtp.StubSmtpServer;
 import me.ghisiluizgustavo.user.domain.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,7 +24,7 @@ class EmailNotificationStrategyTest {
 
     @BeforeEach
     void setUp() {
-        strategy = new EmailNotificationStrategy();
+        strategy = new EmailNotificationStrategy(ProviderNotificationStrategyTest.providerClient(Map.of()), smtpMailer(null));
     }
 
     @Test
@@ -47,4 +53,59 @@ class EmailNotificationStrategyTest {
 
         assertDoesNotThrow(() -> strategy.send(user, notification));
     }
+
+    @Test
+    void shouldSendThroughSmtpRelay_sharingTransactionsForIdenticalContent() {
+        try (var relay = StubSmtpServer.start().rejectRecipient("gone@email.com")) {
+            final var mailer = smtpMailer(relay);
+            final var strategy = new EmailNotificationStrategy(ProviderNotificationStrategyTest.providerClient(Map.of()), mailer);
+            final List<User> users = List.of(user(1, "one@email.com"), user(2, "gone@email.com"), user(3, "three@email.com"));
+            final List<Notification> notifications = List.of(
+                Notification.create(NotificationCategory.SPORTS, NotificationType.EMAIL, "Kick-off"),
+                Notification.create(NotificationCategory.SPORTS, NotificationType.EMAIL, "Kick-off"),
+                Notification.create(NotificationCategory.SPORTS, NotificationType.EMAIL, "Kick-off")
+            );
+            final List<Integer> failed = new ArrayList<>();
+
+            assertTrue(strategy.batchesRecipients());
+            strategy.sendAll(users, notifications, (e, index) -> failed.add(index));
+            strategy.send(users.getFirst(), notifications.getFirst());
+
+            assertEquals(List.of(1), failed);
+            assertEquals(2, relay.transactions().size());
+            assertEquals(List.of("one@email.com", "three@email.com"), relay.transactions().getFirst().recipients());
+            assertEquals(1, relay.connections());
+            mailer.shutdown();
+        }
+    }
+
+    private static User user(int id, String email) {
+        return new User(
+            id,
+            "User " + id,
+            email,
+            "+1-555-0100",
+            List.of(NotificationCategory.SPORTS),
+            List.of(NotificationType.EMAIL),
+            LocalDateTime.now(),
+            LocalDateTime.now()
+        );
+    }
+
+    static SmtpMailer smtpMailer(StubSmtpServer relay) {
+        return new SmtpMailer(new SmtpProperties(
+            relay != null ? "localhost" : null,
+            relay != null ? relay.port() : 587,
+            SmtpProperties.Security.NONE,
+            null,
+            null,
+            "notifications@example.com",
+            "test",
+            2,
+            50,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(60)
+        ));
+    }
 }
@@ -0,0 +1,68 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final int SHARDS = 1024;
+
+    @Test
+    void shouldSpreadShards_acrossAllMembers() {
+        final var ring = new HashRing(List.of("a", "b", "c"));
+
+        final Map<String, Long> counts = Arrays.stream(ring.assign(SHARDS))
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > SHARDS / 5, "unbalanced: " + counts));
+    }
+
+    @Test
+    void shouldOnlyMoveShardsToJoiningMember() {
+        final String[] before = new HashRing(List.of("a", "b", "c")).assign(SHARDS);
+        final String[] after = new HashRing(List.of("a", "b", "c", "d")).assign(SHARDS);
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (!before[shard].equals(after[shard])) {
+                assertEquals("d", after[shard]);
+            }
+        }
+    }
+
+    @Test
+    void shouldOnlyMoveShardsOfLeavingMember() {
+        final String[] before = new HashRing(List.of("a", "b", "c")).assign(SHARDS);
+        final String[] after = new HashRing(List.of("a", "c")).assign(SHARDS);
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (!before[shard].equals("b")) {
+                assertEquals(before[shard], after[shard]);
+            }
+        }
+    }
+
+    @Test
+    void shouldPlaceEveryUserInExactlyOneShard() {
+        final int shards = 8;
+        final long[] perShard = new long[shards];
+        IntStream.rangeClosed(1, 8_000).forEach(userId -> perShard[HashRing.shardOf(userId, shards)]++);
+
+        for (long count : perShard) {
+            assertTrue(count > 700 && count < 1300, Arrays.toString(perShard));
+        }
+    }
+
+    @Test
+    void shouldRejectEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of()));
+    }
+}
@@ -0,0 +1,91 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void shouldReturnDispatchId_whenKeyWasStored() {
+        final var cache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(5), 10), clock);
+
+        cache.put("key-1", 1, "hash-1");
+
+        assertEquals(Optional.of(new IdempotencyCache.Stored(1, "hash-1")), cache.get("key-1"));
+        assertTrue(cache.get("key-2").isEmpty());
+    }
+
+    @Test
+    void shouldEvictEntries_whenTtlExpires() {
+        final var cache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(5), 10), clock);
+        cache.put("key-1", 1, "hash-1");
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertTrue(cache.get("key-1").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictOldestEntry_whenMaxEntriesIsExceeded() {
+        final var cache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(5), 2), clock);
+
+        cache.put("key-1", 1, "hash-1");
+        cache.put("key-2", 2, "hash-2");
+        cache.put("key-3", 3, "hash-3");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("key-1").isEmpty());
+        assertEquals(3, cache.get("key-3").orElseThrow().dispatchId());
+    }
+
+    @Test
+    void shouldReplayOnlyTheRequestThatStoredTheKey() {
+        final var stored = new IdempotencyCache.Stored(1, "hash-1");
+
+        assertEquals(1, stored.replay("key-1", "hash-1"));
+        assertThrows(IdempotencyKeyReusedException.class, () -> stored.replay("key-1", "hash-2"));
+        assertEquals(1, new IdempotencyCache.Stored(1, null).replay("key-1", "hash-2"));
+    }
+
+    @Test
+    void shouldThrowException_whenMaxEntriesIsNotPositive() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(5), 0), clock)
+        );
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2026-01-06T12:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
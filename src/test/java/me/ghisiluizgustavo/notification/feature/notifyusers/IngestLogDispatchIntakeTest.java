@@ -0,0 +1,122 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.config.IngestProperties;
+import me.ghisiluizgustavo.notification.infrastructure.ingest.MappedSegmentIngestLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IngestLogDispatchIntakeTest {
+
+    private static final String GROUP = "fan-out";
+
+    @TempDir
+    Path directory;
+
+    private MappedSegmentIngestLog ingestLog;
+    private final NotificationFanOut fanOut = mock(NotificationFanOut.class);
+    private final List<Runnable> completions = new ArrayList<>();
+    private IngestLogDispatchIntake intake;
+
+    @BeforeEach
+    void setUp() {
+        ingestLog = new MappedSegmentIngestLog(directory, 4096, false);
+        final var properties = new IngestProperties(
+            true, directory, DataSize.ofKilobytes(4), false, GROUP, Duration.ofMillis(10), 16
+        );
+        intake = new IngestLogDispatchIntake(ingestLog, fanOut, properties);
+        doAnswer(invocation -> {
+            completions.add(invocation.getArgument(1));
+            return 1;
+        }).when(fanOut).deliver(any(DispatchMessage.class), any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestLog.close();
+    }
+
+    @Test
+    void shouldDeliverAppendedDispatch_withAudienceAndTemplate() {
+        intake.publish(new DispatchMessage(7, NotificationCategory.SPORTS, "Goal!", "game-alert",
+            Audience.parse("SPORTS AND NOT MOVIES WITH CHANNEL SMS")));
+
+        consumeOnce();
+
+        final var captor = ArgumentCaptor.forClass(DispatchMessage.class);
+        verify(fanOut).deliver(captor.capture(), any(Runnable.class));
+        final DispatchMessage delivered = captor.getValue();
+        assertEquals(7, delivered.dispatchId());
+        assertEquals("Goal!", delivered.content());
+        assertEquals("game-alert", delivered.template());
+        assertEquals("SPORTS AND NOT MOVIES WITH CHANNEL SMS", delivered.audience().expression());
+    }
+
+    @Test
+    void shouldCommitOffset_onlyOnceEarlierDispatchesHaveCompleted() {
+        intake.publish(new DispatchMessage(1, NotificationCategory.SPORTS, "first"));
+        intake.publish(new DispatchMessage(2, NotificationCategory.SPORTS, "second"));
+
+        consumeOnce();
+        assertEquals(2, completions.size());
+
+        completions.get(1).run();
+        assertEquals(0, ingestLog.committed(GROUP));
+
+        completions.get(0).run();
+        assertEquals(ingestLog.endOffset(), ingestLog.committed(GROUP));
+    }
+
+    @Test
+    void shouldRedeliverUncommittedDispatch_afterRestart() {
+        intake.publish(new DispatchMessage(1, NotificationCategory.SPORTS, "first"));
+        consumeOnce();
+
+        final var restarted = new IngestLogDispatchIntake(ingestLog, fanOut, new IngestProperties(
+            true, directory, DataSize.ofKilobytes(4), false, GROUP, Duration.ofMillis(10), 16
+        ));
+        consumeOnce(restarted);
+
+        verify(fanOut, times(2)).deliver(any(DispatchMessage.class), any(Runnable.class));
+    }
+
+    @Test
+    void shouldReportBacklogAge_untilConsumerReadsTheRecord() throws InterruptedException {
+        assertEquals(Duration.ZERO, intake.backlogAge());
+        intake.publish(new DispatchMessage(1, NotificationCategory.SPORTS, "first"));
+        Thread.sleep(20);
+
+        assertTrue(intake.backlogAge().compareTo(Duration.ofMillis(20)) >= 0);
+
+        consumeOnce();
+        assertEquals(Duration.ZERO, intake.backlogAge());
+    }
+
+    private void consumeOnce() {
+        consumeOnce(intake);
+    }
+
+    private static void consumeOnce(IngestLogDispatchIntake intake) {
+        final Thread thread = Thread.ofPlatform().start(intake::consume);
+        try {
+            Thread.sleep(100);
+            intake.shutdown();
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
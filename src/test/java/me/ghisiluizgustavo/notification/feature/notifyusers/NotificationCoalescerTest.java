@@ -0,0 +1,150 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationCoalescerTest {
+
+    private DispatchIntake intake;
+    private DispatchRepository dispatchRepository;
+    private ScheduledExecutorService timer;
+
+    @BeforeEach
+    void setUp() {
+        intake = mock(DispatchIntake.class);
+        dispatchRepository = mock(DispatchRepository.class);
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void shouldNotCoalesce_whenCategoryHasNoWindow() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 10);
+
+        assertFalse(coalescer.offer(new DispatchMessage(1, NotificationCategory.FINANCIAL, "Rates changed"), false));
+    }
+
+    @Test
+    void shouldNotCoalesce_whenRequestIsUrgent() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 10);
+
+        assertFalse(coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Goal!"), true));
+    }
+
+    @Test
+    void shouldDeliverSingleDigest_whenMaxDigestSizeIsReached() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 3);
+
+        assertTrue(coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off"), false));
+        assertTrue(coalescer.offer(new DispatchMessage(2, NotificationCategory.SPORTS, "Goal!"), false));
+        verify(intake, never()).publish(any());
+
+        assertTrue(coalescer.offer(new DispatchMessage(3, NotificationCategory.SPORTS, "Full time"), false));
+
+        verify(intake, times(1)).publish(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off\nGoal!\nFull time"));
+    }
+
+    @Test
+    void shouldDeliverDigest_whenWindowElapses() {
+        final var coalescer = coalescer(Duration.ofMillis(50), 10);
+
+        coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off"), false);
+        coalescer.offer(new DispatchMessage(2, NotificationCategory.SPORTS, "Goal!"), false);
+
+        verify(intake, timeout(2000).times(1)).publish(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off\nGoal!"));
+    }
+
+    @Test
+    void shouldDeliverPendingDigests_whenFlushedOnShutdown() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 10);
+        coalescer.offer(new DispatchMessage(5, NotificationCategory.SPORTS, "Kick-off"), false);
+
+        coalescer.flushAll();
+
+        verify(intake, times(1)).publish(new DispatchMessage(5, NotificationCategory.SPORTS, "Kick-off"));
+    }
+
+    private NotificationCoalescer coalescer(Duration window, int maxDigestSize) {
+        final var properties = new CoalescingProperties(Map.of(
+            NotificationCategory.SPORTS, new CoalescingProperties.Window(window, maxDigestSize)
+        ));
+        return new NotificationCoalescer(intake, dispatchRepository, properties, timer);
+    }
+
+    @Test
+    void shouldKeepSeparateDigests_perTemplate() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 10);
+        coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off", "game-alert"), false);
+        coalescer.offer(new DispatchMessage(2, NotificationCategory.SPORTS, "Transfer news"), false);
+
+        coalescer.flushAll();
+
+        verify(intake, times(1)).publish(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off", "game-alert"));
+        verify(intake, times(1)).publish(new DispatchMessage(2, NotificationCategory.SPORTS, "Transfer news"));
+    }
+
+    @Test
+    void shouldHoldDispatches_untilTheirDigestIsPublished() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 2);
+        final var inOrder = inOrder(dispatchRepository, intake);
+
+        coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off"), false);
+        coalescer.offer(new DispatchMessage(2, NotificationCategory.SPORTS, "Goal!"), false);
+
+        inOrder.verify(dispatchRepository).holdUntil(eq(1), any());
+        inOrder.verify(dispatchRepository).holdUntil(eq(2), any());
+        inOrder.verify(intake).publish(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off\nGoal!"));
+        inOrder.verify(dispatchRepository).markAllDispatched(eq(List.of(1, 2)), any());
+    }
+
+    @Test
+    void shouldLeaveDispatchesHeld_whenDigestCannotBePublished() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 1);
+        doThrow(new IllegalStateException("Dispatch intake is shut down")).when(intake).publish(any());
+
+        assertTrue(coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off"), false));
+
+        verify(dispatchRepository, never()).markAllDispatched(any(), any());
+    }
+
+    @Test
+    void shouldNotCoalesce_whenDispatchCannotBeHeld() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 10);
+        when(dispatchRepository.holdUntil(eq(1), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertFalse(coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off"), false));
+    }
+
+    @Test
+    void shouldHandDigestToGivenDelivery_insteadOfIntake() {
+        final var coalescer = coalescer(Duration.ofMinutes(1), 2);
+        final List<DispatchMessage> delivered = new ArrayList<>();
+
+        coalescer.offer(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off"), false, delivered::add);
+        coalescer.offer(new DispatchMessage(2, NotificationCategory.SPORTS, "Goal!"), false, delivered::add);
+
+        assertEquals(List.of(new DispatchMessage(1, NotificationCategory.SPORTS, "Kick-off\nGoal!")), delivered);
+        verify(intake, never()).publish(any());
+        verifyNoInteractions(dispatchRepository);
+    }
+}
@@ -0,0 +1,343 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsRecorder;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryProperties;
+import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryCache;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitAlgorithm;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchBatchWriter;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationBatchWriter;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NotifyUsersBatchHandlerTest {
+
+    @Mock
+    private DispatchRepository dispatchRepository;
+
+    @Mock
+    private DispatchBatchWriter dispatchBatchWriter;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private DeferredDeliveryRepository deferredDeliveryRepository;
+
+    @Mock
+    private NotificationBatchWriter notificationBatchWriter;
+
+    @Mock
+    private ScheduledDispatchService scheduledDispatchService;
+
+    @Mock
+    private DelayedDeliveryQueue delayedDeliveryQueue;
+
+    @Mock
+    private DeliveryStatsRecorder deliveryStatsRecorder;
+
+    @Mock
+    private NotifyUsersHandler notifyUsersHandler;
+
+    @Mock
+    private EmailNotificationStrategy emailStrategy;
+
+    private final AudienceIndex audienceIndex = new AudienceIndex(List.of());
+    private final List<List<DispatchMessage>> published = new ArrayList<>();
+    private final List<Integer> notificationInserts = new ArrayList<>();
+    private final AtomicInteger nextDispatchId = new AtomicInteger(100);
+    private Duration backlogAge = Duration.ZERO;
+    private IdempotencyCache idempotencyCache;
+    private NotificationFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        when(emailStrategy.supports(NotificationType.EMAIL)).thenReturn(true);
+        idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofHours(1), 100));
+        fanOut = new NotificationFanOut(
+            deferredDeliveryRepository,
+            notificationBatchWriter,
+            audienceIndex,
+            List.of(emailStrategy),
+            (category, task) -> task.run(),
+            new DispatchProperties(1, 500, Duration.ofSeconds(5), 10_000, 16, Map.of(), Map.of()),
+            new QuietHoursIndex(List.of()),
+            delayedDeliveryQueue,
+            new TemplateRenderer(new TemplateProperties(160, Map.of())),
+            deliveryStatsRecorder,
+            new DeliveryLogSampler(new DeliveryLoggingProperties(0)),
+            new ChannelLimiters(
+                new ChannelLimitProperties(true, true, Duration.ofSeconds(30),
+                    new LimitSettings(LimitAlgorithm.Kind.VEGAS, 20, 2, 500, Duration.ofMillis(500), 2.0), Map.of()),
+                new SimpleMeterRegistry()
+            ),
+            new NotificationHistoryCache(notificationRepository, new HistoryProperties(100, 1000, Duration.ofSeconds(1), Duration.ofSeconds(2)))
+        );
+
+        doAnswer(invocation -> {
+            final List<DispatchEntityJpa> dispatches = invocation.getArgument(0);
+            dispatches.forEach(dispatch -> dispatch.setId(nextDispatchId.getAndIncrement()));
+            return null;
+        }).when(dispatchBatchWriter).insert(anyList());
+        doAnswer(invocation -> {
+            notificationInserts.add(invocation.getArgument(1));
+            return null;
+        }).when(notificationBatchWriter).insert(any(), anyInt());
+
+        audienceIndex.rebuild(List.of(
+            user(1, NotificationCategory.SPORTS),
+            user(2, NotificationCategory.SPORTS),
+            user(3, NotificationCategory.FINANCIAL)
+        ));
+    }
+
+    @Test
+    void shouldReportEachItemInOrder_whenSomeItemsAreInvalid() {
+        final BatchSubmission submission = handler(500).begin(null);
+
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Kick-off"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, " "));
+        submission.add(new NotificationRequest(NotificationCategory.FINANCIAL, "Rates", false, null, "missing"));
+        submission.reject("Invalid category 'X'");
+        submission.add(new NotificationRequest(NotificationCategory.FINANCIAL, "Rates"));
+        final BatchNotificationResponse response = submission.finish();
+
+        assertEquals(2, response.accepted());
+        assertEquals(3, response.rejected());
+        assertEquals(
+            List.of(BatchItemStatus.ACCEPTED, BatchItemStatus.REJECTED, BatchItemStatus.REJECTED,
+                BatchItemStatus.REJECTED, BatchItemStatus.ACCEPTED),
+            response.items().stream().map(BatchItemResult::status).toList()
+        );
+        for (int i = 0; i < response.items().size(); i++) {
+            assertEquals(i, response.items().get(i).index());
+        }
+        assertEquals("Content is required and cannot be blank", response.items().get(1).error());
+        assertEquals("Unknown template 'missing'", response.items().get(2).error());
+        assertEquals(100, response.items().get(0).dispatchId());
+        assertEquals(101, response.items().get(4).dispatchId());
+    }
+
+    @Test
+    void shouldStoreAndPublishOneChunkAtATime() {
+        final BatchSubmission submission = handler(2).begin(null);
+
+        for (int i = 0; i < 5; i++) {
+            submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Update " + i));
+        }
+        assertEquals(2, published.size());
+        submission.finish();
+
+        verify(dispatchBatchWriter, times(3)).insert(anyList());
+        verify(dispatchRepository, never()).save(any());
+        assertEquals(List.of(2, 2, 1), published.stream().map(List::size).toList());
+    }
+
+    @Test
+    void shouldFanOutThroughSharedBatches_whenDispatchesShareACategory() {
+        final BatchSubmission submission = handler(500).begin(null);
+
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Three"));
+        submission.add(new NotificationRequest(NotificationCategory.FINANCIAL, "Four"));
+        submission.finish();
+
+        assertEquals(List.of(6, 1), notificationInserts);
+        verify(emailStrategy, times(7)).send(any(User.class), any(Notification.class));
+    }
+
+    @Test
+    void shouldReplayStoredItems_whenBatchIsRetriedWithSameKey() {
+        final NotifyUsersBatchHandler handler = handler(500);
+
+        final BatchSubmission first = handler.begin("batch-1");
+        first.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        first.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        first.finish();
+
+        final BatchSubmission retry = handler.begin("batch-1");
+        retry.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        retry.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        retry.add(new NotificationRequest(NotificationCategory.SPORTS, "Three"));
+        final BatchNotificationResponse response = retry.finish();
+
+        assertEquals(2, response.replayed());
+        assertEquals(1, response.accepted());
+        assertEquals(100, response.items().get(0).dispatchId());
+        assertEquals(101, response.items().get(1).dispatchId());
+        assertEquals(102, response.items().get(2).dispatchId());
+        assertEquals(Integer.valueOf(102), idempotencyCache.get("batch-1:2").orElseThrow().dispatchId());
+    }
+
+    @Test
+    void shouldLookUpUncachedKeysInOneQuery() {
+        when(dispatchRepository.findAllByIdempotencyKeyIn(anyList())).thenReturn(List.of(
+            new DispatchEntityJpa(7, "batch-2:1", null, NotificationCategory.SPORTS, "Two", null, null,
+                LocalDateTime.now(), null, LocalDateTime.now())
+        ));
+        final BatchSubmission submission = handler(500).begin("batch-2");
+
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        final BatchNotificationResponse response = submission.finish();
+
+        verify(dispatchRepository, times(1)).findAllByIdempotencyKeyIn(List.of("batch-2:0", "batch-2:1"));
+        assertEquals(BatchItemStatus.ACCEPTED, response.items().get(0).status());
+        assertEquals(new BatchItemResult(1, BatchItemStatus.REPLAYED, 7, null), response.items().get(1));
+    }
+
+    @Test
+    void shouldRejectItem_whenRetriedKeyCarriesADifferentRequest() {
+        final NotifyUsersBatchHandler handler = handler(500);
+        final BatchSubmission first = handler.begin("batch-3");
+        first.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        first.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        first.finish();
+
+        final BatchSubmission retry = handler.begin("batch-3");
+        retry.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        retry.add(new NotificationRequest(NotificationCategory.SPORTS, "Changed"));
+        final BatchNotificationResponse response = retry.finish();
+
+        assertEquals(BatchItemStatus.REPLAYED, response.items().get(0).status());
+        assertEquals(BatchItemStatus.REJECTED, response.items().get(1).status());
+        assertEquals(0, response.accepted());
+    }
+
+    @Test
+    void shouldStoreItemsOneByOne_whenChunkInsertConflicts() {
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(dispatchBatchWriter).insert(anyList());
+        when(notifyUsersHandler.dispatch(any(), eq("batch-3:0"))).thenReturn(DispatchOutcome.replayed(5));
+        when(notifyUsersHandler.dispatch(any(), eq("batch-3:1"))).thenReturn(DispatchOutcome.accepted(6));
+        final BatchSubmission submission = handler(500).begin("batch-3");
+
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        final BatchNotificationResponse response = submission.finish();
+
+        assertEquals(new BatchItemResult(0, BatchItemStatus.REPLAYED, 5, null), response.items().get(0));
+        assertEquals(new BatchItemResult(1, BatchItemStatus.ACCEPTED, 6, null), response.items().get(1));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void shouldScheduleFutureItems_insteadOfPublishing() {
+        final LocalDateTime sendAt = LocalDateTime.now().plusHours(1);
+        final BatchSubmission submission = handler(500).begin(null);
+
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Later", false, sendAt, null));
+        submission.finish();
+
+        verify(scheduledDispatchService).schedule(100, sendAt);
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void shouldFailShedChunksAndReportRetryAfter_whenBacklogIsTooOld() {
+        final BatchSubmission submission = handler(2).begin(null);
+
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "One"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Two"));
+        backlogAge = Duration.ofMinutes(1);
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, "Three"));
+        submission.add(new NotificationRequest(NotificationCategory.SPORTS, " "));
+        final BatchNotificationResponse response = submission.finish();
+
+        assertEquals(2, response.accepted());
+        assertEquals(1, response.failed());
+        assertEquals(1, response.rejected());
+        assertEquals(BatchItemStatus.FAILED, response.items().get(2).status());
+        assertEquals(Duration.ofSeconds(3), submission.retryAfter());
+        verify(dispatchBatchWriter, times(1)).insert(anyList());
+    }
+
+    @Test
+    void shouldRejectIdempotencyKey_thatCannotBeSuffixed() {
+        assertThrows(IllegalArgumentException.class, () -> handler(500).begin("k".repeat(250)));
+    }
+
+    private NotifyUsersBatchHandler handler(int chunkSize) {
+        final DispatchIntake intake = new DispatchIntake() {
+            @Override
+            public void publish(DispatchMessage message) {
+                publishAll(List.of(message));
+            }
+
+            @Override
+            public void publishAll(List<DispatchMessage> messages) {
+                published.add(messages);
+                fanOut.deliverAll(messages);
+            }
+
+            @Override
+            public Duration backlogAge() {
+                return backlogAge;
+            }
+        };
+        return new NotifyUsersBatchHandler(
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            dispatchRepository,
+            dispatchBatchWriter,
+            idempotencyCache,
+            new NotificationCoalescer(intake, dispatchRepository, new CoalescingProperties(Map.of())),
+            intake,
+            scheduledDispatchService,
+            new TemplateRenderer(new TemplateProperties(160, Map.of())),
+            notifyUsersHandler,
+            new BatchProperties(10_000, chunkSize),
+            new AdmissionController(
+                new AdmissionProperties(true, new LimitSettings(LimitAlgorithm.Kind.GRADIENT, 20, 4, 200,
+                    Duration.ofMillis(500), 2.0), Duration.ofSeconds(30), 10_000, Duration.ofSeconds(3), Map.of()),
+                intake,
+                (category, task) -> task.run(),
+                new SimpleMeterRegistry()
+            )
+        );
+    }
+
+    private static User user(int id, NotificationCategory category) {
+        return new User(
+            id,
+            "User " + id,
+            "user" + id + "@test.com",
+            "+1-555-010" + id,
+            List.of(category),
+            List.of(NotificationType.EMAIL),
+            LocalDateTime.now(),
+            LocalDateTime.now()
+        );
+    }
+}
@@ -1,11 +1,23 @@
 package me.ghisiluizgustavo.notification.feature.notifyusers;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghisiluizgustavo.notification.domain.Notification;
 import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsRecorder;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryProperties;
+import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryCache;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
 import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationBatchWriter;
 import me.ghisiluizgustavo.notification.infrastructure.database.NotificationEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitAlgorithm;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
 import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRepository;
+import me.ghisiluizgustavo.user.domain.QuietHours;
 import me.ghisiluizgustavo.user.domain.User;
-import me.ghisiluizgustavo.user.infrastructure.database.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,12 +28,26 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +58,31 @@ class NotifyUsersHandlerTest {
     private NotificationRepository notificationRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private DeferredDeliveryRepository deferredDeliveryRepository;
+
+    @Mock
+    private NotificationBatchWriter notificationBatchWriter;
+
+    @Mock
+    private DispatchRepository dispatchRepository;
+
+    private final AudienceIndex audienceIndex = new AudienceIndex(List.of());
+
+    @Mock
+    private ScheduledDispatchService scheduledDispatchService;
+
+    @Mock
+    private DelayedDeliveryQueue delayedDeliveryQueue;
+
+    @Mock
+    private DeliveryStatsRecorder deliveryStatsRecorder;
+
+    private final QuietHoursIndex quietHoursIndex = new QuietHoursIndex(List.of());
+
+    private final TemplateRenderer templateRenderer = new TemplateRenderer(new TemplateProperties(
+        160,
+        Map.of("greeting", Map.of(NotificationType.EMAIL, "<p>Hi {{name}}</p><p>{{content}}</p>"))
+    ));
 
     @Mock
     private EmailNotificationStrategy emailStrategy;
@@ -46,16 +96,20 @@ class NotifyUsersHandlerTest {
     @InjectMocks
     private NotifyUsersHandler handler;
 
+    private AdmissionController admissionController;
+
+    @Captor
+    private ArgumentCaptor<Notification> notificationCaptor;
+
     @Captor
-    private ArgumentCaptor<NotificationEntityJpa> notificationCaptor;
+    private ArgumentCaptor<Runnable> releaseCaptor;
+
+    private final List<NotificationEntityJpa> written = new ArrayList<>();
 
     private List<User> testUsers;
 
     @BeforeEach
     void setUp() {
-        final var strategies = List.of(emailStrategy, smsStrategy, pushStrategy);
-        handler = new NotifyUsersHandler(notificationRepository, userRepository, strategies);
-
         when(emailStrategy.supports(NotificationType.EMAIL)).thenReturn(true);
         when(emailStrategy.supports(NotificationType.SMS)).thenReturn(false);
         when(emailStrategy.supports(NotificationType.PUSH)).thenReturn(false);
@@ -68,6 +122,68 @@ class NotifyUsersHandlerTest {
         when(pushStrategy.supports(NotificationType.EMAIL)).thenReturn(false);
         when(pushStrategy.supports(NotificationType.SMS)).thenReturn(false);
 
+        final List<NotificationStrategy> strategies = List.of(emailStrategy, smsStrategy, pushStrategy);
+        final var idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofHours(1), 100));
+        final DispatchScheduler inlineScheduler = (category, task) -> task.run();
+        final var dispatchProperties = new DispatchProperties(1, 500, Duration.ofSeconds(5), 10_000, 16, Map.of(), Map.of());
+        final var fanOut = new NotificationFanOut(
+            deferredDeliveryRepository,
+            notificationBatchWriter,
+            audienceIndex,
+            strategies,
+            inlineScheduler,
+            dispatchProperties,
+            quietHoursIndex,
+            delayedDeliveryQueue,
+            templateRenderer,
+            deliveryStatsRecorder,
+            new DeliveryLogSampler(new DeliveryLoggingProperties(1)),
+            new ChannelLimiters(
+                new ChannelLimitProperties(true, true, Duration.ofSeconds(30),
+                    new LimitSettings(LimitAlgorithm.Kind.VEGAS, 20, 2, 500, Duration.ofMillis(500), 2.0), Map.of()),
+                new SimpleMeterRegistry()
+            ),
+            new NotificationHistoryCache(notificationRepository, new HistoryProperties(100, 1000, Duration.ofSeconds(1), Duration.ofSeconds(2)))
+        );
+        final var coalescer = new NotificationCoalescer(fanOut::deliver, dispatchRepository, new CoalescingProperties(Map.of()));
+        admissionController = new AdmissionController(
+            new AdmissionProperties(
+                true,
+                new LimitSettings(LimitAlgorithm.Kind.AIMD, 1, 1, 1, Duration.ofSeconds(1), 2.0),
+                Duration.ofSeconds(30),
+                10_000,
+                Duration.ofSeconds(2),
+                Map.of()
+            ),
+            fanOut::deliver,
+            inlineScheduler,
+            new SimpleMeterRegistry()
+        );
+        handler = new NotifyUsersHandler(
+            dispatchRepository,
+            idempotencyCache,
+            coalescer,
+            fanOut::deliver,
+            scheduledDispatchService,
+            templateRenderer,
+            admissionController
+        );
+
+        doAnswer(invocation -> {
+            final Notification[] notifications = invocation.getArgument(0);
+            final int count = invocation.getArgument(1);
+            for (int i = 0; i < count; i++) {
+                written.add(NotificationEntityJpa.fromDomain(notifications[i]));
+            }
+            return null;
+        }).when(notificationBatchWriter).insert(any(), anyInt());
+
+        when(dispatchRepository.save(any(DispatchEntityJpa.class))).thenAnswer(invocation -> {
+            final DispatchEntityJpa dispatch = invocation.getArgument(0);
+            dispatch.setId(42);
+            return dispatch;
+        });
+
         testUsers = List.of(
             new User(
                 1,
@@ -94,7 +210,7 @@ class NotifyUsersHandlerTest {
 
     @Test
     void shouldNotifySubscribedUsers_whenCategoryMatchesSubscription() {
-        when(userRepository.findAll()).thenReturn(testUsers);
+        audienceIndex.rebuild(testUsers);
 
         final var request = new NotificationRequest(
             NotificationCategory.SPORTS,
@@ -106,12 +222,12 @@ class NotifyUsersHandlerTest {
         verify(emailStrategy, times(1)).send(any(User.class), any());
         verify(pushStrategy, times(1)).send(any(User.class), any());
         verify(smsStrategy, never()).send(any(User.class), any());
-        verify(notificationRepository, times(2)).save(any(NotificationEntityJpa.class));
+        assertEquals(2, written.size());
     }
 
     @Test
     void shouldNotNotifyUsers_whenNoUsersSubscribedToCategory() {
-        when(userRepository.findAll()).thenReturn(testUsers);
+        audienceIndex.rebuild(testUsers);
 
         final var request = new NotificationRequest(
             NotificationCategory.MOVIES,
@@ -123,7 +239,7 @@ class NotifyUsersHandlerTest {
         verify(emailStrategy, never()).send(any(User.class), any());
         verify(smsStrategy, never()).send(any(User.class), any());
         verify(pushStrategy, never()).send(any(User.class), any());
-        verify(notificationRepository, never()).save(any());
+        assertTrue(written.isEmpty());
     }
 
     @Test
@@ -139,7 +255,7 @@ class NotifyUsersHandlerTest {
             LocalDateTime.now()
         );
 
-        when(userRepository.findAll()).thenReturn(List.of(multiChannelUser));
+        audienceIndex.rebuild(List.of(multiChannelUser));
 
         final var request = new NotificationRequest(
             NotificationCategory.SPORTS,
@@ -151,12 +267,12 @@ class NotifyUsersHandlerTest {
         verify(emailStrategy, times(1)).send(eq(multiChannelUser), any());
         verify(smsStrategy, times(1)).send(eq(multiChannelUser), any());
         verify(pushStrategy, times(1)).send(eq(multiChannelUser), any());
-        verify(notificationRepository, times(3)).save(any(NotificationEntityJpa.class));
+        assertEquals(3, written.size());
     }
 
     @Test
     void shouldSaveNotificationWithCorrectStatus_whenSendSucceeds() {
-        when(userRepository.findAll()).thenReturn(List.of(testUsers.getFirst()));
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
         doNothing().when(emailStrategy).send(any(), any());
 
         final var request = new NotificationRequest(
@@ -166,15 +282,13 @@ class NotifyUsersHandlerTest {
 
         handler.handle(request);
 
-        verify(notificationRepository, atLeastOnce()).save(notificationCaptor.capture());
-
-        final var savedNotification = notificationCaptor.getValue();
+        final var savedNotification = written.getLast();
         assertEquals("SENT", savedNotification.getStatus().name());
     }
 
     @Test
     void shouldSaveNotificationWithFailedStatus_whenSendThrowsException() {
-        when(userRepository.findAll()).thenReturn(List.of(testUsers.getFirst()));
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
         doThrow(new RuntimeException("Send failed")).when(emailStrategy).send(any(), any());
 
         final var request = new NotificationRequest(
@@ -184,10 +298,294 @@ class NotifyUsersHandlerTest {
 
         handler.handle(request);
 
-        verify(notificationRepository, atLeastOnce()).save(notificationCaptor.capture());
-        
-        final var savedNotifications = notificationCaptor.getAllValues();
+        final var savedNotifications = written;
         assertTrue(savedNotifications.stream()
             .anyMatch(n -> "FAILED".equals(n.getStatus().name())));
     }
+
+    @Test
+    void shouldRetryRecordingDeliveries_whenTheWriteFails() {
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
+        doThrow(new QueryTimeoutException("timeout"))
+            .doAnswer(invocation -> {
+                written.add(NotificationEntityJpa.fromDomain(((Notification[]) invocation.getArgument(0))[0]));
+                return null;
+            })
+            .when(notificationBatchWriter).insert(any(), anyInt());
+
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"));
+
+        verify(emailStrategy, times(1)).send(any(), any());
+        assertEquals(1, written.size());
+        assertEquals("SENT", written.getFirst().getStatus().name());
+    }
+
+    @Test
+    void shouldKeepSendOutcomes_whenRecordingDeliveriesKeepsFailing() {
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
+        doThrow(new QueryTimeoutException("timeout")).when(notificationBatchWriter).insert(any(), anyInt());
+
+        assertDoesNotThrow(() -> handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content")));
+
+        verify(notificationBatchWriter, times(3)).insert(any(), anyInt());
+        verify(emailStrategy, times(1)).send(any(), any());
+        verify(deliveryStatsRecorder).record(NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT);
+    }
+
+    @Test
+    void shouldHandOverWholeBatch_whenStrategyBatchesRecipients() {
+        final var carol = new User(
+            3,
+            "Carol",
+            "carol@test.com",
+            "+1-555-0103",
+            List.of(NotificationCategory.SPORTS),
+            List.of(NotificationType.EMAIL),
+            LocalDateTime.now(),
+            LocalDateTime.now()
+        );
+        audienceIndex.rebuild(List.of(testUsers.getFirst(), carol));
+        when(emailStrategy.batchesRecipients()).thenReturn(true);
+        when(emailStrategy.maxBatchSize()).thenReturn(50);
+        final List<List<User>> handedOver = new ArrayList<>();
+        doAnswer(invocation -> {
+            handedOver.add(List.copyOf(invocation.<List<User>>getArgument(0)));
+            invocation.<ObjIntConsumer<Exception>>getArgument(2).accept(new RuntimeException("Mailbox full"), 1);
+            return null;
+        }).when(emailStrategy).sendAll(any(), any(), any());
+
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"));
+
+        assertEquals(List.of(List.of(testUsers.getFirst(), carol)), handedOver);
+        verify(emailStrategy, never()).send(any(User.class), any());
+        verify(pushStrategy, times(1)).send(any(User.class), any());
+        final Map<Integer, NotificationStatus> emailStatus = new HashMap<>();
+        written.stream()
+            .filter(n -> n.getType() == NotificationType.EMAIL)
+            .forEach(n -> emailStatus.put(n.getUserId(), n.getStatus()));
+        assertEquals(Map.of(1, NotificationStatus.SENT, 3, NotificationStatus.FAILED), emailStatus);
+    }
+
+    @Test
+    void shouldSplitHeldDeliveries_intoCallsOfAtMostMaxBatchSize() {
+        final var carol = new User(
+            3,
+            "Carol",
+            "carol@test.com",
+            "+1-555-0103",
+            List.of(NotificationCategory.SPORTS),
+            List.of(NotificationType.EMAIL),
+            LocalDateTime.now(),
+            LocalDateTime.now()
+        );
+        audienceIndex.rebuild(List.of(testUsers.getFirst(), carol));
+        when(emailStrategy.batchesRecipients()).thenReturn(true);
+        when(emailStrategy.maxBatchSize()).thenReturn(1);
+        final List<List<User>> handedOver = new ArrayList<>();
+        doAnswer(invocation -> {
+            handedOver.add(List.copyOf(invocation.<List<User>>getArgument(0)));
+            return null;
+        }).when(emailStrategy).sendAll(any(), any(), any());
+
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"));
+
+        assertEquals(List.of(List.of(testUsers.getFirst()), List.of(carol)), handedOver);
+        assertTrue(written.stream()
+            .filter(n -> n.getType() == NotificationType.EMAIL)
+            .allMatch(n -> n.getStatus() == NotificationStatus.SENT));
+    }
+
+    @Test
+    void shouldTagSavedNotificationsWithDispatchId() {
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
+
+        final var outcome = handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"));
+
+        assertEquals(42, outcome.dispatchId());
+        assertFalse(outcome.replayed());
+        assertFalse(written.isEmpty());
+        assertTrue(written.stream().allMatch(n -> n.getDispatchId() == 42));
+    }
+
+    @Test
+    void shouldNotFanOutAgain_whenIdempotencyKeyIsReplayed() {
+        audienceIndex.rebuild(testUsers);
+        final var request = new NotificationRequest(NotificationCategory.SPORTS, "Test content");
+
+        handler.handle(request, "retry-1");
+        final var replay = handler.handle(request, "retry-1");
+
+        assertTrue(replay.replayed());
+        assertEquals(42, replay.dispatchId());
+        verify(dispatchRepository, times(1)).save(any(DispatchEntityJpa.class));
+        verify(emailStrategy, times(1)).send(any(User.class), any());
+        assertEquals(2, written.size());
+    }
+
+    @Test
+    void shouldReplayFromDatabase_whenKeyIsNotCached() {
+        final var stored = DispatchEntityJpa.of("retry-2", NotificationCategory.SPORTS, "Test content");
+        stored.setId(7);
+        when(dispatchRepository.findByIdempotencyKey("retry-2")).thenReturn(Optional.of(stored));
+
+        final var outcome = handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"), "retry-2");
+
+        assertTrue(outcome.replayed());
+        assertEquals(7, outcome.dispatchId());
+        verify(dispatchRepository, never()).save(any());
+        verify(emailStrategy, never()).send(any(User.class), any());
+    }
+
+    @Test
+    void shouldRefuse_whenIdempotencyKeyIsReusedForDifferentRequest() {
+        audienceIndex.rebuild(testUsers);
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"), "retry-3");
+
+        assertThrows(
+            IdempotencyKeyReusedException.class,
+            () -> handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Other content"), "retry-3")
+        );
+        verify(dispatchRepository, times(1)).save(any(DispatchEntityJpa.class));
+    }
+
+    @Test
+    void shouldThrowException_whenIdempotencyKeyIsBlank() {
+        final var request = new NotificationRequest(NotificationCategory.SPORTS, "Test content");
+
+        assertThrows(IllegalArgumentException.class, () -> handler.handle(request, " "));
+        verify(dispatchRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldScheduleDispatch_whenSendAtIsInTheFuture() {
+        audienceIndex.rebuild(testUsers);
+        final var sendAt = LocalDateTime.now().plusHours(2);
+
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content", false, sendAt, null));
+
+        verify(dispatchRepository).save(argThat(dispatch ->
+            sendAt.equals(dispatch.getScheduledAt()) && dispatch.getDispatchedAt() == null));
+        verify(scheduledDispatchService).schedule(42, sendAt);
+        verify(emailStrategy, never()).send(any(User.class), any());
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void shouldSendImmediately_whenSendAtIsInThePast() {
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
+
+        handler.handle(new NotificationRequest(
+            NotificationCategory.SPORTS,
+            "Test content",
+            false,
+            LocalDateTime.now().minusMinutes(1),
+            null
+        ));
+
+        verify(scheduledDispatchService, never()).schedule(any(), any());
+        verify(emailStrategy, times(1)).send(any(User.class), any());
+    }
+
+    @Test
+    void shouldDeferDelivery_whenUserIsInQuietHoursForChannel() {
+        final var utcNow = LocalTime.now(ZoneOffset.UTC).withSecond(0).withNano(0);
+        final var sleepingUser = new User(
+            6,
+            "Frank",
+            "frank@test.com",
+            "+1-555-0106",
+            List.of(NotificationCategory.FINANCIAL),
+            List.of(NotificationType.EMAIL, NotificationType.SMS),
+            LocalDateTime.now(),
+            LocalDateTime.now(),
+            ZoneOffset.UTC,
+            new QuietHours(utcNow.minusHours(1), utcNow.plusHours(1), Set.of(NotificationType.SMS))
+        );
+        quietHoursIndex.rebuild(List.of(sleepingUser));
+        audienceIndex.rebuild(List.of(sleepingUser));
+        when(deferredDeliveryRepository.insert(any(Notification.class), any(Instant.class))).thenReturn(42);
+        when(deferredDeliveryRepository.claim(42)).thenReturn(true, false);
+
+        handler.handle(new NotificationRequest(NotificationCategory.FINANCIAL, "Rates changed"));
+
+        verify(emailStrategy, times(1)).send(eq(sleepingUser), any());
+        verify(smsStrategy, never()).send(any(User.class), any());
+        verify(deferredDeliveryRepository, times(1)).insert(notificationCaptor.capture(), any(Instant.class));
+        assertEquals(NotificationType.SMS, notificationCaptor.getValue().getType());
+        assertEquals(NotificationStatus.PENDING, notificationCaptor.getValue().getStatus());
+        assertEquals(1, written.size());
+        assertEquals(NotificationStatus.SENT, written.getFirst().getStatus());
+
+        verify(delayedDeliveryQueue, times(1)).defer(releaseCaptor.capture(), any(Instant.class));
+        releaseCaptor.getValue().run();
+        releaseCaptor.getValue().run();
+
+        verify(smsStrategy, times(1)).send(eq(sleepingUser), any());
+        verify(deferredDeliveryRepository, times(1)).complete(eq(42), eq(NotificationStatus.SENT), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldRenderTemplatePerChannelAndUser_whenTemplateIsRequested() {
+        audienceIndex.rebuild(List.of(testUsers.getFirst()));
+
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Game <tonight>", false, null, "greeting"));
+
+        final var contentByType = written.stream()
+            .collect(Collectors.toMap(NotificationEntityJpa::getType, NotificationEntityJpa::getContent));
+        assertEquals("<p>Hi Alice</p><p>Game &lt;tonight&gt;</p>", contentByType.get(NotificationType.EMAIL));
+        assertEquals("Game <tonight>", contentByType.get(NotificationType.PUSH));
+    }
+
+    @Test
+    void shouldThrowException_whenTemplateIsUnknown() {
+        final var request = new NotificationRequest(NotificationCategory.SPORTS, "Test content", false, null, "missing");
+
+        assertThrows(IllegalArgumentException.class, () -> handler.handle(request));
+        verify(dispatchRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldTargetAudienceExpression_limitedToRequestedChannels() {
+        audienceIndex.rebuild(testUsers);
+
+        handler.handle(new NotificationRequest(
+            NotificationCategory.FINANCIAL,
+            "Markets open",
+            false,
+            null,
+            null,
+            "financial or sports with channel SMS, PUSH"
+        ));
+
+        verify(emailStrategy, never()).send(any(User.class), any());
+        verify(pushStrategy, times(1)).send(argThat(user -> user.id() == 1), any());
+        verify(smsStrategy, times(1)).send(argThat(user -> user.id() == 2), any());
+        verify(dispatchRepository).save(argThat((DispatchEntityJpa dispatch) ->
+            "financial or sports with channel SMS, PUSH".equals(dispatch.getAudience())));
+    }
+
+    @Test
+    void shouldThrowException_whenAudienceExpressionIsInvalid() {
+        final var request = new NotificationRequest(
+            NotificationCategory.SPORTS, "Test content", false, null, null, "SPORTS AND"
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> handler.handle(request));
+        verify(dispatchRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldShedRequestWithoutStoringIt_whenIntakeIsAtItsLimit() {
+        try (AdmissionController.Ticket held = admissionController.admit(NotificationCategory.MOVIES)) {
+            final var request = new NotificationRequest(NotificationCategory.SPORTS, "Test content");
+
+            final var rejected = assertThrows(AdmissionRejectedException.class, () -> handler.handle(request));
+
+            assertEquals(Duration.ofSeconds(2), rejected.getRetryAfter());
+            verify(dispatchRepository, never()).save(any());
+        }
+
+        handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Test content"));
+        verify(dispatchRepository).save(any());
+    }
 }
@@ -0,0 +1,92 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.Notification;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.ProviderProperties;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderException;
+import me.ghisiluizgustavo.notification.infrastructure.http.ProviderHttpClient;
+import me.ghisiluizgustavo.notification.infrastructure.http.StubProviderServer;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.util.unit.DataSize;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderNotificationStrategyTest {
+
+    private final User user = new User(
+        1,
+        "Test User",
+        "test@email.com",
+        "+1-555-0100",
+        List.of(NotificationCategory.SPORTS),
+        List.of(NotificationType.values()),
+        LocalDateTime.now(),
+        LocalDateTime.now()
+    );
+
+    @ParameterizedTest
+    @EnumSource(NotificationType.class)
+    void shouldPostToProvider_whenEndpointIsConfigured(NotificationType channel) {
+        try (var provider = StubProviderServer.start()) {
+            final var client = providerClient(Map.of(channel, new ProviderProperties.Endpoint(provider.uri("/send"), null)));
+            final var strategy = strategy(channel, client);
+            final var notification = Notification.create(NotificationCategory.SPORTS, channel, "Test content");
+
+            strategy.send(user, notification);
+            StepVerifier.create(strategy.sendReactive(user, notification)).verifyComplete();
+
+            final String expected = expectedBody(channel);
+            assertEquals(List.of(expected, expected), provider.bodies());
+            client.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(NotificationType.class)
+    void shouldFail_whenProviderRejects(NotificationType channel) {
+        try (var provider = StubProviderServer.start().respondWith(500, "down")) {
+            final var client = providerClient(Map.of(channel, new ProviderProperties.Endpoint(provider.uri("/send"), null)));
+            final var strategy = strategy(channel, client);
+            final var notification = Notification.create(NotificationCategory.SPORTS, channel, "Test content");
+
+            assertThrows(ProviderException.class, () -> strategy.send(user, notification));
+            StepVerifier.create(strategy.sendReactive(user, notification)).verifyError(ProviderException.class);
+            client.shutdown();
+        }
+    }
+
+    static ProviderHttpClient providerClient(Map<NotificationType, ProviderProperties.Endpoint> endpoints) {
+        return new ProviderHttpClient(
+            new ProviderProperties(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                DataSize.ofKilobytes(8), endpoints),
+            JsonMapper.builder().build()
+        );
+    }
+
+    private static NotificationStrategy strategy(NotificationType channel, ProviderHttpClient client) {
+        return switch (channel) {
+            case EMAIL -> new EmailNotificationStrategy(client, EmailNotificationStrategyTest.smtpMailer(null));
+            case SMS -> new SmsNotificationStrategy(client);
+            case PUSH -> new PushNotificationStrategy(client);
+        };
+    }
+
+    private static String expectedBody(NotificationType channel) {
+        return switch (channel) {
+            case EMAIL -> "{\"to\":\"test@email.com\",\"name\":\"Test User\",\"subject\":\"SPORTS\",\"html\":\"Test content\"}";
+            case SMS -> "{\"to\":\"+1-555-0100\",\"text\":\"Test content\"}";
+            case PUSH -> "{\"userId\":1,\"title\":\"SPORTS\",\"body\":\"Test content\"}";
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.QuietHours;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuietHoursIndexTest {
+
+    private static final QuietHours NIGHT_SMS = new QuietHours(
+        LocalTime.of(22, 0),
+        LocalTime.of(7, 0),
+        Set.of(NotificationType.SMS)
+    );
+
+    @Test
+    void shouldReturnQuietHoursEnd_whenLocalTimeIsInsideWindow() {
+        final var index = new QuietHoursIndex(List.of(user(1, "America/New_York", NIGHT_SMS)));
+
+        final var snapshot = index.snapshot(Instant.parse("2026-01-07T04:30:00Z"));
+
+        assertEquals(Instant.parse("2026-01-07T12:00:00Z").getEpochSecond(), snapshot.quietUntil(1, NotificationType.SMS));
+    }
+
+    @Test
+    void shouldEndAtLocalEndTime_whenClocksChangeInsideWindow() {
+        final var index = new QuietHoursIndex(List.of(user(1, "America/New_York", NIGHT_SMS)));
+
+        final var springForward = index.snapshot(Instant.parse("2026-03-08T06:00:00Z"));
+        final var fallBack = index.snapshot(Instant.parse("2026-11-01T05:00:00Z"));
+
+        assertEquals(Instant.parse("2026-03-08T11:00:00Z").getEpochSecond(), springForward.quietUntil(1, NotificationType.SMS));
+        assertEquals(Instant.parse("2026-11-01T12:00:00Z").getEpochSecond(), fallBack.quietUntil(1, NotificationType.SMS));
+    }
+
+    @Test
+    void shouldAllowDelivery_whenLocalTimeIsOutsideWindow() {
+        final var index = new QuietHoursIndex(List.of(user(1, "America/New_York", NIGHT_SMS)));
+
+        final var snapshot = index.snapshot(Instant.parse("2026-01-07T18:00:00Z"));
+
+        assertEquals(0, snapshot.quietUntil(1, NotificationType.SMS));
+    }
+
+    @Test
+    void shouldAllowDelivery_whenChannelIsNotCoveredByQuietHours() {
+        final var index = new QuietHoursIndex(List.of(user(1, "America/New_York", NIGHT_SMS)));
+
+        final var snapshot = index.snapshot(Instant.parse("2026-01-07T04:30:00Z"));
+
+        assertEquals(0, snapshot.quietUntil(1, NotificationType.EMAIL));
+    }
+
+    @Test
+    void shouldShareBuckets_betweenUsersWithSamePreferences() {
+        final var index = new QuietHoursIndex(List.of(
+            user(1, "America/New_York", NIGHT_SMS),
+            user(2, "America/New_York", NIGHT_SMS),
+            user(3, "Europe/London", NIGHT_SMS),
+            user(4, "Europe/London", null)
+        ));
+
+        final var snapshot = index.snapshot(Instant.parse("2026-01-07T23:30:00Z"));
+
+        assertEquals(2, index.bucketCount());
+        assertEquals(0, snapshot.quietUntil(1, NotificationType.SMS));
+        assertEquals(Instant.parse("2026-01-08T07:00:00Z").getEpochSecond(), snapshot.quietUntil(3, NotificationType.SMS));
+        assertEquals(0, snapshot.quietUntil(4, NotificationType.SMS));
+        assertEquals(0, snapshot.quietUntil(99, NotificationType.SMS));
+    }
+
+    private User user(int id, String zone, QuietHours quietHours) {
+        return new User(
+            id,
+            "User " + id,
+            "user" + id + "@test.com",
+            "+1-555-010" + id,
+            List.of(NotificationCategory.SPORTS),
+            List.of(NotificationType.EMAIL, NotificationType.SMS),
+            LocalDateTime.now(),
+            LocalDateTime.now(),
+            ZoneId.of(zone),
+            quietHours
+        );
+    }
+}
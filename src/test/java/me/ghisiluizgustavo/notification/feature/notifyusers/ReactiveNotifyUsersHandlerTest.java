@@ -0,0 +1,243 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.feature.deliverystats.DeliveryStatsRecorder;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitAlgorithm;
+import me.ghisiluizgustavo.notification.infrastructure.concurrent.LimitSettings;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReactiveDispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.DeferredDeliveryRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.ReactiveNotificationRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReactiveNotifyUsersHandlerTest {
+
+    @Mock
+    private ReactiveNotificationRepository notificationRepository;
+
+    @Mock
+    private DeferredDeliveryRepository deferredDeliveryRepository;
+
+    @Mock
+    private ReactiveDispatchRepository dispatchRepository;
+
+    private final AudienceIndex audienceIndex = new AudienceIndex(List.of());
+
+    @Mock
+    private ScheduledDispatchService scheduledDispatchService;
+
+    @Mock
+    private DelayedDeliveryQueue delayedDeliveryQueue;
+
+    @Mock
+    private DeliveryStatsRecorder deliveryStatsRecorder;
+
+    @Mock
+    private ObjectProvider<ReactiveNotificationStrategy> reactiveStrategies;
+
+    @Mock
+    private EmailNotificationStrategy emailStrategy;
+
+    @Mock
+    private SmsNotificationStrategy smsStrategy;
+
+    private final TemplateRenderer templateRenderer = new TemplateRenderer(new TemplateProperties(160, Map.of()));
+
+    private final List<NotificationRow> savedRows = new ArrayList<>();
+
+    private ReactiveNotificationFanOut fanOut;
+
+    private ReactiveNotifyUsersHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(emailStrategy.supports(NotificationType.EMAIL)).thenReturn(true);
+        when(smsStrategy.supports(NotificationType.SMS)).thenReturn(true);
+        for (NotificationStrategy strategy : List.of(emailStrategy, smsStrategy)) {
+            when(strategy.sendReactive(any(User.class), any())).thenAnswer(invocation -> Mono.fromRunnable(
+                () -> strategy.send(invocation.getArgument(0), invocation.getArgument(1))));
+        }
+        when(reactiveStrategies.orderedStream()).thenReturn(Stream.empty());
+
+        fanOut = new ReactiveNotificationFanOut(
+            notificationRepository,
+            deferredDeliveryRepository,
+            audienceIndex,
+            List.of(emailStrategy, smsStrategy),
+            reactiveStrategies,
+            new DispatchProperties(1, 2, Duration.ofSeconds(5), 10_000, 16, Map.of(), Map.of()),
+            new QuietHoursIndex(List.of()),
+            delayedDeliveryQueue,
+            templateRenderer,
+            deliveryStatsRecorder,
+            new DeliveryLogSampler(new DeliveryLoggingProperties(1)),
+            new ChannelLimiters(
+                new ChannelLimitProperties(true, false, Duration.ofSeconds(30),
+                    new LimitSettings(LimitAlgorithm.Kind.VEGAS, 20, 2, 500, Duration.ofMillis(500), 2.0), Map.of()),
+                new SimpleMeterRegistry()
+            )
+        );
+        handler = new ReactiveNotifyUsersHandler(
+            dispatchRepository,
+            new IdempotencyCache(new IdempotencyProperties(Duration.ofHours(1), 100)),
+            new NotificationCoalescer(message -> { }, mock(DispatchRepository.class), new CoalescingProperties(Map.of())),
+            fanOut,
+            scheduledDispatchService,
+            templateRenderer,
+            new AdmissionController(
+                new AdmissionProperties(false, new LimitSettings(LimitAlgorithm.Kind.GRADIENT, 20, 4, 200,
+                    Duration.ofMillis(500), 2.0), Duration.ofSeconds(30), 10_000, Duration.ofSeconds(1), Map.of()),
+                message -> { },
+                (category, task) -> task.run(),
+                new SimpleMeterRegistry()
+            )
+        );
+
+        when(dispatchRepository.save(any(DispatchRow.class))).thenAnswer(invocation -> {
+            final DispatchRow row = invocation.getArgument(0);
+            return Mono.just(new DispatchRow(42, row.idempotencyKey(), row.requestHash(), row.category(), row.content(),
+                row.template(), row.audience(), row.createdAt(), row.scheduledAt(), row.dispatchedAt()));
+        });
+        when(dispatchRepository.findByIdempotencyKey(any())).thenReturn(Mono.empty());
+        when(notificationRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            final Iterable<NotificationRow> rows = invocation.getArgument(0);
+            rows.forEach(savedRows::add);
+            return Flux.fromIterable(rows);
+        });
+        audienceIndex.rebuild(List.of(
+            user(1, List.of(NotificationCategory.SPORTS), List.of(NotificationType.EMAIL, NotificationType.SMS)),
+            user(2, List.of(NotificationCategory.SPORTS), List.of(NotificationType.EMAIL)),
+            user(3, List.of(NotificationCategory.FINANCIAL), List.of(NotificationType.SMS))
+        ));
+    }
+
+    @Test
+    void shouldDeliverToSubscribedUsersAndPersistInBatches() {
+        final var message = new DispatchMessage(42, NotificationCategory.SPORTS, "Kick-off");
+
+        StepVerifier.create(fanOut.deliver(message))
+            .expectNext(3L)
+            .verifyComplete();
+
+        verify(emailStrategy, times(2)).send(any(User.class), any());
+        verify(smsStrategy, times(1)).send(any(User.class), any());
+        verify(notificationRepository, times(2)).saveAll(anyIterable());
+        assertTrue(savedRows.stream().allMatch(row -> row.status() == NotificationStatus.SENT));
+        assertTrue(savedRows.stream().allMatch(row -> row.dispatchId() == 42));
+    }
+
+    @Test
+    void shouldMarkDeliveryFailed_whenStrategyThrows() {
+        doThrow(new RuntimeException("provider down")).when(smsStrategy).send(any(User.class), any());
+        final var message = new DispatchMessage(42, NotificationCategory.SPORTS, "Kick-off");
+
+        StepVerifier.create(fanOut.deliver(message))
+            .expectNext(3L)
+            .verifyComplete();
+
+        assertEquals(1, savedRows.stream().filter(row -> row.status() == NotificationStatus.FAILED).count());
+    }
+
+    @Test
+    void shouldAcceptRequest_andPersistDispatch() {
+        final var request = new NotificationRequest(NotificationCategory.FINANCIAL, "Rates up");
+
+        StepVerifier.create(handler.handle(request, null))
+            .expectNext(DispatchOutcome.accepted(42))
+            .verifyComplete();
+
+        verify(dispatchRepository).save(any(DispatchRow.class));
+    }
+
+    @Test
+    void shouldReplay_whenIdempotencyKeyAlreadyStored() {
+        final var request = new NotificationRequest(NotificationCategory.SPORTS, "Kick-off");
+        final var stored = DispatchRow.of("key-1", request.fingerprint(), NotificationCategory.SPORTS, "Kick-off",
+            null, null, null);
+        when(dispatchRepository.findByIdempotencyKey("key-1")).thenReturn(Mono.just(new DispatchRow(
+            7, "key-1", stored.requestHash(), stored.category(), stored.content(), null, null, stored.createdAt(), null,
+            stored.dispatchedAt()
+        )));
+
+        StepVerifier.create(handler.handle(request, "key-1"))
+            .expectNext(DispatchOutcome.replayed(7))
+            .verifyComplete();
+        StepVerifier.create(handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Full time"), "key-1"))
+            .expectError(IdempotencyKeyReusedException.class)
+            .verify();
+
+        verify(dispatchRepository, never()).save(any(DispatchRow.class));
+    }
+
+    @Test
+    void shouldResolveConcurrentSubmission_whenUniqueKeyViolated() {
+        when(dispatchRepository.findByIdempotencyKey("key-2"))
+            .thenReturn(Mono.empty())
+            .thenReturn(Mono.just(new DispatchRow(9, "key-2", null, NotificationCategory.SPORTS, "Kick-off", null, null, null, null, null)));
+        when(dispatchRepository.save(any(DispatchRow.class)))
+            .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate key")));
+
+        StepVerifier.create(handler.handle(new NotificationRequest(NotificationCategory.SPORTS, "Kick-off"), "key-2"))
+            .expectNext(DispatchOutcome.replayed(9))
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldScheduleDispatch_whenSendAtInFuture() {
+        final LocalDateTime sendAt = LocalDateTime.now().plusHours(1);
+        final var request = new NotificationRequest(NotificationCategory.SPORTS, "Later", false, sendAt, null);
+
+        StepVerifier.create(handler.handle(request, null))
+            .expectNext(DispatchOutcome.accepted(42))
+            .verifyComplete();
+
+        verify(scheduledDispatchService).schedule(42, sendAt);
+        verify(emailStrategy, never()).send(any(User.class), any());
+        verify(smsStrategy, never()).send(any(User.class), any());
+    }
+
+    @Test
+    void shouldRejectUnknownTemplate() {
+        final var request = new NotificationRequest(NotificationCategory.SPORTS, "x", false, null, "missing");
+
+        StepVerifier.create(handler.handle(request, null))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+    }
+
+    private static User user(int id, List<NotificationCategory> categories, List<NotificationType> channels) {
+        return new User(id, "User " + id, "user" + id + "@test.com", "+1-555-010" + id,
+            categories, channels, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
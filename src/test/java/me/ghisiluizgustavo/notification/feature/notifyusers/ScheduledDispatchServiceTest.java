@@ -0,0 +1,113 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.PendingDispatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledDispatchServiceTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.now().minusMinutes(5);
+
+    @Mock
+    private DispatchRepository dispatchRepository;
+
+    @Mock
+    private DispatchIntake dispatchIntake;
+
+    private ScheduledDispatchService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void shouldMarkDispatched_onlyAfterPublishingToTheIntake() {
+        service = service();
+        dueDispatch();
+        when(dispatchRepository.claim(eq(7), eq(DUE), any())).thenReturn(1);
+
+        service.loadHorizon();
+
+        verify(dispatchRepository, timeout(2000)).markDispatched(eq(7), eq(DUE), any());
+        final InOrder inOrder = inOrder(dispatchRepository, dispatchIntake);
+        inOrder.verify(dispatchRepository).claim(eq(7), eq(DUE), any());
+        inOrder.verify(dispatchIntake).publish(new DispatchMessage(7, NotificationCategory.SPORTS, "Kick-off"));
+        inOrder.verify(dispatchRepository).markDispatched(eq(7), eq(DUE), any());
+    }
+
+    @Test
+    void shouldLeaveDispatchPending_whenTheIntakeRejectsIt() {
+        service = service();
+        dueDispatch();
+        when(dispatchRepository.claim(eq(7), eq(DUE), any())).thenReturn(1);
+        doThrow(new IllegalStateException("Dispatch intake is shut down")).when(dispatchIntake).publish(any());
+
+        service.loadHorizon();
+
+        verify(dispatchIntake, timeout(2000)).publish(any());
+        verify(dispatchRepository, never()).markDispatched(any(), any(), any());
+        verify(dispatchRepository, never()).markAllDispatched(any(), any());
+    }
+
+    @Test
+    void shouldNotPublish_whenAnotherInstanceClaimedTheDispatch() {
+        service = service();
+        dueDispatch();
+        when(dispatchRepository.claim(eq(7), eq(DUE), any())).thenReturn(0);
+
+        service.loadHorizon();
+
+        verify(dispatchRepository, timeout(2000)).claim(eq(7), eq(DUE), any());
+        verifyNoInteractions(dispatchIntake);
+    }
+
+    @Test
+    void shouldLoadTheSameWindowAgain_whenTheQueryFails() {
+        service = service();
+        when(dispatchRepository.findPendingScheduledBetween(any(), any()))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenReturn(List.of());
+
+        service.loadHorizon();
+        service.loadHorizon();
+
+        final var from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(dispatchRepository, times(2)).findPendingScheduledBetween(from.capture(), any());
+        assertEquals(from.getAllValues().get(0), from.getAllValues().get(1));
+    }
+
+    private void dueDispatch() {
+        when(dispatchRepository.findPendingScheduledBetween(any(), any()))
+            .thenReturn(List.of(new PendingDispatch(7, DUE)));
+        when(dispatchRepository.findById(7)).thenReturn(Optional.of(
+            DispatchEntityJpa.scheduled(null, null, NotificationCategory.SPORTS, "Kick-off", null, null, DUE)));
+    }
+
+    private ScheduledDispatchService service() {
+        return new ScheduledDispatchService(dispatchRepository, dispatchIntake,
+            new SchedulingProperties(Duration.ofMillis(100), 512, Duration.ofHours(1), Duration.ofMinutes(1),
+                Duration.ofMinutes(5)));
+    }
+}
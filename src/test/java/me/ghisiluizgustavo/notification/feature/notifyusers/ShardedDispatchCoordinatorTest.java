@@ -0,0 +1,213 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchEntityJpa;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchShard;
+import me.ghisiluizgustavo.notification.infrastructure.database.DispatchShardRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.InstanceLeaseRepository;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ShardedDispatchCoordinatorTest {
+
+    private static final int SHARDS = 16;
+
+    @Mock
+    private InstanceLeaseRepository leaseRepository;
+
+    @Mock
+    private DispatchShardRepository shardRepository;
+
+    @Mock
+    private DispatchRepository dispatchRepository;
+
+    @Mock
+    private NotificationFanOut fanOut;
+
+    @Captor
+    private ArgumentCaptor<List<User>> usersCaptor;
+
+    private ShardedDispatchCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new ShardedDispatchCoordinator(
+            leaseRepository,
+            shardRepository,
+            dispatchRepository,
+            fanOut,
+            new ShardingProperties(true, "node-a", SHARDS, Duration.ofSeconds(15), Duration.ofSeconds(5), Duration.ofMillis(500))
+        );
+        when(shardRepository.orphaned()).thenReturn(List.of());
+        when(shardRepository.pendingOwnedBy(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void shouldSplitDispatchAcrossLiveInstances_whenPublished() {
+        when(leaseRepository.live()).thenReturn(List.of("node-a", "node-b"));
+        coordinator.heartbeat();
+
+        coordinator.publish(new DispatchMessage(7, NotificationCategory.SPORTS, "Goal!"));
+
+        final var owners = ArgumentCaptor.forClass(String[].class);
+        verify(shardRepository).create(eq(7), owners.capture());
+        assertEquals(SHARDS, owners.getValue().length);
+        assertEquals(List.of("node-a", "node-b"), Arrays.stream(owners.getValue()).distinct().sorted().toList());
+        verify(leaseRepository).renew("node-a", Duration.ofSeconds(15));
+    }
+
+    @Test
+    void shouldDeliverOnlyUsersOfClaimedShard_andCompleteIt() {
+        final var shard = new DispatchShard(7, 3, "node-a");
+        when(shardRepository.claim("node-a", SHARDS)).thenReturn(List.of(shard));
+        when(dispatchRepository.findById(7)).thenReturn(Optional.of(DispatchEntityJpa.of(null, NotificationCategory.SPORTS, "Goal!")));
+        when(fanOut.resolve(any())).thenReturn(users(500));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(2)).run();
+            return 0;
+        }).when(fanOut).deliver(any(DispatchMessage.class), anyList(), any(Runnable.class));
+
+        coordinator.poll();
+
+        verify(fanOut).deliver(any(DispatchMessage.class), usersCaptor.capture(), any(Runnable.class));
+        assertFalse(usersCaptor.getValue().isEmpty());
+        assertTrue(usersCaptor.getValue().stream().allMatch(user -> HashRing.shardOf(user.id(), SHARDS) == 3));
+        assertEquals(
+            IntStream.rangeClosed(1, 500).filter(userId -> HashRing.shardOf(userId, SHARDS) == 3).count(),
+            usersCaptor.getValue().size()
+        );
+        verify(shardRepository).complete(shard);
+    }
+
+    @Test
+    void shouldResolveAudienceOnce_forAllClaimedShardsOfDispatch() {
+        final List<DispatchShard> shards = IntStream.range(0, SHARDS).mapToObj(s -> new DispatchShard(7, s, "node-a")).toList();
+        when(shardRepository.claim("node-a", SHARDS)).thenReturn(shards);
+        when(dispatchRepository.findById(7)).thenReturn(Optional.of(DispatchEntityJpa.of(null, NotificationCategory.SPORTS, "Goal!")));
+        when(fanOut.resolve(any())).thenReturn(users(500));
+
+        coordinator.poll();
+
+        verify(fanOut, times(1)).resolve(any());
+        verify(dispatchRepository, times(1)).findById(7);
+        verify(fanOut, times(SHARDS)).deliver(any(DispatchMessage.class), usersCaptor.capture(), any(Runnable.class));
+        assertEquals(500, usersCaptor.getAllValues().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void shouldRetryCompletingShard_whenTheDeleteFails() {
+        final var shard = new DispatchShard(7, 3, "node-a");
+        when(shardRepository.claim("node-a", SHARDS)).thenReturn(List.of(shard));
+        when(dispatchRepository.findById(7)).thenReturn(Optional.of(DispatchEntityJpa.of(null, NotificationCategory.SPORTS, "Goal!")));
+        when(fanOut.resolve(any())).thenReturn(users(500));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(2)).run();
+            return 0;
+        }).when(fanOut).deliver(any(DispatchMessage.class), anyList(), any(Runnable.class));
+        doThrow(new RuntimeException("down")).doNothing().when(shardRepository).complete(shard);
+
+        assertDoesNotThrow(coordinator::poll);
+
+        verify(shardRepository, timeout(2000).times(2)).complete(shard);
+        verify(shardRepository, never()).release(shard);
+    }
+
+    @Test
+    void shouldReleaseFailedShard_andStillDeliverTheOthers() {
+        final var failing = new DispatchShard(7, 1, "node-a");
+        final var healthy = new DispatchShard(7, 2, "node-a");
+        when(shardRepository.claim("node-a", SHARDS)).thenReturn(List.of(failing, healthy));
+        when(dispatchRepository.findById(7)).thenReturn(Optional.of(DispatchEntityJpa.of(null, NotificationCategory.SPORTS, "Goal!")));
+        when(fanOut.resolve(any())).thenReturn(users(500));
+        doThrow(new IllegalStateException("Dispatch scheduler is shut down"))
+            .doReturn(1)
+            .when(fanOut).deliver(any(DispatchMessage.class), anyList(), any(Runnable.class));
+
+        coordinator.poll();
+
+        verify(shardRepository).release(failing);
+        verify(shardRepository, never()).release(healthy);
+        verify(fanOut, times(2)).deliver(any(DispatchMessage.class), anyList(), any(Runnable.class));
+    }
+
+    @Test
+    void shouldReleaseClaimedShards_whenDispatchCannotBeLoaded() {
+        final var shard = new DispatchShard(7, 3, "node-a");
+        when(shardRepository.claim("node-a", SHARDS)).thenReturn(List.of(shard));
+        when(dispatchRepository.findById(7)).thenThrow(new RuntimeException("down"));
+
+        coordinator.poll();
+
+        verify(shardRepository).release(shard);
+        verify(fanOut, never()).deliver(any(DispatchMessage.class), anyList(), any(Runnable.class));
+    }
+
+    @Test
+    void shouldMoveShardsOfExpiredInstance_toRingOwner() {
+        when(leaseRepository.live()).thenReturn(List.of("node-a"));
+        final var orphan = new DispatchShard(7, 5, "node-dead");
+        when(shardRepository.orphaned()).thenReturn(List.of(orphan));
+
+        coordinator.heartbeat();
+
+        verify(shardRepository).reassign(orphan, "node-a");
+    }
+
+    @Test
+    void shouldHandOverPendingShards_whenRingPlacesThemElsewhere() {
+        when(leaseRepository.live()).thenReturn(List.of("node-a", "node-b"));
+        final String[] owners = new HashRing(List.of("node-a", "node-b")).assign(SHARDS);
+        final int movedShard = IntStream.range(0, SHARDS).filter(s -> owners[s].equals("node-b")).findFirst().orElseThrow();
+        final int keptShard = IntStream.range(0, SHARDS).filter(s -> owners[s].equals("node-a")).findFirst().orElseThrow();
+        final var moved = new DispatchShard(7, movedShard, "node-a");
+        final var kept = new DispatchShard(7, keptShard, "node-a");
+        when(shardRepository.pendingOwnedBy("node-a")).thenReturn(List.of(moved, kept));
+
+        coordinator.heartbeat();
+
+        verify(shardRepository).reassign(moved, "node-b");
+        verify(shardRepository, never()).reassign(eq(kept), any());
+    }
+
+    @Test
+    void shouldKeepRunning_whenDatabaseIsUnavailable() {
+        doThrow(new RuntimeException("down")).when(leaseRepository).renew(any(), any());
+        when(shardRepository.claim(any(), anyInt())).thenThrow(new RuntimeException("down"));
+
+        assertDoesNotThrow(coordinator::heartbeat);
+        assertDoesNotThrow(coordinator::poll);
+    }
+
+    private static List<User> users(int count) {
+        return IntStream.rangeClosed(1, count)
+            .mapToObj(id -> new User(id, "User " + id, "user" + id + "@test.com", "+1-555-0100",
+                List.of(NotificationCategory.SPORTS), List.of(NotificationType.EMAIL), LocalDateTime.now(), LocalDateTime.now()))
+            .toList();
+    }
+}
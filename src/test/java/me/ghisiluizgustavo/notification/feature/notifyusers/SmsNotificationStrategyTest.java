@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,7 +19,7 @@ class SmsNotificationStrategyTest {
 
     @BeforeEach
     void setUp() {
-        strategy = new SmsNotificationStrategy();
+        strategy = new SmsNotificationStrategy(ProviderNotificationStrategyTest.providerClient(Map.of()));
     }
 
     @Test
@@ -0,0 +1,94 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.user.domain.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateRendererTest {
+
+    private final User user = new User(
+        1,
+        "Alice & Co",
+        "alice@test.com",
+        "+1-555-0101",
+        List.of(NotificationCategory.SPORTS),
+        List.of(NotificationType.EMAIL, NotificationType.SMS, NotificationType.PUSH),
+        LocalDateTime.now(),
+        LocalDateTime.now()
+    );
+
+    private final TemplateRenderer renderer = new TemplateRenderer(new TemplateProperties(
+        20,
+        Map.of("alert", Map.of(
+            NotificationType.EMAIL, "<b>{{category}}</b> for {{ name }}: {{content}}",
+            NotificationType.SMS, "{{name}}: {{content}}"
+        ))
+    ));
+
+    @Test
+    void shouldReturnRawContent_whenNoTemplateIsRequested() {
+        final var message = new DispatchMessage(1, NotificationCategory.SPORTS, "Big game");
+
+        assertEquals("Big game", renderer.render(message, NotificationType.EMAIL, user));
+    }
+
+    @Test
+    void shouldEscapeValues_whenRenderingEmailVariant() {
+        final var message = new DispatchMessage(1, NotificationCategory.SPORTS, "<script>", "alert");
+
+        assertEquals(
+            "<b>SPORTS</b> for Alice &amp; Co: &lt;script&gt;",
+            renderer.render(message, NotificationType.EMAIL, user)
+        );
+    }
+
+    @Test
+    void shouldTruncateSmsVariant_toConfiguredMaxLength() {
+        final var message = new DispatchMessage(1, NotificationCategory.SPORTS, "Big game tonight at 8 PM", "alert");
+
+        final String rendered = renderer.render(message, NotificationType.SMS, user);
+
+        assertEquals(20, rendered.length());
+        assertEquals("Alice & Co: Big game", rendered);
+    }
+
+    @Test
+    void shouldTruncateRawSmsContent_whenNoVariantApplies() {
+        final var raw = new DispatchMessage(1, NotificationCategory.SPORTS, "Big game tonight at 8 PM");
+        final var templated = new DispatchMessage(1, NotificationCategory.SPORTS, "Big game tonight at 8 PM", "unused");
+        final var renderer = new TemplateRenderer(new TemplateProperties(
+            20,
+            Map.of("unused", Map.of(NotificationType.EMAIL, "{{content}}"))
+        ));
+
+        assertEquals("Big game tonight at ", renderer.render(raw, NotificationType.SMS, user));
+        assertEquals("Big game tonight at ", renderer.render(templated, NotificationType.SMS, user));
+        assertEquals("Big game tonight at 8 PM", renderer.render(raw, NotificationType.PUSH, user));
+    }
+
+    @Test
+    void shouldFallBackToRawContent_whenChannelHasNoVariant() {
+        final var message = new DispatchMessage(1, NotificationCategory.SPORTS, "Big game", "alert");
+
+        assertEquals("Big game", renderer.render(message, NotificationType.PUSH, user));
+    }
+
+    @Test
+    void shouldThrowException_whenTemplateUsesUnknownPlaceholder() {
+        final var properties = new TemplateProperties(160, Map.of("bad", Map.of(NotificationType.PUSH, "{{surname}}")));
+
+        assertThrows(IllegalArgumentException.class, () -> new TemplateRenderer(properties));
+    }
+
+    @Test
+    void shouldThrowException_whenPlaceholderIsNotClosed() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Hi {{name", false, 160));
+    }
+}
@@ -0,0 +1,185 @@
+package me.ghisiluizgustavo.notification.feature.notifyusers;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedFairDispatchSchedulerTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+
+    private final DispatchProperties properties = new DispatchProperties(
+        1,
+        500,
+        Duration.ofSeconds(5),
+        100,
+        16,
+        Map.of(
+            NotificationCategory.FINANCIAL, DispatchPriority.HIGH,
+            NotificationCategory.MOVIES, DispatchPriority.LOW
+        ),
+        Map.of()
+    );
+
+    @Test
+    void shouldServeHighPriorityFirst_whenBothClassesAreBacklogged() {
+        final var scheduler = new WeightedFairDispatchScheduler(properties, nanoClock::get);
+        final List<String> executed = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            scheduler.submit(NotificationCategory.MOVIES, () -> executed.add("MOVIES"));
+        }
+        for (int i = 0; i < 9; i++) {
+            scheduler.submit(NotificationCategory.FINANCIAL, () -> executed.add("FINANCIAL"));
+        }
+
+        for (int i = 0; i < 9; i++) {
+            scheduler.poll().run();
+        }
+
+        assertEquals(8, executed.stream().filter("FINANCIAL"::equals).count());
+        assertEquals(1, executed.stream().filter("MOVIES"::equals).count());
+    }
+
+    @Test
+    void shouldReportOldestWaitAndQueuedBatches() {
+        final var scheduler = new WeightedFairDispatchScheduler(properties, nanoClock::get);
+        assertEquals(Duration.ZERO, scheduler.oldestWait());
+
+        scheduler.submit(NotificationCategory.MOVIES, () -> { });
+        nanoClock.addAndGet(Duration.ofSeconds(3).toNanos());
+        scheduler.submit(NotificationCategory.FINANCIAL, () -> { });
+        nanoClock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals(2, scheduler.queued());
+        assertEquals(Duration.ofSeconds(4), scheduler.oldestWait());
+        scheduler.poll();
+        assertEquals(1, scheduler.queued());
+    }
+
+    @Test
+    void shouldTellListeners_howLongEachBatchTook() throws InterruptedException {
+        final var scheduler = new WeightedFairDispatchScheduler(properties);
+        final CountDownLatch completed = new CountDownLatch(2);
+        final List<Boolean> failures = new ArrayList<>();
+        scheduler.addCompletionListener((latencyNanos, failed) -> {
+            synchronized (failures) {
+                failures.add(failed);
+            }
+            assertTrue(latencyNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+            completed.countDown();
+        });
+
+        scheduler.submit(NotificationCategory.SPORTS, () -> sleep(20));
+        scheduler.submit(NotificationCategory.SPORTS, () -> {
+            sleep(20);
+            throw new IllegalStateException("provider down");
+        });
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertEquals(List.of(false, true), failures);
+    }
+
+    @Test
+    void shouldKeepHighPriorityShare_whenBacklogHasWaitedPastMaxWait() {
+        final var scheduler = new WeightedFairDispatchScheduler(properties, nanoClock::get);
+        final List<String> executed = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            scheduler.submit(NotificationCategory.MOVIES, () -> executed.add("MOVIES"));
+        }
+        nanoClock.addAndGet(Duration.ofMinutes(2).toNanos());
+        for (int i = 0; i < 90; i++) {
+            scheduler.submit(NotificationCategory.FINANCIAL, () -> executed.add("FINANCIAL"));
+        }
+        nanoClock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        for (int i = 0; i < 45; i++) {
+            scheduler.poll().run();
+        }
+
+        assertEquals(40, executed.stream().filter("FINANCIAL"::equals).count());
+        assertEquals(5, executed.stream().filter("MOVIES"::equals).count());
+    }
+
+    @Test
+    void shouldGiveWaitingClassBoundedExtraShare_whenOthersAreFresh() {
+        final var scheduler = new WeightedFairDispatchScheduler(properties, nanoClock::get);
+        final List<String> executed = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            scheduler.submit(NotificationCategory.MOVIES, () -> executed.add("MOVIES"));
+        }
+        nanoClock.addAndGet(Duration.ofMinutes(2).toNanos());
+        for (int i = 0; i < 20; i++) {
+            scheduler.submit(NotificationCategory.FINANCIAL, () -> executed.add("FINANCIAL"));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.poll().run();
+        }
+
+        assertEquals(2, executed.stream().filter("MOVIES"::equals).count());
+        assertEquals("FINANCIAL", executed.getFirst());
+    }
+
+    @Test
+    void shouldWaitForRoom_whenClassQueueIsFull() throws InterruptedException {
+        final var scheduler = new WeightedFairDispatchScheduler(
+            new DispatchProperties(1, 500, Duration.ofSeconds(5), 1, 16, Map.of(), Map.of()), nanoClock::get);
+        scheduler.submit(NotificationCategory.SPORTS, () -> { });
+        final var submitted = new CountDownLatch(1);
+
+        Thread.ofVirtual().start(() -> {
+            scheduler.submit(NotificationCategory.SPORTS, () -> { });
+            submitted.countDown();
+        });
+
+        assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+        scheduler.poll();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, scheduler.depth(DispatchPriority.NORMAL));
+    }
+
+    @Test
+    void shouldTrackQueueDepthPerPriority() {
+        final var scheduler = new WeightedFairDispatchScheduler(properties, nanoClock::get);
+
+        scheduler.submit(NotificationCategory.SPORTS, () -> { });
+        scheduler.submit(NotificationCategory.MOVIES, () -> { });
+
+        assertEquals(1, scheduler.depth(DispatchPriority.NORMAL));
+        assertEquals(1, scheduler.depth(DispatchPriority.LOW));
+        assertEquals(0, scheduler.depth(DispatchPriority.HIGH));
+        assertNull(new WeightedFairDispatchScheduler(properties, nanoClock::get).poll());
+    }
+
+    @Test
+    void shouldRunSubmittedTasksOnWorkers() throws InterruptedException {
+        final var scheduler = new WeightedFairDispatchScheduler(properties);
+        final var latch = new CountDownLatch(3);
+
+        scheduler.submit(NotificationCategory.FINANCIAL, latch::countDown);
+        scheduler.submit(NotificationCategory.SPORTS, latch::countDown);
+        scheduler.submit(NotificationCategory.MOVIES, latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(NotificationCategory.SPORTS, () -> { }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
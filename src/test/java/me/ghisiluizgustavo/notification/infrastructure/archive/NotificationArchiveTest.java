@@ -0,0 +1,244 @@
+package me.ghisiluizgustavo.notification.infrastructure.archive;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.ArchiveProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.ArchivedRange;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationArchiveRepository;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationArchiveTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 9, 15, 30, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    private final RecordedRanges ranges = new RecordedRanges();
+
+    @Test
+    void shouldReadBackEveryColumn_newestFirst() {
+        final var archive = archive(directory);
+        final List<NotificationRow> rows = List.of(
+            new NotificationRow(3, NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT,
+                "Big game tonight!", 10, 7, T0, T0.plusSeconds(2)),
+            new NotificationRow(4, NotificationCategory.MOVIES, NotificationType.PUSH, NotificationStatus.FAILED,
+                "Estreia às 20h — não perca", 8, 7, T0.minusNanos(1_000), T0),
+            new NotificationRow(9, NotificationCategory.FINANCIAL, NotificationType.SMS, NotificationStatus.PENDING,
+                "", null, null, T0.plusDays(1), T0.plusDays(1)),
+            new NotificationRow(10, NotificationCategory.SPORTS, NotificationType.EMAIL, NotificationStatus.SENT,
+                "Big game tonight!", Integer.MAX_VALUE, 12, T0.plusDays(1), T0.plusDays(1).plusNanos(1_000))
+        );
+
+        archive.append(rows);
+
+        assertEquals(10, archive.archivedThrough());
+        assertEquals(rows.reversed(), archive.read(Integer.MAX_VALUE, 10));
+        assertEquals(List.of(rows.get(1), rows.get(0)), archive.read(9, 10));
+    }
+
+    @Test
+    void shouldPageAcrossFiles() {
+        final var archive = archive(directory);
+        archive.append(rows(1, 5));
+        archive.append(rows(6, 10));
+
+        final List<NotificationRow> page = archive.read(8, 4);
+
+        assertEquals(List.of(7, 6, 5, 4), page.stream().map(NotificationRow::id).toList());
+        assertEquals(List.of(2, 1), archive.read(3, 4).stream().map(NotificationRow::id).toList());
+        assertEquals(List.of(), archive.read(1, 4));
+    }
+
+    @Test
+    void shouldReadOnlyTheBlocksAPageCovers() {
+        final var archive = archive(directory);
+        final List<NotificationRow> rows = rows(1, 30);
+        archive.append(rows);
+
+        assertEquals(List.of(14, 13, 12, 11, 10, 9, 8), archive.read(15, 7).stream().map(NotificationRow::id).toList());
+        assertEquals(rows.reversed(), archive.read(Integer.MAX_VALUE, 100));
+        assertEquals(rows.get(28), archive.read(30, 1).getFirst());
+    }
+
+    @Test
+    void shouldRejectRowsAlreadyArchived() {
+        final var archive = archive(directory);
+        archive.append(rows(1, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> archive.append(rows(5, 8)));
+        assertThrows(IllegalArgumentException.class, () -> archive(directory.resolve("other"), new RecordedRanges(), 4)
+            .append(List.of(rows(2, 2).getFirst(), rows(1, 1).getFirst())));
+    }
+
+    @Test
+    void shouldSeeRangesRecordedByAnotherInstance_afterRefresh() {
+        final var writer = archive(directory);
+        final var reader = archive(directory);
+        assertEquals(0, reader.archivedThrough());
+
+        writer.append(rows(1, 5));
+
+        assertEquals(5, reader.archivedThrough());
+        assertEquals(5, reader.read(6, 1).getFirst().id());
+    }
+
+    @Test
+    void shouldFailToRead_whenFileOfARecordedRangeIsMissing() {
+        archive(directory.resolve("writer")).append(rows(1, 5));
+        final var reader = archive(directory.resolve("reader"));
+
+        assertEquals(5, reader.archivedThrough());
+        final var failure = assertThrows(IllegalStateException.class, () -> reader.read(6, 10));
+        assertTrue(failure.getMessage().contains("ids 1 to 5"), failure.getMessage());
+    }
+
+    @Test
+    void shouldDiscardTheFile_whenAnotherWriterRecordedTheRangeFirst() throws IOException {
+        final var raced = new RecordedRanges() {
+            @Override
+            public boolean recordRange(ArchivedRange range) {
+                return false;
+            }
+        };
+        final var archive = archive(directory, raced, 4);
+
+        assertThrows(IllegalStateException.class, () -> archive.append(rows(1, 5)));
+
+        assertEquals(0, archive.archivedThrough());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.filter(path -> path.toString().endsWith(ArchiveSegment.SUFFIX)).count());
+        }
+    }
+
+    @Test
+    void shouldRefuseToRead_whenFileIsCorrupt() throws IOException {
+        archive(directory).append(rows(1, 100));
+        final Path file;
+        try (var files = Files.list(directory)) {
+            file = files.filter(path -> path.toString().endsWith(ArchiveSegment.SUFFIX)).findFirst().orElseThrow();
+        }
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5a;
+        Files.write(file, bytes);
+
+        final var archive = archive(directory);
+        assertThrows(UncheckedIOException.class, () -> archive.read(Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    void shouldStoreFanOutOfSameContent_inAFewBytesPerRow() throws IOException {
+        final var archive = archive(directory, 4096);
+        final String content = "<p>Kick-off moved to 21:00. Tap to see the new line-ups and the referee appointed.</p>";
+        final List<NotificationRow> rows = IntStream.rangeClosed(1, 10_000)
+            .mapToObj(id -> new NotificationRow(id, NotificationCategory.SPORTS, NotificationType.values()[id % 3],
+                NotificationStatus.SENT, content, id / 3 + 1, 42, T0.plusNanos(id * 1_000L), T0.plusNanos(id * 1_000L)))
+            .toList();
+
+        archive.append(rows);
+
+        final long bytes;
+        try (var files = Files.list(directory)) {
+            bytes = files.filter(path -> path.toString().endsWith(ArchiveSegment.SUFFIX))
+                .mapToLong(path -> path.toFile().length())
+                .sum();
+        }
+        assertTrue(bytes < rows.size() * 2L, "archive took " + bytes + " bytes");
+        assertEquals(rows.get(4_321), archive.read(4_323, 1).getFirst());
+    }
+
+    @Test
+    void shouldListEveryIdOfARange() {
+        final var archive = archive(directory);
+        archive.append(rows(1, 5));
+        archive.append(rows(6, 10));
+
+        assertArrayEquals(new int[]{6, 7, 8, 9, 10}, archive.ids(new ArchivedRange(6, 10, 5)));
+    }
+
+    @Test
+    void shouldReportCreationTimeOfNewestArchivedRow() {
+        final var archive = archive(directory);
+        assertNull(archive.archivedUntil());
+
+        archive.append(rows(1, 5));
+        archive.append(rows(6, 7));
+
+        assertEquals(T0.plusMinutes(7), archive.archivedUntil());
+    }
+
+    @Test
+    void shouldStayEmptyAndOffDisk_whenDisabled() {
+        final Path unused = directory.resolve("disabled");
+        final var archive = new NotificationArchive(new ArchiveProperties(false, unused,
+            Duration.ofDays(90), 100, 10, Duration.ofHours(1), Duration.ZERO, 4, 2, Duration.ofMinutes(5)), ranges);
+
+        assertEquals(0, archive.archivedThrough());
+        assertEquals(List.of(), archive.read(Integer.MAX_VALUE, 10));
+        assertFalse(Files.exists(unused));
+        assertEquals(0, ranges.reads);
+    }
+
+    private NotificationArchive archive(Path directory) {
+        return archive(directory, ranges, 4);
+    }
+
+    private NotificationArchive archive(Path directory, int blockRows) {
+        return archive(directory, ranges, blockRows);
+    }
+
+    private static NotificationArchive archive(Path directory, NotificationArchiveRepository ranges, int blockRows) {
+        return new NotificationArchive(new ArchiveProperties(true, directory,
+            Duration.ofDays(90), 100, 10, Duration.ofHours(1), Duration.ZERO, blockRows, 2, Duration.ofMinutes(5)),
+            ranges);
+    }
+
+    private static List<NotificationRow> rows(int from, int to) {
+        return IntStream.rangeClosed(from, to)
+            .mapToObj(id -> new NotificationRow(id, NotificationCategory.SPORTS, NotificationType.EMAIL,
+                NotificationStatus.SENT, "Update " + id, id, 1, T0.plusMinutes(id), T0.plusMinutes(id)))
+            .toList();
+    }
+
+    /**
+     * The {@code archived_range} table, shared by every archive built on it.
+     */
+    private static class RecordedRanges extends NotificationArchiveRepository {
+
+        private final List<ArchivedRange> recorded = new ArrayList<>();
+        private int reads;
+
+        RecordedRanges() {
+            super(null);
+        }
+
+        @Override
+        public List<ArchivedRange> findRanges() {
+            reads++;
+            return List.copyOf(recorded);
+        }
+
+        @Override
+        public boolean recordRange(ArchivedRange range) {
+            if (!recorded.isEmpty() && recorded.getLast().maxId() >= range.minId()) {
+                return false;
+            }
+            return recorded.add(range);
+        }
+    }
+}
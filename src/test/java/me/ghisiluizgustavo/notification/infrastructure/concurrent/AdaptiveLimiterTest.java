@@ -0,0 +1,197 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void shouldRefusePermits_whenLimitIsReached() {
+        final var limiter = new AdaptiveLimiter(new AimdLimit(2, 1, 10, SLOW, 0.5));
+
+        final AdaptiveLimiter.Permit first = limiter.tryAcquire();
+        final AdaptiveLimiter.Permit second = limiter.tryAcquire();
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(limiter.tryAcquire());
+        first.close();
+        assertEquals(1, limiter.inFlight());
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldReleaseOnlyOnce_whenPermitIsReportedAndClosed() {
+        final var limiter = new AdaptiveLimiter(new AimdLimit(4, 1, 10, SLOW, 0.5));
+
+        final AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+        limiter.tryAcquire();
+        permit.dropped();
+        permit.close();
+
+        assertEquals(1, limiter.inFlight());
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void shouldGrowAimdLimitByOne_whileLimitIsInUse() {
+        final var aimd = new AimdLimit(10, 1, 12, SLOW, 0.9);
+
+        aimd.onSample(FAST, 2, false);
+        assertEquals(10, aimd.limit());
+
+        aimd.onSample(FAST, 5, false);
+        aimd.onSample(FAST, 9, false);
+        aimd.onSample(FAST, 12, false);
+        assertEquals(12, aimd.limit());
+    }
+
+    @Test
+    void shouldBackOffAimdLimit_whenSampleIsSlowOrDropped() {
+        final var aimd = new AimdLimit(10, 8, 20, SLOW, 0.9);
+
+        aimd.onSample(SLOW + 1, 10, false);
+        assertEquals(9, aimd.limit());
+
+        aimd.onSample(FAST, 9, true);
+        aimd.onSample(FAST, 8, true);
+        assertEquals(8, aimd.limit());
+    }
+
+    @Test
+    void shouldGrowGradientLimit_whileLatencyIsSteady() {
+        final var gradient = new GradientLimit(20, 4, 200, 2.0);
+
+        for (int i = 0; i < 100; i++) {
+            gradient.onSample(FAST, gradient.limit(), false);
+        }
+
+        assertEquals(200, gradient.limit());
+    }
+
+    @Test
+    void shouldNotGrowGradientLimit_whenLittleOfItIsUsed() {
+        final var gradient = new GradientLimit(20, 4, 200, 2.0);
+
+        for (int i = 0; i < 100; i++) {
+            gradient.onSample(FAST, 3, false);
+        }
+
+        assertEquals(20, gradient.limit());
+    }
+
+    @Test
+    void shouldShrinkGradientLimit_whenLatencyClimbs() {
+        final var gradient = new GradientLimit(100, 4, 200, 2.0);
+        for (int i = 0; i < 50; i++) {
+            gradient.onSample(FAST, 100, false);
+        }
+        final int before = gradient.limit();
+
+        for (int i = 0; i < 20; i++) {
+            gradient.onSample(FAST * 10, gradient.limit(), false);
+        }
+
+        assertTrue(gradient.limit() < before / 2, "limit " + gradient.limit() + " should have halved from " + before);
+        assertTrue(gradient.limit() >= 4);
+    }
+
+    @Test
+    void shouldQueueAcquirers_andGrantInArrivalOrder_whenPermitsAreReleased() {
+        final var limiter = new AdaptiveLimiter(new AimdLimit(1, 1, 1, SLOW, 0.5));
+        final AdaptiveLimiter.Permit held = limiter.acquire().join();
+
+        final CompletableFuture<AdaptiveLimiter.Permit> first = limiter.acquire();
+        final CompletableFuture<AdaptiveLimiter.Permit> second = limiter.acquire();
+        assertFalse(first.isDone());
+        assertEquals(2, limiter.queued());
+
+        held.succeeded();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+
+        first.join().close();
+        assertTrue(second.isDone());
+        assertEquals(0, limiter.queued());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    @Test
+    void shouldSkipCancelledWaiters() {
+        final var limiter = new AdaptiveLimiter(new AimdLimit(1, 1, 1, SLOW, 0.5));
+        final AdaptiveLimiter.Permit held = limiter.tryAcquire();
+        final CompletableFuture<AdaptiveLimiter.Permit> gaveUp = limiter.acquire();
+        final CompletableFuture<AdaptiveLimiter.Permit> waiting = limiter.acquire();
+
+        gaveUp.cancel(false);
+        held.close();
+
+        assertTrue(waiting.isDone());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    @Test
+    void shouldGrantQueuedAcquirers_whenLimitGrows() {
+        final var limiter = new AdaptiveLimiter(new AimdLimit(2, 1, 10, SLOW, 0.5));
+        final AdaptiveLimiter.Permit first = limiter.tryAcquire();
+        limiter.tryAcquire();
+        final CompletableFuture<AdaptiveLimiter.Permit> third = limiter.acquire();
+        final CompletableFuture<AdaptiveLimiter.Permit> fourth = limiter.acquire();
+
+        first.succeeded();
+
+        assertEquals(3, limiter.limit());
+        assertTrue(third.isDone());
+        assertTrue(fourth.isDone());
+        assertEquals(3, limiter.inFlight());
+    }
+
+    @Test
+    void shouldGrowVegasLimit_whileLatencyStaysAtItsMinimum() {
+        final var vegas = new VegasLimit(20, 2, 200);
+
+        for (int i = 0; i < 20; i++) {
+            vegas.onSample(FAST, vegas.limit(), false);
+        }
+
+        assertTrue(vegas.limit() > 60, "limit " + vegas.limit());
+    }
+
+    @Test
+    void shouldShrinkVegasLimit_whenRequestsQueueAtTheProvider() {
+        final var vegas = new VegasLimit(100, 2, 200);
+        vegas.onSample(FAST, 100, false);
+
+        for (int i = 0; i < 20; i++) {
+            vegas.onSample(FAST * 4, vegas.limit(), false);
+        }
+
+        assertTrue(vegas.limit() < 70, "limit " + vegas.limit());
+    }
+
+    @Test
+    void shouldBackOffVegasLimit_onErrors_evenWhenLittleIsInFlight() {
+        final var vegas = new VegasLimit(100, 2, 200);
+
+        vegas.onSample(FAST, 1, true);
+        vegas.onSample(FAST, 1, true);
+
+        assertEquals(96, vegas.limit());
+    }
+
+    @Test
+    void shouldRejectLimitSettings_whenInitialLimitIsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () ->
+            new LimitSettings(LimitAlgorithm.Kind.GRADIENT, 1, 4, 200, Duration.ofMillis(500), 2.0));
+        assertThrows(IllegalArgumentException.class, () ->
+            new LimitSettings(LimitAlgorithm.Kind.AIMD, 20, 4, 2, Duration.ofMillis(500), 2.0));
+    }
+}
@@ -0,0 +1,139 @@
+package me.ghisiluizgustavo.notification.infrastructure.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void shouldRejectSize_whenNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new RingBuffer<>(12, Cell::new, new WaitStrategy.BusySpin()));
+    }
+
+    @Test
+    void shouldHandOutEntriesInOrder_andReuseSlots() {
+        final var ring = new RingBuffer<>(4, Cell::new, new WaitStrategy.BusySpin());
+        final var consumer = ring.newConsumer();
+
+        for (long value = 0; value < 10; value++) {
+            final long sequence = ring.next();
+            ring.get(sequence).value = value;
+            ring.publish(sequence);
+
+            final long claimed = consumer.claim();
+            assertTrue(consumer.await(claimed));
+            assertEquals(value, ring.get(claimed).value);
+            consumer.release(claimed);
+        }
+        assertSame(ring.get(0), ring.get(4));
+        assertTrue(ring.isDrained());
+    }
+
+    @Test
+    void shouldRefuseToLapConsumer_whenRingIsFull() {
+        final var ring = new RingBuffer<>(2, Cell::new, new WaitStrategy.BusySpin());
+        final var consumer = ring.newConsumer();
+
+        ring.publish(ring.tryNext());
+        ring.publish(ring.tryNext());
+
+        assertEquals(-1, ring.tryNext());
+        assertEquals(2, ring.depth());
+
+        final long claimed = consumer.claim();
+        consumer.release(claimed);
+
+        assertEquals(2, ring.tryNext());
+    }
+
+    @Test
+    void shouldReportOldestPendingAge_untilReleased() {
+        final var ring = new RingBuffer<>(4, Cell::new, new WaitStrategy.BusySpin());
+        final var consumer = ring.newConsumer();
+        final long sequence = ring.next();
+        ring.publish(sequence);
+
+        assertEquals(1_000, ring.oldestPendingNanos(ring.publishedAt(sequence) + 1_000));
+
+        consumer.release(consumer.claim());
+
+        assertEquals(0, ring.oldestPendingNanos(System.nanoTime()));
+        assertEquals(0, ring.depth());
+    }
+
+    @Test
+    void shouldReleaseWaitingConsumer_whenHalted() throws InterruptedException {
+        final var ring = new RingBuffer<>(4, Cell::new, new WaitStrategy.Blocking());
+        final var consumer = ring.newConsumer();
+        final var result = new ArrayList<Boolean>();
+        final Thread thread = Thread.ofPlatform().start(() -> result.add(consumer.await(consumer.claim())));
+
+        ring.halt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(List.of(false), result);
+    }
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.Kind.class)
+    void shouldDeliverEveryEntryExactlyOnce_withConcurrentProducersAndConsumers(WaitStrategy.Kind kind)
+        throws InterruptedException {
+        final int producers = 2;
+        final int perProducer = 50_000;
+        final var ring = new RingBuffer<>(64, Cell::new, kind.create());
+        final var sum = new AtomicLong();
+        final var count = new AtomicLong();
+        final List<Thread> consumers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final var consumer = ring.newConsumer();
+            consumers.add(Thread.ofPlatform().start(() -> {
+                while (true) {
+                    final long sequence = consumer.claim();
+                    if (!consumer.await(sequence)) {
+                        return;
+                    }
+                    sum.addAndGet(ring.get(sequence).value);
+                    count.incrementAndGet();
+                    consumer.release(sequence);
+                }
+            }));
+        }
+
+        final List<Thread> publishers = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            publishers.add(Thread.ofPlatform().start(() -> {
+                for (long value = 1; value <= perProducer; value++) {
+                    final long sequence = ring.next();
+                    ring.get(sequence).value = value;
+                    ring.publish(sequence);
+                }
+            }));
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        while (!ring.isDrained()) {
+            Thread.onSpinWait();
+        }
+        ring.halt();
+        for (Thread consumer : consumers) {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertEquals((long) producers * perProducer, count.get());
+        assertEquals((long) producers * perProducer * (perProducer + 1) / 2, sum.get());
+    }
+
+    private static final class Cell {
+        private long value;
+    }
+}
@@ -0,0 +1,70 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumCodeConvertersTest {
+
+    @Test
+    void shouldKeepStoredCodes_whenEnumsChange() {
+        // Must match the CASE mappings in V9; stored rows depend on them
+        assertEquals(1, NotificationCategory.SPORTS.code());
+        assertEquals(2, NotificationCategory.FINANCIAL.code());
+        assertEquals(3, NotificationCategory.MOVIES.code());
+        assertEquals(1, NotificationType.EMAIL.code());
+        assertEquals(2, NotificationType.SMS.code());
+        assertEquals(3, NotificationType.PUSH.code());
+        assertEquals(1, NotificationStatus.PENDING.code());
+        assertEquals(2, NotificationStatus.SENT.code());
+        assertEquals(3, NotificationStatus.FAILED.code());
+    }
+
+    @Test
+    void shouldRoundTripEveryConstant_throughJpaConverters() {
+        final var categories = new EnumCodeConverters.CategoryConverter();
+        for (NotificationCategory category : NotificationCategory.values()) {
+            assertEquals(category, categories.convertToEntityAttribute(categories.convertToDatabaseColumn(category)));
+        }
+        final var types = new EnumCodeConverters.TypeConverter();
+        for (NotificationType type : NotificationType.values()) {
+            assertEquals(type, types.convertToEntityAttribute(types.convertToDatabaseColumn(type)));
+        }
+        final var statuses = new EnumCodeConverters.StatusConverter();
+        for (NotificationStatus status : NotificationStatus.values()) {
+            assertEquals(status, statuses.convertToEntityAttribute(statuses.convertToDatabaseColumn(status)));
+        }
+    }
+
+    @Test
+    void shouldMapNull_toNull() {
+        assertNull(new EnumCodeConverters.CategoryConverter().convertToDatabaseColumn(null));
+        assertNull(new EnumCodeConverters.StatusConverter().convertToEntityAttribute(null));
+    }
+
+    @Test
+    void shouldRoundTripEveryConstant_throughR2dbcConverters() {
+        for (NotificationCategory category : NotificationCategory.values()) {
+            assertEquals(category,
+                EnumCodeConverters.CategoryReader.INSTANCE.convert(EnumCodeConverters.CategoryWriter.INSTANCE.convert(category)));
+        }
+        for (NotificationType type : NotificationType.values()) {
+            assertEquals(type,
+                EnumCodeConverters.TypeReader.INSTANCE.convert(EnumCodeConverters.TypeWriter.INSTANCE.convert(type)));
+        }
+        for (NotificationStatus status : NotificationStatus.values()) {
+            assertEquals(status,
+                EnumCodeConverters.StatusReader.INSTANCE.convert(EnumCodeConverters.StatusWriter.INSTANCE.convert(status)));
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownCode() {
+        assertThrows(IllegalArgumentException.class, () -> NotificationCategory.fromCode((short) 0));
+        assertThrows(IllegalArgumentException.class, () -> NotificationType.fromCode((short) 4));
+        assertThrows(IllegalArgumentException.class, () -> NotificationStatus.fromCode((short) -1));
+    }
+}
@@ -0,0 +1,105 @@
+package me.ghisiluizgustavo.notification.infrastructure.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet lag;
+
+    private ReplicaLagMonitor monitor;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+
+        monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5));
+        dataSource = new ReplicaRoutingDataSource(primary, monitor);
+    }
+
+    @Test
+    void shouldUsePrimary_beforeReplicaHasBeenChecked() throws SQLException {
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void shouldUseReplica_whenLagWithinTolerance() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(1.5);
+
+        monitor.check();
+
+        assertTrue(monitor.isUsable());
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void shouldFallBackToPrimary_whenReplicaTooStale() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(0.0, 30.0);
+
+        monitor.check();
+        monitor.check();
+
+        assertFalse(monitor.isUsable());
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void shouldFallBackToPrimary_whenReplicaRefusesConnection() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(0.0);
+        monitor.check();
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(monitor.isUsable());
+    }
+
+    @Test
+    void shouldMarkReplicaUnavailable_whenLagQueryFails() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(0.0);
+        monitor.check();
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenThrow(new SQLException("recovery conflict"));
+
+        monitor.check();
+
+        assertFalse(monitor.isUsable());
+    }
+}
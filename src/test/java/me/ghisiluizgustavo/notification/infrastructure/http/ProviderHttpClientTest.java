@@ -0,0 +1,117 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.infrastructure.config.ProviderProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderHttpClientTest {
+
+    private final StubProviderServer provider = StubProviderServer.start();
+    private ProviderHttpClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        provider.close();
+    }
+
+    @Test
+    void shouldPostPayloadAsJson_withBearerToken() {
+        client = client(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(5), DataSize.ofKilobytes(8));
+
+        final ProviderResponse response = client.send(NotificationType.SMS, new Message("+1-555-0100", "Kick-off"));
+
+        assertEquals(202, response.status());
+        assertEquals("{\"id\":\"stub\"}", response.body());
+        assertEquals(List.of("{\"to\":\"+1-555-0100\",\"text\":\"Kick-off\"}"), provider.bodies());
+        assertEquals("Bearer secret", provider.lastAuthorization());
+    }
+
+    @Test
+    void shouldReuseOneConnection_forSequentialCalls() {
+        client = client(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(5), DataSize.ofKilobytes(8));
+
+        for (int i = 0; i < 200; i++) {
+            client.send(NotificationType.SMS, new Message("+1-555-0100", "Update " + i));
+        }
+
+        assertEquals(200, provider.requests());
+        assertEquals(1, provider.connections());
+    }
+
+    @Test
+    void shouldKeepConnectionsAlive_acrossConcurrentBursts() {
+        provider.latency(Duration.ofMillis(20));
+        client = client(HttpClient.Version.HTTP_2, Duration.ofSeconds(5), DataSize.ofKilobytes(8));
+
+        for (int burst = 0; burst < 5; burst++) {
+            CompletableFuture.allOf(IntStream.range(0, 20)
+                .mapToObj(i -> client.sendAsync(NotificationType.SMS, new Message("+1-555-0100", "Update " + i)))
+                .toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertEquals(100, provider.requests());
+        assertTrue(provider.connections() <= 20, provider.connections() + " connections for 5 bursts of 20");
+    }
+
+    @Test
+    void shouldFailWithStatusAndCappedBody_whenProviderRejects() {
+        provider.respondWith(503, "x".repeat(10_000));
+        client = client(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(5), DataSize.ofBytes(16));
+
+        final var e = assertThrows(ProviderException.class,
+            () -> client.send(NotificationType.SMS, new Message("+1-555-0100", "Kick-off")));
+
+        assertEquals(503, e.getStatus());
+        assertEquals(NotificationType.SMS, e.getChannel());
+        assertEquals("SMS provider answered 503: " + "x".repeat(16), e.getMessage());
+    }
+
+    @Test
+    void shouldTimeOut_whenProviderIsTooSlow() {
+        provider.latency(Duration.ofSeconds(2));
+        client = client(HttpClient.Version.HTTP_1_1, Duration.ofMillis(100), DataSize.ofKilobytes(8));
+
+        final var e = assertThrows(ProviderException.class,
+            () -> client.send(NotificationType.SMS, new Message("+1-555-0100", "Kick-off")));
+
+        assertEquals(0, e.getStatus());
+        assertInstanceOf(java.net.http.HttpTimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void shouldRefuse_whenChannelHasNoEndpoint() {
+        client = client(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(5), DataSize.ofKilobytes(8));
+
+        assertFalse(client.isConfigured(NotificationType.PUSH));
+        assertThrows(IllegalStateException.class, () -> client.send(NotificationType.PUSH, new Message("1", "Hi")));
+    }
+
+    private ProviderHttpClient client(HttpClient.Version version, Duration requestTimeout, DataSize maxResponseSize) {
+        final var properties = new ProviderProperties(
+            version,
+            Duration.ofSeconds(1),
+            requestTimeout,
+            maxResponseSize,
+            Map.of(NotificationType.SMS, new ProviderProperties.Endpoint(provider.uri("/sms"), "secret"))
+        );
+        return new ProviderHttpClient(properties, JsonMapper.builder().build());
+    }
+
+    private record Message(String to, String text) {
+    }
+}
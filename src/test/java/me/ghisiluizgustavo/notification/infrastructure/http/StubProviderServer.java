@@ -0,0 +1,122 @@
+package me.ghisiluizgustavo.notification.infrastructure.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An email, SMS or push provider stand-in on the loopback interface, for tests and benchmarks.
+ * It answers every POST with a configurable status, body and latency, and counts requests and
+ * the distinct client connections they arrived on, which shows whether connections are reused.
+ */
+public final class StubProviderServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private volatile int status = 202;
+    private volatile byte[] response = "{\"id\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+    private volatile Duration latency = Duration.ZERO;
+    private volatile boolean keepBodies = true;
+    private volatile String lastAuthorization;
+
+    private StubProviderServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static StubProviderServer start() {
+        try {
+            return new StubProviderServer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the stub provider", e);
+        }
+    }
+
+    public URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    public StubProviderServer respondWith(int status, String body) {
+        this.status = status;
+        this.response = body.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    public StubProviderServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Stops recording request bodies, e.g. for benchmarks that send many of them.
+     */
+    public StubProviderServer discardBodies() {
+        this.keepBodies = false;
+        return this;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int connections() {
+        return clientPorts.size();
+    }
+
+    public List<String> bodies() {
+        return List.copyOf(bodies);
+    }
+
+    public String lastAuthorization() {
+        return lastAuthorization;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            final byte[] body = in.readAllBytes();
+            requests.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (keepBodies) {
+                bodies.add(new String(body, StandardCharsets.UTF_8));
+            }
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            final byte[] answer = response;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, answer.length == 0 ? -1 : answer.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(answer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,134 @@
+package me.ghisiluizgustavo.notification.infrastructure.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedSegmentIngestLogTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadRecordsBack_inAppendOrder() {
+        try (var ingestLog = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            final long first = ingestLog.append(bytes("one"));
+            final long second = ingestLog.append(bytes("two"));
+
+            final List<IngestRecord> records = ingestLog.read(first, 10);
+
+            assertEquals(List.of("one", "two"), records.stream().map(r -> text(r.payload())).toList());
+            assertEquals(second, records.get(0).nextOffset());
+            assertEquals(ingestLog.endOffset(), records.get(1).nextOffset());
+            assertTrue(ingestLog.read(ingestLog.endOffset(), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldRollToNewSegment_whenRecordDoesNotFit() {
+        try (var ingestLog = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            for (int i = 0; i < 10; i++) {
+                ingestLog.append(new byte[200]);
+            }
+
+            assertEquals(10, ingestLog.read(0, 100).size());
+            assertTrue(segmentFiles() > 1);
+        }
+    }
+
+    @Test
+    void shouldResumeFromCommittedOffset_afterReopening() {
+        final long secondOffset;
+        try (var ingestLog = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            ingestLog.append(bytes("delivered"));
+            secondOffset = ingestLog.append(bytes("pending"));
+            ingestLog.commit("fan-out", secondOffset);
+        }
+
+        try (var reopened = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            final long committed = reopened.committed("fan-out");
+
+            assertEquals(secondOffset, committed);
+            assertEquals(List.of("pending"), reopened.read(committed, 10).stream().map(r -> text(r.payload())).toList());
+            assertEquals(0, reopened.committed("other-group"));
+        }
+    }
+
+    @Test
+    void shouldTruncateTornRecord_onRecovery() throws IOException {
+        final long tornOffset;
+        try (var ingestLog = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            ingestLog.append(bytes("intact"));
+            tornOffset = ingestLog.append(bytes("torn"));
+        }
+        try (var file = new RandomAccessFile(directory.resolve("%020d.log".formatted(0)).toFile(), "rw")) {
+            file.seek(tornOffset + 8);
+            file.write('X');
+        }
+
+        try (var reopened = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            assertEquals(tornOffset, reopened.endOffset());
+            assertEquals(1, reopened.read(0, 10).size());
+
+            final long next = reopened.append(bytes("after"));
+
+            assertEquals(tornOffset, next);
+            assertEquals(List.of("intact", "after"), reopened.read(0, 10).stream().map(r -> text(r.payload())).toList());
+        }
+    }
+
+    @Test
+    void shouldDeleteSegments_onceCommittedPast() throws IOException {
+        try (var ingestLog = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            for (int i = 0; i < 10; i++) {
+                ingestLog.append(new byte[200]);
+            }
+            final long segmentsBefore = segmentFiles();
+
+            ingestLog.commit("fan-out", ingestLog.endOffset());
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (segmentFiles() > 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(1, segmentFiles());
+            assertTrue(segmentsBefore > 1);
+            assertTrue(ingestLog.read(ingestLog.committed("fan-out"), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidGroupName() {
+        try (var ingestLog = new MappedSegmentIngestLog(directory, SEGMENT_BYTES, false)) {
+            assertThrows(IllegalArgumentException.class, () -> ingestLog.committed("../escape"));
+        }
+    }
+
+    private long segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).count();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package me.ghisiluizgustavo.notification.infrastructure.rest;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.feature.notifyusers.BatchSubmission;
+import me.ghisiluizgustavo.notification.feature.notifyusers.NotificationRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NotificationBatchReaderTest {
+
+    @Mock
+    private BatchSubmission submission;
+
+    private final NotificationBatchReader reader = new NotificationBatchReader(JsonMapper.builder().build());
+
+    @BeforeEach
+    void setUp() {
+        when(submission.maxItems()).thenReturn(10_000);
+    }
+
+    @Test
+    void shouldReadEveryElement_ofJsonArray() {
+        read("""
+            [{"category": "SPORTS", "content": "One"},
+             {"category": "MOVIES", "content": "Two", "sendAt": "2030-01-06T20:00:00", "urgent": true}]""");
+
+        final var requests = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(submission, times(2)).add(requests.capture());
+        assertEquals(NotificationCategory.SPORTS, requests.getAllValues().get(0).category());
+        assertEquals("Two", requests.getAllValues().get(1).content());
+        assertEquals(LocalDateTime.of(2030, 1, 6, 20, 0), requests.getAllValues().get(1).sendAt());
+        assertTrue(requests.getAllValues().get(1).isUrgent());
+        verify(submission, never()).reject(any());
+    }
+
+    @Test
+    void shouldReadOneRequestPerLine_ofNdjson() {
+        read("""
+            {"category": "SPORTS", "content": "One"}
+            {"category": "FINANCIAL", "content": "Two"}
+            {"category": "MOVIES", "content": "Three"}
+            """);
+
+        verify(submission, times(3)).add(any());
+    }
+
+    @Test
+    void shouldRejectItemAndContinue_whenFieldCannotBeBound() {
+        read("""
+            {"category": "SPORTS", "content": "One"}
+            {"category": "CHESS", "content": "Two"}
+            {"category": "MOVIES", "content": "Three", "sendAt": "tonight"}
+            {"category": "FINANCIAL", "content": "Four"}
+            """);
+
+        final InOrder order = inOrder(submission);
+        order.verify(submission).add(any());
+        order.verify(submission).reject("Invalid category 'CHESS'. Accepted values are: SPORTS, FINANCIAL, MOVIES");
+        order.verify(submission).reject(startsWith("Invalid notification:"));
+        order.verify(submission).add(any());
+    }
+
+    @Test
+    void shouldStopReading_whenJsonIsMalformed() {
+        read("""
+            {"category": "SPORTS", "content": "One"}
+            {"category": "SPORTS", "content": 
+            {"category": "MOVIES", "content": "Three"}
+            """);
+
+        verify(submission, times(1)).add(any());
+        verify(submission, times(1)).reject(startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void shouldStopReading_whenBatchIsFull() {
+        when(submission.isFull()).thenReturn(false, false, true);
+        when(submission.maxItems()).thenReturn(2);
+
+        read("""
+            [{"category": "SPORTS", "content": "One"},
+             {"category": "SPORTS", "content": "Two"},
+             {"category": "SPORTS", "content": "Three"},
+             {"category": "SPORTS", "content": "Four"}]""");
+
+        verify(submission, times(2)).add(any());
+        verify(submission).reject("Batch is limited to 2 items; the rest was not read");
+    }
+
+    @Test
+    void shouldReadNothing_whenBodyIsEmpty() {
+        read("");
+        read("[]");
+
+        verify(submission, never()).add(any());
+        verify(submission, never()).reject(any());
+    }
+
+    private void read(String body) {
+        reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), submission);
+    }
+}
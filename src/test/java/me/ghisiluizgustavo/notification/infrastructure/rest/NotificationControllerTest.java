@@ -0,0 +1,146 @@
+package me.ghisiluizgustavo.notification.infrastructure.rest;
+
+import me.ghisiluizgustavo.notification.domain.NotificationCategory;
+import me.ghisiluizgustavo.notification.domain.NotificationStatus;
+import me.ghisiluizgustavo.notification.domain.NotificationType;
+import me.ghisiluizgustavo.notification.feature.deliverystats.ListDeliveryStatsHandler;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryPage;
+import me.ghisiluizgustavo.notification.feature.listhistory.HistoryVersion;
+import me.ghisiluizgustavo.notification.feature.listhistory.ListNotificationHistoryHandler;
+import me.ghisiluizgustavo.notification.feature.listhistory.NotificationHistoryResponse;
+import me.ghisiluizgustavo.notification.feature.listhistory.SearchNotificationHistoryHandler;
+import me.ghisiluizgustavo.notification.feature.listhistory.VersionedHistory;
+import me.ghisiluizgustavo.notification.feature.notifyusers.NotifyUsersBatchHandler;
+import me.ghisiluizgustavo.notification.feature.notifyusers.NotifyUsersHandler;
+import me.ghisiluizgustavo.notification.infrastructure.config.IngestProperties;
+import me.ghisiluizgustavo.notification.infrastructure.database.NotificationHighWaterMark;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class NotificationControllerTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 1, 6, 14, 30);
+
+    private final ListNotificationHistoryHandler historyHandler = mock(ListNotificationHistoryHandler.class);
+    private final SearchNotificationHistoryHandler searchHandler = mock(SearchNotificationHistoryHandler.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        final var controller = new NotificationController(
+            mock(NotifyUsersHandler.class),
+            mock(NotifyUsersBatchHandler.class),
+            mock(NotificationBatchReader.class),
+            historyHandler,
+            searchHandler,
+            mock(ListDeliveryStatsHandler.class),
+            mock(IngestProperties.class)
+        );
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void shouldAnswerNotModified_withoutReadingRows_whenEtagMatches() throws Exception {
+        final var version = new HistoryVersion(new NotificationHighWaterMark(2, UPDATED), true);
+        when(historyHandler.version()).thenReturn(version);
+
+        mockMvc.perform(get("/api/v1/notification/logs").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+            .andExpect(content().string(""));
+
+        verify(historyHandler, never()).handleVersioned();
+        verify(historyHandler, never()).handleVersioned(any(), any());
+    }
+
+    @Test
+    void shouldReturnPageWithValidatorsAndNextLink_whenEtagIsStale() throws Exception {
+        final var version = new HistoryVersion(new NotificationHighWaterMark(2, UPDATED), true);
+        when(historyHandler.version()).thenReturn(version);
+        when(historyHandler.handleVersioned(null, 2))
+            .thenReturn(new VersionedHistory(version, new HistoryPage(List.of(row(2), row(1)), 2, 1)));
+
+        mockMvc.perform(get("/api/v1/notification/logs?limit=2").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-0\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(header().string(HttpHeaders.LINK,
+                "<http://localhost/api/v1/notification/logs?before=1&limit=2>; rel=\"next\""))
+            .andExpect(jsonPath("$[0].id").value(2))
+            .andExpect(jsonPath("$[1].id").value(1));
+    }
+
+    @Test
+    void shouldOmitValidators_whileHighWaterMarkIsUnsettled() throws Exception {
+        final var version = new HistoryVersion(new NotificationHighWaterMark(2, UPDATED), false);
+        when(historyHandler.version()).thenReturn(version);
+        when(historyHandler.handleVersioned()).thenReturn(new VersionedHistory(version, whole(row(2))));
+
+        mockMvc.perform(get("/api/v1/notification/logs").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void shouldReturnEveryRowUnpaged_whenNoPagingParameterIsGiven() throws Exception {
+        final var version = new HistoryVersion(new NotificationHighWaterMark(3, UPDATED), true);
+        when(historyHandler.version()).thenReturn(version);
+        when(historyHandler.handleVersioned()).thenReturn(new VersionedHistory(version, whole(row(3), row(2), row(1))));
+
+        mockMvc.perform(get("/api/v1/notification/logs"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.length()").value(3));
+
+        verify(historyHandler, never()).handleVersioned(any(), any());
+    }
+
+    @Test
+    void shouldSendValidatorsReadWithTheRows_notTheCachedOnes() throws Exception {
+        final var known = new HistoryVersion(new NotificationHighWaterMark(2, UPDATED), true);
+        final var read = new HistoryVersion(new NotificationHighWaterMark(3, UPDATED.plusSeconds(1)), true);
+        when(historyHandler.version()).thenReturn(known);
+        when(historyHandler.handleVersioned()).thenReturn(new VersionedHistory(read, whole(row(3))));
+
+        mockMvc.perform(get("/api/v1/notification/logs"))
+            .andExpect(status().isOk())
+            .andExpect(header().stringValues(HttpHeaders.ETAG, read.etag()))
+            .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void shouldSearchWithFilters_andLinkNextPage() throws Exception {
+        when(searchHandler.handle("big game", NotificationCategory.SPORTS, null, null,
+            LocalDateTime.of(2026, 1, 1, 0, 0), null, null, 1))
+            .thenReturn(new HistoryPage(List.of(row(2)), 1, 2));
+
+        mockMvc.perform(get("/api/v1/notification/search?q={q}&category=SPORTS&from=2026-01-01T00:00:00&limit=1", "big game"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK,
+                "<http://localhost/api/v1/notification/search?q=big%20game&category=SPORTS&from=2026-01-01T00:00:00&before=2&limit=1>; rel=\"next\""))
+            .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    private static HistoryPage whole(NotificationHistoryResponse... rows) {
+        return new HistoryPage(List.of(rows), Integer.MAX_VALUE, null);
+    }
+
+    private static NotificationHistoryResponse row(int id) {
+        return new NotificationHistoryResponse(id, NotificationCategory.SPORTS, NotificationType.EMAIL, "Update " + id,
+            NotificationStatus.SENT, 1, UPDATED, UPDATED);
+    }
+}
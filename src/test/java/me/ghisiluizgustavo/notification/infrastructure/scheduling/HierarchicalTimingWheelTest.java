@@ -0,0 +1,73 @@
+package me.ghisiluizgustavo.notification.infrastructure.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void shouldRejectItem_whenDeadlineIsAlreadyDue() {
+        final var wheel = new HierarchicalTimingWheel<String>(10, 8, 1_000);
+
+        assertFalse(wheel.schedule("late", 1_000));
+        assertFalse(wheel.schedule("past", 500));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldExpireItem_onlyOnceItsDeadlineIsReached() {
+        final var wheel = new HierarchicalTimingWheel<String>(10, 8, 0);
+        wheel.schedule("a", 50);
+
+        assertTrue(wheel.advance(40).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldCascadeItems_fromHigherLevels() {
+        final var wheel = new HierarchicalTimingWheel<String>(1, 4, 0);
+        wheel.schedule("far", 1_000);
+
+        assertTrue(wheel.advance(999).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("far"), wheel.advance(1_000));
+    }
+
+    @Test
+    void shouldExpireEveryItemAtItsOwnTick_withManyRandomDeadlines() {
+        final var wheel = new HierarchicalTimingWheel<Integer>(1, 8, 0);
+        final var random = new Random(42);
+        final Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            final long deadline = 1 + random.nextInt(50_000);
+            deadlines.put(i, deadline);
+            assertTrue(wheel.schedule(i, deadline));
+        }
+
+        final List<Integer> fired = new ArrayList<>();
+        for (long now = 1; now <= 50_000; now += 1 + random.nextInt(5)) {
+            for (Integer item : wheel.advance(now)) {
+                assertTrue(deadlines.get(item) <= now, "fired early");
+                assertTrue(deadlines.get(item) > now - 6, "fired late");
+                fired.add(item);
+            }
+        }
+        fired.addAll(wheel.advance(50_000));
+
+        assertEquals(10_000, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldThrowException_whenWheelSizeIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(10, 6, 0));
+    }
+}
@@ -0,0 +1,179 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+import me.ghisiluizgustavo.notification.infrastructure.config.SmtpProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpMailerTest {
+
+    private final StubSmtpServer relay = StubSmtpServer.start();
+    private SmtpMailer mailer;
+
+    @AfterEach
+    void tearDown() {
+        if (mailer != null) {
+            mailer.shutdown();
+        }
+        relay.close();
+    }
+
+    @Test
+    void shouldReuseOneConnection_forSequentialMessages() {
+        mailer = mailer(50, null, null);
+
+        for (int i = 0; i < 20; i++) {
+            mailer.send(new MailMessage("user" + i + "@example.com", "User " + i, "SPORTS", "Update " + i));
+        }
+
+        assertEquals(20, relay.transactions().size());
+        assertEquals(1, relay.connections());
+    }
+
+    @Test
+    void shouldSendIdenticalContentInSharedTransactions() {
+        mailer = mailer(2, null, null);
+        final List<MailMessage> messages = List.of(
+            new MailMessage("a@example.com", "A", "SPORTS", "Kick-off"),
+            new MailMessage("b@example.com", "B", "SPORTS", "Kick-off"),
+            new MailMessage("c@example.com", "C", "MOVIES", "Premiere"),
+            new MailMessage("d@example.com", "D", "SPORTS", "Kick-off")
+        );
+
+        mailer.sendAll(messages, (e, index) -> fail("message " + index + " failed: " + e.getMessage()));
+
+        final var transactions = relay.transactions();
+        assertEquals(3, transactions.size());
+        assertEquals(List.of("a@example.com", "b@example.com"), transactions.get(0).recipients());
+        assertEquals(List.of("d@example.com"), transactions.get(1).recipients());
+        assertEquals(List.of("c@example.com"), transactions.get(2).recipients());
+        assertTrue(transactions.get(0).data().contains("To: undisclosed-recipients:;\r\n"));
+        assertTrue(transactions.get(1).data().contains("To: \"D\" <d@example.com>\r\n"));
+        assertEquals("Kick-off", body(transactions.get(0).data()));
+    }
+
+    @Test
+    void shouldPipelineEnvelope_whenRelayOffersPipelining() {
+        mailer = mailer(50, null, null);
+
+        mailer.sendAll(IntStream.range(0, 10)
+            .mapToObj(i -> new MailMessage("user" + i + "@example.com", null, "SPORTS", "Kick-off"))
+            .toList(), (e, index) -> fail(e.getMessage()));
+
+        assertEquals(1, relay.transactions().size());
+        assertEquals(10, relay.transactions().getFirst().recipients().size());
+        assertEquals(1, relay.pipelinedEnvelopes());
+    }
+
+    @Test
+    void shouldSendCommandByCommand_whenRelayDoesNotOfferPipelining() {
+        relay.withoutPipelining();
+        mailer = mailer(50, null, null);
+
+        mailer.sendAll(List.of(
+            new MailMessage("a@example.com", null, "SPORTS", "Kick-off"),
+            new MailMessage("b@example.com", null, "SPORTS", "Kick-off")
+        ), (e, index) -> fail(e.getMessage()));
+
+        assertEquals(List.of("a@example.com", "b@example.com"), relay.transactions().getFirst().recipients());
+        assertEquals(0, relay.pipelinedEnvelopes());
+    }
+
+    @Test
+    void shouldFailOnlyRefusedRecipients() {
+        relay.rejectRecipient("gone@example.com");
+        mailer = mailer(50, null, null);
+        final Map<Integer, SmtpException> failures = new HashMap<>();
+
+        mailer.sendAll(List.of(
+            new MailMessage("a@example.com", null, "SPORTS", "Kick-off"),
+            new MailMessage("gone@example.com", null, "SPORTS", "Kick-off"),
+            new MailMessage("not an address", null, "SPORTS", "Kick-off"),
+            new MailMessage("b@example.com", null, "SPORTS", "Kick-off")
+        ), (e, index) -> failures.put(index, e));
+
+        assertEquals(List.of(1, 2), failures.keySet().stream().sorted().toList());
+        assertEquals(550, failures.get(1).getReplyCode());
+        assertEquals(List.of("a@example.com", "b@example.com"), relay.transactions().getFirst().recipients());
+    }
+
+    @Test
+    void shouldThrowAndKeepConnection_whenOnlyRecipientIsRefused() {
+        relay.rejectRecipient("gone@example.com");
+        mailer = mailer(50, null, null);
+
+        final var e = assertThrows(SmtpException.class,
+            () -> mailer.send(new MailMessage("gone@example.com", null, "SPORTS", "Kick-off")));
+        mailer.send(new MailMessage("a@example.com", null, "SPORTS", "Kick-off"));
+
+        assertEquals(550, e.getReplyCode());
+        assertEquals(1, relay.transactions().size());
+        assertEquals(1, relay.connections());
+    }
+
+    @Test
+    void shouldReconnectOnce_whenRelayDroppedPooledConnection() {
+        relay.dropAfterTransaction();
+        mailer = mailer(50, null, null);
+
+        mailer.send(new MailMessage("a@example.com", null, "SPORTS", "First"));
+        mailer.send(new MailMessage("b@example.com", null, "SPORTS", "Second"));
+
+        assertEquals(2, relay.transactions().size());
+        assertEquals(2, relay.connections());
+    }
+
+    @Test
+    void shouldAuthenticate_andEncodeNonAsciiHeaders() {
+        mailer = mailer(50, "mailer", "s3cret");
+
+        mailer.send(new MailMessage("a@example.com", "Zoë", "Ação", "<p>Olá</p>"));
+
+        assertEquals("mailer:s3cret", relay.credentials());
+        final String data = relay.transactions().getFirst().data();
+        assertTrue(data.contains("To: =?UTF-8?B?Wm/Dqw==?= <a@example.com>\r\n"), data);
+        assertTrue(data.contains("Subject: =?UTF-8?B?QcOnw6Nv?=\r\n"), data);
+        assertEquals("<p>Olá</p>", body(data));
+    }
+
+    @Test
+    void shouldFail_whenRelayIsUnreachable() throws IOException {
+        final int port;
+        try (var unused = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = unused.getLocalPort();
+        }
+        mailer = new SmtpMailer(properties(port, 50, null, null));
+
+        final var e = assertThrows(SmtpException.class,
+            () -> mailer.send(new MailMessage("a@example.com", null, "SPORTS", "Kick-off")));
+
+        assertEquals(0, e.getReplyCode());
+    }
+
+    private SmtpMailer mailer(int maxRecipients, String username, String password) {
+        return new SmtpMailer(properties(relay.port(), maxRecipients, username, password));
+    }
+
+    private static SmtpProperties properties(int port, int maxRecipients, String username, String password) {
+        return new SmtpProperties("localhost", port, SmtpProperties.Security.NONE, username, password,
+            "notifications@example.com", "test", 2, maxRecipients,
+            Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(60));
+    }
+
+    private static String body(String data) {
+        final String encoded = data.substring(data.indexOf("\r\n\r\n") + 4);
+        return new String(Base64.getMimeDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+}
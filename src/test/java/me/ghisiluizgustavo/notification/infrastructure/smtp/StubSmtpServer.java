@@ -0,0 +1,245 @@
+package me.ghisiluizgustavo.notification.infrastructure.smtp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An SMTP relay stand-in on the loopback interface, for tests and benchmarks. It accepts every
+ * message, keeps what it received, and counts connections and pipelined envelopes. Replies are
+ * held until the client has nothing more queued and then sent together after the configured
+ * latency, so each client round trip costs one latency, as it would over a network.
+ */
+public final class StubSmtpServer implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final List<Transaction> transactions = new CopyOnWriteArrayList<>();
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger pipelined = new AtomicInteger();
+    private volatile boolean pipelining = true;
+    private volatile boolean dropAfterTransaction;
+    private volatile boolean keepMessages = true;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile String credentials;
+
+    private StubSmtpServer() throws IOException {
+        server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    public static StubSmtpServer start() {
+        try {
+            return new StubSmtpServer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the stub SMTP relay", e);
+        }
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public StubSmtpServer withoutPipelining() {
+        this.pipelining = false;
+        return this;
+    }
+
+    public StubSmtpServer rejectRecipient(String address) {
+        rejected.add(address);
+        return this;
+    }
+
+    /**
+     * Closes each connection without a word after its first transaction, as a relay dropping
+     * idle connections would.
+     */
+    public StubSmtpServer dropAfterTransaction() {
+        this.dropAfterTransaction = true;
+        return this;
+    }
+
+    public StubSmtpServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public StubSmtpServer discardMessages() {
+        this.keepMessages = false;
+        return this;
+    }
+
+    public List<Transaction> transactions() {
+        return List.copyOf(transactions);
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * Transactions whose whole envelope, up to DATA, arrived before the first reply was sent.
+     */
+    public int pipelinedEnvelopes() {
+        return pipelined.get();
+    }
+
+    /**
+     * The last {@code AUTH PLAIN} credentials, as {@code user:password}.
+     */
+    public String credentials() {
+        return credentials;
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+        for (Socket socket : open) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                final Socket socket = server.accept();
+                connections.incrementAndGet();
+                open.add(socket);
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            final var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final var out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            reply(in, out, "220 stub ESMTP");
+
+            String from = null;
+            final List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                final String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(in, out, pipelining
+                        ? "250-stub\r\n250-PIPELINING\r\n250-8BITMIME\r\n250 AUTH PLAIN"
+                        : "250-stub\r\n250-8BITMIME\r\n250 AUTH PLAIN");
+                    case "AUTH" -> {
+                        final String[] parts = new String(Base64.getDecoder().decode(line.substring(11)),
+                            StandardCharsets.UTF_8).split("\0");
+                        credentials = parts[1] + ":" + parts[2];
+                        reply(in, out, "235 Authenticated");
+                    }
+                    case "MAIL" -> {
+                        if (in.ready()) {
+                            pipelined.incrementAndGet();
+                        }
+                        from = address(line);
+                        recipients.clear();
+                        reply(in, out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        final String recipient = address(line);
+                        if (from == null) {
+                            reply(in, out, "503 MAIL first");
+                        } else if (rejected.contains(recipient)) {
+                            reply(in, out, "550 No such user");
+                        } else {
+                            recipients.add(recipient);
+                            reply(in, out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        if (recipients.isEmpty()) {
+                            reply(in, out, "554 No valid recipients");
+                            continue;
+                        }
+                        reply(in, out, "354 End data with <CR><LF>.<CR><LF>");
+                        final var data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            if (keepMessages) {
+                                data.append(line.startsWith(".") ? line.substring(1) : line).append("\r\n");
+                            }
+                        }
+                        if (line == null) {
+                            return;
+                        }
+                        transactions.add(new Transaction(from, List.copyOf(recipients), data.toString()));
+                        from = null;
+                        recipients.clear();
+                        if (dropAfterTransaction) {
+                            out.write("250 Queued\r\n");
+                            out.flush();
+                            return;
+                        }
+                        reply(in, out, "250 Queued");
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(in, out, "250 OK");
+                    }
+                    case "NOOP" -> reply(in, out, "250 OK");
+                    case "QUIT" -> {
+                        reply(in, out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(in, out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ignored) {
+            // client went away
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private void reply(BufferedReader in, Writer out, String reply) throws IOException {
+        out.write(reply);
+        out.write("\r\n");
+        if (!in.ready()) {
+            if (!latency.isZero()) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private static String address(String line) {
+        return line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+    }
+
+    public record Transaction(String from, List<String> recipients, String data) {
+    }
+}